@@ -50,6 +50,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.sun.codemodel.writer.FileCodeWriter;
 import com.sun.codemodel.writer.ProgressCodeWriter;
@@ -145,7 +148,7 @@ public final class JCodeModel {
      *
      * @return Newly generated package
      */
-    public JPackage _package(String name) {
+    public synchronized JPackage _package(String name) {
         JPackage p = packages.get(name);
         if (p == null) {
             p = new JPackage(name, this);
@@ -363,6 +366,61 @@ public final class JCodeModel {
         resource.close();
     }
 
+    /**
+     * Generates Java source code, formatting classes concurrently.
+     * A convenience method for {@link #build(CodeWriter,CodeWriter,ExecutorService)}
+     * that uses a thread pool of the given size.
+     *
+     * @param   threads
+     *      number of threads used to format classes.
+     */
+    public void build( CodeWriter source, CodeWriter resource, int threads ) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            build(source,resource,executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates Java source code, formatting classes concurrently.
+     *
+     * <p>
+     * Each class is formatted into a buffer by the executor, while
+     * the calling thread writes the buffers to the {@link CodeWriter}s
+     * in the same order as {@link #build(CodeWriter,CodeWriter)} does.
+     * So the output is identical, and the {@link CodeWriter}s
+     * don't need to be thread-safe.
+     *
+     * <p>
+     * The code model must not be modified while this method runs.
+     */
+    public void build( CodeWriter source, CodeWriter resource, ExecutorService executor ) throws IOException {
+        JPackage[] pkgs = packages.values().toArray(new JPackage[packages.size()]);
+        // avoid concurrent modification exception
+        List<List<Future<String>>> formatted = new ArrayList<List<Future<String>>>(pkgs.length);
+        for( JPackage pkg : pkgs ) {
+            formatted.add(pkg.format(executor));
+        }
+        try {
+            for( int i=0; i<pkgs.length; i++ ) {
+                pkgs[i].build(source,resource,formatted.get(i));
+            }
+        } finally {
+            // don't leave work behind when we fail half way
+            for (List<Future<String>> l : formatted) {
+                for (Future<String> f : l)
+                    f.cancel(true);
+            }
+        }
+        if (module != null) {
+            module.build(source);
+        }
+        source.close();
+        resource.close();
+    }
+
     /**
      * Returns the number of files to be generated if
      * {@link #build} is invoked now.
@@ -385,7 +443,7 @@ public final class JCodeModel {
      *
      * @see #_ref(Class) for the version that handles more cases.
      */
-    public JClass ref(Class<?> clazz) {
+    public synchronized JClass ref(Class<?> clazz) {
         JReferencedClass jrc = (JReferencedClass)refClasses.get(clazz);
         if (jrc == null) {
             if (clazz.isPrimitive())
@@ -44,8 +44,10 @@ import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
@@ -58,6 +60,10 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 
 /**
@@ -441,15 +447,57 @@ public final class JPackage implements JDeclaration, JGenerable, JClassContainer
 
 
     void build( CodeWriter src, CodeWriter res ) throws IOException {
+        build(src,res,null);
+    }
+
+    /**
+     * Starts formatting the classes of this package on the given executor.
+     *
+     * @return
+     *      the formatted source code of each class that {@link #build(CodeWriter, CodeWriter, List)}
+     *      writes, in the same order.
+     */
+    /*package*/ List<Future<String>> format( ExecutorService executor ) {
+        List<Future<String>> r = new ArrayList<Future<String>>();
+        for (final JDefinedClass c : classes.values()) {
+            if (c.isHidden())
+                continue;   // don't generate this file
+
+            r.add(executor.submit(new Callable<String>() {
+                public String call() {
+                    StringWriter sw = new StringWriter();
+                    JFormatter f = new JFormatter(new PrintWriter(sw));
+                    f.write(c);
+                    f.close();
+                    return sw.toString();
+                }
+            }));
+        }
+        return r;
+    }
+
+    /**
+     * @param formatted
+     *      the result of {@link #format(ExecutorService)}, or null
+     *      to format the classes on the calling thread.
+     */
+    /*package*/ void build( CodeWriter src, CodeWriter res, List<Future<String>> formatted ) throws IOException {
 
         // write classes
+        Iterator<Future<String>> itr = formatted!=null ? formatted.iterator() : null;
         for (JDefinedClass c : classes.values()) {
             if (c.isHidden())
                 continue;   // don't generate this file
 
-            JFormatter f = createJavaSourceFileWriter(src, c.name());
-            f.write(c);
-            f.close();
+            if (itr==null) {
+                JFormatter f = createJavaSourceFileWriter(src, c.name());
+                f.write(c);
+                f.close();
+            } else {
+                Writer w = new BufferedWriter(src.openSource(this,c.name()+".java"));
+                w.write(getFormatted(itr.next()));
+                w.close();
+            }
         }
 
         // write package annotations
@@ -495,6 +543,23 @@ public final class JPackage implements JDeclaration, JGenerable, JClassContainer
         return r;
     }
 
+    private static String getFormatted(Future<String> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            InterruptedIOException x = new InterruptedIOException();
+            x.initCause(e);
+            throw x;
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            if (t instanceof RuntimeException)
+                throw (RuntimeException)t;
+            if (t instanceof Error)
+                throw (Error)t;
+            throw new IOException(t);
+        }
+    }
+
     private JFormatter createJavaSourceFileWriter(CodeWriter src, String className) throws IOException {
         Writer bw = new BufferedWriter(src.openSource(this,className+".java"));
         return new JFormatter(new PrintWriter(bw));
@@ -40,7 +40,13 @@
 
 package com.sun.codemodel.tests;
 
+import java.io.ByteArrayOutputStream;
+
 import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.writer.SingleStreamCodeWriter;
 import junit.framework.TestCase;
 
 /**
@@ -52,4 +58,29 @@ public class JCodeModelTest extends TestCase {
         cm.parseType("java.util.ArrayList<java.lang.String[]>[]");
     }
 
+    public void testParallelBuild() throws Exception {
+        JCodeModel cm = new JCodeModel();
+        for (int p = 0; p < 5; p++) {
+            JDefinedClass prev = null;
+            for (int c = 0; c < 20; c++) {
+                JDefinedClass dc = cm._class("p" + p + ".C" + c);
+                dc.field(JMod.PRIVATE, cm.ref(java.util.List.class).narrow(String.class), "list");
+                if (prev != null) {
+                    dc._extends(prev);
+                    dc.method(JMod.PUBLIC, prev, "prev").body()._return(JExpr._new(prev));
+                }
+                prev = dc;
+            }
+        }
+
+        ByteArrayOutputStream serial = new ByteArrayOutputStream();
+        cm.build(new SingleStreamCodeWriter(serial));
+
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        SingleStreamCodeWriter cw = new SingleStreamCodeWriter(parallel);
+        cm.build(cw, cw, 4);
+
+        assertEquals(serial.toString("UTF-8"), parallel.toString("UTF-8"));
+    }
+
 }
@@ -45,7 +45,7 @@ public final class AttributePattern extends Pattern {
   }
 
   Pattern expand(SchemaPatternBuilder b) {
-    Pattern ep = p.expand(b);
+    Pattern ep = b.expand(p);
     if (ep != p)
       return b.makeAttribute(nameClass, ep, loc);
     else
@@ -32,8 +32,8 @@ public class ChoicePattern extends BinaryPattern {
 	  p2);
   }
   Pattern expand(SchemaPatternBuilder b) {
-    Pattern ep1 = p1.expand(b);
-    Pattern ep2 = p2.expand(b);
+    Pattern ep1 = b.expand(p1);
+    Pattern ep2 = b.expand(p2);
     if (ep1 != p1 || ep2 != p2)
       return b.makeChoice(ep1, ep2);
     else
@@ -77,7 +77,7 @@ public final class ElementPattern extends Pattern {
   Pattern expand(SchemaPatternBuilder b) {
     if (!expanded) {
       expanded = true;
-      p = p.expand(b);
+      p = b.expand(p);
       if (p.isNotAllowed())
         nameClass = NameClass.NULL;
     }
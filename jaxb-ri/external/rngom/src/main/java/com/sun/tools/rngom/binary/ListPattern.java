@@ -40,7 +40,7 @@ public class ListPattern extends Pattern {
 
     @Override
   Pattern expand(SchemaPatternBuilder b) {
-    Pattern ep = p.expand(b);
+    Pattern ep = b.expand(p);
     if (ep != p)
       return b.makeList(ep, locator);
     else
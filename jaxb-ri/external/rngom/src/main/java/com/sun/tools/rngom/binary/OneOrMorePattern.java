@@ -37,7 +37,7 @@ public class OneOrMorePattern extends Pattern {
 
     @Override
   Pattern expand(SchemaPatternBuilder b) {
-    Pattern ep = p.expand(b);
+    Pattern ep = b.expand(p);
     if (ep != p)
       return b.makeOneOrMore(ep);
     else
@@ -21,6 +21,13 @@
  */
 package com.sun.tools.rngom.binary;
 
+/**
+ * Hash-conses {@link Pattern}s, so that structurally equal patterns
+ * are represented by the same instance.
+ *
+ * <p>
+ * {@link #intern(Pattern)} may be called from multiple threads.
+ */
 final class PatternInterner {
     private static final int INIT_SIZE = 256;
     private static final float LOAD_FACTOR = 0.3f;
@@ -35,15 +42,17 @@ final class PatternInterner {
     }
 
     PatternInterner(PatternInterner parent) {
-        table = parent.table;
-        if (table != null)
-            table = (Pattern[]) table.clone();
-        used = parent.used;
-        usedLimit = parent.usedLimit;
+        synchronized (parent) {
+            table = parent.table;
+            if (table != null)
+                table = (Pattern[]) table.clone();
+            used = parent.used;
+            usedLimit = parent.usedLimit;
+        }
     }
 
     @SuppressWarnings("empty-statement")
-    Pattern intern(Pattern p) {
+    synchronized Pattern intern(Pattern p) {
         int h;
 
         if (table == null) {
@@ -79,7 +88,10 @@ final class PatternInterner {
     }
 
     private int firstIndex(Pattern p) {
-        return p.patternHashCode() & (table.length - 1);
+        // pattern hash codes are products, so their low bits are mostly zeros.
+        // spread the high bits down before we mask them off.
+        int h = p.patternHashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (table.length - 1);
     }
 
     private int nextIndex(int i) {
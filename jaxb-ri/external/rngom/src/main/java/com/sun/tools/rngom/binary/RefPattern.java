@@ -81,7 +81,7 @@ public class RefPattern extends Pattern {
     @Override
   Pattern expand(SchemaPatternBuilder b) {
     if (!expanded) {
-      p = p.expand(b);
+      p = b.expand(p);
       expanded = true;
     }
     return p;
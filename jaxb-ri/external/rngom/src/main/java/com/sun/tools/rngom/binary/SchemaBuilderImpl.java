@@ -92,7 +92,7 @@ public class SchemaBuilderImpl implements SchemaBuilder, ElementAnnotationBuilde
         if (!hadError) {
             try {
                 pattern.checkRecursion(0);
-                pattern = pattern.expand(pb);
+                pattern = pb.expand(pattern);
                 pattern.checkRestrictions(Pattern.START_CONTEXT, null, null);
                 if (!hadError) {
                     return pattern;
@@ -21,6 +21,9 @@
  */
 package com.sun.tools.rngom.binary;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import com.sun.tools.rngom.nc.NameClass;
 import com.sun.tools.rngdatatype.Datatype;
 import org.xml.sax.Locator;
@@ -41,6 +44,13 @@ public class SchemaPatternBuilder extends PatternBuilder {
 
   private final TextPattern text = new TextPattern();
   private final PatternInterner schemaInterner = new PatternInterner();
+  /**
+   * Expanded form of the patterns expanded so far. Patterns are interned,
+   * so a shared sub-pattern is expanded only once, however many
+   * patterns contain it.
+   * Guarded by this builder, like {@link PatternInterner} is by itself.
+   */
+  private final Map<Pattern,Pattern> expansions = new IdentityHashMap<Pattern,Pattern>();
 
   public SchemaPatternBuilder() { }
 
@@ -78,6 +88,15 @@ public class SchemaPatternBuilder extends PatternBuilder {
     return schemaInterner.intern(p);
   }
 
+  synchronized Pattern expand(Pattern p) {
+    Pattern ep = expansions.get(p);
+    if (ep == null) {
+      ep = p.expand(this);
+      expansions.put(p, ep);
+    }
+    return ep;
+  }
+
   Pattern makeText() {
     return text;
   }
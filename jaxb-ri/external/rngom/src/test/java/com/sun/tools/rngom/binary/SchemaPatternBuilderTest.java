@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2004-2011
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.sun.tools.rngom.binary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.namespace.QName;
+
+import com.sun.tools.rngom.nc.SimpleNameClass;
+import junit.framework.TestCase;
+
+public class SchemaPatternBuilderTest extends TestCase {
+
+    private final SchemaPatternBuilder b = new SchemaPatternBuilder();
+
+    private Pattern element(String name) {
+        return b.makeElement(new SimpleNameClass(new QName(name)), b.makeText(), null);
+    }
+
+    public void testIntern() throws Exception {
+        final Pattern a = element("a");
+        final Pattern c = element("c");
+        assertSame(a, element("a"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Pattern>> results = new ArrayList<Future<Pattern>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<Pattern>() {
+                    public Pattern call() {
+                        Pattern p = b.makeEmpty();
+                        for (int j = 0; j < 100; j++) {
+                            p = b.makeChoice(b.makeGroup(p, a), b.makeInterleave(p, c));
+                        }
+                        return p;
+                    }
+                }));
+            }
+            Pattern first = results.get(0).get();
+            for (Future<Pattern> f : results) {
+                assertSame(first, f.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testExpandSharedPatternsOnce() {
+        // every level refers to the previous one twice,
+        // so expanding it without memoization takes 2^50 steps.
+        Pattern p = element("x");
+        for (int i = 0; i < 50; i++) {
+            p = b.makeChoice(b.makeGroup(p, element("a")), b.makeGroup(p, element("c")));
+        }
+        assertSame(p, b.expand(p));
+    }
+
+    public void testExpandFromThreads() throws Exception {
+        final Pattern a = element("a");
+        final Pattern c = element("c");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Pattern>> results = new ArrayList<Future<Pattern>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<Pattern>() {
+                    public Pattern call() {
+                        // the unexpanded notAllowed is dropped from every choice by expansion
+                        Pattern p = b.makeEmpty();
+                        for (int j = 0; j < 100; j++) {
+                            p = b.makeChoice(b.makeGroup(p, a), b.makeChoice(b.makeUnexpandedNotAllowed(), c));
+                            b.expand(p);
+                        }
+                        return b.expand(p);
+                    }
+                }));
+            }
+            Pattern first = results.get(0).get();
+            assertSame(first, b.expand(first));
+            for (Future<Pattern> f : results) {
+                assertSame(first, f.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -130,6 +130,35 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
     }
 
     public static long _parseLong(CharSequence s) {
+        // values of up to 18 digits can't overflow, so parse them right here
+        // instead of making a String for Long.parseLong
+        int len = s.length();
+        int start = 0;
+        while (start < len && WhiteSpaceProcessor.isWhiteSpace(s.charAt(start))) {
+            start++;
+        }
+        while (len > start && WhiteSpaceProcessor.isWhiteSpace(s.charAt(len - 1))) {
+            len--;
+        }
+        boolean negative = false;
+        if (start < len && (s.charAt(start) == '-' || s.charAt(start) == '+')) {
+            negative = s.charAt(start++) == '-';
+        }
+        if (start < len && len - start <= 18) {
+            long r = 0;
+            int i = start;
+            for (; i < len; i++) {
+                char ch = s.charAt(i);
+                if (ch < '0' || '9' < ch) {
+                    break;
+                }
+                r = r * 10 + (ch - '0');
+            }
+            if (i == len) {
+                return negative ? -r : r;
+            }
+        }
+
         return Long.parseLong(removeOptionalPlus(WhiteSpaceProcessor.trim(s)).toString());
     }
 
@@ -164,6 +193,17 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
     }
 
     public static float _parseFloat(CharSequence _val) {
+        long d = parseSimpleDecimal(_val);
+        if (d >= 0) {
+            long m = d >>> 6;
+            int scale = (int) (d >>> 1) & 31;
+            if (m < 1 << 24 && scale < FLOAT_POW10.length) {
+                // both operands are exact, so the division is correctly rounded
+                float v = m / FLOAT_POW10[scale];
+                return (d & 1) != 0 ? -v : v;
+            }
+        }
+
         String s = WhiteSpaceProcessor.trim(_val).toString();
         /* Incompatibilities of XML Schema's float "xfloat" and Java's float "jfloat"
         
@@ -214,6 +254,13 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
     }
 
     public static double _parseDouble(CharSequence _val) {
+        long d = parseSimpleDecimal(_val);
+        if (d >= 0) {
+            // both operands are exact, so the division is correctly rounded
+            double v = (d >>> 6) / DOUBLE_POW10[(int) (d >>> 1) & 31];
+            return (d & 1) != 0 ? -v : v;
+        }
+
         String val = WhiteSpaceProcessor.trim(_val).toString();
 
         if (val.equals("NaN")) {
@@ -733,6 +780,63 @@ public final class DatatypeConverterImpl implements DatatypeConverterInterface {
         throw new NumberFormatException();
     }
 
+    private static final float[] FLOAT_POW10 = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private static final double[] DOUBLE_POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    /**
+     * Parses a decimal number of at most 15 digits, with an optional sign
+     * and an optional period but no exponent, surrounded by optional whitespace.
+     * Such a number can be converted to double without creating a String.
+     *
+     * @return
+     *      -1 if the text is not of this form. Otherwise the digits as a number,
+     *      shifted left by 5 bits and or'ed with the number of fraction digits,
+     *      then shifted left by 1 bit and or'ed with 1 if the number is negative.
+     */
+    private static long parseSimpleDecimal(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        while (i < len && WhiteSpaceProcessor.isWhiteSpace(s.charAt(i))) {
+            i++;
+        }
+        while (len > i && WhiteSpaceProcessor.isWhiteSpace(s.charAt(len - 1))) {
+            len--;
+        }
+
+        long negative = 0;
+        if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i++) == '-' ? 1 : 0;
+        }
+
+        long m = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < len; i++) {
+            char ch = s.charAt(i);
+            if ('0' <= ch && ch <= '9') {
+                if (++digits > 15) {
+                    return -1;
+                }
+                m = m * 10 + (ch - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (ch == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0) {
+            return -1;
+        }
+
+        return (((m << 5) | Math.max(scale, 0)) << 1) | negative;
+    }
+
     private static boolean isDigitOrPeriodOrSign(char ch) {
         if ('0' <= ch && ch <= '9') {
             return true;
@@ -558,4 +558,46 @@ public abstract class JAXBRIContext extends JAXBContext {
      */
     public static final String BACKUP_WITH_PARENT_NAMESPACE = "com.sun.xml.bind.backupWithParentNamespace";
 
+    /**
+     * {@link Marshaller}/{@link javax.xml.bind.Unmarshaller} property to report
+     * required elements and attributes that have no value.
+     * The check only uses what the binding already knows, so it is
+     * much cheaper than setting a {@link javax.xml.validation.Schema},
+     * but it doesn't check anything else.
+     *
+     * Boolean
+     * @since 2.4.0
+     */
+    public static final String CHECK_REQUIRED = "com.sun.xml.bind.checkRequired";
+
+    /**
+     * {@link Marshaller}/{@link javax.xml.bind.Unmarshaller} property to write and read
+     * a compact binary infoset instead of XML, when marshalling to and
+     * unmarshalling from byte streams.
+     * Names are written as indices into this context, so the infoset can only be
+     * read by a {@link JAXBContext} created from the same classes.
+     *
+     * <p>
+     * When this property is set, a {@link Marshaller} can only marshal to an
+     * {@link java.io.OutputStream}, a {@link java.io.File} or a
+     * {@link javax.xml.transform.stream.StreamResult} of either, and other targets,
+     * such as a {@link java.io.Writer}, a DOM node, a SAX handler or a StAX writer,
+     * fail with a {@link javax.xml.bind.MarshalException}.
+     * An {@link javax.xml.bind.Unmarshaller} can only unmarshal from a byte stream or
+     * a system ID, and other sources fail with a {@link javax.xml.bind.UnmarshalException};
+     * {@link javax.xml.bind.Unmarshaller#getUnmarshallerHandler()} throws
+     * {@link IllegalStateException}.
+     *
+     * <p>
+     * The binary infoset has no formatting, character encoding, XML declaration
+     * or header, so {@link Marshaller#JAXB_FORMATTED_OUTPUT}, {@link Marshaller#JAXB_ENCODING},
+     * {@link Marshaller#JAXB_FRAGMENT}, {@link #CANONICALIZATION_SUPPORT}, and the
+     * indentation, character escaping and header properties of the marshaller
+     * are ignored while it is set.
+     *
+     * Boolean
+     * @since 2.4.0
+     */
+    public static final String BINARY_INFOSET = "com.sun.xml.bind.binaryInfoset";
+
 }
@@ -112,5 +112,11 @@ public class Messages
     
     public static final String ILLEGAL_READER_STATE = // 1 arg
         "Unmarshaller.IllegalReaderState";
+
+    public static final String NOT_A_BYTE_STREAM = // 0 args
+        "Unmarshaller.NotAByteStream";
+
+    public static final String MUST_BE_BOOLEAN = // 2 args
+        "Unmarshaller.MustBeBoolean";
     
 }
@@ -127,6 +127,10 @@ class RuntimeClassInfoImpl extends ClassInfoImpl<Type,Class,Field,Method>
                     }
                 }
             }
+            if (accFactory == null) {
+                // use the one generated by XJC, if the class is marked with it
+                accFactory = context.getGeneratedAccessorFactory(clazz);
+            }
         }
 
 
@@ -259,7 +263,7 @@ class RuntimeClassInfoImpl extends ClassInfoImpl<Type,Class,Field,Method>
        final boolean readOnly = Modifier.isStatic(field.getModifiers());
         Accessor acc;
         try {
-            if (supressAccessorWarnings) { 
+            if (supressAccessorWarnings && accessorFactory instanceof InternalAccessorFactory) {
                 acc = ((InternalAccessorFactory)accessorFactory).createFieldAccessor(clazz, field, readOnly, supressAccessorWarnings);
             } else {
                 acc = accessorFactory.createFieldAccessor(clazz, field, readOnly);
@@ -44,6 +44,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
@@ -82,6 +83,17 @@ final class RuntimeEnumLeafInfoImpl<T extends Enum<T>,B> extends EnumLeafInfoImp
     private final Map<B,T> parseMap = new HashMap<B,T>();
     private final Map<T,B> printMap;
 
+    /**
+     * If the base type is {@link String}, the lexical values of the constants,
+     * their hash codes and the constants, in the order they were added.
+     * This allows {@link #parse(CharSequence)} to find a constant
+     * without creating a {@link String}.
+     */
+    private String[] literals;
+    private int[] literalHashes;
+    private Object[] constants;
+    private int constantCount;
+
     RuntimeEnumLeafInfoImpl(RuntimeModelBuilder builder, Locatable upstream, Class<T> enumType) {
         super(builder,upstream,enumType,enumType);
         this.printMap = new EnumMap<T,B>(enumType);
@@ -118,6 +130,9 @@ final class RuntimeEnumLeafInfoImpl<T extends Enum<T>,B> extends EnumLeafInfoImp
         parseMap.put(b,t);
         printMap.put(t,b);
 
+        if(baseXducer==RuntimeBuiltinLeafInfoImpl.STRING && b!=null)
+            addLiteral((String)b,t);
+
         return new RuntimeEnumConstantImpl(this, name, literal, last);
     }
 
@@ -142,9 +157,29 @@ final class RuntimeEnumLeafInfoImpl<T extends Enum<T>,B> extends EnumLeafInfoImp
         return baseXducer.print(printMap.get(t));
     }
 
+    private void addLiteral(String literal, T t) {
+        if(literals==null) {
+            literals = new String[8];
+            literalHashes = new int[8];
+            constants = new Object[8];
+        } else
+        if(constantCount==literals.length) {
+            literals = Arrays.copyOf(literals,constantCount*2);
+            literalHashes = Arrays.copyOf(literalHashes,constantCount*2);
+            constants = Arrays.copyOf(constants,constantCount*2);
+        }
+        literals[constantCount] = literal;
+        literalHashes[constantCount] = literal.hashCode();
+        constants[constantCount] = t;
+        constantCount++;
+    }
+
     public T parse(CharSequence lexical) throws AccessorException, SAXException {
         // TODO: error handling
 
+        if(literals!=null)
+            return lookup(lexical);
+
         B b = baseXducer.parse(lexical);
 
         if (tokenStringType) {
@@ -154,6 +189,42 @@ final class RuntimeEnumLeafInfoImpl<T extends Enum<T>,B> extends EnumLeafInfoImp
         return parseMap.get(b);
     }
 
+    /**
+     * Finds the constant for the lexical value of a {@link String}-based enum,
+     * with the same result as {@code parseMap.get(lexical.toString())}.
+     */
+    private T lookup(CharSequence lexical) {
+        int start = 0;
+        int end = lexical.length();
+        if(tokenStringType) {
+            // same as String.trim()
+            while(start<end && lexical.charAt(start)<=' ')
+                start++;
+            while(end>start && lexical.charAt(end-1)<=' ')
+                end--;
+        }
+
+        // String.hashCode() is specified, so we can compute it on the CharSequence
+        int h = 0;
+        for( int i=start; i<end; i++ )
+            h = 31*h+lexical.charAt(i);
+
+        // search backward, because a later constant with the same value wins in parseMap
+        OUTER:
+        for( int i=constantCount-1; i>=0; i-- ) {
+            if(literalHashes[i]!=h)
+                continue;
+            String literal = literals[i];
+            if(literal.length()!=end-start)
+                continue;
+            for( int j=0; j<literal.length(); j++ )
+                if(literal.charAt(j)!=lexical.charAt(start+j))
+                    continue OUTER;
+            return (T)constants[i];
+        }
+        return null;
+    }
+
     public void writeText(XMLSerializer w, T t, String fieldName) throws IOException, SAXException, XMLStreamException, AccessorException {
         baseXducer.writeText(w,printMap.get(t),fieldName);
     }
@@ -39,18 +39,27 @@
  */
 
 package com.sun.xml.bind.v2.runtime;
-
-import java.util.HashSet;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Bi-directional map between elements, inner peers,
  * and outer peers.
- * 
+ *
+ * <p>
+ * To keep the footprint small for large documents, no object is
+ * allocated per association in the common case. An element maps
+ * directly to its inner peer, and a pair is only created for the elements
+ * that have an outer peer. Each peer maps directly to its element.
+ *
  * <p>
- * TODO: this should be rewritten for efficiency.
+ * Peers can optionally be held weakly (see {@link #setWeakPeers(boolean)}),
+ * so that associations go away along with the beans that are no longer used.
  * 
  * @since 2.0
  * 
@@ -58,99 +67,214 @@ import java.util.Set;
  *     Kohsuke Kawaguchi (kohsuke.kawaguchi@sun.com)
  */
 public final class AssociationMap<XmlNode> {
-    final static class Entry<XmlNode> {
-        /** XML element. */
-    	private XmlNode element;
-        /** inner peer, or null. */
-        private Object inner;
-        /** outer peer, or null. */
-        private Object outer;
-        
-        public XmlNode element() {
-        	return element;
-        }
-        public Object inner() {
-        	return inner;
-        }
-        public Object outer() {
-        	return outer;
+    /**
+     * Peers of an element that has an outer peer.
+     * Each field is either a peer, a {@link PeerRef}, or null.
+     */
+    private static final class Peers {
+        private final Object inner;
+        private final Object outer;
+
+        Peers(Object inner, Object outer) {
+            this.inner = inner;
+            this.outer = outer;
         }
     }
-    
-    private final Map<XmlNode,Entry<XmlNode>> byElement = new IdentityHashMap<XmlNode,Entry<XmlNode>>();
-    private final Map<Object,Entry<XmlNode>> byPeer = new IdentityHashMap<Object,Entry<XmlNode>>();
-    private final Set<XmlNode> usedNodes = new HashSet<XmlNode>();
 
-    /** Records the new {@code element <->inner} peer association. */
-    public void addInner( XmlNode element, Object inner ) {
-        Entry<XmlNode> e = byElement.get(element);
-        if(e!=null) {
-        	if(e.inner!=null)
-                byPeer.remove(e.inner);
-            e.inner = inner;
-        } else {
-        	e = new Entry<XmlNode>();
-            e.element = element;
-            e.inner = inner;
+    /**
+     * Weak reference to a peer. Two references to the same peer are equal,
+     * so that they can be used as keys of {@link #byPeer}.
+     */
+    private static final class PeerRef extends WeakReference<Object> {
+        private final int hash;
+
+        PeerRef(Object peer, ReferenceQueue<Object> queue) {
+            super(peer,queue);
+            hash = System.identityHashCode(peer);
         }
-        
-        byElement.put(element,e);
-        
-        Entry<XmlNode> old = byPeer.put(inner,e);
-        if(old!=null) {
-            if(old.outer!=null)
-                byPeer.remove(old.outer);
-            if(old.element!=null)
-                byElement.remove(old.element);
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
-    }
-    
-    /** Records the new {@code element <-> outer} peer association. */
-    public void addOuter( XmlNode element, Object outer ) {
-        Entry<XmlNode> e = byElement.get(element);
-        if(e!=null) {
-            if(e.outer!=null)
-                byPeer.remove(e.outer);
-            e.outer = outer;
-        } else {
-            e = new Entry<XmlNode>();
-            e.element = element;
-            e.outer = outer;
+
+        @Override
+        public boolean equals(Object o) {
+            if(this==o)
+                return true;
+            if(!(o instanceof PeerRef))
+                return false;
+            Object peer = get();
+            return peer!=null && peer==((PeerRef)o).get();
         }
-        
-        byElement.put(element,e);
-        
-        Entry<XmlNode> old = byPeer.put(outer,e);
-        if(old!=null) {
-            old.outer=null;
-            
-            if(old.inner==null)
-                // remove this entry
-                byElement.remove(old.element);
+    }
+
+    /**
+     * Element to its inner peer, or to {@link Peers} if it also has an outer peer.
+     * A peer may be wrapped in a {@link PeerRef}.
+     */
+    private final Map<XmlNode,Object> byElement = new IdentityHashMap<XmlNode,Object>();
+
+    /**
+     * Peer to its element. Keys are {@link PeerRef}s when the peers are weak,
+     * in which case this is a {@link HashMap}.
+     */
+    private Map<Object,XmlNode> byPeer = new IdentityHashMap<Object,XmlNode>();
+
+    /**
+     * Non-null if the peers are held weakly.
+     */
+    private ReferenceQueue<Object> queue;
+
+    /**
+     * Sets whether the peers are held weakly.
+     *
+     * <p>
+     * When they are, an association is removed once its peer is
+     * garbage collected, and so is the reference to its element.
+     */
+    public void setWeakPeers(boolean weak) {
+        if(weak==(queue!=null))
+            return;
+
+        List<Map.Entry<XmlNode,Object>> entries = new ArrayList<Map.Entry<XmlNode,Object>>(byElement.entrySet());
+        List<Object[]> associations = new ArrayList<Object[]>(entries.size());
+        for (Map.Entry<XmlNode,Object> e : entries)
+            associations.add(new Object[]{e.getKey(),innerOf(e.getValue()),outerOf(e.getValue())});
+
+        byElement.clear();
+        queue = weak ? new ReferenceQueue<Object>() : null;
+        byPeer = weak ? new HashMap<Object,XmlNode>() : new IdentityHashMap<Object,XmlNode>();
+
+        for (Object[] a : associations) {
+            XmlNode element = (XmlNode)a[0];
+            if(a[1]!=null)  addInner(element,a[1]);
+            if(a[2]!=null)  addOuter(element,a[2]);
         }
     }
 
-    public void addUsed( XmlNode n ) {
-        usedNodes.add(n);
+    public boolean isWeakPeers() {
+        return queue!=null;
     }
 
-    public Entry<XmlNode> byElement( Object e ) {
-        return byElement.get(e);
+    public void addInner( XmlNode element, Object inner ) {
+        add(element,inner,true);
     }
-    
-    public Entry<XmlNode> byPeer( Object o ) {
-        return byPeer.get(o);
+
+    public void addOuter( XmlNode element, Object outer ) {
+        add(element,outer,false);
     }
-    
+
+    private void add( XmlNode element, Object peer, boolean isInner ) {
+        expunge();
+
+        Object v = byElement.get(element);
+        Object inner = isInner ? wrap(peer) : rawInnerOf(v);
+        Object outer = isInner ? rawOuterOf(v) : wrap(peer);
+
+        // the peer that this one replaces
+        Object replaced = isInner ? rawInnerOf(v) : rawOuterOf(v);
+        if(replaced!=null)
+            byPeer.remove(replaced);
+
+        // the peer may have been associated with another element
+        XmlNode old = byPeer.remove(key(peer));
+        if(old!=null && old!=element) {
+            Object ov = byElement.get(old);
+            if(isInner) {
+                // the old element loses both of its peers
+                if(rawOuterOf(ov)!=null)
+                    byPeer.remove(rawOuterOf(ov));
+                byElement.remove(old);
+            } else {
+                setPeers(old,rawInnerOf(ov),null);
+            }
+        }
+
+        setPeers(element,inner,outer);
+        byPeer.put(isInner ? inner : outer,element);
+    }
+
+    /**
+     * Gets the element associated with the given peer.
+     *
+     * @return
+     *      null if none.
+     */
+    public XmlNode getElement( Object peer ) {
+        expunge();
+        return byPeer.get(key(peer));
+    }
+
     public Object getInnerPeer( XmlNode element ) {
-        Entry e = byElement(element);
-        if(e==null)     return null;
-        else            return e.inner;
+        expunge();
+        return innerOf(byElement.get(element));
     }
     
     public Object getOuterPeer( XmlNode element ) {
-        Entry e = byElement(element);
-        if(e==null)     return null;
-        else            return e.outer;
+        expunge();
+        return outerOf(byElement.get(element));
+    }
+
+    /**
+     * Stores the peers of an element in the most compact form.
+     */
+    private void setPeers( XmlNode element, Object inner, Object outer ) {
+        if(outer!=null)
+            byElement.put(element,new Peers(inner,outer));
+        else
+        if(inner!=null)
+            byElement.put(element,inner);
+        else
+            byElement.remove(element);
+    }
+
+    /**
+     * Removes the associations whose peers have been garbage collected.
+     */
+    private void expunge() {
+        if(queue==null)
+            return;
+        Object ref;
+        while((ref=queue.poll())!=null) {
+            XmlNode element = byPeer.remove(ref);
+            if(element==null)
+                continue;
+            Object v = byElement.get(element);
+            Object inner = rawInnerOf(v);
+            Object outer = rawOuterOf(v);
+            setPeers(element, inner==ref ? null : inner, outer==ref ? null : outer);
+        }
+    }
+
+    private Object wrap(Object peer) {
+        return queue!=null ? new PeerRef(peer,queue) : peer;
+    }
+
+    /**
+     * Gets the key of {@link #byPeer} to look up the given peer.
+     */
+    private Object key(Object peer) {
+        return queue!=null ? new PeerRef(peer,null) : peer;
+    }
+
+    private static Object rawInnerOf(Object v) {
+        return v instanceof Peers ? ((Peers)v).inner : v;
+    }
+
+    private static Object rawOuterOf(Object v) {
+        return v instanceof Peers ? ((Peers)v).outer : null;
+    }
+
+    private static Object innerOf(Object v) {
+        return deref(rawInnerOf(v));
+    }
+
+    private static Object outerOf(Object v) {
+        return deref(rawOuterOf(v));
+    }
+
+    private static Object deref(Object peer) {
+        return peer instanceof PeerRef ? ((PeerRef)peer).get() : peer;
     }
 }
@@ -48,7 +48,11 @@ import javax.xml.bind.ValidationEventHandler;
 import javax.xml.validation.Schema;
 import javax.xml.namespace.QName;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.sun.xml.bind.unmarshaller.InfosetScanner;
+import com.sun.xml.bind.v2.WellKnownNamespace;
 import com.sun.xml.bind.v2.runtime.output.DOMOutput;
 import com.sun.xml.bind.v2.runtime.unmarshaller.InterningXmlVisitor;
 import com.sun.xml.bind.v2.runtime.unmarshaller.SAXConnector;
@@ -70,6 +74,30 @@ import org.xml.sax.SAXException;
  */
 public class BinderImpl<XmlNode> extends Binder<XmlNode> {
 
+    /**
+     * Property that turns on the change tracking. The value is a {@link Boolean}.
+     *
+     * <p>
+     * When it's on, {@link #updateXML(Object, Object)} only re-marshals
+     * the beans whose properties have changed since they were last
+     * unmarshalled, marshalled or updated through this binder, and leaves
+     * the XML of the others alone. Note that the beans left alone don't
+     * receive marshal event callbacks.
+     */
+    public static final String TRACK_CHANGES = "com.sun.xml.bind.trackChanges";
+
+    /**
+     * Property that makes the binder hold the JAXB objects weakly.
+     * The value is a {@link Boolean}.
+     *
+     * <p>
+     * When it's on, the association between a node and a JAXB object is
+     * forgotten once the JAXB object is garbage collected, along with the
+     * reference to the node. {@link #getJAXBNode(Object)} then returns null.
+     * Note that {@link #TRACK_CHANGES} keeps the objects it tracks reachable.
+     */
+    public static final String WEAK_PEERS = "com.sun.xml.bind.weakPeers";
+
     /**
      * The parent context object.
      */
@@ -94,6 +122,11 @@ public class BinderImpl<XmlNode> extends Binder<XmlNode> {
      * association map.
      */
     private final AssociationMap<XmlNode> assoc = new AssociationMap<XmlNode>();
+
+    /**
+     * Non-null if {@link #TRACK_CHANGES} is on.
+     */
+    private ChangeTracker tracker;
     
     BinderImpl(JAXBContextImpl _context,InfosetScanner<XmlNode> scanner) {
         this.context = _context;
@@ -116,6 +149,8 @@ public class BinderImpl<XmlNode> extends Binder<XmlNode> {
         if ((xmlNode == null) || (jaxbObject == null))
             throw new IllegalArgumentException();
         getMarshaller().marshal(jaxbObject,createOutput(xmlNode));
+        if(tracker!=null)
+            tracker.snapshot(jaxbObject);
     }
 
     // TODO move this to a sub class once we support something other than W3C DOM
@@ -163,24 +198,24 @@ public class BinderImpl<XmlNode> extends Binder<XmlNode> {
             throw unmarshaller.createUnmarshalException(e);
         }
         
-        return handler.getContext().getResult();
+        Object result = handler.getContext().getResult();
+        if(tracker!=null)
+            tracker.snapshot(result);
+        return result;
     }
 
     public XmlNode getXMLNode(Object jaxbObject) {
         if(jaxbObject==null)
             throw new IllegalArgumentException();
-        AssociationMap.Entry<XmlNode> e = assoc.byPeer(jaxbObject);
-        if(e==null)     return null;
-        return e.element();
+        return assoc.getElement(jaxbObject);
     }
 
     public Object getJAXBNode(XmlNode xmlNode) {
         if(xmlNode==null)
             throw new IllegalArgumentException();
-        AssociationMap.Entry e = assoc.byElement(xmlNode);
-        if(e==null)     return null;
-        if(e.outer()!=null)     return e.outer();
-        return e.inner();
+        Object outer = assoc.getOuterPeer(xmlNode);
+        if(outer!=null)     return outer;
+        return assoc.getInnerPeer(xmlNode);
     }
 
     public XmlNode updateXML(Object jaxbObject) throws JAXBException {
@@ -190,6 +225,55 @@ public class BinderImpl<XmlNode> extends Binder<XmlNode> {
     public XmlNode updateXML(Object jaxbObject, XmlNode xmlNode) throws JAXBException {
         if(jaxbObject==null || xmlNode==null)   throw new IllegalArgumentException();
 
+        if(tracker!=null) {
+            if(getXMLNode(jaxbObject)==xmlNode && updateChanged(jaxbObject,xmlNode))
+                return xmlNode;
+            XmlNode r = remarshal(jaxbObject,xmlNode);
+            tracker.snapshot(jaxbObject);
+            return r;
+        }
+        return remarshal(jaxbObject,xmlNode);
+    }
+
+    /**
+     * Updates the XML of the beans in the given object that have changed,
+     * provided that the object itself hasn't.
+     *
+     * @return
+     *      false if the object has changed, or has to be re-marshalled
+     *      along with its descendants for some other reason.
+     */
+    private boolean updateChanged(Object jaxbObject, XmlNode xmlNode) throws JAXBException {
+        List<Object> children = tracker.unchangedChildren(jaxbObject);
+        if(children==null)
+            return false;
+
+        if(jaxbObject instanceof JAXBElement) {
+            // the value shares the element with the JAXBElement
+            return children.isEmpty() || updateChanged(children.get(0),xmlNode);
+        }
+
+        List<XmlNode> nodes = new ArrayList<XmlNode>(children.size());
+        for (Object child : children) {
+            XmlNode n = getXMLNode(child);
+            if(n==null)
+                return false;
+            Element e = (Element)n;
+            // re-marshalling it alone would lose these
+            if(e.hasAttributeNS(WellKnownNamespace.XML_SCHEMA_INSTANCE,"type")
+            || e.hasAttributeNS(WellKnownNamespace.XML_SCHEMA_INSTANCE,"nil"))
+                return false;
+            nodes.add(n);
+        }
+        for( int i=0; i<nodes.size(); i++ )
+            updateXML(children.get(i),nodes.get(i));
+        return true;
+    }
+
+    /**
+     * Replaces the given node by the result of marshalling the object.
+     */
+    private XmlNode remarshal(Object jaxbObject, XmlNode xmlNode) throws JAXBException {
         // TODO
         // for now just marshal
         // TODO: object model independenc
@@ -226,6 +310,11 @@ public class BinderImpl<XmlNode> extends Binder<XmlNode> {
         if (name == null)
             throw new IllegalArgumentException(Messages.NULL_PROPERTY_NAME.format());
 
+        if (name.equals(TRACK_CHANGES))
+            return tracker!=null;
+        if (name.equals(WEAK_PEERS))
+            return assoc.isWeakPeers();
+
         // exclude RI properties that don't make sense for Binder
         if (excludeProperty(name)) {
             throw new PropertyException(name);
@@ -261,6 +350,23 @@ public class BinderImpl<XmlNode> extends Binder<XmlNode> {
             throw new PropertyException(name, value);
         }
 
+        if (name.equals(TRACK_CHANGES)) {
+            if (!(value instanceof Boolean))
+                throw new PropertyException(name, value);
+            if (!(Boolean)value)
+                tracker = null;
+            else if (tracker==null)
+                tracker = new ChangeTracker(context);
+            return;
+        }
+
+        if (name.equals(WEAK_PEERS)) {
+            if (!(value instanceof Boolean))
+                throw new PropertyException(name, value);
+            assoc.setWeakPeers((Boolean)value);
+            return;
+        }
+
         PropertyException pe = null;
 
         try {
@@ -0,0 +1,358 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+
+import com.sun.xml.bind.api.AccessorException;
+import com.sun.xml.bind.v2.model.core.ID;
+import com.sun.xml.bind.v2.runtime.property.Property;
+
+import org.w3c.dom.Node;
+
+/**
+ * Remembers the state of beans as of the last time they were in sync
+ * with the XML, so that {@link BinderImpl#updateXML(Object, Object)}
+ * can tell which of them have changed since.
+ *
+ * <p>
+ * A snapshot of a bean is the values of its properties. Beans and
+ * {@link JAXBElement}s in them are compared by identity, as they have
+ * snapshots of their own. Collections, maps and arrays are copied all the
+ * way down, and so are dates and DOM nodes. Other values that aren't known
+ * to be immutable can't be copied, so a bean that has them always counts
+ * as changed.
+ *
+ * <p>
+ * Beans are held weakly, so a snapshot goes away with its bean.
+ *
+ * @see BinderImpl#TRACK_CHANGES
+ */
+final class ChangeTracker {
+
+    private final JAXBContextImpl context;
+
+    /**
+     * Snapshots by {@link Key}s of their beans.
+     */
+    private final Map<Key,Object[]> snapshots = new HashMap<Key,Object[]>();
+
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    /**
+     * Weak reference to a bean. Two references to the same bean are equal.
+     */
+    private static final class Key extends WeakReference<Object> {
+        private final int hash;
+
+        Key(Object bean, ReferenceQueue<Object> queue) {
+            super(bean,queue);
+            hash = System.identityHashCode(bean);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this==o)
+                return true;
+            if(!(o instanceof Key))
+                return false;
+            Object bean = get();
+            return bean!=null && bean==((Key)o).get();
+        }
+    }
+
+    /**
+     * Stands for a value that can't be copied. It's never the same as another value.
+     */
+    private static final Object OPAQUE = new Object();
+
+    ChangeTracker(JAXBContextImpl context) {
+        this.context = context;
+    }
+
+    /**
+     * Takes snapshots of the given object and everything it contains.
+     */
+    void snapshot(Object o) {
+        expunge();
+        snapshot(o,Collections.newSetFromMap(new IdentityHashMap<Object,Boolean>()));
+    }
+
+    private void snapshot(Object o, Set<Object> visited) {
+        if(o==null || !visited.add(o))
+            return;
+        Object[] s = capture(o);
+        if(s==null) {
+            snapshots.remove(new Key(o,null));
+            return;
+        }
+        snapshots.put(new Key(o,queue),s);
+        for (Object child : children(o,s))
+            snapshot(child,visited);
+    }
+
+    /**
+     * Returns the objects directly contained in the given object, whose snapshot
+     * matches its current state, or null if it has changed or has no snapshot.
+     */
+    List<Object> unchangedChildren(Object o) {
+        expunge();
+        Object[] old = snapshots.get(new Key(o,null));
+        if(old==null)
+            return null;
+        Object[] now = capture(o);
+        if(now==null || now.length!=old.length)
+            return null;
+        for( int i=0; i<now.length; i++ )
+            if(!same(old[i],now[i]))
+                return null;
+        return children(o,now);
+    }
+
+    /**
+     * Gets the number of beans that have snapshots.
+     */
+    int size() {
+        expunge();
+        return snapshots.size();
+    }
+
+    /**
+     * Removes the snapshots of the beans that have been garbage collected.
+     */
+    private void expunge() {
+        Object ref;
+        while((ref=queue.poll())!=null)
+            snapshots.remove(ref);
+    }
+
+    /**
+     * Captures the current state of a bean or a {@link JAXBElement}.
+     *
+     * @return
+     *      null if the object can't be tracked.
+     */
+    private Object[] capture(Object o) {
+        if(o instanceof JAXBElement) {
+            JAXBElement e = (JAXBElement)o;
+            return new Object[]{freeze(e.getValue()),e.isNil()};
+        }
+
+        JaxBeanInfo bi = context.getBeanInfo(o);
+        if(!(bi instanceof ClassBeanInfoImpl))
+            return null;
+
+        List<Object> r = new ArrayList<Object>();
+        try {
+            for( ClassBeanInfoImpl c=(ClassBeanInfoImpl)bi; c!=null; c=c.superClazz ) {
+                for( Property p : c.properties )
+                    r.add(freeze(p.getInfo().getAccessor().get(o)));
+            }
+            r.add(freeze(((ClassBeanInfoImpl)bi).getOtherAttributes(o)));
+        } catch (AccessorException e) {
+            return null;
+        }
+        return r.toArray();
+    }
+
+    /**
+     * Lists beans and {@link JAXBElement}s contained in the given object.
+     * IDREFs are references, not containment, so they are excluded.
+     */
+    private List<Object> children(Object o, Object[] snapshot) {
+        List<Object> r = new ArrayList<Object>();
+        if(o instanceof JAXBElement) {
+            addChild(snapshot[0],r);
+            return r;
+        }
+
+        int i=0;
+        for( ClassBeanInfoImpl c=(ClassBeanInfoImpl)context.getBeanInfo(o); c!=null; c=c.superClazz ) {
+            for( Property p : c.properties ) {
+                Object v = snapshot[i++];
+                if(p.getInfo().id()!=ID.IDREF)
+                    addChild(v,r);
+            }
+        }
+        return r;
+    }
+
+    private void addChild(Object v, List<Object> r) {
+        if(v instanceof Collection) {
+            for (Object item : (Collection<?>)v)
+                addChild(item,r);
+        } else
+        if(v instanceof Object[]) {
+            for (Object item : (Object[])v)
+                addChild(item,r);
+        } else
+        if(v instanceof Map) {
+            for (Object item : ((Map<?,?>)v).values())
+                addChild(item,r);
+        } else
+        if(isBean(v))
+            r.add(v);
+    }
+
+    private boolean isBean(Object v) {
+        return v instanceof JAXBElement || (v!=null && context.getBeanInfo(v) instanceof ClassBeanInfoImpl);
+    }
+
+    /**
+     * Copies the mutable parts of a property value.
+     */
+    private Object freeze(Object v) {
+        if(v instanceof Collection) {
+            List<Object> r = new ArrayList<Object>(((Collection<?>)v).size());
+            for (Object item : (Collection<?>)v)
+                r.add(freeze(item));
+            return r;
+        }
+        if(v instanceof Map) {
+            Map<Object,Object> r = new LinkedHashMap<Object,Object>();
+            for (Map.Entry<?,?> e : ((Map<?,?>)v).entrySet())
+                r.put(e.getKey(),freeze(e.getValue()));
+            return r;
+        }
+        if(v!=null && v.getClass().isArray()) {
+            int len = Array.getLength(v);
+            Object r = Array.newInstance(v.getClass().getComponentType(),len);
+            if(v.getClass().getComponentType().isPrimitive())
+                System.arraycopy(v,0,r,0,len);
+            else
+                for( int i=0; i<len; i++ )
+                    Array.set(r,i,freeze(Array.get(v,i)));
+            return r;
+        }
+        if(v==null || isImmutable(v) || isBean(v))
+            return v;
+        if(v instanceof Node)
+            return ((Node)v).cloneNode(true);
+        if(v instanceof XMLGregorianCalendar)
+            return ((XMLGregorianCalendar)v).clone();
+        if(v instanceof Calendar)
+            return ((Calendar)v).clone();
+        if(v instanceof Date)
+            return ((Date)v).clone();
+        return OPAQUE;
+    }
+
+    private static boolean isImmutable(Object v) {
+        return v instanceof String || v instanceof Boolean || v instanceof Character
+            || v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte
+            || v instanceof Float || v instanceof Double || v instanceof BigInteger || v instanceof BigDecimal
+            || v instanceof Enum || v instanceof QName || v instanceof URI || v instanceof UUID
+            || v instanceof Duration || v instanceof Class;
+    }
+
+    /**
+     * Compares a frozen value with another.
+     */
+    private boolean same(Object a, Object b) {
+        if(a==OPAQUE || b==OPAQUE)
+            return false;
+        if(a==b)
+            return true;
+        if(a==null || b==null)
+            return false;
+        if(a instanceof List && b instanceof List) {
+            List<?> x = (List<?>)a;
+            List<?> y = (List<?>)b;
+            if(x.size()!=y.size())
+                return false;
+            for( int i=0; i<x.size(); i++ )
+                if(!same(x.get(i),y.get(i)))
+                    return false;
+            return true;
+        }
+        if(a instanceof Map && b instanceof Map) {
+            Map<?,?> x = (Map<?,?>)a;
+            Map<?,?> y = (Map<?,?>)b;
+            if(x.size()!=y.size())
+                return false;
+            for (Map.Entry<?,?> e : x.entrySet())
+                if(!y.containsKey(e.getKey()) || !same(e.getValue(),y.get(e.getKey())))
+                    return false;
+            return true;
+        }
+        if(a.getClass().isArray() && b.getClass().isArray()) {
+            int len = Array.getLength(a);
+            if(len!=Array.getLength(b))
+                return false;
+            for( int i=0; i<len; i++ )
+                if(!same(Array.get(a,i),Array.get(b,i)))
+                    return false;
+            return true;
+        }
+        if(a instanceof Node && b instanceof Node)
+            return ((Node)a).isEqualNode((Node)b);
+        if(isBean(a))
+            return false;   // a different bean, even if it's equal
+        return a.equals(b);
+    }
+}
@@ -326,6 +326,35 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
         return null;
     }
 
+    /**
+     * Gets the name of a required element or attribute declared by this class,
+     * but not by its base classes, that the given bean has no value for.
+     *
+     * @return
+     *      null if there's none.
+     * @see com.sun.xml.bind.api.JAXBRIContext#CHECK_REQUIRED
+     */
+    public String findMissing(BeanT bean) throws AccessorException {
+        for (Property<BeanT> p : properties) {
+            if (p.isMissing(bean)) {
+                return p.getFieldName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the attributes that the attribute wildcard of this class holds.
+     *
+     * @return
+     *      null if the class has no attribute wildcard.
+     */
+    Map<QName,String> getOtherAttributes(BeanT bean) throws AccessorException {
+        if(inheritedAttWildcard==null)
+            return null;
+        return inheritedAttWildcard.get(bean);
+    }
+
     public void serializeRoot(BeanT bean, XMLSerializer target) throws SAXException, IOException, XMLStreamException {
         if(tagName==null) {
             Class beanClass = bean.getClass();
@@ -351,6 +380,12 @@ public final class ClassBeanInfoImpl<BeanT> extends JaxBeanInfo<BeanT> implement
             superClazz.serializeBody(bean, target);
         }
         try {
+            if (target.getCheckRequired()) {
+                String missing = findMissing(bean);
+                if (missing != null) {
+                    target.reportMissingObjectError(missing);
+                }
+            }
             for (Property<BeanT> p : properties) {
                 if (retainPropertyInfo) {
                     target.currentProperty.set(p);
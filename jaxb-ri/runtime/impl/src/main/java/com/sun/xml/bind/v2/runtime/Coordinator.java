@@ -79,15 +79,35 @@ import org.xml.sax.SAXParseException;
  */
 public abstract class Coordinator implements ErrorHandler, ValidationEventHandler {
     
-    private final HashMap<Class<? extends XmlAdapter>,XmlAdapter> adapters =
-            new HashMap<Class<? extends XmlAdapter>,XmlAdapter>();
+    /**
+     * Adapter instances, indexed by their slots in {@link #context}.
+     */
+    private final XmlAdapter[] adapters;
+
+    /**
+     * Adapters set by the user that {@link #context} doesn't use. Created lazily.
+     */
+    private HashMap<Class<? extends XmlAdapter>,XmlAdapter> otherAdapters;
 
+    private final JAXBContextImpl context;
+
+    protected Coordinator(JAXBContextImpl context) {
+        this.context = context;
+        this.adapters = new XmlAdapter[context.getAdapterSlotCount()];
+    }
 
     public final XmlAdapter putAdapter(Class<? extends XmlAdapter> c, XmlAdapter a) {
+        int slot = context.getAdapterSlot(c);
+        if(slot>=0) {
+            XmlAdapter old = adapters[slot];
+            adapters[slot] = a;
+            return old;
+        }
         if(a==null)
-            return adapters.remove(c);
-        else
-            return adapters.put(c,a);
+            return otherAdapters==null ? null : otherAdapters.remove(c);
+        if(otherAdapters==null)
+            otherAdapters = new HashMap<Class<? extends XmlAdapter>,XmlAdapter>();
+        return otherAdapters.put(c,a);
     }
 
     /**
@@ -97,7 +117,10 @@ public abstract class Coordinator implements ErrorHandler, ValidationEventHandle
      *      always non-null.
      */
     public final <T extends XmlAdapter> T getAdapter(Class<T> key) {
-        T v = key.cast(adapters.get(key));
+        int slot = context.getAdapterSlot(key);
+        if(slot>=0)
+            return getAdapter(slot,key);
+        T v = key.cast(otherAdapters==null ? null : otherAdapters.get(key));
         if(v==null) {
             v = ClassFactory.create(key);
             putAdapter(key,v);
@@ -105,8 +128,77 @@ public abstract class Coordinator implements ErrorHandler, ValidationEventHandle
         return v;
     }
 
+    /**
+     * Gets the instance of the adapter that an {@link AdapterSlot} stands for.
+     *
+     * @return
+     *      always non-null.
+     */
+    public final <T extends XmlAdapter> T getAdapter(AdapterSlot<T> s) {
+        int slot = s.get(context);
+        if(slot<0)
+            return getAdapter(s.type);
+        return getAdapter(slot,s.type);
+    }
+
+    private <T extends XmlAdapter> T getAdapter(int slot, Class<T> key) {
+        XmlAdapter v = adapters[slot];
+        if(v==null)
+            adapters[slot] = v = ClassFactory.create(key);
+        return key.cast(v);
+    }
+
     public <T extends XmlAdapter> boolean containsAdapter(Class<T> type) {
-        return adapters.containsKey(type);
+        int slot = context.getAdapterSlot(type);
+        if(slot>=0)
+            return adapters[slot]!=null;
+        return otherAdapters!=null && otherAdapters.containsKey(type);
+    }
+
+    /**
+     * Remembers the slot of an adapter class in {@link JAXBContextImpl},
+     * so that an accessor that uses the adapter looks it up only once.
+     *
+     * <p>
+     * An accessor belongs to the one context that built it,
+     * but the slot is checked against the context anyway.
+     */
+    public static final class AdapterSlot<T extends XmlAdapter> {
+        private final Class<T> type;
+
+        /**
+         * The context and the slot in it, or null if not looked up yet.
+         */
+        private volatile Resolved resolved;
+
+        private static final class Resolved {
+            private final JAXBContextImpl context;
+            private final int slot;
+
+            Resolved(JAXBContextImpl context, int slot) {
+                this.context = context;
+                this.slot = slot;
+            }
+        }
+
+        private AdapterSlot(Class<T> type) {
+            this.type = type;
+        }
+
+        public static <T extends XmlAdapter> AdapterSlot<T> of(Class<T> type) {
+            return new AdapterSlot<T>(type);
+        }
+
+        public Class<T> getType() {
+            return type;
+        }
+
+        private int get(JAXBContextImpl context) {
+            Resolved r = resolved;
+            if(r==null || r.context!=context)
+                resolved = r = new Resolved(context,context.getAdapterSlot(type));
+            return r.slot;
+        }
     }
 
     // this much is necessary to avoid calling get and set twice when we push.
@@ -0,0 +1,269 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.IOException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.istack.FinalArrayList;
+import com.sun.istack.SAXException2;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * Walks a DOM tree and sends the equivalent events to
+ * {@link XMLSerializer}, without going through an identity transformer.
+ *
+ * <p>
+ * Namespace bindings are reported the same way {@link ContentHandlerAdaptor}
+ * would receive them from the JAXP identity transformer; that is, bindings
+ * declared by xmlns attributes plus any binding that an element or attribute
+ * uses but is not in scope yet.
+ *
+ * @see ContentHandlerAdaptor
+ */
+final class DomAdaptor {
+
+    /** Events will be sent to this object. */
+    private final XMLSerializer serializer;
+
+    /**
+     * Bindings in scope, as prefix-URI pairs.
+     */
+    private final FinalArrayList<String> inScope = new FinalArrayList<String>();
+
+    /** Stores newly declared prefix-URI mapping of the current element. */
+    private final FinalArrayList<String> prefixMap = new FinalArrayList<String>();
+
+    private final StringBuilder text = new StringBuilder();
+
+    DomAdaptor( XMLSerializer _serializer ) {
+        this.serializer = _serializer;
+    }
+
+    /**
+     * Returns true if this adaptor can handle the given node.
+     */
+    static boolean accepts(Node node) {
+        if(node==null)  return false;
+        switch(node.getNodeType()) {
+        case Node.ELEMENT_NODE:
+        case Node.DOCUMENT_NODE:
+        case Node.DOCUMENT_FRAGMENT_NODE:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    void write(Node node) throws SAXException {
+        inScope.clear();
+        text.setLength(0);
+        try {
+            visit(node);
+            flushText();
+        } catch (IOException e) {
+            throw new SAXException2(e);
+        } catch (XMLStreamException e) {
+            throw new SAXException2(e);
+        }
+    }
+
+    private void visit(Node n) throws SAXException, IOException, XMLStreamException {
+        switch(n.getNodeType()) {
+        case Node.ELEMENT_NODE:
+            visit((Element)n);
+            break;
+        case Node.TEXT_NODE:
+        case Node.CDATA_SECTION_NODE:
+            text.append(n.getNodeValue());
+            break;
+        case Node.DOCUMENT_NODE:
+        case Node.DOCUMENT_FRAGMENT_NODE:
+            for( Node c=n.getFirstChild(); c!=null; c=c.getNextSibling() )
+                visit(c);
+            break;
+        default:
+            // comments, processing instructions and entity references
+            // are dropped, just like ContentHandlerAdaptor does.
+            break;
+        }
+    }
+
+    private void visit(Element e) throws SAXException, IOException, XMLStreamException {
+        flushText();
+
+        final int scopeSize = inScope.size();
+        final NamedNodeMap atts = e.getAttributes();
+        final int len = atts.getLength();
+
+        // bindings declared on this element
+        for( int i=0; i<len; i++ ) {
+            Attr a = (Attr)atts.item(i);
+            String name = a.getName();
+            if(!name.startsWith("xmlns"))
+                continue;
+            if(name.length()==5)
+                declare("",a.getValue());
+            else if(name.charAt(5)==':')
+                declare(name.substring(6),a.getValue());
+        }
+
+        String uri = e.getNamespaceURI();
+        if(uri==null)   uri="";
+        String local = e.getLocalName();
+        String qname = e.getTagName();
+        if(local==null) local = qname;
+        String p = getPrefix(qname);
+
+        if(uri.length()>0) {
+            if(!uri.equals(lookup(p)))
+                declare(p,uri);
+        } else {
+            String defaultNs = lookup("");
+            if(defaultNs!=null && defaultNs.length()>0) {
+                // the serializer undeclares the default namespace by itself
+                inScope.add("");
+                inScope.add("");
+            }
+        }
+
+        // bindings needed by attributes
+        for( int i=0; i<len; i++ ) {
+            Attr a = (Attr)atts.item(i);
+            String auri = a.getNamespaceURI();
+            if(auri==null || auri.length()==0 || a.getName().startsWith("xmlns"))
+                continue;
+            String ap = getPrefix(a.getName());
+            if(!auri.equals(lookup(ap)))
+                declare(ap,auri);
+        }
+
+        // is this prefix going to be declared on this element?
+        if(containsPrefixMapping(p,uri))
+            serializer.startElementForce(uri,local,p,null);
+        else
+            serializer.startElement(uri,local,p,null);
+
+        // forcibly set these bindings, instead of using declareNsUri.
+        // this guarantees that namespaces used in DOM will show up
+        // as-is in the marshalled output.
+        for( int i=0; i<prefixMap.size(); i+=2 )
+            serializer.getNamespaceContext().force(prefixMap.get(i+1), prefixMap.get(i));
+
+        // make sure namespaces needed by attributes are bound
+        for( int i=0; i<len; i++ ) {
+            Attr a = (Attr)atts.item(i);
+            String auri = a.getNamespaceURI();
+            if(auri==null || auri.length()==0 || a.getName().startsWith("xmlns"))
+                continue;
+            serializer.getNamespaceContext().declareNamespace(auri, getPrefix(a.getName()), true);
+        }
+
+        serializer.endNamespaceDecls(null);
+        for( int i=0; i<len; i++ ) {
+            Attr a = (Attr)atts.item(i);
+            String name = a.getName();
+            if(name.startsWith("xmlns"))
+                continue;
+            String auri = a.getNamespaceURI();
+            String alocal = a.getLocalName();
+            if(alocal==null)    alocal = name;
+            serializer.attribute(auri==null ? "" : auri, alocal, a.getValue());
+        }
+        prefixMap.clear();
+        serializer.endAttributes();
+
+        for( Node c=e.getFirstChild(); c!=null; c=c.getNextSibling() )
+            visit(c);
+
+        flushText();
+        serializer.endElement();
+
+        // pop the bindings of this element
+        while(inScope.size()>scopeSize)
+            inScope.remove(inScope.size()-1);
+    }
+
+    private void declare(String prefix, String uri) {
+        prefixMap.add(prefix);
+        prefixMap.add(uri);
+        inScope.add(prefix);
+        inScope.add(uri);
+    }
+
+    private String lookup(String prefix) {
+        if(prefix.equals(XMLConstants.XML_NS_PREFIX))
+            return XMLConstants.XML_NS_URI;
+        for( int i=inScope.size()-2; i>=0; i-=2 ) {
+            if(inScope.get(i).equals(prefix))
+                return inScope.get(i+1);
+        }
+        return null;
+    }
+
+    private boolean containsPrefixMapping(String prefix, String uri) {
+        for( int i=0; i<prefixMap.size(); i+=2 ) {
+            if(prefixMap.get(i).equals(prefix)
+            && prefixMap.get(i+1).equals(uri))
+                return true;
+        }
+        return false;
+    }
+
+    private static String getPrefix(String qname) {
+        int idx = qname.indexOf(':');
+        return (idx == -1) ? "" : qname.substring(0, idx);
+    }
+
+    private void flushText() throws SAXException, IOException, XMLStreamException {
+        if( text.length()!=0 ) {
+            serializer.text(text.toString(),null);
+            text.setLength(0);
+        }
+    }
+}
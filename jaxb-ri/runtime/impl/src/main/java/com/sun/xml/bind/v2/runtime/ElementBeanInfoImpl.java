@@ -175,6 +175,10 @@ public final class ElementBeanInfoImpl extends JaxBeanInfo<JAXBElement> {
                 return null;
             }
 
+            public boolean isMissing(JAXBElement o) {
+                return false;
+            }
+
             public PropertyKind getKind() {
                 return PropertyKind.ELEMENT;
             }
@@ -41,6 +41,7 @@
 package com.sun.xml.bind.v2.runtime;
 
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -57,6 +58,16 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.xml.bind.Binder;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -71,6 +82,7 @@ import javax.xml.bind.annotation.XmlList;
 import javax.xml.bind.annotation.XmlNs;
 import javax.xml.bind.annotation.XmlSchema;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -85,6 +97,10 @@ import javax.xml.transform.sax.TransformerHandler;
 
 import com.sun.istack.NotNull;
 import com.sun.istack.Pool;
+import com.sun.xml.bind.AccessorFactory;
+import com.sun.xml.bind.AccessorFactoryImpl;
+import com.sun.xml.bind.Util;
+import com.sun.xml.bind.XmlAccessorFactory;
 import com.sun.xml.bind.v2.WellKnownNamespace;
 import com.sun.xml.bind.api.AccessorException;
 import com.sun.xml.bind.api.Bridge;
@@ -110,6 +126,7 @@ import com.sun.xml.bind.v2.model.runtime.RuntimeClassInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeElementInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeEnumLeafInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeLeafInfo;
+import com.sun.xml.bind.v2.model.runtime.RuntimePropertyInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfo;
 import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfoSet;
 import com.sun.xml.bind.v2.runtime.output.Encoded;
@@ -138,16 +155,24 @@ import org.xml.sax.SAXParseException;
  */
 public final class JAXBContextImpl extends JAXBRIContext {
 
+    private static final Logger logger = Util.getClassLogger();
+
     /**
      * All the bridge classes.
      */
     private final Map<TypeReference,Bridge> bridges = new LinkedHashMap<TypeReference,Bridge>();
 
     /**
-     * Shared instance of {@link DocumentBuilder}.
-     * Lock before use. Lazily created.
+     * JAXP factories shared by the marshallers and unmarshallers of this context.
+     * Lazily created.
+     *
+     * <p>
+     * They are not thread-safe, so they are locked while creating objects,
+     * which is quick compared to looking up the JAXP implementation every time.
+     * The objects they create are then kept by the callers.
      */
-    private static DocumentBuilder db;
+    private DocumentBuilderFactory documentBuilderFactory;
+    private SAXTransformerFactory transformerFactory;
 
     private final QNameMap<JaxBeanInfo> rootMap = new QNameMap<JaxBeanInfo>();
     private final HashMap<QName,JaxBeanInfo> typeMap = new HashMap<QName,JaxBeanInfo>();
@@ -157,6 +182,12 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     private final Map<Class,JaxBeanInfo> beanInfoMap = new LinkedHashMap<Class,JaxBeanInfo>();
 
+    /**
+     * Slots of the {@link XmlAdapter} classes that this context uses, assigned when it's built.
+     * {@link Coordinator}s keep the adapter instances in arrays indexed by these.
+     */
+    private final Map<Class,Integer> adapterSlots = new HashMap<Class,Integer>();
+
     /**
      * All created {@link JaxBeanInfo}s.
      * Updated from each {@link JaxBeanInfo}s constructors to avoid infinite recursion
@@ -239,8 +270,31 @@ public final class JAXBContextImpl extends JAXBRIContext {
      */
     public final boolean disableSecurityProcessing;
 
+    /**
+     * Simple name of the {@link AccessorFactory} that XJC's {@code -Xfast-binding}
+     * plugin generates into each package of bean classes.
+     */
+    public static final String GENERATED_ACCESSOR_FACTORY = "JAXBAccessorFactory";
+
+    /**
+     * {@link AccessorFactory}s generated at compile time, keyed by their classes.
+     * A factory that couldn't be instantiated is recorded as {@link AccessorFactoryImpl},
+     * so that we try (and complain) only once.
+     *
+     * @see #getGeneratedAccessorFactory(Class)
+     */
+    private final ConcurrentMap<Class,AccessorFactory> generatedAccessorFactories = new ConcurrentHashMap<Class,AccessorFactory>();
+
     private WeakReference<RuntimeTypeInfoSet> typeInfoSetCache;
 
+    /**
+     * Schema generator, kept with the documents it has rendered.
+     * Since this context never changes, neither do they.
+     *
+     * @see #getSchemaGenerator()
+     */
+    private SoftReference<XmlSchemaGenerator<Type,Class,Field,Method>> schemaGeneratorCache;
+
     private @NotNull RuntimeAnnotationReader annotationReader;
 
     private /*almost final*/ boolean hasSwaRef;
@@ -408,12 +462,20 @@ public final class JAXBContextImpl extends JAXBRIContext {
             else
                 bridge = new BridgeImpl(this, name,new ValueListBeanInfoImpl(this,erasedType),tr);
 
-            if(a!=null)
+            if(a!=null) {
                 bridge = new BridgeAdapter(bridge,a.adapterType);
+                addAdapterSlot(a);
+            }
 
             bridges.put(tr,bridge);
         }
 
+        for (RuntimeClassInfo ci : typeSet.beans().values())
+            for (RuntimePropertyInfo p : ci.getProperties())
+                addAdapterSlot(p.getAdapter());
+        for (RuntimeElementInfo n : typeSet.getAllElements())
+            addAdapterSlot(n.getProperty().getAdapter());
+
         this.nameList = nameBuilder.conclude();
 
         for (JaxBeanInfo bi : beanInfos.values())
@@ -424,6 +486,30 @@ public final class JAXBContextImpl extends JAXBRIContext {
         beanInfos = null;        
     }
 
+    private void addAdapterSlot(Adapter<Type,Class> a) {
+        if(a!=null && !adapterSlots.containsKey(a.adapterType))
+            adapterSlots.put(a.adapterType,adapterSlots.size());
+    }
+
+    /**
+     * Gets the slot of the given adapter class in this context.
+     *
+     * @return
+     *      -1 if this context doesn't use the adapter.
+     * @see Coordinator
+     */
+    public int getAdapterSlot(Class<? extends XmlAdapter> type) {
+        Integer slot = adapterSlots.get(type);
+        return slot==null ? -1 : slot;
+    }
+
+    /**
+     * Gets the number of the adapter classes that this context uses.
+     */
+    public int getAdapterSlotCount() {
+        return adapterSlots.size();
+    }
+
     /**
      * True if this JAXBContext has {@link XmlAttachmentRef}.
      */
@@ -477,6 +563,52 @@ public final class JAXBContextImpl extends JAXBRIContext {
     }
 
 
+    /**
+     * Finds the {@link AccessorFactory} that XJC generated for the given bean class.
+     *
+     * <p>
+     * Such a factory accesses the fields of the beans directly, without going through
+     * {@link Field} reflection. XJC's {@code -Xfast-binding} plugin marks each bean it generated
+     * the accessors for with {@link XmlAccessorFactory} pointing to the
+     * {@value #GENERATED_ACCESSOR_FACTORY} of the same package. That marker is honored
+     * even without {@link #xmlAccessorFactorySupport}, while other classes of the package
+     * (say, hand-written ones) keep using reflection.
+     *
+     * @return
+     *      null if the class isn't marked with a generated factory.
+     *      {@link AccessorFactoryImpl} if the generated factory can't be instantiated.
+     */
+    public AccessorFactory getGeneratedAccessorFactory(Class clazz) {
+        XmlAccessorFactory marker = annotationReader.getClassAnnotation(XmlAccessorFactory.class, clazz, null);
+        if(marker==null)
+            return null;
+
+        Class<? extends AccessorFactory> fc = marker.value();
+        String name = clazz.getName();
+        int idx = name.lastIndexOf('.');
+        if(!fc.getName().equals(name.substring(0,idx+1)+GENERATED_ACCESSOR_FACTORY))
+            return null;    // some other factory, only used with xmlAccessorFactorySupport
+
+        AccessorFactory factory = generatedAccessorFactories.get(fc);
+        if(factory!=null)
+            return factory;
+
+        try {
+            factory = fc.newInstance();
+        } catch (InstantiationException e) {
+            logger.log(Level.WARNING, Messages.GENERATED_ACCESSOR_FACTORY_FAILED.format(fc.getName()), e);
+        } catch (IllegalAccessException e) {
+            logger.log(Level.WARNING, Messages.GENERATED_ACCESSOR_FACTORY_FAILED.format(fc.getName()), e);
+        } catch (LinkageError e) {
+            logger.log(Level.WARNING, Messages.GENERATED_ACCESSOR_FACTORY_FAILED.format(fc.getName()), e);
+        }
+        if(factory==null)
+            factory = AccessorFactoryImpl.getInstance();   // recover by using reflection
+
+        AccessorFactory existing = generatedAccessorFactories.putIfAbsent(fc,factory);
+        return existing!=null ? existing : factory;
+    }
+
     public ElementBeanInfoImpl getElement(Class scope, QName name) {
         Map<QName,ElementBeanInfoImpl> m = elements.get(scope);
         if(m!=null) {
@@ -718,45 +850,59 @@ public final class JAXBContextImpl extends JAXBRIContext {
         return nameList.numberOfAttributeNames;
     }
     
+    private synchronized SAXTransformerFactory getTransformerFactory() {
+        if(transformerFactory==null)
+            transformerFactory = (SAXTransformerFactory)XmlFactory.createTransformerFactory(disableSecurityProcessing);
+        return transformerFactory;
+    }
+
+    private synchronized DocumentBuilderFactory getDocumentBuilderFactory() {
+        if(documentBuilderFactory==null)
+            documentBuilderFactory = XmlFactory.createDocumentBuilderFactory(disableSecurityProcessing);
+        return documentBuilderFactory;
+    }
+
     /**
      * Creates a new identity transformer.
      */
-    static Transformer createTransformer(boolean disableSecureProcessing) {
+    public Transformer newTransformer() {
+        SAXTransformerFactory tf = getTransformerFactory();
         try {
-            SAXTransformerFactory tf = (SAXTransformerFactory)XmlFactory.createTransformerFactory(disableSecureProcessing);
-            return tf.newTransformer();
+            synchronized(tf) {
+                return tf.newTransformer();
+            }
         } catch (TransformerConfigurationException e) {
             throw new Error(e); // impossible
         }
     }
 
     /**
-     * Creates a new identity transformer.
+     * Creates a new identity transformer handler.
      */
-    public static TransformerHandler createTransformerHandler(boolean disableSecureProcessing) {
+    public TransformerHandler newTransformerHandler() {
+        SAXTransformerFactory tf = getTransformerFactory();
         try {
-            SAXTransformerFactory tf = (SAXTransformerFactory)XmlFactory.createTransformerFactory(disableSecureProcessing);
-            return tf.newTransformerHandler();
+            synchronized(tf) {
+                return tf.newTransformerHandler();
+            }
         } catch (TransformerConfigurationException e) {
             throw new Error(e); // impossible
         }
     }
 
     /**
-     * Creates a new DOM document.
+     * Creates a new {@link DocumentBuilder}.
+     * Not thread-safe, so each marshaller or unmarshaller keeps its own.
      */
-    static Document createDom(boolean disableSecurityProcessing) {
-        synchronized(JAXBContextImpl.class) {
-            if(db==null) {
-                try {
-                    DocumentBuilderFactory dbf = XmlFactory.createDocumentBuilderFactory(disableSecurityProcessing);
-                    db = dbf.newDocumentBuilder();
-                } catch (ParserConfigurationException e) {
-                    // impossible
-                    throw new FactoryConfigurationError(e);
-                }
+    public DocumentBuilder newDocumentBuilder() {
+        DocumentBuilderFactory dbf = getDocumentBuilderFactory();
+        try {
+            synchronized(dbf) {
+                return dbf.newDocumentBuilder();
             }
-            return db.newDocument();
+        } catch (ParserConfigurationException e) {
+            // impossible
+            throw new FactoryConfigurationError(e);
         }
     }
 
@@ -805,7 +951,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
     public void generateEpisode(Result output) {
         if(output==null)
             throw new IllegalArgumentException();
-        createSchemaGenerator().writeEpisodeFile(ResultFactory.createSerializer(output));
+        getSchemaGenerator().writeEpisodeFile(ResultFactory.createSerializer(output));
     }
 
     @Override
@@ -817,7 +963,7 @@ public final class JAXBContextImpl extends JAXBRIContext {
         final SAXParseException[] e = new SAXParseException[1];
         final SAXParseException[] w = new SAXParseException[1];
 
-        createSchemaGenerator().write(outputResolver, new ErrorListener() {
+        getSchemaGenerator().write(outputResolver, new ErrorListener() {
             public void error(SAXParseException exception) {
                 e[0] = exception;
             }
@@ -829,9 +975,9 @@ public final class JAXBContextImpl extends JAXBRIContext {
             public void warning(SAXParseException exception) {
                 w[0] = exception;
             }
-            
+
             public void info(SAXParseException exception) {}
-        });
+        }, SchemaExecutor.get());
 
         if (e[0]!=null) {
             IOException x = new IOException(Messages.FAILED_TO_GENERATE_SCHEMA.format());
@@ -845,6 +991,60 @@ public final class JAXBContextImpl extends JAXBRIContext {
         }
     }
 
+    /**
+     * Renders schema documents for {@link #generateSchema(SchemaOutputResolver)}.
+     *
+     * <p>
+     * One bounded pool is shared by all the contexts. Its threads are daemons
+     * and go away when they have been idle for a while.
+     */
+    private static final class SchemaExecutor {
+        private static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            int threads = Math.min(Runtime.getRuntime().availableProcessors(),4);
+            if(threads<2)
+                return null;
+            final AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r,"jaxb-schemagen-"+count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        /**
+         * @return
+         *      null if there's only one processor.
+         */
+        static ExecutorService get() {
+            return INSTANCE;
+        }
+    }
+
+    /**
+     * Gets the schema generator, creating one if it's not cached.
+     *
+     * <p>
+     * The generator reuses the documents it rendered before, so
+     * generating the schema again only costs writing them out.
+     */
+    /*package*/ synchronized XmlSchemaGenerator<Type,Class,Field,Method> getSchemaGenerator() {
+        if(schemaGeneratorCache!=null) {
+            XmlSchemaGenerator<Type,Class,Field,Method> xsdgen = schemaGeneratorCache.get();
+            if(xsdgen!=null)
+                return xsdgen;
+        }
+        XmlSchemaGenerator<Type,Class,Field,Method> xsdgen = createSchemaGenerator();
+        schemaGeneratorCache = new SoftReference<XmlSchemaGenerator<Type,Class,Field,Method>>(xsdgen);
+        return xsdgen;
+    }
+
     private XmlSchemaGenerator<Type,Class,Field,Method> createSchemaGenerator() {
         RuntimeTypeInfoSet tis;
         try {
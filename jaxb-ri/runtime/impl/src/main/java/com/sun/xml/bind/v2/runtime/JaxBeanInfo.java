@@ -41,15 +41,11 @@
 package com.sun.xml.bind.v2.runtime;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.Marshaller;
@@ -59,7 +55,6 @@ import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamException;
 
 import com.sun.istack.NotNull;
-import com.sun.xml.bind.Util;
 import com.sun.xml.bind.v2.model.runtime.RuntimeTypeInfo;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Loader;
 import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallerImpl;
@@ -429,112 +424,19 @@ public abstract class JaxBeanInfo<BeanT> {
     public void wrapUp() {}
 
 
-    private static final Class[] unmarshalEventParams = { Unmarshaller.class, Object.class };
-    private static Class[] marshalEventParams = { Marshaller.class };
-
-    private Method[] getDeclaredMethods(final Class<BeanT> c) {
-        return AccessController.doPrivileged(new PrivilegedAction<Method[]>() {
-            @Override
-            public Method[] run() {
-                return c.getDeclaredMethods();
-            }
-        });
-    }
-
     /**
-     * use reflection to determine which of the 4 object lifecycle methods exist on
-     * the JAXB bound type.
+     * Looks for the 4 object lifecycle methods on the JAXB bound type.
      */
     protected final void setLifecycleFlags() {
-        try {
-            Class<BeanT> jt = jaxbType;
-
-            if (lcm == null) {
-                lcm = new LifecycleMethods();
-            }
-
-            while (jt != null) {
-                for (Method m : getDeclaredMethods(jt)) {
-                    String name = m.getName();
-
-                    if (lcm.beforeUnmarshal == null) {
-                        if (name.equals("beforeUnmarshal")) {
-                            if (match(m, unmarshalEventParams)) {
-                                cacheLifecycleMethod(m, FLAG_HAS_BEFORE_UNMARSHAL_METHOD);
-                            }
-                        }
-                    }
-
-                    if (lcm.afterUnmarshal == null) {
-                        if (name.equals("afterUnmarshal")) {
-                            if (match(m, unmarshalEventParams)) {
-                                cacheLifecycleMethod(m, FLAG_HAS_AFTER_UNMARSHAL_METHOD);
-                            }
-                        }
-                    }
-
-                    if (lcm.beforeMarshal == null) {
-                        if (name.equals("beforeMarshal")) {
-                            if (match(m, marshalEventParams)) {
-                                cacheLifecycleMethod(m, FLAG_HAS_BEFORE_MARSHAL_METHOD);
-                            }
-                        }
-                    }
-
-                    if (lcm.afterMarshal == null) {
-                        if (name.equals("afterMarshal")) {
-                            if (match(m, marshalEventParams)) {
-                                cacheLifecycleMethod(m, FLAG_HAS_AFTER_MARSHAL_METHOD);
-                            }
-                        }
-                    }
-                }
-                jt = (Class<BeanT>) jt.getSuperclass();
-            }
-        } catch (SecurityException e) {
-            // this happens when we don't have enough permission.
-            logger.log(Level.WARNING, Messages.UNABLE_TO_DISCOVER_EVENTHANDLER.format(
-                    jaxbType.getName(), e), e);
-        }
-    }
-
-    private boolean match(Method m, Class[] params) {
-        return Arrays.equals(m.getParameterTypes(),params);
-    }
-
-    /**
-     * Cache a reference to the specified lifecycle method for the jaxbType
-     * associated with this beanInfo.
-     *
-     * @param m Method reference
-     * @param lifecycleFlag byte representing which of the 4 lifecycle methods
-     *        is being cached
-     */
-    private void cacheLifecycleMethod(Method m, short lifecycleFlag) {
-        //LifecycleMethods lcm = getLifecycleMethods();
-        if(lcm==null) {
-            lcm = new LifecycleMethods();
-            //lcmCache.put(jaxbType, lcm);
-        }
-
-        m.setAccessible(true);
-
-        flag |= lifecycleFlag;
-
-        switch (lifecycleFlag) {
-        case FLAG_HAS_BEFORE_UNMARSHAL_METHOD:
-            lcm.beforeUnmarshal = m;
-            break;
-        case FLAG_HAS_AFTER_UNMARSHAL_METHOD:
-            lcm.afterUnmarshal = m;
-            break;
-        case FLAG_HAS_BEFORE_MARSHAL_METHOD:
-            lcm.beforeMarshal = m;
-            break;
-        case FLAG_HAS_AFTER_MARSHAL_METHOD:
-            lcm.afterMarshal = m;
-            break;
-        }
+        lcm = LifecycleMethods.get(jaxbType);
+        if (lcm.beforeUnmarshal != null)
+            flag |= FLAG_HAS_BEFORE_UNMARSHAL_METHOD;
+        if (lcm.afterUnmarshal != null)
+            flag |= FLAG_HAS_AFTER_UNMARSHAL_METHOD;
+        if (lcm.beforeMarshal != null)
+            flag |= FLAG_HAS_BEFORE_MARSHAL_METHOD;
+        if (lcm.afterMarshal != null)
+            flag |= FLAG_HAS_AFTER_MARSHAL_METHOD;
     }
 
     /**
@@ -550,27 +452,45 @@ public abstract class JaxBeanInfo<BeanT> {
      * Invokes the beforeUnmarshal method if applicable.
      */
     public final void invokeBeforeUnmarshalMethod(UnmarshallerImpl unm, Object child, Object parent) throws SAXException {
-        Method m = getLifecycleMethods().beforeUnmarshal;
-        invokeUnmarshallCallback(m, child, unm, parent);
+        invokeUnmarshallCallback(lcm.beforeUnmarshal, child, unm, parent);
     }
 
     /**
      * Invokes the afterUnmarshal method if applicable.
      */
     public final void invokeAfterUnmarshalMethod(UnmarshallerImpl unm, Object child, Object parent) throws SAXException {
-        Method m = getLifecycleMethods().afterUnmarshal;
-        invokeUnmarshallCallback(m, child, unm, parent);
+        invokeUnmarshallCallback(lcm.afterUnmarshal, child, unm, parent);
     }
 
-    private void invokeUnmarshallCallback(Method m, Object child, UnmarshallerImpl unm, Object parent) throws SAXException {
+    private void invokeUnmarshallCallback(MethodHandle m, Object child, UnmarshallerImpl unm, Object parent) throws SAXException {
         try {
-            m.invoke(child,unm,parent);
-        } catch (IllegalAccessException e) {
-            UnmarshallingContext.getInstance().handleError(e, false);
-        } catch (InvocationTargetException e) {
-            UnmarshallingContext.getInstance().handleError(e, false);
+            m.invokeExact(child,(Unmarshaller)unm,parent);
+        } catch (Throwable e) {
+            // report it the same way as a reflective invocation would
+            UnmarshallingContext.getInstance().handleError(new InvocationTargetException(e), false);
         }
     }
 
-    private static final Logger logger = Util.getClassLogger();
+    /**
+     * Invokes the beforeMarshal method if applicable.
+     */
+    public final void invokeBeforeMarshalMethod(MarshallerImpl m, Object target) {
+        invokeMarshalCallback(lcm.beforeMarshal, m, target);
+    }
+
+    /**
+     * Invokes the afterMarshal method if applicable.
+     */
+    public final void invokeAfterMarshalMethod(MarshallerImpl m, Object target) {
+        invokeMarshalCallback(lcm.afterMarshal, m, target);
+    }
+
+    private void invokeMarshalCallback(MethodHandle h, MarshallerImpl m, Object target) {
+        try {
+            h.invokeExact(target,(Marshaller)m);
+        } catch (Throwable e) {
+            // this really only happens if there is a bug in the ri
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -40,23 +40,128 @@
 
 package com.sun.xml.bind.v2.runtime;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import com.sun.xml.bind.Util;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Loader;
 import com.sun.xml.bind.v2.runtime.unmarshaller.UnmarshallingContext;
 
 /**
  * This class is a simple container for caching lifecycle methods that are
  * discovered during construction of (@link JAXBContext}.
- * 
+ *
+ * <p>
+ * The methods are bound to {@link MethodHandle}s of a fixed type once,
+ * and then shared by all the {@link JAXBContext}s that use the same class.
+ *
  * @see JaxBeanInfo#lcm
  * @see Loader#fireBeforeUnmarshal(JaxBeanInfo, Object, UnmarshallingContext.State)
  * @see Loader#fireAfterUnmarshal(JaxBeanInfo, Object, UnmarshallingContext.State) 
- * @see XMLSerializer#fireMarshalEvent(Object, Method)
+ * @see JaxBeanInfo#invokeBeforeMarshalMethod(MarshallerImpl, Object)
  */
 final class LifecycleMethods {
-    Method beforeUnmarshal;
-    Method afterUnmarshal;
-    Method beforeMarshal;
-    Method afterMarshal;
+    /**
+     * {@code (Object bean, Unmarshaller u, Object parent)void}
+     */
+    MethodHandle beforeUnmarshal;
+    MethodHandle afterUnmarshal;
+    /**
+     * {@code (Object bean, Marshaller m)void}
+     */
+    MethodHandle beforeMarshal;
+    MethodHandle afterMarshal;
+
+    private static final Class[] unmarshalEventParams = { Unmarshaller.class, Object.class };
+    private static final Class[] marshalEventParams = { Marshaller.class };
+
+    private static final MethodType unmarshalEventType =
+            MethodType.methodType(void.class, Object.class, Unmarshaller.class, Object.class);
+    private static final MethodType marshalEventType =
+            MethodType.methodType(void.class, Object.class, Marshaller.class);
+
+    private static final ClassValue<LifecycleMethods> cache = new ClassValue<LifecycleMethods>() {
+        @Override
+        protected LifecycleMethods computeValue(Class<?> type) {
+            return new LifecycleMethods(type);
+        }
+    };
+
+    /**
+     * Gets the lifecycle methods of the given class, including the inherited ones.
+     */
+    static LifecycleMethods get(Class<?> c) {
+        return cache.get(c);
+    }
+
+    /**
+     * use reflection to determine which of the 4 object lifecycle methods exist on
+     * the given type.
+     */
+    private LifecycleMethods(Class<?> type) {
+        try {
+            for( Class<?> jt=type; jt!=null; jt=jt.getSuperclass() ) {
+                for (Method m : getDeclaredMethods(jt)) {
+                    String name = m.getName();
+
+                    if (beforeUnmarshal == null && name.equals("beforeUnmarshal") && match(m, unmarshalEventParams))
+                        beforeUnmarshal = bind(m, unmarshalEventType);
+
+                    if (afterUnmarshal == null && name.equals("afterUnmarshal") && match(m, unmarshalEventParams))
+                        afterUnmarshal = bind(m, unmarshalEventType);
+
+                    if (beforeMarshal == null && name.equals("beforeMarshal") && match(m, marshalEventParams))
+                        beforeMarshal = bind(m, marshalEventType);
+
+                    if (afterMarshal == null && name.equals("afterMarshal") && match(m, marshalEventParams))
+                        afterMarshal = bind(m, marshalEventType);
+                }
+            }
+        } catch (SecurityException e) {
+            // this happens when we don't have enough permission.
+            logger.log(Level.WARNING, Messages.UNABLE_TO_DISCOVER_EVENTHANDLER.format(
+                    type.getName(), e), e);
+        }
+    }
+
+    private static Method[] getDeclaredMethods(final Class<?> c) {
+        return AccessController.doPrivileged(new PrivilegedAction<Method[]>() {
+            @Override
+            public Method[] run() {
+                return c.getDeclaredMethods();
+            }
+        });
+    }
+
+    private static boolean match(Method m, Class[] params) {
+        return Arrays.equals(m.getParameterTypes(),params);
+    }
+
+    private static MethodHandle bind(Method m, MethodType type) {
+        m.setAccessible(true);
+        MethodHandle h;
+        try {
+            h = MethodHandles.lookup().unreflect(m);
+        } catch (IllegalAccessException e) {
+            throw new AssertionError(e); // impossible, as the method is made accessible above
+        }
+        if (Modifier.isStatic(m.getModifiers()))
+            // Method.invoke ignores the target object for static methods
+            h = MethodHandles.dropArguments(h, 0, Object.class);
+        return h.asType(type);
+    }
+
+    private static final Logger logger = Util.getClassLogger();
 }
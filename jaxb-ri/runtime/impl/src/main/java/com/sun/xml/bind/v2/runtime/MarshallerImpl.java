@@ -63,6 +63,7 @@ import javax.xml.bind.helpers.AbstractMarshallerImpl;
 import javax.xml.stream.XMLEventWriter;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.sax.SAXResult;
@@ -78,9 +79,10 @@ import com.sun.xml.bind.marshaller.DumbEscapeHandler;
 import com.sun.xml.bind.marshaller.MinimumEscapeHandler;
 import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
 import com.sun.xml.bind.marshaller.NioEscapeHandler;
-import com.sun.xml.bind.marshaller.SAX2DOMEx;
 import com.sun.xml.bind.marshaller.XMLWriter;
+import com.sun.xml.bind.v2.runtime.output.BinaryXmlOutput;
 import com.sun.xml.bind.v2.runtime.output.C14nXmlOutput;
+import com.sun.xml.bind.v2.runtime.output.DOMOutput;
 import com.sun.xml.bind.v2.runtime.output.Encoded;
 import com.sun.xml.bind.v2.runtime.output.ForkXmlOutput;
 import com.sun.xml.bind.v2.runtime.output.IndentingUTF8XmlOutput;
@@ -137,12 +139,28 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
      */
     private Schema schema;
 
+    /**
+     * Sends the output to the validator of {@link #schema}.
+     * Created lazily and reused by every marshalling,
+     * since the {@link ValidatorHandler} starts over on each document.
+     */
+    private XmlOutput validatorOutput;
+
+    /**
+     * Creates the documents for {@link DOMResult}s without a node.
+     * Lazily created.
+     */
+    private DocumentBuilder documentBuilder;
+
     /** Marshaller.Listener */
     private Listener externalListener = null;
 
     /** Configured for c14n? */
     private boolean c14nSupport;
 
+    /** Writing {@link BinaryXmlOutput} instead of XML? */
+    private boolean binaryInfoset;
+
     // while createing XmlOutput those values may be set.
     // if these are non-null they need to be cleaned up
     private Flushable toBeFlushed;
@@ -203,11 +221,13 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             final Node node = ((DOMResult) result).getNode();
 
             if (node == null) {
-                Document doc = JAXBContextImpl.createDom(getContext().disableSecurityProcessing);
+                if (documentBuilder == null)
+                    documentBuilder = getContext().newDocumentBuilder();
+                Document doc = documentBuilder.newDocument();
                 ((DOMResult) result).setNode(doc);
-                return new SAXOutput(new SAX2DOMEx(doc));
+                return new DOMOutput(doc,null);
             } else {
-                return new SAXOutput(new SAX2DOMEx(node));
+                return new DOMOutput(node,null);
             }
         }
         if (result instanceof StreamResult) {
@@ -262,6 +282,7 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
      */
     protected final <T> void write(Name rootTagName, JaxBeanInfo<T> bi, T obj, XmlOutput out,Runnable postInitAction) throws JAXBException {
         try {
+            checkOutput(out);
             try {
                 prewrite(out, true, postInitAction);
                 serializer.startElement(rootTagName,null);
@@ -299,28 +320,13 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             if( obj == null )
                 throw new IllegalArgumentException(Messages.NOT_MARSHALLABLE.format());
 
+            checkOutput(out);
+
             if( schema!=null ) {
                 // send the output to the validator as well
-                ValidatorHandler validator = schema.newValidatorHandler();
-                validator.setErrorHandler(new FatalAdapter(serializer));
-                // work around a bug in JAXP validator in Tiger
-                XMLFilterImpl f = new XMLFilterImpl() {
-                    @Override
-                    public void startPrefixMapping(String prefix, String uri) throws SAXException {
-                        super.startPrefixMapping(prefix.intern(), uri.intern());
-                    }
-                };
-                f.setContentHandler(validator);
-                out = new ForkXmlOutput( new SAXOutput(f) {
-                    @Override
-                    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws SAXException, IOException, XMLStreamException {
-                        super.startDocument(serializer, false, nsUriIndex2prefixIndex, nsContext);
-                    }
-                    @Override
-                    public void endDocument(boolean fragment) throws SAXException, IOException, XMLStreamException {
-                        super.endDocument(false);
-                    }
-                }, out );
+                if(validatorOutput==null)
+                    validatorOutput = createValidatorOutput();
+                out = new ForkXmlOutput( validatorOutput, out );
             }
 
             try {
@@ -341,6 +347,38 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         }
     }
 
+    /**
+     * Reports an error if the binary infoset is selected but the output
+     * doesn't go to a byte stream, instead of silently writing XML.
+     */
+    private void checkOutput(XmlOutput out) throws MarshalException {
+        if(binaryInfoset && !(out instanceof BinaryXmlOutput))
+            throw new MarshalException(Messages.NOT_A_BYTE_STREAM.format());
+    }
+
+    private XmlOutput createValidatorOutput() {
+        ValidatorHandler validator = schema.newValidatorHandler();
+        validator.setErrorHandler(new FatalAdapter(serializer));
+        // work around a bug in JAXP validator in Tiger
+        XMLFilterImpl f = new XMLFilterImpl() {
+            @Override
+            public void startPrefixMapping(String prefix, String uri) throws SAXException {
+                super.startPrefixMapping(prefix.intern(), uri.intern());
+            }
+        };
+        f.setContentHandler(validator);
+        return new SAXOutput(f) {
+            @Override
+            public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws SAXException, IOException, XMLStreamException {
+                super.startDocument(serializer, false, nsUriIndex2prefixIndex, nsContext);
+            }
+            @Override
+            public void endDocument(boolean fragment) throws SAXException, IOException, XMLStreamException {
+                super.endDocument(false);
+            }
+        };
+    }
+
     private void cleanUp() {
         if(toBeFlushed!=null)
             try {
@@ -457,6 +495,10 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
         // otherwise createWriter(Writer) inserts a buffering,
         // so no point in doing a buffering here.
 
+        // the binary infoset has no formatting, encoding or header
+        if(binaryInfoset)
+            return new BinaryXmlOutput(os);
+
         if(encoding.equals("UTF-8")) {
             Encoded[] table = context.getUTF8NameTable();
             final UTF8XmlOutput out;
@@ -502,6 +544,10 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             return c14nSupport;
         if ( OBJECT_IDENTITY_CYCLE_DETECTION.equals(name)) 
         	return serializer.getObjectIdentityCycleDetection();
+        if( CHECK_REQUIRED.equals(name) )
+            return serializer.getCheckRequired();
+        if( BINARY_INFOSET.equals(name) )
+            return binaryInfoset;
 
         return super.getProperty(name);
     }
@@ -555,6 +601,16 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
             serializer.setObjectIdentityCycleDetection((Boolean)value);
             return;
         }
+        if( CHECK_REQUIRED.equals(name) ) {
+            checkBoolean(name,value);
+            serializer.setCheckRequired((Boolean)value);
+            return;
+        }
+        if( BINARY_INFOSET.equals(name) ) {
+            checkBoolean(name,value);
+            binaryInfoset = (Boolean)value;
+            return;
+        }
 
         super.setProperty(name, value);
     }
@@ -619,6 +675,7 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     @Override
     public void setSchema(Schema s) {
         this.schema = s;
+        this.validatorOutput = null;
     }
 
     /**
@@ -648,4 +705,6 @@ public /*to make unit tests happy*/ final class MarshallerImpl extends AbstractM
     protected static final String XML_HEADERS = "com.sun.xml.bind.xmlHeaders";
     protected static final String C14N = JAXBRIContext.CANONICALIZATION_SUPPORT;
     protected static final String OBJECT_IDENTITY_CYCLE_DETECTION = "com.sun.xml.bind.objectIdentitityCycleDetection";
+    protected static final String CHECK_REQUIRED = JAXBRIContext.CHECK_REQUIRED;
+    protected static final String BINARY_INFOSET = JAXBRIContext.BINARY_INFOSET;
 }
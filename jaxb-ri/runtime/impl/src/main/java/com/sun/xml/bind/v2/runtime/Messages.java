@@ -65,6 +65,7 @@ enum Messages {
     NOT_MARSHALLABLE, // 0 args
     UNSUPPORTED_RESULT, // 0 args
     UNSUPPORTED_ENCODING, // 1 arg
+    NOT_A_BYTE_STREAM, // 0 args
     SUBSTITUTED_BY_ANONYMOUS_TYPE, // 3 arg
     CYCLE_IN_MARSHALLER, // 1 arg
     UNABLE_TO_DISCOVER_EVENTHANDLER, // 1 arg
@@ -73,6 +74,7 @@ enum Messages {
     FAILED_TO_GENERATE_SCHEMA, // 0 args
     ERROR_PROCESSING_SCHEMA, // 0 args
     ILLEGAL_CONTENT, // 2 args
+    GENERATED_ACCESSOR_FACTORY_FAILED, // 1 arg
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
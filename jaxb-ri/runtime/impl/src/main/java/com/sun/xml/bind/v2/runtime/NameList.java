@@ -77,6 +77,14 @@ public final class NameList {
      * Number of Names for attributes
      */
     public final int numberOfAttributeNames;
+
+    /**
+     * 64-bit FNV-1a hash of the namespace URIs and local names, in their index order.
+     *
+     * Two {@link JAXBContextImpl}s with the same fingerprint assign the same indices
+     * to the same names, so data written by index in one can be read by the other.
+     */
+    public final long fingerprint;
     
     public NameList(String[] namespaceURIs, boolean[] nsUriCannotBeDefaulted, String[] localNames, int numberElementNames, int numberAttributeNames) {
         this.namespaceURIs = namespaceURIs;
@@ -84,5 +92,21 @@ public final class NameList {
         this.localNames = localNames;
         this.numberOfElementNames = numberElementNames;
         this.numberOfAttributeNames = numberAttributeNames;
+
+        long h = 0xcbf29ce484222325L;
+        h = hash(h,namespaceURIs);
+        h = hash(h,localNames);
+        this.fingerprint = h;
+    }
+
+    private static long hash(long h, String[] strings) {
+        h = (h^strings.length)*0x100000001b3L;
+        for (String s : strings) {
+            for( int i=0; i<s.length(); i++ )
+                h = (h^s.charAt(i))*0x100000001b3L;
+            // terminator, so that {"ab","c"} and {"a","bc"} hash differently
+            h = (h^0xffff)*0x100000001b3L;
+        }
+        return h;
     }
 }
@@ -41,7 +41,6 @@
 package com.sun.xml.bind.v2.runtime;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -64,6 +63,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 
 import com.sun.istack.SAXException2;
@@ -184,8 +184,16 @@ public final class XMLSerializer extends Coordinator {
     /** Lazily created. */
     private ContentHandlerAdaptor contentHandlerAdapter;
 
+    /** Lazily created. */
+    private DomAdaptor domAdaptor;
+
     private boolean fragment;
 
+    /**
+     * @see com.sun.xml.bind.api.JAXBRIContext#CHECK_REQUIRED
+     */
+    private boolean checkRequired;
+
     /**
      * Cached instance of {@link Base64Data}.
      */
@@ -199,6 +207,7 @@ public final class XMLSerializer extends Coordinator {
     public AttachmentMarshaller attachmentMarshaller;
 
     /*package*/ XMLSerializer( MarshallerImpl _owner ) {
+        super(_owner.context);
         this.marshaller = _owner;
         this.grammar = marshaller.context;
         nsContext = new NamespaceContextImpl(this);
@@ -715,8 +724,7 @@ public final class XMLSerializer extends Coordinator {
     private void fireAfterMarshalEvents(final JaxBeanInfo beanInfo, Object currentTarget) {
         // first invoke bean embedded listener
         if (beanInfo.hasAfterMarshalMethod()) {
-            Method m = beanInfo.getLifecycleMethods().afterMarshal;
-            fireMarshalEvent(currentTarget, m);
+            beanInfo.invokeAfterMarshalMethod(marshaller, currentTarget);
         }
 
         // then invoke external listener before bean embedded listener
@@ -739,8 +747,7 @@ public final class XMLSerializer extends Coordinator {
     private void fireBeforeMarshalEvents(final JaxBeanInfo beanInfo, Object currentTarget) {
         // first invoke bean embedded listener
         if (beanInfo.hasBeforeMarshalMethod()) {
-            Method m = beanInfo.getLifecycleMethods().beforeMarshal;
-            fireMarshalEvent(currentTarget, m);
+            beanInfo.invokeBeforeMarshalMethod(marshaller, currentTarget);
         }
 
         // then invoke external listener
@@ -750,15 +757,6 @@ public final class XMLSerializer extends Coordinator {
         }
     }
 
-    private void fireMarshalEvent(Object target, Method m) {
-        try {
-            m.invoke(target, marshaller);
-        } catch (Exception e) {
-            // this really only happens if there is a bug in the ri
-            throw new IllegalStateException(e);
-        }
-    }
-
     public void attWildcardAsURIs(Map<QName,String> attributes, String fieldName) {
         if(attributes==null)    return;
         for( Map.Entry<QName,String> e : attributes.entrySet() ) {
@@ -799,6 +797,13 @@ public final class XMLSerializer extends Coordinator {
 
     public <E> void writeDom(E element, DomHandler<E, ?> domHandler, Object parentBean, String fieldName) throws SAXException {
         Source source = domHandler.marshal(element,this);
+        if(source instanceof DOMSource && DomAdaptor.accepts(((DOMSource)source).getNode())) {
+            // walk the DOM directly, instead of going through the identity transformer
+            if(domAdaptor==null)
+                domAdaptor = new DomAdaptor(this);
+            domAdaptor.write(((DOMSource)source).getNode());
+            return;
+        }
         if(contentHandlerAdapter==null)
             contentHandlerAdapter = new ContentHandlerAdaptor(this);
         try {
@@ -810,7 +815,7 @@ public final class XMLSerializer extends Coordinator {
 
     public Transformer getIdentityTransformer() {
         if (identityTransformer==null)
-            identityTransformer = JAXBContextImpl.createTransformer(grammar.disableSecurityProcessing);
+            identityTransformer = grammar.newTransformer();
         return identityTransformer;
     }
 
@@ -996,6 +1001,13 @@ public final class XMLSerializer extends Coordinator {
         return cycleDetectionStack.getUseIdentity();
     }
 
+    public void setCheckRequired(boolean val) {
+        checkRequired = val;
+    }
+    public boolean getCheckRequired() {
+        return checkRequired;
+    }
+
     void reconcileID() throws SAXException {
         // find objects that were not a part of the object graph
         idReferencedObjects.removeAll(objectsWithId);
@@ -1039,7 +1051,7 @@ public final class XMLSerializer extends Coordinator {
         }
     }
 
-    private void reportMissingObjectError(String fieldName) throws SAXException {
+    void reportMissingObjectError(String fieldName) throws SAXException {
         reportError(new ValidationEventImpl(
             ValidationEvent.ERROR,
             Messages.MISSING_OBJECT.format(fieldName),
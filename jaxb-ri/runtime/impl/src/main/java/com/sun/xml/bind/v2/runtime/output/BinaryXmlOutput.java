@@ -0,0 +1,348 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.NameList;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
+import com.sun.xml.bind.v2.runtime.unmarshaller.Base64Data;
+import com.sun.xml.bind.v2.runtime.unmarshaller.IntData;
+
+import org.xml.sax.SAXException;
+
+/**
+ * {@link XmlOutput} that writes a compact binary infoset, to be read back by
+ * an unmarshaller of a {@link com.sun.xml.bind.v2.runtime.JAXBContextImpl}
+ * with the same {@link NameList}.
+ *
+ * <p>
+ * The document starts with a header of {@link #MAGIC}, {@link #VERSION} and
+ * the 8-byte {@link NameList#fingerprint}, followed by records.
+ * Each record starts with its tag byte:
+ *
+ * <pre>
+ * NS_DECL       prefix uri
+ * START_ELEMENT uri localName prefix
+ * ATTRIBUTE     uri localName prefix value
+ * END_START_TAG
+ * END_ELEMENT
+ * TEXT          chars
+ * TEXT_INT      zigzag-encoded varint
+ * TEXT_BYTES    varint length, followed by the raw bytes
+ * END_DOCUMENT
+ * </pre>
+ *
+ * <p>
+ * Names and prefixes are written as varint references into a string table,
+ * which starts with {@link NameList#namespaceURIs} followed by
+ * {@link NameList#localNames}, so names known to the context cost one or two bytes.
+ * Other strings are written literally the first time and added to the table.
+ * Text is written as a varint character count followed by the characters,
+ * each encoded in one to three bytes like UTF-8 (surrogates are encoded separately.)
+ *
+ * <p>
+ * Texts that the serializer hands over as {@link IntData} or {@link Base64Data}
+ * are written in their binary form, and are passed to the unmarshaller as
+ * {@link Pcdata} again, so they are never converted to and from characters.
+ *
+ * @see com.sun.xml.bind.api.JAXBRIContext#BINARY_INFOSET
+ */
+public final class BinaryXmlOutput extends XmlOutputAbstractImpl {
+
+    public static final String MAGIC = "JXB";
+    public static final int VERSION = 1;
+
+    // record tags
+    public static final int END_DOCUMENT = 0;
+    public static final int NS_DECL = 1;
+    public static final int START_ELEMENT = 2;
+    public static final int ATTRIBUTE = 3;
+    public static final int END_START_TAG = 4;
+    public static final int END_ELEMENT = 5;
+    public static final int TEXT = 6;
+    public static final int TEXT_INT = 7;
+    public static final int TEXT_BYTES = 8;
+
+    // string references
+    /**
+     * A new string follows, which is then added to the table.
+     */
+    public static final int REF_LITERAL = 0;
+    public static final int REF_EMPTY = 1;
+    /**
+     * References at or above this value point to the table.
+     */
+    public static final int REF_TABLE = 2;
+
+    private final OutputStream out;
+
+    private final byte[] buf = new byte[4096];
+    private int len;
+
+    /**
+     * String table entries other than the local names, mapped to their references.
+     */
+    private final Map<String,Integer> strings = new HashMap<String,Integer>();
+    private int nextString;
+
+    /**
+     * Reference of {@code localNames[0]}.
+     */
+    private int localNameBase;
+
+    public BinaryXmlOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+        NameList nameList = serializer.nameList;
+
+        strings.clear();
+        String[] uris = nameList.namespaceURIs;
+        for( int i=0; i<uris.length; i++ )
+            strings.put(uris[i],REF_TABLE+i);
+        localNameBase = REF_TABLE+uris.length;
+        nextString = localNameBase+nameList.localNames.length;
+
+        len = 0;
+        for( int i=0; i<MAGIC.length(); i++ )
+            writeByte(MAGIC.charAt(i));
+        writeByte(VERSION);
+        long fp = nameList.fingerprint;
+        for( int shift=56; shift>=0; shift-=8 )
+            writeByte((int)(fp>>>shift));
+    }
+
+    @Override
+    public void endDocument(boolean fragment) throws IOException, SAXException, XMLStreamException {
+        writeByte(END_DOCUMENT);
+        flushBuffer();
+        super.endDocument(fragment);
+    }
+
+    @Override
+    public void beginStartTag(Name name) throws IOException {
+        writeNsDecls();
+        writeByte(START_ELEMENT);
+        writeVarint(REF_TABLE+name.nsUriIndex);
+        writeVarint(localNameBase+name.localNameIndex);
+        writeString(nsContext.getPrefix(nsUriIndex2prefixIndex[name.nsUriIndex]));
+    }
+
+    public void beginStartTag(int prefix, String localName) throws IOException {
+        writeNsDecls();
+        writeByte(START_ELEMENT);
+        writeString(nsContext.getNamespaceURI(prefix));
+        writeString(localName);
+        writeString(nsContext.getPrefix(prefix));
+    }
+
+    private void writeNsDecls() throws IOException {
+        NamespaceContextImpl.Element ns = nsContext.getCurrent();
+        int size = nsContext.count();
+        for( int i=ns.getBase(); i<size; i++ ) {
+            String p = nsContext.getPrefix(i);
+            String uri = nsContext.getNamespaceURI(i);
+            if(p.length()==0 && uri.length()==0 && ns.isRootElement())
+                continue;   // no point in declaring xmlns="" on the root element
+            writeByte(NS_DECL);
+            writeString(p);
+            writeString(uri);
+        }
+    }
+
+    @Override
+    public void attribute(Name name, String value) throws IOException {
+        writeByte(ATTRIBUTE);
+        if(name.nsUriIndex==-1) {
+            writeVarint(REF_EMPTY);
+            writeVarint(localNameBase+name.localNameIndex);
+            writeVarint(REF_EMPTY);
+        } else {
+            writeVarint(REF_TABLE+name.nsUriIndex);
+            writeVarint(localNameBase+name.localNameIndex);
+            writeString(nsContext.getPrefix(nsUriIndex2prefixIndex[name.nsUriIndex]));
+        }
+        writeChars(value,false);
+    }
+
+    public void attribute(int prefix, String localName, String value) throws IOException {
+        writeByte(ATTRIBUTE);
+        if(prefix==-1) {
+            writeVarint(REF_EMPTY);
+            writeString(localName);
+            writeVarint(REF_EMPTY);
+        } else {
+            writeString(nsContext.getNamespaceURI(prefix));
+            writeString(localName);
+            writeString(nsContext.getPrefix(prefix));
+        }
+        writeChars(value,false);
+    }
+
+    public void endStartTag() throws IOException {
+        writeByte(END_START_TAG);
+    }
+
+    @Override
+    public void endTag(Name name) throws IOException {
+        writeByte(END_ELEMENT);
+    }
+
+    public void endTag(int prefix, String localName) throws IOException {
+        writeByte(END_ELEMENT);
+    }
+
+    public void text(String value, boolean needsSP) throws IOException {
+        writeByte(TEXT);
+        writeChars(value,needsSP);
+    }
+
+    public void text(Pcdata value, boolean needsSP) throws IOException {
+        if(value instanceof IntData) {
+            writeSeparator(needsSP);
+            int i = ((IntData)value).intValue();
+            writeByte(TEXT_INT);
+            writeVarint((i<<1)^(i>>31));
+        } else
+        if(value instanceof Base64Data) {
+            writeSeparator(needsSP);
+            Base64Data b = (Base64Data)value;
+            int n = b.getDataLen();
+            writeByte(TEXT_BYTES);
+            writeVarint(n);
+            write(b.get(),0,n);
+        } else {
+            text(value.toString(),needsSP);
+        }
+    }
+
+    private void writeSeparator(boolean needsSP) throws IOException {
+        if(needsSP)
+            text("",true);
+    }
+
+    /**
+     * Writes a reference to the given string, adding it to the table if necessary.
+     */
+    private void writeString(String s) throws IOException {
+        if(s.length()==0) {
+            writeVarint(REF_EMPTY);
+            return;
+        }
+        Integer ref = strings.get(s);
+        if(ref!=null) {
+            writeVarint(ref);
+        } else {
+            writeVarint(REF_LITERAL);
+            writeChars(s,false);
+            strings.put(s,nextString++);
+        }
+    }
+
+    private void writeChars(String s, boolean needsSP) throws IOException {
+        int n = s.length();
+        if(needsSP) {
+            writeVarint(n+1);
+            writeByte(' ');
+        } else {
+            writeVarint(n);
+        }
+        for( int i=0; i<n; i++ ) {
+            if(len+3>buf.length)
+                flushBuffer();
+            char ch = s.charAt(i);
+            if(ch<0x80) {
+                buf[len++] = (byte)ch;
+            } else
+            if(ch<0x800) {
+                buf[len++] = (byte)(0xC0|(ch>>6));
+                buf[len++] = (byte)(0x80|(ch&0x3F));
+            } else {
+                buf[len++] = (byte)(0xE0|(ch>>12));
+                buf[len++] = (byte)(0x80|((ch>>6)&0x3F));
+                buf[len++] = (byte)(0x80|(ch&0x3F));
+            }
+        }
+    }
+
+    private void writeVarint(int v) throws IOException {
+        if(len+5>buf.length)
+            flushBuffer();
+        while((v&~0x7F)!=0) {
+            buf[len++] = (byte)((v&0x7F)|0x80);
+            v >>>= 7;
+        }
+        buf[len++] = (byte)v;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if(len==buf.length)
+            flushBuffer();
+        buf[len++] = (byte)b;
+    }
+
+    private void write(byte[] b, int start, int length) throws IOException {
+        if(len+length>buf.length) {
+            flushBuffer();
+            if(length>buf.length) {
+                out.write(b,start,length);
+                return;
+            }
+        }
+        System.arraycopy(b,start,buf,len,length);
+        len += length;
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buf,0,len);
+        len = 0;
+    }
+}
@@ -37,46 +37,184 @@
  * only if the new code is made subject to such option by the copyright
  * holder.
  */
-
 package com.sun.xml.bind.v2.runtime.output;
 
+import java.io.IOException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import com.sun.istack.FinalArrayList;
+import com.sun.xml.bind.marshaller.Messages;
+import com.sun.xml.bind.util.Which;
 import com.sun.xml.bind.v2.runtime.AssociationMap;
-import com.sun.xml.bind.marshaller.SAX2DOMEx;
+import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.XMLSerializer;
 
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 /**
- * {@link XmlOutput} implementation that does associative marshalling to DOM.
+ * {@link XmlOutput} implementation that builds a DOM tree directly.
+ *
+ * <p>
+ * Elements are created as soon as their start tag is known, without
+ * going through SAX events. Element qualified names are cached per
+ * {@link Name#qNameIndex}, so that they don't have to be concatenated
+ * again for every element.
  *
  * <p>
- * This is used for binder.
+ * If an {@link AssociationMap} is given, the created elements are
+ * associated with their peers. This is used for binder.
  *
  * @author Kohsuke Kawaguchi
  */
-public final class DOMOutput extends SAXOutput {
+public final class DOMOutput extends XmlOutputAbstractImpl {
+    /**
+     * Can be null, in which case no association is recorded.
+     */
     private final AssociationMap assoc;
 
+    private final Document document;
+
+    /**
+     * Currently open nodes. The first item is the node we are writing into.
+     */
+    private final FinalArrayList<Node> nodeStack = new FinalArrayList<Node>();
+
+    /**
+     * The element whose start tag is being written.
+     */
+    private Element current;
+
+    /**
+     * Qualified names of the known element names, indexed by {@link Name#qNameIndex},
+     * along with the prefixes they were computed for.
+     */
+    private String[] elementQNames;
+    private String[] elementQNamePrefixes;
+
     public DOMOutput(Node node, AssociationMap assoc) {
-        super(new SAX2DOMEx(node));
         this.assoc = assoc;
-        assert assoc!=null;
+        if(node instanceof Document)
+            this.document = (Document)node;
+        else
+            this.document = node.getOwnerDocument();
+        nodeStack.add(node);
     }
 
-    private SAX2DOMEx getBuilder() {
-        return (SAX2DOMEx)out;
+    @Override
+    public void startDocument(XMLSerializer serializer, boolean fragment, int[] nsUriIndex2prefixIndex, NamespaceContextImpl nsContext) throws IOException, SAXException, XMLStreamException {
+        super.startDocument(serializer, fragment, nsUriIndex2prefixIndex, nsContext);
+        int len = serializer.nameList.numberOfElementNames;
+        if(elementQNames==null || elementQNames.length<len) {
+            elementQNames = new String[len];
+            elementQNamePrefixes = new String[len];
+        }
     }
 
     @Override
-    public void endStartTag() throws SAXException {
-        super.endStartTag();
+    public void beginStartTag(Name name) throws IOException, XMLStreamException {
+        int prefix = nsUriIndex2prefixIndex[name.nsUriIndex];
+        int idx = name.qNameIndex;
+        if(name.isAttribute || idx>=elementQNames.length) {
+            beginStartTag(prefix,name.localName);
+            return;
+        }
+
+        String p = nsContext.getPrefix(prefix);
+        String qname = elementQNames[idx];
+        if(qname==null || !p.equals(elementQNamePrefixes[idx])) {
+            qname = getQName(p,name.localName);
+            elementQNames[idx] = qname;
+            elementQNamePrefixes[idx] = p;
+        }
+        createElement(nsContext.getNamespaceURI(prefix),qname);
+    }
 
-        Object op = nsContext.getCurrent().getOuterPeer();
-        if(op!=null)
-            assoc.addOuter( getBuilder().getCurrentElement(), op );
+    public void beginStartTag(int prefix, String localName) {
+        createElement(nsContext.getNamespaceURI(prefix),getQName(nsContext.getPrefix(prefix),localName));
+    }
+
+    private void createElement(String nsUri, String qname) {
+        // some broken DOM implementation (we confirmed it with SAXON)
+        // return null from this method.
+        Element e = document.createElementNS(nsUri.length()==0 ? null : nsUri, qname);
+        if(e==null)
+            throw new AssertionError(
+                    Messages.format(Messages.DOM_IMPL_DOESNT_SUPPORT_CREATELEMENTNS,
+                    document.getClass().getName(),
+                    Which.which(document.getClass())));
+        current = e;
+
+        NamespaceContextImpl.Element ns = nsContext.getCurrent();
+        if(ns!=null) {
+            int sz = ns.count();
+            for( int i=0; i<sz; i++ ) {
+                String p = ns.getPrefix(i);
+                String uri = ns.getNsUri(i);
+                if(uri.length()==0 && ns.getBase()==1)
+                    continue;   // no point in defining xmlns='' on the root
+                e.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                        p.length()==0 ? "xmlns" : "xmlns:"+p, uri);
+            }
+        }
+    }
+
+    public void attribute(int prefix, String localName, String value) {
+        if(prefix==-1) {
+            current.setAttributeNS(null,localName,value);
+        } else {
+            String p = nsContext.getPrefix(prefix);
+            // an empty prefix for a non-empty URI is a bug in the NamespacePrefixMapper;
+            // see SAXOutput for the same treatment
+            String qname = p.length()==0 ? localName : p+':'+localName;
+            String nsUri = nsContext.getNamespaceURI(prefix);
+            current.setAttributeNS(nsUri.length()==0 ? null : nsUri,qname,value);
+        }
+    }
+
+    public void endStartTag() {
+        Element e = current;
+        nodeStack.get(nodeStack.size()-1).appendChild(e);
+        nodeStack.add(e);
+
+        if(assoc!=null) {
+            Object op = nsContext.getCurrent().getOuterPeer();
+            if(op!=null)
+                assoc.addOuter( e, op );
+
+            Object ip = nsContext.getCurrent().getInnerPeer();
+            if(ip!=null)
+                assoc.addInner( e, ip );
+        }
+    }
+
+    @Override
+    public void endTag(Name name) {
+        nodeStack.remove(nodeStack.size()-1);
+    }
+
+    public void endTag(int prefix, String localName) {
+        nodeStack.remove(nodeStack.size()-1);
+    }
+
+    public void text(String value, boolean needsSP) {
+        if(needsSP)
+            value = ' '+value;
+        nodeStack.get(nodeStack.size()-1).appendChild(document.createTextNode(value));
+    }
+
+    public void text(Pcdata value, boolean needsSP) {
+        text(value.toString(),needsSP);
+    }
 
-        Object ip = nsContext.getCurrent().getInnerPeer();
-        if(ip!=null)
-            assoc.addInner( getBuilder().getCurrentElement(), ip );
+    private static String getQName(String prefix, String localName) {
+        if(prefix.length()==0)
+            return localName;
+        else
+            return prefix+':'+localName;
     }
 }
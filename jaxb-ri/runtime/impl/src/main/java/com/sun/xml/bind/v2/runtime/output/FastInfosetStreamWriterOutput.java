@@ -54,7 +54,9 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 
 /**
@@ -111,6 +113,12 @@ public final class FastInfosetStreamWriterOutput extends XMLStreamWriterOutput {
          * True if the tables require clearing
          */
         boolean requiresClear;
+
+        /**
+         * True if the local names of the JAXB context are in the external
+         * vocabulary of the serializer, at their {@link Name#localNameIndex}.
+         */
+        boolean externalLocalNames;
         
         /**
          * Create a new set of tables for a JAXB context.
@@ -225,6 +233,14 @@ public final class FastInfosetStreamWriterOutput extends XMLStreamWriterOutput {
                 new WeakHashMap<JAXBContext, TablesPerJAXBContext>();
         final Collection<TablesPerJAXBContext> collectionOfContexts = contexts.values();
 
+        /**
+         * JAXB contexts whose local names are in the external vocabulary.
+         *
+         * @see FastInfosetVocabulary
+         */
+        final Set<JAXBContext> externalLocalNames =
+                Collections.newSetFromMap(new WeakHashMap<JAXBContext, Boolean>());
+
         /**
          * Clear all the tables.
          */
@@ -262,6 +278,7 @@ public final class FastInfosetStreamWriterOutput extends XMLStreamWriterOutput {
             tables = new TablesPerJAXBContext(context, out.getLocalNameIndex());
             appData.contexts.put(context, tables);
         }
+        tables.externalLocalNames = appData.externalLocalNames.contains(context);
     }
     
     @Override
@@ -360,6 +377,16 @@ public final class FastInfosetStreamWriterOutput extends XMLStreamWriterOutput {
     }
     
     private void writeLiteral(int type, Name name, String prefix, String namespaceURI) throws IOException {
+        if (tables.externalLocalNames) {
+            // the local name is always indexed by the external vocabulary
+            fiout.writeLowLevelStartNameLiteral(
+                    type,
+                    prefix,
+                    name.localNameIndex,
+                    namespaceURI);
+            return;
+        }
+
         final int localNameIndex = tables.localNameIndexes[name.localNameIndex] - tables.indexOffset;
         
         if (localNameIndex < 0) {
@@ -0,0 +1,147 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBContext;
+
+import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.bind.v2.runtime.Name;
+import com.sun.xml.bind.v2.runtime.NameList;
+import com.sun.xml.fastinfoset.util.StringIntMap;
+import com.sun.xml.fastinfoset.vocab.SerializerVocabulary;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+import org.jvnet.fastinfoset.FastInfosetParser;
+import org.jvnet.fastinfoset.FastInfosetSerializer;
+import org.jvnet.fastinfoset.Vocabulary;
+
+/**
+ * Derives a Fast Infoset external vocabulary from the names known to a {@link JAXBContext}.
+ *
+ * <p>
+ * The vocabulary contains all the namespace URIs and local names of the
+ * context's {@link NameList}, so peers that share the same JAXB context can
+ * refer to every name by a small index from the very first document,
+ * instead of writing it out literally the first time it appears.
+ *
+ * <p>
+ * Both peers need to use the same vocabulary URI, and the same set of
+ * classes to create the JAXB context.
+ *
+ * @see FastInfosetStreamWriterOutput
+ */
+public final class FastInfosetVocabulary {
+    private FastInfosetVocabulary() {}
+
+    /**
+     * Creates the external vocabulary of the given JAXB context.
+     *
+     * <p>
+     * Local names are added in the order of their {@link NameList} indexes,
+     * which makes them the same as the Fast Infoset indexes.
+     *
+     * @throws IllegalStateException
+     *      if a Fast Infoset index turns out to be different anyway.
+     */
+    public static ExternalVocabulary create(JAXBContext context, String uri) {
+        NameList names = getNameList(context);
+
+        Vocabulary v = new Vocabulary();
+        for (String nsUri : names.namespaceURIs) {
+            // the empty namespace name is never indexed
+            if (nsUri.length() > 0)
+                v.namespaceNames.add(nsUri);
+        }
+        v.localNames.addAll(Arrays.asList(names.localNames));
+        checkLocalNameIndexes(v, names);
+        return new ExternalVocabulary(uri, v);
+    }
+
+    /**
+     * Makes sure that the index the serializer assigns to every local name is
+     * its {@link Name#localNameIndex}, since {@link FastInfosetStreamWriterOutput}
+     * writes that index without looking the name up.
+     */
+    private static void checkLocalNameIndexes(Vocabulary v, NameList names) {
+        StringIntMap indexes = new SerializerVocabulary(v, false).localName;
+        for (int i = 0; i < names.localNames.length; i++) {
+            int index = indexes.get(names.localNames[i]);
+            if (index != i)
+                throw new IllegalStateException("Fast Infoset index of the local name "
+                        + names.localNames[i] + " is " + index + ", not " + i);
+        }
+    }
+
+    /**
+     * Sets up a serializer to use the external vocabulary of the given JAXB context.
+     *
+     * <p>
+     * In addition to making the vocabulary known to the serializer, this lets
+     * {@link FastInfosetStreamWriterOutput} write local names by their index
+     * directly. This replaces the vocabulary application data of the serializer.
+     */
+    public static void setExternalVocabulary(FastInfosetSerializer serializer, JAXBContext context, String uri) {
+        serializer.setExternalVocabulary(create(context, uri));
+
+        FastInfosetStreamWriterOutput.AppData appData = new FastInfosetStreamWriterOutput.AppData();
+        appData.externalLocalNames.add(context);
+        serializer.setVocabularyApplicationData(appData);
+    }
+
+    /**
+     * Sets up a parser to accept documents that refer to the external
+     * vocabulary of the given JAXB context.
+     */
+    public static void setExternalVocabulary(FastInfosetParser parser, JAXBContext context, String uri) {
+        Map<String, ExternalVocabulary> vocabularies = new HashMap<String, ExternalVocabulary>();
+        vocabularies.put(uri, create(context, uri));
+        parser.setExternalVocabularies(vocabularies);
+    }
+
+    private static NameList getNameList(JAXBContext context) {
+        if (!(context instanceof JAXBContextImpl))
+            throw new IllegalArgumentException("Not a JAXB RI context: " + context);
+        return ((JAXBContextImpl) context).nameList;
+    }
+}
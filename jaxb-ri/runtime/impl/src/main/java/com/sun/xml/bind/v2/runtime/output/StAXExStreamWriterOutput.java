@@ -40,12 +40,15 @@
 
 package com.sun.xml.bind.v2.runtime.output;
 
+import java.io.IOException;
+
 import javax.xml.stream.XMLStreamException;
 
 import com.sun.xml.bind.marshaller.NoEscapeHandler;
 import com.sun.xml.bind.v2.runtime.unmarshaller.Base64Data;
 
 import org.jvnet.staxex.XMLStreamWriterEx;
+import org.xml.sax.SAXException;
 
 /**
  * {@link XmlOutput} for {@link XMLStreamWriterEx}.
@@ -60,15 +63,22 @@ public final class StAXExStreamWriterOutput extends XMLStreamWriterOutput {
         this.out = out;
     }
 
-    public void text(Pcdata value, boolean needsSeparatingWhitespace) throws XMLStreamException {
+    @Override
+    public void text(Pcdata value, boolean needsSeparatingWhitespace) throws IOException, SAXException, XMLStreamException {
+        if (!(value instanceof Base64Data) || serializer.getInlineBinaryFlag()) {
+            super.text(value, needsSeparatingWhitespace);
+            return;
+        }
+
         if(needsSeparatingWhitespace) {
             out.writeCharacters(" ");
         }
 
-        if (!(value instanceof Base64Data)) {
-            out.writeCharacters(value.toString());
+        Base64Data v = (Base64Data)value;
+        if (v.hasData()) {
+            // bytes in memory need no DataHandler around them
+            out.writeBinary(v.get(), 0, v.getDataLen(), v.getMimeType());
         } else {
-            Base64Data v = (Base64Data)value;
             out.writeBinary(v.getDataHandler());
         }
     }
@@ -50,6 +50,7 @@ import javax.xml.stream.XMLStreamWriter;
 import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
 import com.sun.xml.bind.marshaller.NoEscapeHandler;
 import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.bind.v2.runtime.Name;
 import com.sun.xml.bind.v2.runtime.XMLSerializer;
 
 import org.xml.sax.SAXException;
@@ -100,12 +101,23 @@ public class XMLStreamWriterOutput extends XmlOutputAbstractImpl {
 
     private final XmlStreamOutWriterAdapter writerWrapper;
 
-    protected final char[] buf = new char[256];
+    /**
+     * True if {@link #escapeHandler} leaves text as is, in which case
+     * text is passed to {@link XMLStreamWriter} directly.
+     */
+    private final boolean noEscape;
+
+    /**
+     * Buffer to pass text to {@link XMLStreamWriter} as {@code char[]}.
+     * Grows to accommodate the longest {@link Pcdata} written.
+     */
+    protected char[] buf = new char[256];
 
     protected XMLStreamWriterOutput(XMLStreamWriter out, CharacterEscapeHandler escapeHandler) {
         this.out = out;
         this.escapeHandler = escapeHandler;
         this.writerWrapper = new XmlStreamOutWriterAdapter(out);
+        this.noEscape = escapeHandler==NoEscapeHandler.theInstance;
     }
 
     // not called if we are generating fragments
@@ -125,12 +137,25 @@ public class XMLStreamWriterOutput extends XmlOutputAbstractImpl {
         super.endDocument(fragment);
     }
 
+    @Override
+    public void beginStartTag(Name name) throws IOException, XMLStreamException {
+        // Name already has the interned namespace URI
+        out.writeStartElement(
+            nsContext.getPrefix(nsUriIndex2prefixIndex[name.nsUriIndex]),
+            name.localName,
+            name.nsUri);
+        writeNsDecls();
+    }
+
     public void beginStartTag(int prefix, String localName) throws IOException, XMLStreamException {
         out.writeStartElement(
             nsContext.getPrefix(prefix),
             localName,
             nsContext.getNamespaceURI(prefix));
+        writeNsDecls();
+    }
 
+    private void writeNsDecls() throws XMLStreamException {
         NamespaceContextImpl.Element nse = nsContext.getCurrent();
         if(nse.count()>0) {
             for( int i=nse.count()-1; i>=0; i-- ) {
@@ -142,6 +167,17 @@ public class XMLStreamWriterOutput extends XmlOutputAbstractImpl {
         }
     }
 
+    @Override
+    public void attribute(Name name, String value) throws IOException, XMLStreamException {
+        if(name.nsUriIndex==-1)
+            out.writeAttribute(name.localName,value);
+        else
+            out.writeAttribute(
+                    nsContext.getPrefix(nsUriIndex2prefixIndex[name.nsUriIndex]),
+                    name.nsUri,
+                    name.localName, value);
+    }
+
     public void attribute(int prefix, String localName, String value) throws IOException, XMLStreamException {
         if(prefix==-1)
             out.writeAttribute(localName,value);
@@ -156,27 +192,50 @@ public class XMLStreamWriterOutput extends XmlOutputAbstractImpl {
         // noop
     }
 
+    @Override
+    public void endTag(Name name) throws IOException, SAXException, XMLStreamException {
+        out.writeEndElement();
+    }
+
     public void endTag(int prefix, String localName) throws IOException, SAXException, XMLStreamException {
         out.writeEndElement();
     }
 
     public void text(String value, boolean needsSeparatingWhitespace) throws IOException, SAXException, XMLStreamException {
+        int len = value.length();
+        int start = needsSeparatingWhitespace ? 1 : 0;
+        if(start+len <= buf.length) {
+            // the separator goes out with the text, in one call
+            buf[0] = ' ';
+            value.getChars(0,len,buf,start);
+            writeText(buf,start+len);
+            return;
+        }
+
         if(needsSeparatingWhitespace)
             out.writeCharacters(" ");
-        escapeHandler.escape(value.toCharArray(), 0, value.length(), false, writerWrapper);
+        if(noEscape)
+            out.writeCharacters(value);
+        else
+            escapeHandler.escape(value.toCharArray(), 0, len, false, writerWrapper);
     }
 
     public void text(Pcdata value, boolean needsSeparatingWhitespace) throws IOException, SAXException, XMLStreamException {
-        if(needsSeparatingWhitespace)
-            out.writeCharacters(" ");
-
         int len = value.length();
-        if(len <buf.length) {
-            value.writeTo(buf,0);
-            out.writeCharacters(buf,0,len);
-        } else {
-            out.writeCharacters(value.toString());
-        }
+        int start = needsSeparatingWhitespace ? 1 : 0;
+        if(start+len > buf.length)
+            buf = new char[Math.max(start+len,buf.length*2)];
+
+        buf[0] = ' ';
+        value.writeTo(buf,start);
+        out.writeCharacters(buf,0,start+len);
+    }
+
+    private void writeText(char[] text, int len) throws IOException, XMLStreamException {
+        if(noEscape)
+            out.writeCharacters(text,0,len);
+        else
+            escapeHandler.escape(text, 0, len, false, writerWrapper);
     }
 
     /**
@@ -85,11 +85,14 @@ public final class AttributeProperty<BeanT> extends PropertyImpl<BeanT>
 
     private final Accessor acc;
 
+    private final boolean required;
+
     public AttributeProperty(JAXBContextImpl context, RuntimeAttributePropertyInfo prop) {
         super(context,prop);
         this.attName = context.nameBuilder.createAttributeName(prop.getXmlName());
         this.xacc = TransducedAccessor.get(context,prop);
         this.acc = prop.getAccessor();   // we only use this for binder, so don't waste memory by optimizing
+        this.required = prop.isRequired();
     }
 
     /**
@@ -128,6 +131,11 @@ public final class AttributeProperty<BeanT> extends PropertyImpl<BeanT>
         return xacc.print(bean).toString();
     }
 
+    @Override
+    public boolean isMissing(BeanT bean) throws AccessorException {
+        return required && !xacc.hasValue(bean);
+    }
+
     public int compareTo(AttributeProperty that) {
         return this.attName.compareTo(that.attName);
     }
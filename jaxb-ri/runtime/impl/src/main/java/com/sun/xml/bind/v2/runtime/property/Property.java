@@ -117,6 +117,14 @@ public interface Property<BeanT> extends StructureLoaderBuilder {
      */
     String getIdValue(BeanT bean) throws AccessorException, SAXException;
 
+    /**
+     * Checks if the property is a required element or attribute
+     * that has no value in the given bean.
+     *
+     * @see com.sun.xml.bind.api.JAXBRIContext#CHECK_REQUIRED
+     */
+    boolean isMissing(BeanT bean) throws AccessorException;
+
     /**
      * Gets the Kind of property
      * @return
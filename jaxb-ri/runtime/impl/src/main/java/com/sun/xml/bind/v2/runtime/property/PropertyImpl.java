@@ -84,6 +84,10 @@ abstract class PropertyImpl<BeanT> implements Property<BeanT> {
         return false;
     }
 
+    public boolean isMissing(BeanT bean) throws AccessorException {
+        return false;
+    }
+
     public Accessor getElementPropertyAccessor(String nsUri, String localName) {
         // default implementation. should be overrided
         return null;
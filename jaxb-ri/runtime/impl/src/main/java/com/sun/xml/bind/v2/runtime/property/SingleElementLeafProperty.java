@@ -76,6 +76,7 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
 
     private final Name tagName;
     private final boolean nillable;
+    private final boolean required;
     private final Accessor acc;
     private final String defaultValue;
     private final TransducedAccessor<BeanT> xacc;
@@ -88,6 +89,7 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
         tagName = context.nameBuilder.createElementName(ref.getTagName());
         assert tagName != null;
         nillable = ref.isNillable();
+        required = prop.isRequired() && !nillable;
         defaultValue = ref.getDefaultValue();
         this.acc = prop.getAccessor().optimize(context);
 
@@ -106,6 +108,11 @@ final class SingleElementLeafProperty<BeanT> extends PropertyImpl<BeanT> {
         return xacc.print(bean).toString();
     }
 
+    @Override
+    public boolean isMissing(BeanT bean) throws AccessorException {
+        return required && !xacc.hasValue(bean);
+    }
+
     @Override
     public void serializeBody(BeanT o, XMLSerializer w, Object outerPeer) throws SAXException, AccessorException, IOException, XMLStreamException {
         boolean hasValue = xacc.hasValue(o);
@@ -78,6 +78,12 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
 
     private final boolean nillable;
 
+    /**
+     * True if the element must appear. A nillable element
+     * can always be written as xsi:nil, so it's never required here.
+     */
+    private final boolean required;
+
     private final QName[] acceptedElements;
 
     private final Map<Class,TagAndType> typeNames = new HashMap<Class,TagAndType>();
@@ -112,6 +118,7 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
         nullTagName = context.nameBuilder.createElementName(nt);
 
         nillable = nil;
+        required = prop.isRequired() && !nil;
     }
 
     @Override
@@ -128,6 +135,11 @@ final class SingleElementNodeProperty<BeanT,ValueT> extends PropertyImpl<BeanT>
         return null;
     }
 
+    @Override
+    public boolean isMissing(BeanT bean) throws AccessorException {
+        return required && acc.get(bean)==null;
+    }
+
     @Override
     public void serializeBody(BeanT o, XMLSerializer w, Object outerPeer) throws SAXException, AccessorException, IOException, XMLStreamException {
         ValueT v = acc.get(o);
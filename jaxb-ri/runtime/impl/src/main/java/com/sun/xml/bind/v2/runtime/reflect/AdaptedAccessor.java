@@ -55,12 +55,12 @@ import com.sun.xml.bind.v2.runtime.Coordinator;
  */
 final class AdaptedAccessor<BeanT,InMemValueT,OnWireValueT> extends Accessor<BeanT,OnWireValueT> {
     private final Accessor<BeanT,InMemValueT> core;
-    private final Class<? extends XmlAdapter<OnWireValueT,InMemValueT>> adapter;
+    private final Coordinator.AdapterSlot<? extends XmlAdapter<OnWireValueT,InMemValueT>> adapter;
 
     /*pacakge*/ AdaptedAccessor(Class<OnWireValueT> targetType, Accessor<BeanT, InMemValueT> extThis, Class<? extends XmlAdapter<OnWireValueT, InMemValueT>> adapter) {
         super(targetType);
         this.core = extThis;
-        this.adapter = adapter;
+        this.adapter = Coordinator.AdapterSlot.of(adapter);
     }
 
     @Override
@@ -110,7 +110,7 @@ final class AdaptedAccessor<BeanT,InMemValueT,OnWireValueT> extends Accessor<Bea
         else {
             synchronized(this) {
                 if(staticAdapter==null)
-                    staticAdapter = ClassFactory.create(adapter);
+                    staticAdapter = ClassFactory.create(adapter.getType());
             }
             return staticAdapter;
         }
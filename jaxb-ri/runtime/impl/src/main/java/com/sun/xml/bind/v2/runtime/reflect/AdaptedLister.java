@@ -54,14 +54,14 @@ import org.xml.sax.SAXException;
  */
 final class AdaptedLister<BeanT,PropT,InMemItemT,OnWireItemT,PackT> extends Lister<BeanT,PropT,OnWireItemT,PackT> {
     private final Lister<BeanT,PropT,InMemItemT,PackT> core;
-    private final Class<? extends XmlAdapter<OnWireItemT,InMemItemT>> adapter;
+    private final Coordinator.AdapterSlot<? extends XmlAdapter<OnWireItemT,InMemItemT>> adapter;
 
     /*package*/ AdaptedLister(
         Lister<BeanT,PropT,InMemItemT,PackT> core,
         Class<? extends XmlAdapter<OnWireItemT,InMemItemT>> adapter) {
 
         this.core = core;
-        this.adapter = adapter;
+        this.adapter = Coordinator.AdapterSlot.of(adapter);
     }
 
     private XmlAdapter<OnWireItemT,InMemItemT> getAdapter() {
@@ -0,0 +1,458 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.bind.ValidationEventLocator;
+import javax.xml.bind.helpers.ValidationEventLocatorImpl;
+
+import com.sun.istack.FinalArrayList;
+import com.sun.xml.bind.WhiteSpaceProcessor;
+import com.sun.xml.bind.v2.runtime.NameList;
+import com.sun.xml.bind.v2.runtime.output.BinaryXmlOutput;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import static com.sun.xml.bind.v2.runtime.output.BinaryXmlOutput.*;
+
+/**
+ * Reads the binary infoset written by {@link BinaryXmlOutput}
+ * and sends events to {@link XmlVisitor}.
+ *
+ * <p>
+ * Names come out of the string table already interned, so
+ * no {@link InterningXmlVisitor} is necessary. A text made of a single
+ * binary chunk is reported as {@link IntData} or {@link Base64Data},
+ * just like {@link FastInfosetConnector} does for binary data.
+ */
+final class BinaryXmlConnector implements LocatorEx {
+
+    private final InputStream in;
+
+    // event sink
+    private final XmlVisitor visitor;
+
+    private final UnmarshallingContext context;
+    private final XmlVisitor.TextPredictor predictor;
+    private final NameList nameList;
+
+    /**
+     * Arrays for the texts are allocated up to this size before the data
+     * actually arrives, so that a corrupted length doesn't make us allocate
+     * far more than the input has.
+     */
+    private static final int CHUNK = 1<<16;
+
+    private final byte[] buf = new byte[4096];
+    private int pos;
+    private int limit;
+
+    /**
+     * Number of bytes read before {@code buf[0]}, for error reporting.
+     */
+    private int offset;
+
+    /**
+     * The string table. See {@link BinaryXmlOutput} for its layout.
+     */
+    private String[] strings;
+    private int stringCount;
+
+    /** Scratch buffer to decode characters into. */
+    private char[] chars = new char[64];
+
+    /** Only one instance is used for all the elements. */
+    private final AttributesImpl atts = new AttributesImpl();
+
+    private static final class TagNameImpl extends TagName {
+        String prefix;
+        @Override
+        public String getQname() {
+            return getQName(prefix,local);
+        }
+        @Override
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private final TagNameImpl tagName = new TagNameImpl();
+
+    /**
+     * Namespace URI, local name and prefix of the currently open elements.
+     */
+    private String[] elements = new String[3*16];
+
+    /**
+     * For each open element, the number of prefixes it declares.
+     */
+    private int[] declCounts = new int[16];
+    private int depth;
+
+    /** Prefixes in scope, in the order they were declared. */
+    private final FinalArrayList<String> prefixes = new FinalArrayList<String>();
+
+    /**
+     * Buffers consecutive text chunks, since we don't allow
+     * consecutive text events.
+     */
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * If the text seen so far is a single binary chunk, that chunk.
+     * {@link #buffer} is empty then.
+     */
+    private CharSequence pending;
+
+    private final IntData intData = new IntData();
+
+    BinaryXmlConnector(InputStream in, XmlVisitor visitor) {
+        this.in = in;
+        this.visitor = visitor;
+        this.context = visitor.getContext();
+        this.predictor = visitor.getPredictor();
+        this.nameList = context.getJAXBContext().nameList;
+    }
+
+    public void bridge() throws IOException, SAXException {
+        try {
+            readHeader();
+        } catch (EOFException e) {
+            throw mismatch();
+        }
+        try {
+            readBody();
+        } catch (EOFException e) {
+            // truncated
+            throw corrupted(-1);
+        }
+    }
+
+    private void readBody() throws IOException, SAXException {
+        String[] uris = nameList.namespaceURIs;
+        String[] localNames = nameList.localNames;
+        stringCount = uris.length+localNames.length;
+        strings = new String[stringCount+16];
+        System.arraycopy(uris,0,strings,0,uris.length);
+        System.arraycopy(localNames,0,strings,uris.length,localNames.length);
+
+        visitor.startDocument(this,null);
+
+        int decls = 0;
+        while(true) {
+            int tag = read();
+            switch(tag) {
+            case NS_DECL:
+                String prefix = readString();
+                visitor.startPrefixMapping(prefix,readString());
+                prefixes.add(prefix);
+                decls++;
+                break;
+            case START_ELEMENT:
+                startElement(decls);
+                decls = 0;
+                break;
+            case END_ELEMENT:
+                if(depth==0)
+                    throw corrupted(tag);
+                endElement();
+                break;
+            case TEXT:
+                int len = readLength();
+                char[] text = readChars(len);
+                if(predictor.expectText()) {
+                    flushPending();
+                    buffer.append(text,0,len);
+                }
+                break;
+            case TEXT_INT:
+                int v = readVarint();
+                if(predictor.expectText()) {
+                    flushPending();
+                    intData.reset((v>>>1)^-(v&1));
+                    addText(intData);
+                }
+                break;
+            case TEXT_BYTES:
+                byte[] data = readBytes(readLength());
+                if(predictor.expectText()) {
+                    Base64Data b = new Base64Data();
+                    b.set(data,null);
+                    addText(b);
+                }
+                break;
+            case END_DOCUMENT:
+                if(depth!=0 || decls!=0)
+                    throw corrupted(tag);
+                visitor.endDocument();
+                return;
+            default:
+                throw corrupted(tag);
+            }
+        }
+    }
+
+    private void readHeader() throws IOException, SAXException {
+        for( int i=0; i<MAGIC.length(); i++ )
+            if(read()!=MAGIC.charAt(i))
+                throw mismatch();
+        if(read()!=VERSION)
+            throw mismatch();
+        long fp = 0;
+        for( int i=0; i<8; i++ )
+            fp = (fp<<8)|read();
+        if(fp!=nameList.fingerprint)
+            throw mismatch();
+    }
+
+    private void startElement(int decls) throws IOException, SAXException {
+        String uri = readString();
+        String local = readString();
+        String prefix = readString();
+
+        atts.clear();
+        int tag;
+        while((tag=read())==ATTRIBUTE) {
+            String auri = readString();
+            String alocal = readString();
+            String aprefix = readString();
+            int len = readLength();
+            atts.addAttribute(auri,alocal,getQName(aprefix,alocal),"CDATA",new String(readChars(len),0,len));
+        }
+        if(tag!=END_START_TAG)
+            throw corrupted(tag);
+
+        processText(!context.getCurrentState().isMixed());
+
+        if(depth==declCounts.length) {
+            int[] d = new int[depth*2];
+            System.arraycopy(declCounts,0,d,0,depth);
+            declCounts = d;
+            String[] e = new String[depth*2*3];
+            System.arraycopy(elements,0,e,0,depth*3);
+            elements = e;
+        }
+        declCounts[depth] = decls;
+        elements[depth*3  ] = uri;
+        elements[depth*3+1] = local;
+        elements[depth*3+2] = prefix;
+        depth++;
+
+        tagName.uri = uri;
+        tagName.local = local;
+        tagName.prefix = prefix;
+        tagName.atts = atts;
+        visitor.startElement(tagName);
+    }
+
+    private void endElement() throws SAXException {
+        processText(false);
+
+        depth--;
+        tagName.uri = elements[depth*3];
+        tagName.local = elements[depth*3+1];
+        tagName.prefix = elements[depth*3+2];
+        visitor.endElement(tagName);
+
+        for( int i=declCounts[depth]; i>0; i-- )
+            visitor.endPrefixMapping(prefixes.remove(prefixes.size()-1));
+    }
+
+    private void addText(CharSequence chunk) {
+        if(buffer.length()==0 && pending==null) {
+            pending = chunk;
+        } else {
+            flushPending();
+            buffer.append(chunk);
+        }
+    }
+
+    private void flushPending() {
+        if(pending!=null) {
+            buffer.append(pending);
+            pending = null;
+        }
+    }
+
+    private void processText( boolean ignorable ) throws SAXException {
+        CharSequence text = pending!=null ? pending : buffer;
+        if( predictor.expectText() && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(text)))
+            visitor.text(text);
+        buffer.setLength(0);
+        pending = null;
+    }
+
+    private String readString() throws IOException, SAXException {
+        int ref = readVarint();
+        if(ref==REF_EMPTY)
+            return "";
+        if(ref==REF_LITERAL) {
+            int len = readLength();
+            String s = new String(readChars(len),0,len).intern();
+            if(stringCount==strings.length) {
+                String[] a = new String[stringCount*2];
+                System.arraycopy(strings,0,a,0,stringCount);
+                strings = a;
+            }
+            strings[stringCount++] = s;
+            return s;
+        }
+        if(ref<REF_TABLE || ref-REF_TABLE>=stringCount)
+            throw corrupted(ref);
+        return strings[ref-REF_TABLE];
+    }
+
+    /**
+     * Decodes the given number of characters into {@link #chars}.
+     */
+    private char[] readChars(int len) throws IOException {
+        if(chars.length<len)
+            chars = new char[Math.min(len,Math.max(chars.length*2,CHUNK))];
+        char[] c = chars;
+        for( int i=0; i<len; i++ ) {
+            if(i==c.length)
+                // every character takes at least a byte, so we only get here if they are there
+                c = chars = Arrays.copyOf(c,(int)Math.min(len,2L*c.length));
+            int b = read();
+            if(b<0x80)
+                c[i] = (char)b;
+            else
+            if(b<0xE0)
+                c[i] = (char)(((b&0x1F)<<6)|(read()&0x3F));
+            else
+                c[i] = (char)(((b&0x0F)<<12)|((read()&0x3F)<<6)|(read()&0x3F));
+        }
+        return c;
+    }
+
+    /**
+     * Reads a length, which can't be negative.
+     */
+    private int readLength() throws IOException, SAXException {
+        int len = readVarint();
+        if(len<0)
+            throw corrupted(len);
+        return len;
+    }
+
+    private int readVarint() throws IOException, SAXException {
+        int v = 0;
+        for( int shift=0; shift<32; shift+=7 ) {
+            int b = read();
+            v |= (b&0x7F)<<shift;
+            if(b<0x80)
+                return v;
+        }
+        throw corrupted(v);
+    }
+
+    /**
+     * Reads the given number of bytes. The array grows as the bytes arrive.
+     */
+    private byte[] readBytes(int len) throws IOException {
+        byte[] data = new byte[Math.min(len,CHUNK)];
+        int done = 0;
+        while(true) {
+            readFully(data,done,data.length-done);
+            done = data.length;
+            if(done==len)
+                return data;
+            data = Arrays.copyOf(data,(int)Math.min(len,2L*done));
+        }
+    }
+
+    private void readFully(byte[] data, int off, int len) throws IOException {
+        int done = Math.min(limit-pos,len);
+        System.arraycopy(buf,pos,data,off,done);
+        pos += done;
+        while(done<len) {
+            int n = in.read(data,off+done,len-done);
+            if(n<0)
+                throw new EOFException();
+            done += n;
+            offset += n;
+        }
+    }
+
+    private int read() throws IOException {
+        if(pos==limit) {
+            offset += limit;
+            pos = 0;
+            limit = Math.max(in.read(buf,0,buf.length),0);
+            if(limit==0)
+                throw new EOFException();
+        }
+        return buf[pos++]&0xFF;
+    }
+
+    private SAXParseException mismatch() {
+        return new SAXParseException(Messages.BINARY_INFOSET_MISMATCH.format(),this);
+    }
+
+    private SAXParseException corrupted(int value) {
+        return new SAXParseException(Messages.BINARY_INFOSET_CORRUPTED.format(value),this);
+    }
+
+    private static String getQName(String prefix, String localName) {
+        if(prefix.length()==0)
+            return localName;
+        else
+            return prefix+':'+localName;
+    }
+
+    // LocatorEx implementation
+    public String getPublicId() { return null; }
+    public String getSystemId() { return null; }
+    public int getLineNumber() { return -1; }
+    public int getColumnNumber() { return -1; }
+
+    public ValidationEventLocator getLocation() {
+        ValidationEventLocatorImpl loc = new ValidationEventLocatorImpl();
+        loc.setOffset(offset+pos);
+        return loc;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.ValidationEventLocator;
+import javax.xml.bind.helpers.ValidationEventLocatorImpl;
+
+import com.sun.istack.FinalArrayList;
+import com.sun.xml.bind.WhiteSpaceProcessor;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Walks a DOM tree and sends events to {@link XmlVisitor}.
+ *
+ * <p>
+ * This is the DOM counterpart of {@link StAXStreamConnector}, and replaces
+ * the combination of {@link com.sun.xml.bind.unmarshaller.DOMScanner} and
+ * {@link SAXConnector} when no association between DOM nodes and
+ * objects needs to be maintained.
+ */
+final class DOMConnector implements LocatorEx {
+
+    // event sink
+    private final XmlVisitor visitor;
+
+    private final UnmarshallingContext context;
+    private final XmlVisitor.TextPredictor predictor;
+
+    /** reference to the current node being scanned, for error reporting. */
+    private Node currentNode;
+
+    /** Only one instance is used for all the elements. */
+    private final AttributesImpl atts = new AttributesImpl();
+
+    /**
+     * Buffers consecutive text nodes, since we don't allow
+     * consecutive text events.
+     */
+    private final StringBuilder buffer = new StringBuilder();
+
+    private static final class TagNameImpl extends TagName {
+        String qname;
+        @Override
+        public String getQname() {
+            return qname;
+        }
+    }
+
+    private final TagNameImpl tagName = new TagNameImpl();
+
+    DOMConnector(XmlVisitor visitor) {
+        this.visitor = visitor;
+        this.context = visitor.getContext();
+        this.predictor = visitor.getPredictor();
+    }
+
+    /**
+     * Scans the given {@link Element} or {@link Document}.
+     */
+    public void bridge(Node node) throws SAXException {
+        Element e;
+        if(node.getNodeType() == Node.ELEMENT_NODE) {
+            e = (Element)node;
+        } else if(node.getNodeType() == Node.DOCUMENT_NODE) {
+            e = ((Document)node).getDocumentElement();
+        } else {
+            throw new IllegalArgumentException("Unexpected node type: "+node);
+        }
+
+        currentNode = e;
+        visitor.startDocument(this,null);
+
+        // bindings in scope at the element, declared by its ancestors
+        FinalArrayList<String> inherited = new FinalArrayList<String>();
+        for( Node n=e.getParentNode(); n!=null && n.getNodeType()==Node.ELEMENT_NODE; n=n.getParentNode() ) {
+            NamedNodeMap attributes = n.getAttributes();
+            for( int i=0; i<attributes.getLength(); i++ ) {
+                Attr a = (Attr)attributes.item(i);
+                String prefix = getDeclaredPrefix(a);
+                if(prefix!=null && !inherited.contains(prefix)) {
+                    inherited.add(prefix);
+                    visitor.startPrefixMapping(prefix,a.getValue());
+                }
+            }
+        }
+
+        visit(e);
+
+        for( int i=inherited.size()-1; i>=0; i-- )
+            visitor.endPrefixMapping(inherited.get(i));
+
+        currentNode = e;
+        visitor.endDocument();
+    }
+
+    private void visit(Element e) throws SAXException {
+        currentNode = e;
+        final NamedNodeMap attributes = e.getAttributes();
+        final int len = attributes.getLength();
+
+        atts.clear();
+        for( int i=0; i<len; i++ ) {
+            Attr a = (Attr)attributes.item(i);
+            String prefix = getDeclaredPrefix(a);
+            if(prefix!=null) {
+                visitor.startPrefixMapping(prefix,a.getValue());
+                continue;
+            }
+
+            String name = a.getName();
+            String local = a.getLocalName();
+            if(local==null) local = name;
+            atts.addAttribute(fixNull(a.getNamespaceURI()),local,name,"CDATA",a.getValue());
+        }
+
+        String uri = fixNull(e.getNamespaceURI());
+        String qname = e.getTagName();
+        String local = e.getLocalName();
+        if(local==null) local = qname;
+
+        processText(!context.getCurrentState().isMixed());
+
+        tagName.uri = uri;
+        tagName.local = local;
+        tagName.qname = qname;
+        tagName.atts = atts;
+        visitor.startElement(tagName);
+
+        for( Node n=e.getFirstChild(); n!=null; n=n.getNextSibling() ) {
+            switch(n.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                visit((Element)n);
+                break;
+            case Node.TEXT_NODE:
+            case Node.CDATA_SECTION_NODE:
+                if(predictor.expectText())
+                    buffer.append(n.getNodeValue());
+                break;
+            default:
+                // entity references, comments and processing instructions are ignored
+                break;
+            }
+        }
+
+        currentNode = e;
+        processText(false);
+        tagName.uri = uri;
+        tagName.local = local;
+        tagName.qname = qname;
+        visitor.endElement(tagName);
+
+        for( int i=len-1; i>=0; i-- ) {
+            String prefix = getDeclaredPrefix((Attr)attributes.item(i));
+            if(prefix!=null)
+                visitor.endPrefixMapping(prefix);
+        }
+    }
+
+    private void processText( boolean ignorable ) throws SAXException {
+        if( predictor.expectText() && (!ignorable || !WhiteSpaceProcessor.isWhiteSpace(buffer)))
+            visitor.text(buffer);
+        buffer.setLength(0);
+    }
+
+    /**
+     * If the attribute is a namespace declaration, returns the prefix it declares.
+     * Otherwise null.
+     */
+    private static String getDeclaredPrefix(Attr a) {
+        String name = a.getName();
+        if(!name.startsWith(XMLConstants.XMLNS_ATTRIBUTE))
+            return null;
+        if(name.length()==5)
+            return "";
+        if(name.charAt(5)!=':')
+            return null;
+        String localName = a.getLocalName();
+        if(localName==null)
+            // DOM built without namespace support has this problem
+            localName = name.substring(6);
+        return localName;
+    }
+
+    private static String fixNull(String s) {
+        if(s==null) return "";
+        else        return s;
+    }
+
+    // LocatorEx implementation
+    public String getPublicId() { return null; }
+    public String getSystemId() { return null; }
+    public int getLineNumber() { return -1; }
+    public int getColumnNumber() { return -1; }
+
+    public ValidationEventLocator getLocation() {
+        return new ValidationEventLocatorImpl(currentNode);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.transform.dom.DOMResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.xml.sax.Attributes;
+
+/**
+ * Builds DOM subtrees for {@link DomLoader} straight from the unmarshaller events,
+ * without going through a {@link javax.xml.transform.sax.TransformerHandler}.
+ *
+ * <p>
+ * One instance is kept per {@link UnmarshallingContext} and reused
+ * for every element it loads.
+ *
+ * @see com.sun.xml.bind.marshaller.SAX2DOMEx
+ */
+final class DomBuilder {
+
+    private final DocumentBuilder documentBuilder;
+
+    private Document document;
+
+    /**
+     * Nodes that receive the new children. The first one is the node of the {@link DOMResult}.
+     */
+    private Node[] stack = new Node[16];
+    private int depth;
+
+    /**
+     * {@link DOMResult#getNextSibling()} of the current result.
+     */
+    private Node nextSibling;
+
+    DomBuilder(DocumentBuilder documentBuilder) {
+        this.documentBuilder = documentBuilder;
+    }
+
+    /**
+     * Starts building a new subtree into the given result.
+     */
+    void start(DOMResult result) {
+        Node node = result.getNode();
+        if(node==null) {
+            node = document = documentBuilder.newDocument();
+            result.setNode(node);
+        } else
+        if(node instanceof Document)
+            document = (Document)node;
+        else
+            document = node.getOwnerDocument();
+
+        stack[0] = node;
+        depth = 1;
+        nextSibling = result.getNextSibling();
+    }
+
+    void startElement(TagName ea, UnmarshallingContext context) {
+        Element e = document.createElementNS(ea.uri,ea.getQname());
+
+        // the root of the subtree carries all the in-scope bindings
+        String[] prefixes = depth==1 ? context.getAllDeclaredPrefixes() : context.getNewlyDeclaredPrefixes();
+        for( String prefix : prefixes ) {
+            String nsUri = context.getNamespaceURI(prefix);
+            if(nsUri==null)     throw new IllegalStateException("prefix \'"+prefix+"\' isn't bound");
+            if(prefix.length()==0)
+                e.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,XMLConstants.XMLNS_ATTRIBUTE,nsUri);
+            else
+                e.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,"xmlns:"+prefix,nsUri);
+        }
+
+        Attributes atts = ea.atts;
+        for( int i=0; i<atts.getLength(); i++ ) {
+            String qname = atts.getQName(i);
+            if(qname==null || qname.length()==0)
+                qname = atts.getLocalName(i);
+            e.setAttributeNS(atts.getURI(i),qname,atts.getValue(i));
+        }
+
+        Node parent = stack[depth-1];
+        if(depth==1 && nextSibling!=null)
+            parent.insertBefore(e,nextSibling);
+        else
+            parent.appendChild(e);
+
+        if(depth==stack.length) {
+            Node[] n = new Node[depth*2];
+            System.arraycopy(stack,0,n,0,depth);
+            stack = n;
+        }
+        stack[depth++] = e;
+    }
+
+    void text(CharSequence text) {
+        Node parent = stack[depth-1];
+        Node last = parent.getLastChild();
+        if(last!=null && last.getNodeType()==Node.TEXT_NODE)
+            ((Text)last).appendData(text.toString());
+        else
+            parent.appendChild(document.createTextNode(text.toString()));
+    }
+
+    void endElement() {
+        stack[--depth] = null;
+        if(depth==1) {
+            // done with this subtree. don't keep it
+            stack[0] = null;
+            document = null;
+            nextSibling = null;
+        }
+    }
+}
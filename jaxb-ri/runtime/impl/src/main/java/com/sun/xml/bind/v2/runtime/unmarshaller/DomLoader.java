@@ -42,13 +42,19 @@ package com.sun.xml.bind.v2.runtime.unmarshaller;
 
 import javax.xml.bind.annotation.DomHandler;
 import javax.xml.transform.Result;
+import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.sax.TransformerHandler;
-import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
 import org.xml.sax.SAXException;
 
 /**
  * Loads a DOM.
  *
+ * <p>
+ * When the {@link DomHandler} unmarshals into a {@link DOMResult}, which is the case
+ * for {@link javax.xml.bind.annotation.W3CDomHandler}, the tree is built directly by
+ * the {@link DomBuilder} of the {@link UnmarshallingContext}. Other results are fed
+ * through an identity {@link TransformerHandler}.
+ *
  * @author Kohsuke Kawaguchi
  */
 public class DomLoader<ResultT extends Result> extends Loader {
@@ -62,9 +68,12 @@ public class DomLoader<ResultT extends Result> extends Loader {
      */
     private final class State {
         
-        /** This handler will receive SAX events. */
+        /** This handler will receive SAX events, unless {@link #builder} is used. */
         private TransformerHandler handler = null;
 
+        /** Builds the DOM directly into a {@link DOMResult}. */
+        private DomBuilder builder = null;
+
         /** {@link #handler} will produce this result. */
         private final ResultT result;
 
@@ -72,9 +81,15 @@ public class DomLoader<ResultT extends Result> extends Loader {
         int depth = 1;
 
         public State( UnmarshallingContext context ) throws SAXException {
-            handler = JAXBContextImpl.createTransformerHandler(context.getJAXBContext().disableSecurityProcessing);
             result = dom.createUnmarshaller(context);
 
+            if(result instanceof DOMResult) {
+                builder = context.getDomBuilder();
+                builder.start((DOMResult)result);
+                return;
+            }
+
+            handler = context.getJAXBContext().newTransformerHandler();
             handler.setResult(result);
 
             // emulate the start of documents
@@ -118,6 +133,10 @@ public class DomLoader<ResultT extends Result> extends Loader {
             state.setTarget(new State(context));
 
         State s = (State) state.getTarget();
+        if(s.builder!=null) {
+            s.builder.startElement(ea,context);
+            return;
+        }
         try {
             s.declarePrefixes(context, context.getNewlyDeclaredPrefixes());
             s.handler.startElement(ea.uri, ea.local, ea.getQname(), ea.atts);
@@ -139,8 +158,12 @@ public class DomLoader<ResultT extends Result> extends Loader {
     public void text(UnmarshallingContext.State state, CharSequence text) throws SAXException {
         if(text.length()==0)
             return;     // there's no point in creating an empty Text node in DOM. 
+        State s = (State) state.getTarget();
+        if(s.builder!=null) {
+            s.builder.text(text);
+            return;
+        }
         try {
-            State s = (State) state.getTarget();
             s.handler.characters(text.toString().toCharArray(),0,text.length());
         } catch( SAXException e ) {
             state.getContext().handleError(e);
@@ -153,6 +176,13 @@ public class DomLoader<ResultT extends Result> extends Loader {
         State s = (State) state.getTarget();
         UnmarshallingContext context = state.getContext();
 
+        if(s.builder!=null) {
+            s.builder.endElement();
+            if((--s.depth)==0)
+                state.setTarget(s.getElement());
+            return;
+        }
+
         try {
             s.handler.endElement(ea.uri, ea.local, ea.getQname());
             s.undeclarePrefixes(context.getNewlyDeclaredPrefixes());
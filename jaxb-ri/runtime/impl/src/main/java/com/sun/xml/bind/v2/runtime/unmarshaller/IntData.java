@@ -72,6 +72,13 @@ public class IntData extends Pcdata {
             length = (i < 0) ? stringSizeOfInt(-i) + 1 : stringSizeOfInt(i);
     }
 
+    /**
+     * Returns the value last set by {@link #reset(int)}.
+     */
+    public int intValue() {
+        return data;
+    }
+
     private final static int [] sizeTable = { 9, 99, 999, 9999, 99999, 999999, 9999999,
                                      99999999, 999999999, Integer.MAX_VALUE };
 
@@ -41,10 +41,11 @@
 package com.sun.xml.bind.v2.runtime.unmarshaller;
 
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.namespace.QName;
 
-import com.sun.xml.bind.DatatypeConverterImpl;
 import com.sun.xml.bind.v2.WellKnownNamespace;
 import com.sun.xml.bind.v2.runtime.ClassBeanInfoImpl;
 import com.sun.xml.bind.v2.runtime.JaxBeanInfo;
@@ -60,6 +61,12 @@ public final class LeafPropertyXsiLoader extends Loader {
     private final TransducedAccessor xacc;
     private final Accessor acc;
 
+    /**
+     * {@link Loader}s for the types seen in xsi:type so far.
+     * This loader is shared among threads.
+     */
+    private final ConcurrentMap<JaxBeanInfo,Loader> loaders = new ConcurrentHashMap<JaxBeanInfo,Loader>();
+
     public LeafPropertyXsiLoader(Loader defaultLoader, TransducedAccessor xacc, Accessor acc) {
         this.defaultLoader = defaultLoader;
         this.expectText = true;
@@ -87,35 +94,45 @@ public final class LeafPropertyXsiLoader extends Loader {
         if (idx >= 0) {
             String value = atts.getValue(idx);
 
-            QName type = DatatypeConverterImpl._parseQName(value, context);
+            UnmarshallingContext.XsiType type = context.resolveXsiType(value);
 
             if (type == null)
                 return defaultLoader;
 
-            beanInfo = context.getJAXBContext().getGlobalType(type);
+            beanInfo = type.beanInfo;
             if (beanInfo == null)
                 return defaultLoader;
-            ClassBeanInfoImpl cbii;
-            try {
-                cbii = (ClassBeanInfoImpl) beanInfo;
-            } catch (ClassCastException cce) {
-                return defaultLoader;
-            }
 
-            if (null == cbii.getTransducer()) {
-                return defaultLoader;
+            Loader loader = loaders.get(beanInfo);
+            if (loader == null) {
+                loader = createLoader(context, beanInfo);
+                loaders.putIfAbsent(beanInfo, loader);
             }
-
-            return new LeafPropertyLoader(
-                    new TransducedAccessor.CompositeTransducedAccessorImpl(
-                            state.getContext().getJAXBContext(),
-                            cbii.getTransducer(),
-                            acc));
+            return loader;
         }
 
         return defaultLoader;
     }
 
+    private Loader createLoader(UnmarshallingContext context, JaxBeanInfo beanInfo) {
+        ClassBeanInfoImpl cbii;
+        try {
+            cbii = (ClassBeanInfoImpl) beanInfo;
+        } catch (ClassCastException cce) {
+            return defaultLoader;
+        }
+
+        if (null == cbii.getTransducer()) {
+            return defaultLoader;
+        }
+
+        return new LeafPropertyLoader(
+                new TransducedAccessor.CompositeTransducedAccessorImpl(
+                        context.getJAXBContext(),
+                        cbii.getTransducer(),
+                        acc));
+    }
+
     @Override
     public Collection<QName> getExpectedChildElements() {
         return defaultLoader.getExpectedChildElements();
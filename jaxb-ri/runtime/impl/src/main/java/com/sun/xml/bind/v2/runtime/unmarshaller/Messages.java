@@ -56,6 +56,9 @@ enum Messages {
     UNABLE_TO_CREATE_MAP, // 1 arg
     UNINTERNED_STRINGS, // no args
     ERRORS_LIMIT_EXCEEDED, // no arg
+    MISSING_REQUIRED, // 1 arg
+    BINARY_INFOSET_MISMATCH, // no arg
+    BINARY_INFOSET_CORRUPTED, // 1 arg
     ;
 
     private static final ResourceBundle rb = ResourceBundle.getBundle(Messages.class.getName());
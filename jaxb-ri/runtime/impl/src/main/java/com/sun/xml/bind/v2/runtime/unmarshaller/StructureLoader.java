@@ -294,9 +294,28 @@ public final class StructureLoader extends Loader {
     @Override
     public void leaveElement(UnmarshallingContext.State state, TagName ea) throws SAXException {
         state.getContext().endScope(frameSize);
+        if(state.getContext().checkRequired)
+            checkRequired(state.getTarget());
         fireAfterUnmarshal(beanInfo, state.getTarget(), state.getPrev());
     }
 
+    /**
+     * Reports the first required element or attribute that the bean didn't get.
+     */
+    private void checkRequired(Object bean) throws SAXException {
+        try {
+            for (ClassBeanInfoImpl bi = (ClassBeanInfoImpl)beanInfo; bi != null; bi = bi.superClazz) {
+                String missing = bi.findMissing(bean);
+                if(missing!=null) {
+                    reportError(Messages.MISSING_REQUIRED.format(missing),true);
+                    return;
+                }
+            }
+        } catch (AccessorException e) {
+            handleGenericException(e,true);
+        }
+    }
+
     private static final QNameMap<TransducedAccessor> EMPTY = new QNameMap<TransducedAccessor>();
 
     public JaxBeanInfo getBeanInfo() {
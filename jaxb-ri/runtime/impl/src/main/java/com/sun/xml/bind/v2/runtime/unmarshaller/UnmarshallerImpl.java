@@ -42,6 +42,7 @@ package com.sun.xml.bind.v2.runtime.unmarshaller;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -65,10 +66,11 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
 
 import com.sun.xml.bind.IDResolver;
 import com.sun.xml.bind.api.ClassResolver;
-import com.sun.xml.bind.unmarshaller.DOMScanner;
+import com.sun.xml.bind.api.JAXBRIContext;
 import com.sun.xml.bind.unmarshaller.InfosetScanner;
 import com.sun.xml.bind.unmarshaller.Messages;
 import com.sun.xml.bind.v2.ClassFactory;
@@ -80,8 +82,6 @@ import com.sun.xml.bind.v2.util.XmlFactory;
 import java.io.Closeable;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -108,6 +108,11 @@ import org.xml.sax.helpers.DefaultHandler;
      */
     private Schema schema;
 
+    /**
+     * Validator of {@link #schema}, created lazily and reused by every unmarshalling.
+     */
+    private ValidatorHandler validator;
+
     public final UnmarshallingContext coordinator;
 
     /** Unmarshaller.Listener */
@@ -119,6 +124,11 @@ import org.xml.sax.helpers.DefaultHandler;
     private AttachmentUnmarshaller attachmentUnmarshaller;
     private IDResolver idResolver = new DefaultIDResolver();
 
+    /**
+     * Reading the binary infoset with {@link BinaryXmlConnector} instead of XML?
+     */
+    private boolean binaryInfoset;
+
     public UnmarshallerImpl( JAXBContextImpl context, AssociationMap assoc ) {
         this.context = context;
         this.coordinator = new UnmarshallingContext( this, assoc );
@@ -131,6 +141,9 @@ import org.xml.sax.helpers.DefaultHandler;
     }
 
     public UnmarshallerHandler getUnmarshallerHandler() {
+        if(binaryInfoset) {
+            throw new IllegalStateException(Messages.format(Messages.NOT_A_BYTE_STREAM));
+        }
         return getUnmarshallerHandler(true,null);
     }
 
@@ -194,7 +207,10 @@ import org.xml.sax.helpers.DefaultHandler;
 
         // delegate to JAXP 1.3 for validation if the client provided a schema
         if (schema != null) {
-            unmarshaller = new ValidatingUnmarshaller(schema,unmarshaller);
+            if (validator == null) {
+                validator = schema.newValidatorHandler();
+            }
+            unmarshaller = new ValidatingUnmarshaller(validator,unmarshaller);
         }
 
         if(attachmentUnmarshaller!=null && attachmentUnmarshaller.isXOPPackage()) {
@@ -237,6 +253,9 @@ import org.xml.sax.helpers.DefaultHandler;
     }
 
     private Object unmarshal0( XMLReader reader, InputSource source, JaxBeanInfo expectedType ) throws JAXBException {
+        if(binaryInfoset) {
+            return unmarshalBinary(source,expectedType);
+        }
 
         SAXConnector connector = getUnmarshallerHandler(needsInterning(reader),expectedType);
 
@@ -275,6 +294,47 @@ import org.xml.sax.helpers.DefaultHandler;
         return result;
     }
 
+    /**
+     * Reports an error if the binary infoset is selected,
+     * for the sources that can only carry XML.
+     */
+    private void checkNotBinary() throws UnmarshalException {
+        if(binaryInfoset) {
+            throw new UnmarshalException(Messages.format(Messages.NOT_A_BYTE_STREAM));
+        }
+    }
+
+    private Object unmarshalBinary( InputSource source, JaxBeanInfo expectedType ) throws JAXBException {
+        InputStream in = source.getByteStream();
+        if (in == null && source.getSystemId() == null) {
+            throw new UnmarshalException(Messages.format(Messages.NOT_A_BYTE_STREAM));
+        }
+
+        try {
+            if (in == null) {
+                in = new URL(source.getSystemId()).openStream();
+            }
+            try {
+                XmlVisitor h = createUnmarshallerHandler(null,false,expectedType);
+                new BinaryXmlConnector(in,h).bridge();
+
+                Object retVal = h.getContext().getResult();
+                h.getContext().clearResult();
+                return retVal;
+            } finally {
+                if (source.getByteStream() == null) {
+                    in.close();
+                }
+            }
+        } catch( IOException e ) {
+            coordinator.clearStates();
+            throw new UnmarshalException(e);
+        } catch( SAXException e ) {
+            coordinator.clearStates();
+            throw createUnmarshalException(e);
+        }
+    }
+
     @Override
     public <T> JAXBElement<T> unmarshal( Source source, Class<T> expectedType ) throws JAXBException {
         if (source instanceof SAXSource) {
@@ -359,19 +419,10 @@ import org.xml.sax.helpers.DefaultHandler;
     }
 
     public final Object unmarshal0( Node node, JaxBeanInfo expectedType ) throws JAXBException {
+        checkNotBinary();
         try {
-            final DOMScanner scanner = new DOMScanner();
-
             InterningXmlVisitor handler = new InterningXmlVisitor(createUnmarshallerHandler(null,false,expectedType));
-            scanner.setContentHandler(new SAXConnector(handler,scanner));
-
-            if(node.getNodeType() == Node.ELEMENT_NODE) {
-                scanner.scan((Element)node);
-            } else if(node.getNodeType() == Node.DOCUMENT_NODE) {
-                scanner.scan((Document)node);
-            } else {
-                throw new IllegalArgumentException("Unexpected node type: "+node);
-            }
+            new DOMConnector(handler).bridge(node);
 
             Object retVal = handler.getContext().getResult();
             handler.getContext().clearResult();
@@ -399,6 +450,7 @@ import org.xml.sax.helpers.DefaultHandler;
             throw new IllegalArgumentException(
                 Messages.format(Messages.NULL_READER));
         }
+        checkNotBinary();
 
         int eventType = reader.getEventType();
         if (eventType != XMLStreamConstants.START_ELEMENT
@@ -440,6 +492,7 @@ import org.xml.sax.helpers.DefaultHandler;
             throw new IllegalArgumentException(
                     Messages.format(Messages.NULL_READER));
         }
+        checkNotBinary();
 
         try {
             XMLEvent event = reader.peek();
@@ -490,6 +543,12 @@ import org.xml.sax.helpers.DefaultHandler;
         if(name.equals(IDResolver.class.getName())) {
             return idResolver;
         }
+        if(name.equals(JAXBRIContext.CHECK_REQUIRED)) {
+            return coordinator.checkRequired;
+        }
+        if(name.equals(JAXBRIContext.BINARY_INFOSET)) {
+            return binaryInfoset;
+        }
         return super.getProperty(name);
     }
 
@@ -511,14 +570,33 @@ import org.xml.sax.helpers.DefaultHandler;
             coordinator.classLoader = (ClassLoader)value;
             return;
         }
+        if(name.equals(JAXBRIContext.CHECK_REQUIRED)) {
+            coordinator.checkRequired = checkBoolean(name,value);
+            return;
+        }
+        if(name.equals(JAXBRIContext.BINARY_INFOSET)) {
+            binaryInfoset = checkBoolean(name,value);
+            return;
+        }
         super.setProperty(name, value);
     }
 
+    /**
+     * Asserts that the given property value is a Boolean.
+     */
+    private static boolean checkBoolean(String name, Object value) throws PropertyException {
+        if(!(value instanceof Boolean))
+            throw new PropertyException(Messages.format(Messages.MUST_BE_BOOLEAN,
+                    name, value==null ? null : value.getClass().getName()));
+        return (Boolean)value;
+    }
+
     public static final String FACTORY = "com.sun.xml.bind.ObjectFactory";
 
     @Override
     public void setSchema(Schema schema) {
         this.schema = schema;
+        this.validator = null;
     }
 
     @Override
@@ -47,6 +47,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -67,6 +68,7 @@ import javax.xml.namespace.QName;
 import com.sun.istack.NotNull;
 import com.sun.istack.Nullable;
 import com.sun.istack.SAXParseException2;
+import com.sun.xml.bind.DatatypeConverterImpl;
 import com.sun.xml.bind.IDResolver;
 import com.sun.xml.bind.Util;
 import com.sun.xml.bind.api.AccessorException;
@@ -199,6 +201,18 @@ public final class UnmarshallingContext extends Coordinator
      */
     public @Nullable ClassLoader classLoader;
 
+    /**
+     * True to report required elements and attributes that didn't get a value.
+     *
+     * @see com.sun.xml.bind.api.JAXBRIContext#CHECK_REQUIRED
+     */
+    public boolean checkRequired;
+
+    /**
+     * Lazily created. See {@link #getDomBuilder()}.
+     */
+    private DomBuilder domBuilder;
+
     /**
      * The variable introduced to avoid reporting n^10 similar errors.
      * After error is reported counter is decremented. When it became 0 - errors should not be reported any more.
@@ -427,6 +441,7 @@ public final class UnmarshallingContext extends Coordinator
      *      in-place unmarshalling. Otherwise must be both null.
      */
     public UnmarshallingContext( UnmarshallerImpl _parent, AssociationMap assoc) {
+        super(_parent.context);
         this.parent = _parent;
         this.assoc = assoc;
         this.root = this.current = new State(null);
@@ -439,6 +454,15 @@ public final class UnmarshallingContext extends Coordinator
         this.idResolver = idResolver;
     }
 
+    /**
+     * Gets the {@link DomBuilder} that {@link DomLoader} uses for this unmarshaller.
+     */
+    DomBuilder getDomBuilder() {
+        if(domBuilder==null)
+            domBuilder = new DomBuilder(getJAXBContext().newDocumentBuilder());
+        return domBuilder;
+    }
+
     public JAXBContextImpl getJAXBContext() {
         return parent.context;
     }
@@ -1019,6 +1043,71 @@ public final class UnmarshallingContext extends Coordinator
         return null;
     }
 
+    /**
+     * Upper bound of {@link #xsiTypes}, to protect against documents
+     * that use a large number of distinct xsi:type values.
+     */
+    private static final int MAX_XSI_TYPES = 256;
+
+    /**
+     * Resolved xsi:type values, keyed by their lexical form.
+     * The least recently used value is dropped when there are too many.
+     */
+    private final Map<String,XsiType> xsiTypes = new LinkedHashMap<String,XsiType>(16,0.75f,true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,XsiType> eldest) {
+            return size()>MAX_XSI_TYPES;
+        }
+    };
+
+    /**
+     * Result of resolving a lexical xsi:type value.
+     */
+    static final class XsiType {
+        /**
+         * Prefix of the lexical value, "" if it has none.
+         */
+        private final String prefix;
+        final QName name;
+        /**
+         * The global type of {@link #name}, or null if it's not known.
+         */
+        final @Nullable JaxBeanInfo beanInfo;
+
+        XsiType(String prefix, QName name, JaxBeanInfo beanInfo) {
+            this.prefix = prefix;
+            this.name = name;
+            this.beanInfo = beanInfo;
+        }
+    }
+
+    /**
+     * Resolves the lexical value of an xsi:type attribute against the
+     * in-scope namespace bindings.
+     *
+     * <p>
+     * The result is cached by the lexical value, and reused as long as its
+     * prefix is still bound to the same namespace URI. So a document that
+     * repeats the same xsi:type value doesn't need to parse it and look up
+     * the type every time, however the other prefixes come and go.
+     *
+     * @return
+     *      null if the value is not a valid QName.
+     */
+    @Nullable XsiType resolveXsiType(String value) {
+        XsiType t = xsiTypes.get(value);
+        if(t!=null && t.name.getNamespaceURI().equals(resolveNamespacePrefix(t.prefix)))
+            return t;
+
+        QName name = DatatypeConverterImpl._parseQName(value,this);
+        if(name==null)
+            return null;
+
+        t = new XsiType(name.getPrefix(),name,getJAXBContext().getGlobalType(name));
+        xsiTypes.put(value,t);
+        return t;
+    }
+
     @Override
     public String getNamespaceURI(String prefix) {
         if (prefix == null)
@@ -70,7 +70,18 @@ final class ValidatingUnmarshaller implements XmlVisitor, XmlVisitor.TextPredict
      * Creates a new instance of ValidatingUnmarshaller.
      */
     public ValidatingUnmarshaller( Schema schema, XmlVisitor next ) {
-        this.validator = schema.newValidatorHandler();
+        this(schema.newValidatorHandler(),next);
+    }
+
+    /**
+     * Creates a new instance of ValidatingUnmarshaller.
+     *
+     * @param validator
+     *      may have been used for other documents before,
+     *      as it starts over on {@link ValidatorHandler#startDocument()}.
+     */
+    public ValidatingUnmarshaller( ValidatorHandler validator, XmlVisitor next ) {
+        this.validator = validator;
         this.next = next;
         this.predictor = next.getPredictor();
         // if the user bothers to use a validator, make validation errors fatal
@@ -42,7 +42,6 @@ package com.sun.xml.bind.v2.runtime.unmarshaller;
 
 import javax.xml.namespace.QName;
 
-import com.sun.xml.bind.DatatypeConverterImpl;
 import com.sun.xml.bind.v2.WellKnownNamespace;
 import com.sun.xml.bind.v2.runtime.JaxBeanInfo;
 import com.sun.istack.Nullable;
@@ -93,10 +92,11 @@ public class XsiTypeLoader extends Loader {
             // so don't consume it just yet.
             String value = atts.getValue(idx);
 
-            QName type = DatatypeConverterImpl._parseQName(value,context);
-            if(type==null) {
+            UnmarshallingContext.XsiType xsiType = context.resolveXsiType(value);
+            if(xsiType==null) {
                 reportError(Messages.NOT_A_QNAME.format(value),true);
             } else {
+                QName type = xsiType.name;
                 if(defaultBeanInfo!=null && defaultBeanInfo.getTypeNames().contains(type))
                     // if this xsi:type is something that the default type can already handle,
                     // let it do so. This is added as a work around to bug https://jax-ws.dev.java.net/issues/show_bug.cgi?id=195
@@ -106,7 +106,7 @@ public class XsiTypeLoader extends Loader {
                     // but none-the-less
                     return defaultBeanInfo;
 
-                beanInfo = context.getJAXBContext().getGlobalType(type);
+                beanInfo = xsiType.beanInfo;
                 if(beanInfo==null) { // let's report an error
                     if (context.parent.hasEventHandler() // is somebody listening?
                             && context.shouldErrorBeReported()) { // should we report error?
@@ -40,8 +40,10 @@
 
 package com.sun.xml.bind.v2.schemagen;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.io.File;
 import java.net.URI;
@@ -53,6 +55,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -136,10 +142,15 @@ import org.xml.sax.SAXParseException;
  * <ol>
  *  <li>Create a new {@link XmlSchemaGenerator}
  *  <li>Invoke {@link #add} methods, multiple times if necessary.
- *  <li>Invoke {@link #write}
+ *  <li>Invoke {@link #write}, multiple times if necessary.
  *  <li>Discard the {@link XmlSchemaGenerator}.
  * </ol>
  *
+ * <p>
+ * The documents written to a {@link StreamResult} are kept, and
+ * the next {@link #write} reuses them as long as the schema locations
+ * don't change.
+ *
  * @author Ryan Shoemaker
  * @author Kohsuke Kawaguchi (kk@kohsuke.org)
  */
@@ -179,9 +190,17 @@ public final class XmlSchemaGenerator<T,C,F,M> {
     private final NonElement<T,C> anyType;
 
     /**
-     * Used to detect cycles in anonymous types.
+     * Documents rendered by the last {@link #write}, keyed by their namespace.
+     * A document is a {@code byte[]} if it was written to an {@link OutputStream},
+     * or a {@link String} if it was written to a {@link Writer}.
+     */
+    private final Map<Namespace,Object> documents = new HashMap<Namespace,Object>();
+
+    /**
+     * System IDs that {@link #documents} were rendered with.
+     * The imports in them are only valid for these.
      */
-    private final CollisionCheckStack<ClassInfo<T,C>> collisionChecker = new CollisionCheckStack<ClassInfo<T,C>>();
+    private Map<Namespace,String> documentSystemIds;
 
     public XmlSchemaGenerator( Navigator<T,C,F,M> navigator, TypeInfoSet<T,C,F,M> types ) {
         this.navigator = navigator;
@@ -447,6 +466,30 @@ public final class XmlSchemaGenerator<T,C,F,M> {
      * Write out the schema documents.
      */
     public void write(SchemaOutputResolver resolver, ErrorListener errorListener) throws IOException {
+        write(resolver,errorListener,null);
+    }
+
+    /**
+     * The fewest schema documents that {@link #write(SchemaOutputResolver, ErrorListener, ExecutorService)}
+     * renders concurrently. A single document is rendered by the calling thread.
+     */
+    public static final int PARALLEL_THRESHOLD = 2;
+
+    /**
+     * Write out the schema documents, rendering them concurrently.
+     *
+     * <p>
+     * Each namespace is rendered into a buffer by the executor, while
+     * the calling thread creates and writes the outputs in the same order
+     * as {@link #write(SchemaOutputResolver, ErrorListener)} does.
+     * So the {@link SchemaOutputResolver} and the {@link ErrorListener}
+     * don't need to be thread-safe.
+     *
+     * @param executor
+     *      renders the documents. If null, or if fewer than {@link #PARALLEL_THRESHOLD}
+     *      documents need rendering, they are rendered by the calling thread.
+     */
+    public synchronized void write(SchemaOutputResolver resolver, ErrorListener errorListener, ExecutorService executor) throws IOException {
         if(resolver==null)
             throw new IllegalArgumentException();
 
@@ -457,7 +500,8 @@ public final class XmlSchemaGenerator<T,C,F,M> {
 
         // make it fool-proof
         resolver = new FoolProofResolver(resolver);
-        this.errorListener = errorListener;
+        ErrorRecorder recorder = new ErrorRecorder(errorListener);
+        this.errorListener = recorder;
 
         Map<String, String> schemaLocations = types.getSchemaLocations();
 
@@ -485,19 +529,152 @@ public final class XmlSchemaGenerator<T,C,F,M> {
             n.resetWritten();
         }
 
+        if(!systemIds.equals(documentSystemIds)) {
+            // imports point to other places now
+            documents.clear();
+            documentSystemIds = systemIds;
+        }
+
+        // render what we don't have yet in the background,
+        // unless there's too little of it to be worth handing over
+        Map<Namespace,Future<Object>> rendered = new HashMap<Namespace,Future<Object>>();
+        if(executor!=null) {
+            ArrayList<Namespace> pending = new ArrayList<Namespace>();
+            for( Map.Entry<Namespace,Result> e : out.entrySet() ) {
+                if(isBuffered(e.getValue()) && getDocument(e.getKey(),e.getValue())==null)
+                    pending.add(e.getKey());
+            }
+            if(pending.size()<PARALLEL_THRESHOLD)
+                pending.clear();
+
+            final Map<Namespace,String> ids = systemIds;
+            for( final Namespace n : pending ) {
+                final StreamResult result = (StreamResult)out.get(n);
+                rendered.put(n,executor.submit(new Callable<Object>() {
+                    public Object call() throws IOException {
+                        return n.render(result,ids);
+                    }
+                }));
+            }
+        }
+
         // then write'em all
-        for( Map.Entry<Namespace,Result> e : out.entrySet() ) {
-            Result result = e.getValue();
-            e.getKey().writeTo( result, systemIds );
-            if(result instanceof StreamResult) {
-                OutputStream outputStream = ((StreamResult)result).getOutputStream();
-                if(outputStream != null) {
-                    outputStream.close(); // fix for bugid: 6291301
-                } else {
-                    final Writer writer = ((StreamResult)result).getWriter();
-                    if(writer != null) writer.close();
-                }
+        try {
+            for( Map.Entry<Namespace,Result> e : out.entrySet() ) {
+                writeTo(e.getKey(),e.getValue(),systemIds,rendered.get(e.getKey()));
             }
+        } finally {
+            // don't leave work behind when we fail half way
+            for (Future<Object> f : rendered.values())
+                f.cancel(true);
+        }
+
+        if(recorder.reported) {
+            // replaying the documents wouldn't report the problems again
+            documents.clear();
+        }
+    }
+
+    /**
+     * Writes one schema document, either from the buffer or by rendering it,
+     * and closes the output.
+     *
+     * @param rendered
+     *      the document being rendered by the executor, or null.
+     */
+    private void writeTo(Namespace n, Result result, Map<Namespace,String> systemIds, Future<Object> rendered) throws IOException {
+        if(isBuffered(result)) {
+            StreamResult sr = (StreamResult)result;
+            Object doc = rendered!=null ? getRendered(rendered) : getDocument(n,result);
+            if(doc==null)
+                doc = n.render(sr,systemIds);
+            documents.put(n,doc);
+            if(doc instanceof byte[])
+                sr.getOutputStream().write((byte[])doc);
+            else
+                sr.getWriter().write((String)doc);
+        } else {
+            n.writeTo( result, systemIds );
+        }
+        if(result instanceof StreamResult) {
+            OutputStream outputStream = ((StreamResult)result).getOutputStream();
+            if(outputStream != null) {
+                outputStream.close(); // fix for bugid: 6291301
+            } else {
+                final Writer writer = ((StreamResult)result).getWriter();
+                if(writer != null) writer.close();
+            }
+        }
+    }
+
+    /**
+     * Returns true if the document for the given output is rendered into a buffer first.
+     */
+    private static boolean isBuffered(Result result) {
+        if(!(result instanceof StreamResult))
+            return false;
+        StreamResult sr = (StreamResult)result;
+        return sr.getOutputStream()!=null || sr.getWriter()!=null;
+    }
+
+    /**
+     * Gets the document rendered earlier for the given output, or null.
+     */
+    private Object getDocument(Namespace n, Result result) {
+        Object doc = documents.get(n);
+        if(((StreamResult)result).getOutputStream()!=null)
+            return doc instanceof byte[] ? doc : null;
+        else
+            return doc instanceof String ? doc : null;
+    }
+
+    private static Object getRendered(Future<Object> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            if (t instanceof IOException)
+                throw (IOException)t;
+            if (t instanceof RuntimeException)
+                throw (RuntimeException)t;
+            if (t instanceof Error)
+                throw (Error)t;
+            throw new IOException(t);
+        }
+    }
+
+    /**
+     * Serializes the reports from the rendering threads,
+     * and remembers if anything was reported.
+     */
+    private static final class ErrorRecorder implements ErrorListener {
+        private final ErrorListener core;
+        volatile boolean reported;
+
+        ErrorRecorder(ErrorListener core) {
+            this.core = core;
+        }
+
+        public synchronized void error(SAXParseException exception) {
+            reported = true;
+            core.error(exception);
+        }
+
+        public synchronized void fatalError(SAXParseException exception) {
+            reported = true;
+            core.fatalError(exception);
+        }
+
+        public synchronized void warning(SAXParseException exception) {
+            reported = true;
+            core.warning(exception);
+        }
+
+        public synchronized void info(SAXParseException exception) {
+            core.info(exception);
         }
     }
 
@@ -565,6 +742,12 @@ public final class XmlSchemaGenerator<T,C,F,M> {
          */
         private final Set<ClassInfo> written = new HashSet<ClassInfo>();
 
+        /**
+         * Used to detect cycles in anonymous types.
+         * Per namespace, as namespaces may be written concurrently.
+         */
+        private final CollisionCheckStack<ClassInfo<T,C>> collisionChecker = new CollisionCheckStack<ClassInfo<T,C>>();
+
         public Namespace(String uri) {
             this.uri = uri;
             assert !XmlSchemaGenerator.this.namespaces.containsKey(uri);
@@ -627,6 +810,29 @@ public final class XmlSchemaGenerator<T,C,F,M> {
             depends.add(getNamespace(nsUri));
         }
 
+        /**
+         * Renders the schema document for the given output into a buffer.
+         *
+         * @return
+         *      {@code byte[]} if the output is an {@link OutputStream},
+         *      or {@link String} if it's a {@link Writer}.
+         */
+        private Object render(StreamResult result, Map<Namespace,String> systemIds) throws IOException {
+            if(result.getOutputStream()!=null) {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream();
+                StreamResult r = new StreamResult(buf);
+                r.setSystemId(result.getSystemId());
+                writeTo(r,systemIds);
+                return buf.toByteArray();
+            } else {
+                StringWriter buf = new StringWriter();
+                StreamResult r = new StreamResult(buf);
+                r.setSystemId(result.getSystemId());
+                writeTo(r,systemIds);
+                return buf.toString();
+            }
+        }
+
         /**
          * Writes the schema document to the specified result.
          *
@@ -735,6 +941,8 @@ public final class XmlSchemaGenerator<T,C,F,M> {
                         writeTypeRef(a,stringType,"type");
                     else
                         writeAttributeTypeRef(e.getValue(),a);
+                    // like other components, let TXW flush it right away
+                    a.commit();
                     schema._pcdata(newline);
                 }
 
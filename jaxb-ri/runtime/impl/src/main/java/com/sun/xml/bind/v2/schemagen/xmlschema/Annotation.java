@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -64,4 +65,29 @@ public interface Annotation
     @XmlAttribute
     public Annotation id(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Annotation
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Appinfo appinfo() {
+            return _element("http://www.w3.org/2001/XMLSchema", "appinfo", Appinfo.class);
+        }
+
+        public Documentation documentation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "documentation", Documentation.class);
+        }
+
+        public Annotation id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+    }
+
 }
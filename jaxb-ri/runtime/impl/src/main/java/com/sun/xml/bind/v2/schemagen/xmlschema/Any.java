@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
 
@@ -54,4 +55,55 @@ public interface Any
 {
 
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Any
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Occurs minOccurs(int value) {
+            _attribute("", "minOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(String value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(int value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+        public Wildcard processContents(String value) {
+            _attribute("", "processContents", value);
+            return this;
+        }
+
+        public Wildcard namespace(String[] value) {
+            _attribute("", "namespace", value);
+            return this;
+        }
+
+        public Wildcard namespace(String value) {
+            _attribute("", "namespace", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+    }
+
 }
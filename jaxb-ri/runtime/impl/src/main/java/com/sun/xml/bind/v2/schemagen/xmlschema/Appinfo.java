@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -58,4 +59,21 @@ public interface Appinfo
     @XmlAttribute
     public Appinfo source(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Appinfo
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Appinfo source(String value) {
+            _attribute("", "source", value);
+            return this;
+        }
+
+    }
+
 }
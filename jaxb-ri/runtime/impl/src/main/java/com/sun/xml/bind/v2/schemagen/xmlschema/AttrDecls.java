@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
 
@@ -59,4 +60,24 @@ public interface AttrDecls
     @XmlElement
     public Wildcard anyAttribute();
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements AttrDecls
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public LocalAttribute attribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "attribute", LocalAttribute.class);
+        }
+
+        public Wildcard anyAttribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "anyAttribute", Wildcard.class);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -57,4 +58,25 @@ public interface AttributeType
     @XmlAttribute
     public AttributeType type(QName value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements AttributeType
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public AttributeType type(QName value) {
+            _attribute("", "type", value);
+            return this;
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -64,4 +65,38 @@ public interface ComplexContent
     @XmlAttribute
     public ComplexContent mixed(boolean value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ComplexContent
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public ComplexExtension extension() {
+            return _element("http://www.w3.org/2001/XMLSchema", "extension", ComplexExtension.class);
+        }
+
+        public ComplexRestriction restriction() {
+            return _element("http://www.w3.org/2001/XMLSchema", "restriction", ComplexRestriction.class);
+        }
+
+        public ComplexContent mixed(boolean value) {
+            _attribute("", "mixed", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -59,4 +60,50 @@ public interface ComplexRestriction
     @XmlAttribute
     public ComplexRestriction base(QName value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ComplexRestriction
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public ComplexRestriction base(QName value) {
+            _attribute("", "base", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public LocalAttribute attribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "attribute", LocalAttribute.class);
+        }
+
+        public Wildcard anyAttribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "anyAttribute", Wildcard.class);
+        }
+
+        public ExplicitGroup all() {
+            return _element("http://www.w3.org/2001/XMLSchema", "all", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup sequence() {
+            return _element("http://www.w3.org/2001/XMLSchema", "sequence", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup choice() {
+            return _element("http://www.w3.org/2001/XMLSchema", "choice", ExplicitGroup.class);
+        }
+
+    }
+
 }
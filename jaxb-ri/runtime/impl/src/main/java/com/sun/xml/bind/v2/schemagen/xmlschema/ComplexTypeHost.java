@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
 
@@ -56,4 +57,20 @@ public interface ComplexTypeHost
     @XmlElement
     public ComplexType complexType();
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ComplexTypeHost
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public ComplexType complexType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexType", ComplexType.class);
+        }
+
+    }
+
 }
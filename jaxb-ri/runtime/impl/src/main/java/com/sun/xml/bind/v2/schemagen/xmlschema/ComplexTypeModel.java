@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -63,4 +64,49 @@ public interface ComplexTypeModel
     @XmlAttribute
     public ComplexTypeModel mixed(boolean value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ComplexTypeModel
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public SimpleContent simpleContent() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleContent", SimpleContent.class);
+        }
+
+        public ComplexContent complexContent() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexContent", ComplexContent.class);
+        }
+
+        public ComplexTypeModel mixed(boolean value) {
+            _attribute("", "mixed", value);
+            return this;
+        }
+
+        public LocalAttribute attribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "attribute", LocalAttribute.class);
+        }
+
+        public Wildcard anyAttribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "anyAttribute", Wildcard.class);
+        }
+
+        public ExplicitGroup all() {
+            return _element("http://www.w3.org/2001/XMLSchema", "all", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup sequence() {
+            return _element("http://www.w3.org/2001/XMLSchema", "sequence", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup choice() {
+            return _element("http://www.w3.org/2001/XMLSchema", "choice", ExplicitGroup.class);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
 
@@ -65,4 +66,36 @@ public interface ContentModelContainer extends TypedXmlWriter {
 
     @XmlElement
     ExplicitGroup choice();
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ContentModelContainer
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public LocalElement element() {
+            return _element("http://www.w3.org/2001/XMLSchema", "element", LocalElement.class);
+        }
+
+        public Any any() {
+            return _element("http://www.w3.org/2001/XMLSchema", "any", Any.class);
+        }
+
+        public ExplicitGroup all() {
+            return _element("http://www.w3.org/2001/XMLSchema", "all", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup sequence() {
+            return _element("http://www.w3.org/2001/XMLSchema", "sequence", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup choice() {
+            return _element("http://www.w3.org/2001/XMLSchema", "choice", ExplicitGroup.class);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -61,4 +62,26 @@ public interface Documentation
     @XmlAttribute(ns = "http://www.w3.org/XML/1998/namespace")
     public Documentation lang(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Documentation
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Documentation source(String value) {
+            _attribute("", "source", value);
+            return this;
+        }
+
+        public Documentation lang(String value) {
+            _attribute("http://www.w3.org/XML/1998/namespace", "lang", value);
+            return this;
+        }
+
+    }
+
 }
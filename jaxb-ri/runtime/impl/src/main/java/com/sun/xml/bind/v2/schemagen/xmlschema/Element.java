@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -66,4 +67,63 @@ public interface Element
     @XmlAttribute
     public Element nillable(boolean value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Element
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Element type(QName value) {
+            _attribute("", "type", value);
+            return this;
+        }
+
+        public Element block(String value) {
+            _attribute("", "block", value);
+            return this;
+        }
+
+        public Element block(String[] value) {
+            _attribute("", "block", value);
+            return this;
+        }
+
+        public Element nillable(boolean value) {
+            _attribute("", "nillable", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public ComplexType complexType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexType", ComplexType.class);
+        }
+
+        public FixedOrDefault _default(String value) {
+            _attribute("", "default", value);
+            return this;
+        }
+
+        public FixedOrDefault fixed(String value) {
+            _attribute("", "fixed", value);
+            return this;
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
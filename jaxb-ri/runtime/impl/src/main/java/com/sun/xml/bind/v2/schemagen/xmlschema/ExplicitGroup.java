@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 
 /**
@@ -52,4 +53,56 @@ public interface ExplicitGroup
 {
 
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ExplicitGroup
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public LocalElement element() {
+            return _element("http://www.w3.org/2001/XMLSchema", "element", LocalElement.class);
+        }
+
+        public Any any() {
+            return _element("http://www.w3.org/2001/XMLSchema", "any", Any.class);
+        }
+
+        public ExplicitGroup sequence() {
+            return _element("http://www.w3.org/2001/XMLSchema", "sequence", ExplicitGroup.class);
+        }
+
+        public ExplicitGroup choice() {
+            return _element("http://www.w3.org/2001/XMLSchema", "choice", ExplicitGroup.class);
+        }
+
+        public Occurs minOccurs(int value) {
+            _attribute("", "minOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(String value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(int value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+    }
+
 }
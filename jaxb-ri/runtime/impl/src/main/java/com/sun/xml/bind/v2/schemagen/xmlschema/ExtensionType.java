@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -57,4 +58,30 @@ public interface ExtensionType
     @XmlAttribute
     public ExtensionType base(QName value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements ExtensionType
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public ExtensionType base(QName value) {
+            _attribute("", "base", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 
@@ -59,4 +60,26 @@ public interface FixedOrDefault
     @XmlAttribute
     public FixedOrDefault fixed(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements FixedOrDefault
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public FixedOrDefault _default(String value) {
+            _attribute("", "default", value);
+            return this;
+        }
+
+        public FixedOrDefault fixed(String value) {
+            _attribute("", "fixed", value);
+            return this;
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -61,4 +62,35 @@ public interface Import
     @XmlAttribute
     public Import schemaLocation(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Import
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Import namespace(String value) {
+            _attribute("", "namespace", value);
+            return this;
+        }
+
+        public Import schemaLocation(String value) {
+            _attribute("", "schemaLocation", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+    }
+
 }
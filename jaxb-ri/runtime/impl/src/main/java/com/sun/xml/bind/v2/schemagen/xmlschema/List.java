@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -59,4 +60,34 @@ public interface List
     @XmlAttribute
     public List itemType(QName value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements List
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public List itemType(QName value) {
+            _attribute("", "itemType", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -68,4 +69,64 @@ public interface LocalAttribute
     @XmlAttribute
     public LocalAttribute use(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements LocalAttribute
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public LocalAttribute form(String value) {
+            _attribute("", "form", value);
+            return this;
+        }
+
+        public LocalAttribute name(String value) {
+            _attribute("", "name", value);
+            return this;
+        }
+
+        public LocalAttribute ref(QName value) {
+            _attribute("", "ref", value);
+            return this;
+        }
+
+        public LocalAttribute use(String value) {
+            _attribute("", "use", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public AttributeType type(QName value) {
+            _attribute("", "type", value);
+            return this;
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+        public FixedOrDefault _default(String value) {
+            _attribute("", "default", value);
+            return this;
+        }
+
+        public FixedOrDefault fixed(String value) {
+            _attribute("", "fixed", value);
+            return this;
+        }
+
+    }
+
 }
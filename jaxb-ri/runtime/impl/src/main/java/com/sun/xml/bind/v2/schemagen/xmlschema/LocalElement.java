@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -65,4 +66,93 @@ public interface LocalElement
     @XmlAttribute
     public LocalElement ref(QName value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements LocalElement
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public LocalElement form(String value) {
+            _attribute("", "form", value);
+            return this;
+        }
+
+        public LocalElement name(String value) {
+            _attribute("", "name", value);
+            return this;
+        }
+
+        public LocalElement ref(QName value) {
+            _attribute("", "ref", value);
+            return this;
+        }
+
+        public Element type(QName value) {
+            _attribute("", "type", value);
+            return this;
+        }
+
+        public Element block(String value) {
+            _attribute("", "block", value);
+            return this;
+        }
+
+        public Element block(String[] value) {
+            _attribute("", "block", value);
+            return this;
+        }
+
+        public Element nillable(boolean value) {
+            _attribute("", "nillable", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public ComplexType complexType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexType", ComplexType.class);
+        }
+
+        public FixedOrDefault _default(String value) {
+            _attribute("", "default", value);
+            return this;
+        }
+
+        public FixedOrDefault fixed(String value) {
+            _attribute("", "fixed", value);
+            return this;
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+        public Occurs minOccurs(int value) {
+            _attribute("", "minOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(String value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(int value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+    }
+
 }
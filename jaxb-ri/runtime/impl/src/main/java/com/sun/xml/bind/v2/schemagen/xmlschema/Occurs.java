@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 
@@ -62,4 +63,31 @@ public interface Occurs
     @XmlAttribute
     public Occurs maxOccurs(int value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Occurs
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Occurs minOccurs(int value) {
+            _attribute("", "minOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(String value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+        public Occurs maxOccurs(int value) {
+            _attribute("", "maxOccurs", value);
+            return this;
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 
 /**
@@ -52,4 +53,24 @@ public interface Redefinable
 {
 
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Redefinable
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public ComplexType complexType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexType", ComplexType.class);
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
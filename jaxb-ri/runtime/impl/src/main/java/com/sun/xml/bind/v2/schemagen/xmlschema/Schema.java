@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -91,4 +92,90 @@ public interface Schema
     @XmlAttribute
     public Schema version(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Schema
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Import _import() {
+            return _element("http://www.w3.org/2001/XMLSchema", "import", Import.class);
+        }
+
+        public Schema targetNamespace(String value) {
+            _attribute("", "targetNamespace", value);
+            return this;
+        }
+
+        public Schema lang(String value) {
+            _attribute("http://www.w3.org/XML/1998/namespace", "lang", value);
+            return this;
+        }
+
+        public Schema id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public Schema elementFormDefault(String value) {
+            _attribute("", "elementFormDefault", value);
+            return this;
+        }
+
+        public Schema attributeFormDefault(String value) {
+            _attribute("", "attributeFormDefault", value);
+            return this;
+        }
+
+        public Schema blockDefault(String value) {
+            _attribute("", "blockDefault", value);
+            return this;
+        }
+
+        public Schema blockDefault(String[] value) {
+            _attribute("", "blockDefault", value);
+            return this;
+        }
+
+        public Schema finalDefault(String value) {
+            _attribute("", "finalDefault", value);
+            return this;
+        }
+
+        public Schema finalDefault(String[] value) {
+            _attribute("", "finalDefault", value);
+            return this;
+        }
+
+        public Schema version(String value) {
+            _attribute("", "version", value);
+            return this;
+        }
+
+        public TopLevelAttribute attribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "attribute", TopLevelAttribute.class);
+        }
+
+        public TopLevelElement element() {
+            return _element("http://www.w3.org/2001/XMLSchema", "element", TopLevelElement.class);
+        }
+
+        public ComplexType complexType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexType", ComplexType.class);
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
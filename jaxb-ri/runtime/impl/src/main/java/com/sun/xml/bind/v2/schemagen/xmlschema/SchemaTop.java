@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
 
@@ -59,4 +60,32 @@ public interface SchemaTop
     @XmlElement
     public TopLevelElement element();
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements SchemaTop
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public TopLevelAttribute attribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "attribute", TopLevelAttribute.class);
+        }
+
+        public TopLevelElement element() {
+            return _element("http://www.w3.org/2001/XMLSchema", "element", TopLevelElement.class);
+        }
+
+        public ComplexType complexType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "complexType", ComplexType.class);
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
 
@@ -62,4 +63,28 @@ public interface SimpleDerivation
     @XmlElement
     public List list();
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements SimpleDerivation
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public SimpleRestriction restriction() {
+            return _element("http://www.w3.org/2001/XMLSchema", "restriction", SimpleRestriction.class);
+        }
+
+        public Union union() {
+            return _element("http://www.w3.org/2001/XMLSchema", "union", Union.class);
+        }
+
+        public List list() {
+            return _element("http://www.w3.org/2001/XMLSchema", "list", List.class);
+        }
+
+    }
+
 }
@@ -40,8 +40,10 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlElement;
+import javax.xml.namespace.QName;
 
 /**
  * <p><b>
@@ -54,4 +56,46 @@ public interface SimpleRestriction
 {
 
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements SimpleRestriction
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public LocalAttribute attribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "attribute", LocalAttribute.class);
+        }
+
+        public Wildcard anyAttribute() {
+            return _element("http://www.w3.org/2001/XMLSchema", "anyAttribute", Wildcard.class);
+        }
+
+        public SimpleRestrictionModel base(QName value) {
+            _attribute("", "base", value);
+            return this;
+        }
+
+        public NoFixedFacet enumeration() {
+            return _element("http://www.w3.org/2001/XMLSchema", "enumeration", NoFixedFacet.class);
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
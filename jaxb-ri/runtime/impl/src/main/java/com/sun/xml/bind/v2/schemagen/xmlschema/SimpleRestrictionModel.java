@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import javax.xml.namespace.QName;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
@@ -61,4 +62,29 @@ public interface SimpleRestrictionModel
     @XmlElement
     public NoFixedFacet enumeration();
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements SimpleRestrictionModel
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public SimpleRestrictionModel base(QName value) {
+            _attribute("", "base", value);
+            return this;
+        }
+
+        public NoFixedFacet enumeration() {
+            return _element("http://www.w3.org/2001/XMLSchema", "enumeration", NoFixedFacet.class);
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+    }
+
 }
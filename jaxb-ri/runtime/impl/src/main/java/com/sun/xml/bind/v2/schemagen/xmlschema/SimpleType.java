@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
@@ -64,4 +65,52 @@ public interface SimpleType
     @XmlAttribute
     public SimpleType name(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements SimpleType
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public SimpleType _final(String[] value) {
+            _attribute("", "final", value);
+            return this;
+        }
+
+        public SimpleType _final(String value) {
+            _attribute("", "final", value);
+            return this;
+        }
+
+        public SimpleType name(String value) {
+            _attribute("", "name", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public SimpleRestriction restriction() {
+            return _element("http://www.w3.org/2001/XMLSchema", "restriction", SimpleRestriction.class);
+        }
+
+        public Union union() {
+            return _element("http://www.w3.org/2001/XMLSchema", "union", Union.class);
+        }
+
+        public List list() {
+            return _element("http://www.w3.org/2001/XMLSchema", "list", List.class);
+        }
+
+    }
+
 }
@@ -40,9 +40,11 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 import com.sun.xml.txw2.annotation.XmlElement;
+import javax.xml.namespace.QName;
 
 /**
  * <p><b>
@@ -58,4 +60,49 @@ public interface TopLevelAttribute
     @XmlAttribute
     public TopLevelAttribute name(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements TopLevelAttribute
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public TopLevelAttribute name(String value) {
+            _attribute("", "name", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+        public AttributeType type(QName value) {
+            _attribute("", "type", value);
+            return this;
+        }
+
+        public SimpleType simpleType() {
+            return _element("http://www.w3.org/2001/XMLSchema", "simpleType", SimpleType.class);
+        }
+
+        public FixedOrDefault _default(String value) {
+            _attribute("", "default", value);
+            return this;
+        }
+
+        public FixedOrDefault fixed(String value) {
+            _attribute("", "fixed", value);
+            return this;
+        }
+
+    }
+
 }
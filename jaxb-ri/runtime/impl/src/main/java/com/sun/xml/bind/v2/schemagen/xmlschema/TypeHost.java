@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 
 /**
@@ -52,4 +53,16 @@ public interface TypeHost
 {
 
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements TypeHost
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+    }
+
 }
@@ -40,6 +40,7 @@
 
 package com.sun.xml.bind.v2.schemagen.xmlschema;
 
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
 import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlAttribute;
 
@@ -62,4 +63,40 @@ public interface Wildcard
     @XmlAttribute
     public Wildcard namespace(String value);
 
+    public static class _Impl
+        extends AbstractTypedXmlWriter
+        implements Wildcard
+    {
+
+
+        public _Impl(TypedXmlWriter core) {
+            super(core);
+        }
+
+        public Wildcard processContents(String value) {
+            _attribute("", "processContents", value);
+            return this;
+        }
+
+        public Wildcard namespace(String[] value) {
+            _attribute("", "namespace", value);
+            return this;
+        }
+
+        public Wildcard namespace(String value) {
+            _attribute("", "namespace", value);
+            return this;
+        }
+
+        public Annotation annotation() {
+            return _element("http://www.w3.org/2001/XMLSchema", "annotation", Annotation.class);
+        }
+
+        public Annotated id(String value) {
+            _attribute("", "id", value);
+            return this;
+        }
+
+    }
+
 }
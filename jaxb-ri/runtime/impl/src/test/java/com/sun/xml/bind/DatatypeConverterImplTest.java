@@ -0,0 +1,102 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind;
+
+import junit.framework.TestCase;
+
+public class DatatypeConverterImplTest extends TestCase {
+
+    private static final String[] NUMBERS = {
+        "0", "-0", "+0", "1.", "-.5", " 12.5\n", "00012", "0.1", "0.3",
+        "3.14159265358979", "123456789012345", "-9.99999999999999",
+        "16777215", "16777216.5", "0.0000001", "1234567890123456789",
+        "1e5", "-1.5E-3", "0.1234567890123456789"
+    };
+
+    private static final String[] NOT_NUMBERS = {
+        "", " ", ".", "+", "-", "+-5", "1 2", "1.5f", "1..2", "abc"
+    };
+
+    public void testParseDouble() {
+        for (String s : NUMBERS) {
+            assertEquals(s, Double.parseDouble(s.trim()), DatatypeConverterImpl._parseDouble(new StringBuilder(s)));
+        }
+        assertTrue(Double.isNaN(DatatypeConverterImpl._parseDouble("NaN")));
+        assertEquals(Double.NEGATIVE_INFINITY, DatatypeConverterImpl._parseDouble(" -INF "));
+        for (String s : NOT_NUMBERS) {
+            try {
+                DatatypeConverterImpl._parseDouble(s);
+                fail(s);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testParseFloat() {
+        for (String s : NUMBERS) {
+            assertEquals(s, Float.parseFloat(s.trim()), DatatypeConverterImpl._parseFloat(new StringBuilder(s)));
+        }
+        for (String s : NOT_NUMBERS) {
+            try {
+                DatatypeConverterImpl._parseFloat(s);
+                fail(s);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testParseLong() {
+        String[] values = {"0", "-0", "+12", " 42 ", "-123456789012345678", "9223372036854775807", "-9223372036854775808"};
+        for (String s : values) {
+            assertEquals(s, Long.parseLong(s.trim().replace("+", "")), DatatypeConverterImpl._parseLong(new StringBuilder(s)));
+        }
+        for (String s : new String[]{"", "+", "-", "+-5", "1 2", "1.0", "9223372036854775808"}) {
+            try {
+                DatatypeConverterImpl._parseLong(s);
+                fail(s);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+}
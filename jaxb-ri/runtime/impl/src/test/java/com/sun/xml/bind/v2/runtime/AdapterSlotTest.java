@@ -0,0 +1,184 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the adapter slots that {@link JAXBContextImpl} assigns
+ * and {@link Coordinator} uses.
+ */
+public class AdapterSlotTest extends TestCase {
+
+    public static class Upper extends XmlAdapter<String,String> {
+        int calls;
+        public String unmarshal(String v) {
+            calls++;
+            return v.toLowerCase();
+        }
+        public String marshal(String v) {
+            calls++;
+            return v.toUpperCase();
+        }
+    }
+
+    public static class Reverse extends XmlAdapter<String,String> {
+        public String unmarshal(String v) {
+            return marshal(v);
+        }
+        public String marshal(String v) {
+            return new StringBuilder(v).reverse().toString();
+        }
+    }
+
+    public static class Unused extends XmlAdapter<String,String> {
+        public String unmarshal(String v) {
+            return v;
+        }
+        public String marshal(String v) {
+            return v;
+        }
+    }
+
+    @XmlRootElement
+    static class One {
+        @XmlElement
+        @XmlJavaTypeAdapter(Upper.class)
+        String name;
+        @XmlElement
+        @XmlJavaTypeAdapter(Upper.class)
+        List<String> alias = new ArrayList<String>();
+    }
+
+    @XmlRootElement
+    static class Two {
+        @XmlElement
+        @XmlJavaTypeAdapter(Reverse.class)
+        String name;
+        @XmlElement
+        @XmlJavaTypeAdapter(Upper.class)
+        List<String> alias = new ArrayList<String>();
+    }
+
+    public void testSlotsArePerContext() throws Exception {
+        JAXBContextImpl one = (JAXBContextImpl)JAXBContext.newInstance(One.class);
+        JAXBContextImpl two = (JAXBContextImpl)JAXBContext.newInstance(Two.class);
+
+        assertEquals(1, one.getAdapterSlotCount());
+        assertEquals(0, one.getAdapterSlot(Upper.class));
+        assertEquals(-1, one.getAdapterSlot(Reverse.class));
+        assertEquals(-1, one.getAdapterSlot(Unused.class));
+
+        // slots are dense in each context, no matter which adapters other contexts use
+        assertEquals(2, two.getAdapterSlotCount());
+        assertTrue(two.getAdapterSlot(Upper.class)>=0);
+        assertTrue(two.getAdapterSlot(Reverse.class)>=0);
+        assertTrue(two.getAdapterSlot(Upper.class)!=two.getAdapterSlot(Reverse.class));
+        assertEquals(-1, two.getAdapterSlot(Unused.class));
+    }
+
+    public void testRoundTrip() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Two.class);
+        Two two = new Two();
+        two.name = "abc";
+        two.alias.addAll(Arrays.asList("x", "y"));
+
+        String xml = marshal(context.createMarshaller(), two);
+        assertTrue(xml, xml.contains("<name>cba</name>"));
+        assertTrue(xml, xml.contains("<alias>X</alias>"));
+
+        Two back = (Two)context.createUnmarshaller().unmarshal(new StringReader(xml));
+        assertEquals("abc", back.name);
+        assertEquals(Arrays.asList("x", "y"), back.alias);
+    }
+
+    public void testUserAdapters() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(One.class);
+        One one = new One();
+        one.name = "abc";
+        one.alias.add("def");
+
+        Upper upper = new Upper();
+        Unused unused = new Unused();
+        Marshaller m = context.createMarshaller();
+        m.setAdapter(upper);
+        m.setAdapter(unused);
+        assertSame(upper, m.getAdapter(Upper.class));
+        assertSame(unused, m.getAdapter(Unused.class));
+
+        String xml = marshal(m, one);
+        assertEquals(2, upper.calls);
+
+        Upper other = new Upper();
+        Unmarshaller u = context.createUnmarshaller();
+        u.setAdapter(other);
+        u.setAdapter(unused);
+        assertSame(other, u.getAdapter(Upper.class));
+        assertSame(unused, u.getAdapter(Unused.class));
+        u.setAdapter(Unused.class, null);
+        assertNull(u.getAdapter(Unused.class));
+
+        One back = (One)u.unmarshal(new StringReader(xml));
+        assertEquals("abc", back.name);
+        assertEquals(2, other.calls);
+        assertEquals(2, upper.calls);
+    }
+
+    private static String marshal(Marshaller m, Object o) throws Exception {
+        StringWriter w = new StringWriter();
+        m.marshal(o, w);
+        return w.toString();
+    }
+}
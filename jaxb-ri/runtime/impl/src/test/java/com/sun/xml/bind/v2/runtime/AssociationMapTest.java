@@ -0,0 +1,167 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.lang.ref.WeakReference;
+
+import junit.framework.TestCase;
+
+public class AssociationMapTest extends TestCase {
+
+    public void testStrongPeers() {
+        check(new AssociationMap<Object>());
+    }
+
+    public void testWeakPeers() {
+        AssociationMap<Object> m = new AssociationMap<Object>();
+        m.setWeakPeers(true);
+        check(m);
+    }
+
+    public void testSwitchingKeepsAssociations() {
+        AssociationMap<Object> m = new AssociationMap<Object>();
+        Object e = new Object();
+        Object inner = new Object();
+        Object outer = new Object();
+        m.addInner(e, inner);
+        m.addOuter(e, outer);
+
+        m.setWeakPeers(true);
+        assertTrue(m.isWeakPeers());
+        assertSame(inner, m.getInnerPeer(e));
+        assertSame(outer, m.getOuterPeer(e));
+        assertSame(e, m.getElement(inner));
+
+        m.setWeakPeers(false);
+        assertSame(e, m.getElement(outer));
+    }
+
+    public void testCollectedPeerIsExpunged() throws Exception {
+        AssociationMap<Object> m = new AssociationMap<Object>();
+        m.setWeakPeers(true);
+        WeakReference<Object>[] refs = associate(m);
+        WeakReference<Object> element = refs[0];
+        WeakReference<Object> inner = refs[1];
+
+        for (int i = 0; i < 50 && inner.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(inner.get());
+
+        // the map holds the element only through the association,
+        // so the element goes away once the association is removed
+        for (int i = 0; i < 50 && element.get() != null; i++) {
+            m.getElement(this);
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(element.get());
+    }
+
+    public void testCollectedOuterPeerKeepsInner() throws Exception {
+        AssociationMap<Object> m = new AssociationMap<Object>();
+        m.setWeakPeers(true);
+        Object e = new Object();
+        Object inner = new Object();
+        m.addInner(e, inner);
+        WeakReference<Object> outer = addOuter(m, e);
+
+        for (int i = 0; i < 50 && outer.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(outer.get());
+        assertNull(m.getOuterPeer(e));
+        assertSame(inner, m.getInnerPeer(e));
+        assertSame(e, m.getElement(inner));
+    }
+
+    /**
+     * Associates an element with an inner peer, keeping neither of them.
+     */
+    @SuppressWarnings("unchecked")
+    private static WeakReference<Object>[] associate(AssociationMap<Object> m) {
+        Object e = new Object();
+        Object inner = new Object();
+        m.addInner(e, inner);
+        assertSame(inner, m.getInnerPeer(e));
+        return new WeakReference[]{new WeakReference<Object>(e), new WeakReference<Object>(inner)};
+    }
+
+    private static WeakReference<Object> addOuter(AssociationMap<Object> m, Object e) {
+        Object outer = new Object();
+        m.addOuter(e, outer);
+        assertSame(outer, m.getOuterPeer(e));
+        return new WeakReference<Object>(outer);
+    }
+
+    private void check(AssociationMap<Object> m) {
+        Object e1 = new Object();
+        Object e2 = new Object();
+        Object bean1 = new Object();
+        Object element1 = new Object();
+        Object bean2 = new Object();
+
+        m.addInner(e1, bean1);
+        m.addOuter(e1, element1);
+        m.addInner(e2, bean2);
+        assertSame(bean1, m.getInnerPeer(e1));
+        assertSame(element1, m.getOuterPeer(e1));
+        assertNull(m.getOuterPeer(e2));
+        assertSame(e1, m.getElement(bean1));
+        assertSame(e1, m.getElement(element1));
+        assertSame(e2, m.getElement(bean2));
+
+        // moving an inner peer to another element drops the old associations
+        m.addInner(e2, bean1);
+        assertSame(e2, m.getElement(bean1));
+        assertNull(m.getElement(bean2));
+        assertNull(m.getElement(element1));
+        assertNull(m.getInnerPeer(e1));
+        assertNull(m.getOuterPeer(e1));
+
+        // associating the same pair again is harmless
+        m.addInner(e2, bean1);
+        assertSame(bean1, m.getInnerPeer(e2));
+        assertSame(e2, m.getElement(bean1));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.Binder;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import junit.framework.TestCase;
+
+public class BinderChangeTrackingTest extends TestCase {
+
+    @XmlRootElement
+    static class Root {
+        @XmlElement(name = "item")
+        List<Item> items = new ArrayList<Item>();
+    }
+
+    static class Item {
+        @XmlAttribute
+        String id;
+        @XmlElement
+        String name;
+        @XmlElement
+        byte[] data;
+        @XmlElement(name = "code")
+        List<byte[]> codes = new ArrayList<byte[]>();
+    }
+
+    public void testOnlyChangedBeansAreRemarshalled() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document doc = dbf.newDocumentBuilder().parse(new InputSource(new StringReader(
+            "<root><item id='1'><name>a</name></item><item id='2'><name>b</name></item></root>")));
+
+        Binder<Node> binder = JAXBContext.newInstance(Root.class).createBinder();
+        binder.setProperty(BinderImpl.TRACK_CHANGES, true);
+        assertEquals(Boolean.TRUE, binder.getProperty(BinderImpl.TRACK_CHANGES));
+
+        Root root = (Root) binder.unmarshal(doc.getDocumentElement());
+        Node first = binder.getXMLNode(root.items.get(0));
+        Node second = binder.getXMLNode(root.items.get(1));
+
+        root.items.get(1).name = "c";
+        assertSame(doc.getDocumentElement(), binder.updateXML(root));
+        assertSame(first, binder.getXMLNode(root.items.get(0)));
+        assertNotSame(second, binder.getXMLNode(root.items.get(1)));
+        Element updated = (Element) doc.getDocumentElement().getElementsByTagName("item").item(1);
+        assertSame(updated, binder.getXMLNode(root.items.get(1)));
+        assertEquals("2", updated.getAttribute("id"));
+        assertEquals("c", updated.getTextContent());
+
+        // nothing has changed
+        assertSame(updated, binder.updateXML(root.items.get(1)));
+
+        // a change to the list re-marshals the root
+        root.items.remove(0);
+        Node newRoot = binder.updateXML(root);
+        assertNotSame(doc.getDocumentElement(), first.getParentNode());
+        assertSame(doc.getDocumentElement(), newRoot);
+        assertEquals(1, doc.getDocumentElement().getElementsByTagName("item").getLength());
+    }
+
+    public void testChangesInsideArrays() throws Exception {
+        Document doc = parse("<root><item id='1'><name>a</name><data>AQID</data><code>AQ==</code></item></root>");
+
+        Binder<Node> binder = JAXBContext.newInstance(Root.class).createBinder();
+        binder.setProperty(BinderImpl.TRACK_CHANGES, true);
+        Root root = (Root) binder.unmarshal(doc.getDocumentElement());
+        Item item = root.items.get(0);
+        Node node = binder.getXMLNode(item);
+
+        assertSame(node, binder.updateXML(item));
+
+        // an element of an array
+        item.data[0] = 9;
+        Node updated = binder.updateXML(item);
+        assertNotSame(node, updated);
+        assertEquals("CQID", ((Element) updated).getElementsByTagName("data").item(0).getTextContent());
+        assertSame(updated, binder.updateXML(item));
+
+        // an element of an array in a list
+        item.codes.get(0)[0] = 2;
+        Node again = binder.updateXML(item);
+        assertNotSame(updated, again);
+        assertEquals("Ag==", ((Element) again).getElementsByTagName("code").item(0).getTextContent());
+    }
+
+    public void testSnapshotsAreReleased() throws Exception {
+        ChangeTracker tracker = new ChangeTracker((JAXBContextImpl) JAXBContext.newInstance(Root.class));
+        Root root = new Root();
+        root.items.add(new Item());
+        root.items.add(new Item());
+        tracker.snapshot(root);
+        assertEquals(3, tracker.size());
+
+        root.items.remove(1);
+        tracker.snapshot(root);
+        root = null;
+        for( int i=0; i<50 && tracker.size()!=0; i++ ) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, tracker.size());
+    }
+
+    private static Document parse(String xml) throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.MarshalException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.PropertyException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.util.ValidationEventCollector;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+
+import junit.framework.TestCase;
+
+public class CheckRequiredTest extends TestCase {
+
+    @XmlRootElement
+    static class Root {
+        @XmlAttribute(required = true)
+        String id;
+        @XmlElement(required = true)
+        String name;
+        @XmlElement(required = true, nillable = true)
+        String note;
+        @XmlElement
+        String comment;
+    }
+
+    public void testMarshal() throws Exception {
+        Marshaller m = JAXBContext.newInstance(Root.class).createMarshaller();
+        Root root = new Root();
+        root.id = "1";
+
+        // off by default
+        m.marshal(root, new StringWriter());
+
+        m.setProperty(JAXBRIContext.CHECK_REQUIRED, true);
+        assertEquals(Boolean.TRUE, m.getProperty(JAXBRIContext.CHECK_REQUIRED));
+        try {
+            m.marshal(root, new StringWriter());
+            fail();
+        } catch (MarshalException e) {
+            // expected
+        }
+
+        root.name = "a";
+        m.marshal(root, new StringWriter());
+    }
+
+    public void testUnmarshal() throws Exception {
+        Unmarshaller u = JAXBContext.newInstance(Root.class).createUnmarshaller();
+        ValidationEventCollector events = new ValidationEventCollector();
+        u.setEventHandler(events);
+        u.setProperty(JAXBRIContext.CHECK_REQUIRED, true);
+
+        Root root = (Root) u.unmarshal(new StringReader("<root id='1'><name>a</name></root>"));
+        assertEquals("a", root.name);
+        assertFalse(events.hasEvents());
+
+        u.unmarshal(new StringReader("<root><name>a</name></root>"));
+        assertEquals(1, events.getEvents().length);
+    }
+
+    public void testNotBoolean() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Root.class);
+        Marshaller m = context.createMarshaller();
+        Unmarshaller u = context.createUnmarshaller();
+        try {
+            m.setProperty(JAXBRIContext.CHECK_REQUIRED, "true");
+            fail();
+        } catch (PropertyException e) {
+            // expected
+        }
+        try {
+            u.setProperty(JAXBRIContext.CHECK_REQUIRED, "true");
+            fail();
+        } catch (PropertyException e) {
+            // expected
+        }
+        assertEquals(Boolean.FALSE, u.getProperty(JAXBRIContext.CHECK_REQUIRED));
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAnyElement;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlMixed;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMResult;
+
+import com.sun.xml.bind.v2.runtime.output.DOMOutput;
+import com.sun.xml.bind.v2.runtime.unmarshaller.DOMConnector;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests marshalling to DOM ({@link DOMOutput}), writing DOM content
+ * ({@link DomAdaptor}) and unmarshalling from DOM ({@link DOMConnector}).
+ */
+public class DomRoundTripTest extends TestCase {
+
+    private static final String XSI = XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI;
+    private static final String XMLNS = XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+
+    @XmlRootElement(name="doc", namespace="urn:d")
+    @XmlSeeAlso(Special.class)
+    static class Doc {
+        @XmlAttribute(namespace="urn:a")
+        String code;
+        @XmlElement(namespace="")
+        String plain;
+        @XmlElement(namespace="urn:d")
+        Base item;
+        @XmlElement(namespace="urn:d")
+        Text text;
+        @XmlAnyElement
+        List<Element> any = new ArrayList<Element>();
+    }
+
+    @XmlType(namespace="urn:d")
+    static class Base {
+        @XmlElement(namespace="urn:d")
+        String value;
+    }
+
+    @XmlType(name="special", namespace="urn:s")
+    static class Special extends Base {
+        @XmlAttribute
+        String kind;
+    }
+
+    @XmlType(namespace="urn:d")
+    static class Text {
+        @XmlMixed
+        @XmlAnyElement
+        List<Object> content = new ArrayList<Object>();
+    }
+
+    private static final String XML =
+        "<wrap xmlns='urn:d' xmlns:s='urn:s' xmlns:xsi='"+XSI+"'>" +
+          "<doc xmlns:a='urn:a' a:code='c1'>" +
+            "<plain xmlns=''>p</plain>" +
+            "<item xsi:type='s:special' kind='k'><value>v</value></item>" +
+            "<text>one<b xmlns='urn:b'>two</b>three</text>" +
+            "<x:other xmlns:x='urn:x' x:y='z'><inner/></x:other>" +
+          "</doc>" +
+        "</wrap>";
+
+    private JAXBContext context;
+
+    @Override
+    protected void setUp() throws Exception {
+        context = JAXBContext.newInstance(Doc.class);
+    }
+
+    public void testMarshalToDom() throws Exception {
+        Document dom = newDocument();
+        context.createMarshaller().marshal(createDoc(), new DOMResult(dom));
+
+        Element root = dom.getDocumentElement();
+        assertNamespaceWellFormed(root);
+        assertEquals("urn:d", root.getNamespaceURI());
+        assertEquals("doc", root.getLocalName());
+        assertEquals("c1", root.getAttributeNS("urn:a", "code"));
+
+        Element plain = child(root, 0);
+        assertNull(plain.getNamespaceURI());
+        assertEquals("p", plain.getTextContent());
+
+        Element item = child(root, 1);
+        String type = item.getAttributeNS(XSI, "type");
+        int idx = type.indexOf(':');
+        assertEquals("special", type.substring(idx+1));
+        assertEquals("urn:s", lookup(item, idx<0 ? "" : type.substring(0, idx)));
+        assertEquals("k", item.getAttributeNS(null, "kind"));
+
+        Element text = child(root, 2);
+        assertMixed(text);
+
+        Element other = child(root, 3);
+        assertEquals("urn:x", other.getNamespaceURI());
+        assertEquals("z", other.getAttributeNS("urn:x", "y"));
+        assertEquals("urn:d", child(other, 0).getNamespaceURI());
+    }
+
+    public void testWriteDom() throws Exception {
+        // a non-root element that inherits its namespace bindings
+        Document source = parse(
+            "<outer xmlns='urn:o' xmlns:q='urn:q'>" +
+              "<inner q:attr='v'><q:child/><plain xmlns=''><deep/></plain>text</inner>" +
+            "</outer>");
+        Element inner = child(source.getDocumentElement(), 0);
+
+        Doc doc = new Doc();
+        doc.any.add(inner);
+
+        StringWriter w = new StringWriter();
+        context.createMarshaller().marshal(doc, w);
+        Element root = parse(w.toString()).getDocumentElement();
+        assertInner(child(root, 0));
+
+        Document dom = newDocument();
+        context.createMarshaller().marshal(doc, new DOMResult(dom));
+        assertInner(child(dom.getDocumentElement(), 0));
+    }
+
+    public void testUnmarshalDocument() throws Exception {
+        Document dom = parse(XML);
+        Element doc = child(dom.getDocumentElement(), 0);
+        Element wrap = dom.getDocumentElement();
+        wrap.removeChild(doc);
+        dom.replaceChild(doc, wrap);
+        // the bindings of the removed wrapper are declared again on the new root
+        doc.setAttributeNS(XMLNS, "xmlns", "urn:d");
+        doc.setAttributeNS(XMLNS, "xmlns:s", "urn:s");
+        doc.setAttributeNS(XMLNS, "xmlns:xsi", XSI);
+
+        Unmarshaller u = context.createUnmarshaller();
+        assertDoc((Doc)u.unmarshal(dom));
+        assertDoc((Doc)u.unmarshal(dom.getDocumentElement()));
+    }
+
+    public void testUnmarshalNonRootElement() throws Exception {
+        // doc uses the default namespace, the s prefix and the xsi prefix of its parent
+        Element doc = child(parse(XML).getDocumentElement(), 0);
+        assertDoc((Doc)context.createUnmarshaller().unmarshal(doc));
+    }
+
+    public void testRoundTrip() throws Exception {
+        Document dom = newDocument();
+        Marshaller m = context.createMarshaller();
+        m.marshal(createDoc(), new DOMResult(dom));
+        assertDoc((Doc)context.createUnmarshaller().unmarshal(dom));
+    }
+
+    private Doc createDoc() throws Exception {
+        Doc doc = (Doc)context.createUnmarshaller().unmarshal(new StringReader(XML.replaceAll("</?wrap[^>]*>", "")
+                .replace("<doc ", "<doc xmlns='urn:d' xmlns:s='urn:s' xmlns:xsi='"+XSI+"' ")));
+        assertDoc(doc);
+        return doc;
+    }
+
+    private static void assertDoc(Doc doc) {
+        assertEquals("c1", doc.code);
+        assertEquals("p", doc.plain);
+        assertTrue(doc.item instanceof Special);
+        assertEquals("v", doc.item.value);
+        assertEquals("k", ((Special)doc.item).kind);
+
+        List<Object> content = doc.text.content;
+        assertEquals(3, content.size());
+        assertEquals("one", content.get(0));
+        Element b = (Element)content.get(1);
+        assertEquals("urn:b", b.getNamespaceURI());
+        assertEquals("two", b.getTextContent());
+        assertEquals("three", content.get(2));
+
+        assertEquals(1, doc.any.size());
+        Element other = doc.any.get(0);
+        assertEquals("urn:x", other.getNamespaceURI());
+        assertEquals("z", other.getAttributeNS("urn:x", "y"));
+        assertEquals("urn:d", child(other, 0).getNamespaceURI());
+    }
+
+    private static void assertMixed(Element text) {
+        Node n = text.getFirstChild();
+        assertEquals("one", n.getNodeValue());
+        n = n.getNextSibling();
+        assertEquals("urn:b", n.getNamespaceURI());
+        assertEquals("two", n.getTextContent());
+        n = n.getNextSibling();
+        assertEquals("three", n.getNodeValue());
+        assertNull(n.getNextSibling());
+    }
+
+    private static void assertInner(Element inner) {
+        assertNamespaceWellFormed(inner);
+        assertEquals("urn:o", inner.getNamespaceURI());
+        assertEquals("inner", inner.getLocalName());
+        assertEquals("v", inner.getAttributeNS("urn:q", "attr"));
+        assertEquals("urn:q", child(inner, 0).getNamespaceURI());
+        Element plain = child(inner, 1);
+        assertNull(plain.getNamespaceURI());
+        assertNull(child(plain, 0).getNamespaceURI());
+        assertEquals("text", inner.getLastChild().getNodeValue());
+    }
+
+    /**
+     * Checks that every prefix used in the subtree is bound by an xmlns attribute
+     * in scope to the namespace URI of the node, as a serializer would need.
+     */
+    private static void assertNamespaceWellFormed(Element e) {
+        assertEquals(e.getTagName(), e.getNamespaceURI()==null ? "" : e.getNamespaceURI(),
+                lookup(e, e.getPrefix()==null ? "" : e.getPrefix()));
+        NamedNodeMap atts = e.getAttributes();
+        for( int i=0; i<atts.getLength(); i++ ) {
+            Attr a = (Attr)atts.item(i);
+            if(XMLNS.equals(a.getNamespaceURI()) || a.getNamespaceURI()==null)
+                continue;
+            assertNotNull(a.getName(), a.getPrefix());
+            assertEquals(a.getName(), a.getNamespaceURI(), lookup(e, a.getPrefix()));
+        }
+        for( Node n=e.getFirstChild(); n!=null; n=n.getNextSibling() )
+            if(n.getNodeType()==Node.ELEMENT_NODE)
+                assertNamespaceWellFormed((Element)n);
+    }
+
+    /**
+     * Finds the namespace URI bound to the prefix by xmlns attributes, "" if none.
+     */
+    private static String lookup(Element e, String prefix) {
+        String name = prefix.length()==0 ? "xmlns" : "xmlns:"+prefix;
+        for( Node n=e; n!=null && n.getNodeType()==Node.ELEMENT_NODE; n=n.getParentNode() ) {
+            Attr a = ((Element)n).getAttributeNode(name);
+            if(a!=null)
+                return a.getValue();
+        }
+        return "";
+    }
+
+    private static Element child(Element e, int index) {
+        for( Node n=e.getFirstChild(); n!=null; n=n.getNextSibling() )
+            if(n.getNodeType()==Node.ELEMENT_NODE && index--==0)
+                return (Element)n;
+        fail("no child "+index+" in "+e.getTagName());
+        return null;
+    }
+
+    private static Document newDocument() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().newDocument();
+    }
+
+    private static Document parse(String xml) throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        return dbf.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+}
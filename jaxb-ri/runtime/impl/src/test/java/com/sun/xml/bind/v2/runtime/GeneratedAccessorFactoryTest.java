@@ -0,0 +1,141 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.AccessorFactoryImpl;
+import com.sun.xml.bind.v2.runtime.fastbinding.Bean;
+import com.sun.xml.bind.v2.runtime.fastbinding.Handwritten;
+import com.sun.xml.bind.v2.runtime.fastbinding.JAXBAccessorFactory;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that {@link JAXBContextImpl} picks up the accessor factories
+ * generated by XJC's {@code -Xfast-binding} plugin, and falls back to reflection without them.
+ */
+public class GeneratedAccessorFactoryTest extends TestCase {
+
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.FIELD)
+    static class Plain {
+        String name;
+    }
+
+    public void testGeneratedFactory() throws Exception {
+        JAXBAccessorFactory.handled.clear();
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Bean.class);
+        assertTrue(context.getGeneratedAccessorFactory(Bean.class) instanceof JAXBAccessorFactory);
+        // one instance serves the whole package
+        assertSame(context.getGeneratedAccessorFactory(Bean.class), context.getGeneratedAccessorFactory(Bean.class));
+        assertEquals(new HashSet<String>(Arrays.asList("name", "count")), new HashSet<String>(JAXBAccessorFactory.handled));
+
+        // the field it doesn't know is accessed by reflection
+        Bean bean = (Bean) context.createUnmarshaller().unmarshal(new StringReader(
+                "<bean><name>a</name><count>3</count><added>b</added></bean>"));
+        assertEquals("a", bean.getName());
+        assertEquals(3, bean.getCount());
+        assertEquals("b", bean.getAdded());
+
+        StringWriter out = new StringWriter();
+        context.createMarshaller().marshal(bean, out);
+        assertTrue(out.toString(), out.toString().endsWith("<bean><name>a</name><count>3</count><added>b</added></bean>"));
+    }
+
+    public void testMissingFactory() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Plain.class);
+        assertNull(context.getGeneratedAccessorFactory(Plain.class));
+
+        Plain plain = (Plain) context.createUnmarshaller().unmarshal(new StringReader("<plain><name>a</name></plain>"));
+        assertEquals("a", plain.name);
+    }
+
+    public void testHandwrittenClass() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(Handwritten.class);
+        // the factory is next to it, but wasn't generated for it
+        assertNull(context.getGeneratedAccessorFactory(Handwritten.class));
+
+        Handwritten h = (Handwritten) context.createUnmarshaller().unmarshal(new StringReader("<handwritten><name>a</name></handwritten>"));
+        assertEquals("a", h.getName());
+    }
+
+    public void testBrokenFactory() throws Exception {
+        final List<LogRecord> records = new ArrayList<LogRecord>();
+        Handler handler = new Handler() {
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+            public void flush() {}
+            public void close() {}
+        };
+        Logger logger = Logger.getLogger(JAXBContextImpl.class.getName());
+        logger.addHandler(handler);
+        try {
+            JAXBContextImpl context = (JAXBContextImpl) JAXBContext.newInstance(
+                    com.sun.xml.bind.v2.runtime.fastbinding.broken.Bean.class);
+            assertSame(AccessorFactoryImpl.getInstance(),
+                    context.getGeneratedAccessorFactory(com.sun.xml.bind.v2.runtime.fastbinding.broken.Bean.class));
+            // reported once, not every time it's asked for
+            assertEquals(1, records.size());
+            assertTrue(records.get(0).getThrown() instanceof InstantiationException);
+
+            com.sun.xml.bind.v2.runtime.fastbinding.broken.Bean bean = (com.sun.xml.bind.v2.runtime.fastbinding.broken.Bean)
+                    context.createUnmarshaller().unmarshal(new StringReader("<bean><name>a</name></bean>"));
+            assertEquals("a", bean.getName());
+        } finally {
+            logger.removeHandler(handler);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.SchemaOutputResolver;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.transform.Result;
+import javax.xml.transform.stream.StreamResult;
+
+import com.sun.xml.bind.api.ErrorListener;
+import com.sun.xml.bind.v2.schemagen.XmlSchemaGenerator;
+
+import org.xml.sax.SAXParseException;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that schema documents rendered concurrently are the same
+ * as the ones rendered by a single thread.
+ */
+public class ParallelSchemaGenTest extends TestCase {
+
+    @XmlRootElement(namespace="urn:a")
+    @XmlType(namespace="urn:a")
+    static class A {
+        @XmlElement(namespace="urn:b")
+        B b;
+        @XmlElement(namespace="urn:c")
+        List<C> c;
+        @XmlAttribute(namespace="urn:d")
+        String d;
+    }
+
+    @XmlType(namespace="urn:b")
+    static class B {
+        @XmlElement(namespace="urn:c")
+        C c;
+        @XmlElement(namespace="urn:a")
+        int[] values;
+    }
+
+    @XmlType(namespace="urn:c")
+    static class C {
+        @XmlElement(namespace="urn:d")
+        D d;
+        @XmlAttribute
+        String name;
+    }
+
+    @XmlRootElement(namespace="urn:d")
+    @XmlType(namespace="urn:d")
+    static class D {
+        @XmlElement(namespace="urn:a")
+        A a;
+        @XmlElement
+        String text;
+    }
+
+    @XmlRootElement(namespace="urn:s")
+    static class Single {
+        @XmlElement(namespace="urn:s")
+        String text;
+    }
+
+    public void testSameAsSequential() throws Exception {
+        Map<String,byte[]> sequential = generate(null);
+        assertEquals(4, sequential.size());
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor)Executors.newFixedThreadPool(4);
+        try {
+            for( int i=0; i<5; i++ )
+                assertSame(sequential, generate(executor));
+            assertTrue(executor.getTaskCount()>0);
+        } finally {
+            executor.shutdown();
+        }
+
+        // and through the shared pool that generateSchema uses
+        Recorder recorder = new Recorder();
+        JAXBContext.newInstance(A.class).generateSchema(recorder);
+        assertSame(sequential, recorder.documents);
+    }
+
+    public void testBelowThreshold() throws Exception {
+        Map<String,byte[]> sequential = generate(null, Single.class);
+        assertEquals(1, sequential.size());
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor)Executors.newFixedThreadPool(2);
+        try {
+            assertSame(sequential, generate(executor, Single.class));
+            // a single document is rendered by the calling thread
+            assertEquals(0, executor.getTaskCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Generates the schemas of a new context, so that nothing is replayed from an earlier run.
+     */
+    private static Map<String,byte[]> generate(ExecutorService executor, Class... classes) throws Exception {
+        if(classes.length==0)
+            classes = new Class[]{A.class};
+        JAXBContextImpl context = (JAXBContextImpl)JAXBContext.newInstance(classes);
+        Recorder recorder = new Recorder();
+        final List<SAXParseException> errors = new ArrayList<SAXParseException>();
+        context.getSchemaGenerator().write(recorder, new ErrorListener() {
+            public void error(SAXParseException exception) {
+                errors.add(exception);
+            }
+            public void fatalError(SAXParseException exception) {
+                errors.add(exception);
+            }
+            public void warning(SAXParseException exception) {
+                errors.add(exception);
+            }
+            public void info(SAXParseException exception) {
+            }
+        }, executor);
+        assertEquals(errors.toString(), 0, errors.size());
+        return recorder.documents;
+    }
+
+    private static void assertSame(Map<String,byte[]> expected, Map<String,byte[]> actual) {
+        assertEquals(new ArrayList<String>(expected.keySet()), new ArrayList<String>(actual.keySet()));
+        for( Map.Entry<String,byte[]> e : expected.entrySet() )
+            assertTrue(e.getKey(), Arrays.equals(e.getValue(), actual.get(e.getKey())));
+    }
+
+    private static final class Recorder extends SchemaOutputResolver {
+        final Map<String,byte[]> documents = new TreeMap<String,byte[]>();
+
+        @Override
+        public Result createOutput(final String namespaceUri, String suggestedFileName) throws IOException {
+            StreamResult result = new StreamResult(new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    documents.put(namespaceUri, toByteArray());
+                }
+            });
+            result.setSystemId(suggestedFileName);
+            return result;
+        }
+    }
+}
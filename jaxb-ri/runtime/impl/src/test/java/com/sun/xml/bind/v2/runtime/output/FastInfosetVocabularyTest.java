@@ -0,0 +1,188 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import org.jvnet.fastinfoset.ExternalVocabulary;
+
+import junit.framework.TestCase;
+
+/**
+ * Round trips documents that refer to the names of a {@link JAXBContext}
+ * through {@link FastInfosetVocabulary}.
+ */
+public class FastInfosetVocabularyTest extends TestCase {
+
+    private static final String URI = "urn:vocabulary";
+
+    @XmlRootElement(namespace="urn:order")
+    static class Order {
+        @XmlAttribute
+        String id;
+        @XmlAttribute(namespace="urn:meta")
+        String source;
+        @XmlElement(namespace="urn:order")
+        List<Line> line = new ArrayList<Line>();
+        @XmlElement
+        String note;
+    }
+
+    static class Line {
+        @XmlAttribute
+        String sku;
+        @XmlElement(namespace="urn:order")
+        int quantity;
+        @XmlElement
+        String description;
+    }
+
+    public void testIndexesMatchNameList() throws Exception {
+        JAXBContextImpl context = (JAXBContextImpl)JAXBContext.newInstance(Order.class);
+        ExternalVocabulary v = FastInfosetVocabulary.create(context, URI);
+        assertEquals(URI, v.URI);
+
+        // the local names keep the NameList order, and nothing is dropped as a duplicate
+        List<String> localNames = new ArrayList<String>();
+        for (Object name : v.vocabulary.localNames)
+            localNames.add((String)name);
+        assertEquals(Arrays.asList(context.nameList.localNames), localNames);
+    }
+
+    public void testRoundTrip() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = createOrder();
+
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        FastInfosetVocabulary.setExternalVocabulary(serializer, context, URI);
+        byte[] withVocabulary = marshal(context, order, serializer);
+        byte[] withoutVocabulary = marshal(context, order, new StAXDocumentSerializer());
+        assertTrue(withVocabulary.length < withoutVocabulary.length);
+
+        // the names read back through the vocabulary are the same as without it
+        assertEquals(names(parse(context, withoutVocabulary, false)), names(parse(context, withVocabulary, true)));
+
+        Order back = (Order)context.createUnmarshaller().unmarshal(parse(context, withVocabulary, true));
+        assertEquals("o1", back.id);
+        assertEquals("web", back.source);
+        assertEquals("n", back.note);
+        assertEquals(3, back.line.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("sku" + i, back.line.get(i).sku);
+            assertEquals(i, back.line.get(i).quantity);
+            assertEquals("d" + i, back.line.get(i).description);
+        }
+    }
+
+    public void testSerializerIsReused() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        StAXDocumentSerializer serializer = new StAXDocumentSerializer();
+        FastInfosetVocabulary.setExternalVocabulary(serializer, context, URI);
+
+        for (int i = 0; i < 3; i++) {
+            byte[] doc = marshal(context, createOrder(), serializer);
+            Order back = (Order)context.createUnmarshaller().unmarshal(parse(context, doc, true));
+            assertEquals("o1", back.id);
+            assertEquals(3, back.line.size());
+        }
+    }
+
+    private static Order createOrder() {
+        Order order = new Order();
+        order.id = "o1";
+        order.source = "web";
+        order.note = "n";
+        for (int i = 0; i < 3; i++) {
+            Line line = new Line();
+            line.sku = "sku" + i;
+            line.quantity = i;
+            line.description = "d" + i;
+            order.line.add(line);
+        }
+        return order;
+    }
+
+    private static byte[] marshal(JAXBContext context, Object o, StAXDocumentSerializer serializer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.setOutputStream(out);
+        Marshaller m = context.createMarshaller();
+        m.marshal(o, serializer);
+        serializer.flush();
+        return out.toByteArray();
+    }
+
+    private static XMLStreamReader parse(JAXBContext context, byte[] doc, boolean vocabulary) {
+        StAXDocumentParser parser = new StAXDocumentParser(new ByteArrayInputStream(doc));
+        if (vocabulary)
+            FastInfosetVocabulary.setExternalVocabulary(parser, context, URI);
+        return parser;
+    }
+
+    /**
+     * Lists the qualified names of the elements and attributes in document order.
+     */
+    private static List<String> names(XMLStreamReader r) throws Exception {
+        List<String> names = new ArrayList<String>();
+        while (r.hasNext()) {
+            if (r.next() != XMLStreamConstants.START_ELEMENT)
+                continue;
+            names.add(r.getName().toString());
+            for (int i = 0; i < r.getAttributeCount(); i++)
+                names.add("@" + r.getAttributeName(i));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.output;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.sun.xml.bind.marshaller.CharacterEscapeHandler;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests how {@link XMLStreamWriterOutput} passes text to the {@link XMLStreamWriter}.
+ */
+public class XMLStreamWriterOutputTest extends TestCase {
+
+    @XmlRootElement
+    static class Root {
+        @XmlElement
+        List<String> text = new ArrayList<String>();
+        @XmlElement
+        @XmlList
+        List<String> words = new ArrayList<String>();
+        @XmlElement
+        List<byte[]> data = new ArrayList<byte[]>();
+    }
+
+    public void testNoEscape() throws Exception {
+        Root root = new Root();
+        root.text.add("1 < 2 & 3 > 2");
+        root.text.add(repeat("<&>", 200));
+        root.words.add("a<");
+        root.words.add("b&");
+
+        List<String> calls = new ArrayList<String>();
+        String xml = marshal(root, null, calls);
+
+        // text that fits in the buffer goes out as char[], longer text as is
+        assertTrue(calls.toString(), calls.contains("char[]:1 < 2 & 3 > 2"));
+        assertTrue(calls.toString(), calls.contains("char[]:a< b&"));
+        assertTrue(calls.toString(), calls.contains("String:" + repeat("<&>", 200)));
+
+        // escaping is up to the XMLStreamWriter
+        Root r = unmarshal(xml);
+        assertEquals(root.text, r.text);
+        assertEquals(root.words, r.words);
+    }
+
+    public void testEscapeHandler() throws Exception {
+        Root root = new Root();
+        root.text.add("x<y");
+        root.text.add(repeat("x<y", 200));
+        root.words.add("x");
+        root.words.add("xx");
+
+        CharacterEscapeHandler handler = new CharacterEscapeHandler() {
+            public void escape(char[] ch, int start, int length, boolean isAttVal, Writer out) throws IOException {
+                out.write(new String(ch, start, length).replace('x', 'z'));
+            }
+        };
+        Root r = unmarshal(marshal(root, handler, new ArrayList<String>()));
+        assertEquals(Arrays.asList("z<y", repeat("z<y", 200)), r.text);
+        assertEquals(Arrays.asList("z", "zz"), r.words);
+    }
+
+    public void testBufferGrowth() throws Exception {
+        Root root = new Root();
+        // base64 text longer than the initial buffer, then shorter ones
+        root.data.add(bytes(3000, 1));
+        root.data.add(bytes(10, 2));
+        root.data.add(bytes(700, 3));
+        root.data.add(bytes(5000, 4));
+        root.text.add("after");
+
+        List<String> calls = new ArrayList<String>();
+        Root r = unmarshal(marshal(root, null, calls));
+        assertEquals(root.data.size(), r.data.size());
+        for (int i = 0; i < root.data.size(); i++)
+            assertTrue(Arrays.equals(root.data.get(i), r.data.get(i)));
+        assertEquals(root.text, r.text);
+
+        for (String call : calls)
+            assertTrue(call.startsWith("char[]:"));
+    }
+
+    private static String marshal(Root root, CharacterEscapeHandler handler, final List<String> calls) throws Exception {
+        StringWriter sw = new StringWriter();
+        final XMLStreamWriter w = XMLOutputFactory.newInstance().createXMLStreamWriter(sw);
+        XMLStreamWriter recorder = (XMLStreamWriter) Proxy.newProxyInstance(XMLStreamWriter.class.getClassLoader(),
+                new Class[] {XMLStreamWriter.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("writeCharacters")) {
+                    if (args.length == 1)
+                        calls.add("String:" + args[0]);
+                    else
+                        calls.add("char[]:" + new String((char[]) args[0], (Integer) args[1], (Integer) args[2]));
+                }
+                try {
+                    return method.invoke(w, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }
+        });
+
+        Marshaller m = JAXBContext.newInstance(Root.class).createMarshaller();
+        if (handler != null)
+            m.setProperty(CharacterEscapeHandler.class.getName(), handler);
+        m.marshal(root, recorder);
+        return sw.toString();
+    }
+
+    private static Root unmarshal(String xml) throws Exception {
+        return (Root) JAXBContext.newInstance(Root.class).createUnmarshaller().unmarshal(new StringReader(xml));
+    }
+
+    private static String repeat(String s, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++)
+            sb.append(s);
+        return sb.toString();
+    }
+
+    private static byte[] bytes(int len, int seed) {
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; i++)
+            b[i] = (byte) (i * 31 + seed);
+        return b;
+    }
+}
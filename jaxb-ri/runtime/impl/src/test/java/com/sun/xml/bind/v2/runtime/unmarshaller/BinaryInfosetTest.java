@@ -0,0 +1,325 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.MarshalException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.PropertyException;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.transform.dom.DOMResult;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.bind.v2.runtime.output.BinaryXmlOutput;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the binary infoset written by {@link BinaryXmlOutput}
+ * and read by {@link BinaryXmlConnector}.
+ */
+public class BinaryInfosetTest extends TestCase {
+
+    @XmlRootElement
+    static class Order {
+        @XmlAttribute
+        int id;
+        @XmlAttribute
+        String note;
+        @XmlElement
+        List<Line> line = new ArrayList<Line>();
+        @XmlList
+        int[] codes;
+        @XmlElement
+        byte[] signature;
+    }
+
+    static class Line {
+        @XmlAttribute
+        String sku;
+        @XmlElement
+        int quantity;
+        @XmlElement
+        String description;
+    }
+
+    @XmlRootElement
+    static class Other {
+        @XmlElement
+        String value;
+    }
+
+    /**
+     * Length of the header: magic, version and the name list fingerprint.
+     */
+    private static final int HEADER = BinaryXmlOutput.MAGIC.length()+1+8;
+
+    public void testRoundTrip() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = new Order();
+        order.id = -42;
+        order.note = "a < b & \u00e9\u4e2d\ud83d\ude00";
+        for( int i=0; i<3; i++ ) {
+            Line l = new Line();
+            l.sku = "SKU-"+i;
+            l.quantity = i*100000;
+            l.description = "line "+i+" \u00fc";
+            order.line.add(l);
+        }
+        order.codes = new int[]{1,-20,Integer.MAX_VALUE,Integer.MIN_VALUE};
+        order.signature = new byte[5000];
+        for( int i=0; i<order.signature.length; i++ )
+            order.signature[i] = (byte)i;
+
+        byte[] data = marshalBinary(context, order);
+        Order copy = (Order)unmarshalBinary(context.createUnmarshaller(), data);
+
+        assertEquals(order.id, copy.id);
+        assertEquals(order.note, copy.note);
+        assertEquals(3, copy.line.size());
+        for( int i=0; i<3; i++ ) {
+            assertEquals(order.line.get(i).sku, copy.line.get(i).sku);
+            assertEquals(order.line.get(i).quantity, copy.line.get(i).quantity);
+            assertEquals(order.line.get(i).description, copy.line.get(i).description);
+        }
+        assertTrue(Arrays.equals(order.codes, copy.codes));
+        assertTrue(Arrays.equals(order.signature, copy.signature));
+
+        // and the same XML as the original
+        assertEquals(marshalXml(context, order), marshalXml(context, copy));
+    }
+
+    public void testFingerprintMismatch() throws Exception {
+        Other other = new Other();
+        other.value = "x";
+        byte[] data = marshalBinary(JAXBContext.newInstance(Other.class), other);
+
+        Unmarshaller u = JAXBContext.newInstance(Order.class, Other.class).createUnmarshaller();
+        assertError(u, data, Messages.BINARY_INFOSET_MISMATCH.format());
+    }
+
+    public void testNotBinary() throws Exception {
+        Unmarshaller u = JAXBContext.newInstance(Order.class).createUnmarshaller();
+        assertError(u, "<order/>".getBytes("UTF-8"), Messages.BINARY_INFOSET_MISMATCH.format());
+        assertError(u, new byte[0], Messages.BINARY_INFOSET_MISMATCH.format());
+    }
+
+    public void testTruncated() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = new Order();
+        order.note = "note";
+        order.signature = new byte[100];
+        byte[] data = marshalBinary(context, order);
+        Unmarshaller u = context.createUnmarshaller();
+
+        for( int len=HEADER; len<data.length; len++ )
+            assertError(u, Arrays.copyOf(data, len), Messages.BINARY_INFOSET_CORRUPTED.format(-1));
+    }
+
+    public void testCorrupted() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        byte[] header = Arrays.copyOf(marshalBinary(context, new Order()), HEADER);
+        Unmarshaller u = context.createUnmarshaller();
+
+        // unknown tag
+        assertError(u, concat(header, 99), Messages.BINARY_INFOSET_CORRUPTED.format(99));
+        // negative length of binary data
+        assertError(u, concat(header, BinaryXmlOutput.TEXT_BYTES, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F),
+            Messages.BINARY_INFOSET_CORRUPTED.format(-1));
+        // varint longer than an int
+        assertError(u, concat(header, BinaryXmlOutput.TEXT, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01),
+            Messages.BINARY_INFOSET_CORRUPTED.format(-1));
+        // huge lengths fail on the missing data without allocating it all first
+        assertError(u, concat(header, BinaryXmlOutput.TEXT_BYTES, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 1, 2, 3),
+            Messages.BINARY_INFOSET_CORRUPTED.format(-1));
+        assertError(u, concat(header, BinaryXmlOutput.TEXT, 0xFF, 0xFF, 0xFF, 0xFF, 0x07, 'a'),
+            Messages.BINARY_INFOSET_CORRUPTED.format(-1));
+        // string reference past the table
+        assertError(u, concat(header, BinaryXmlOutput.NS_DECL, 0xFF, 0xFF, 0x7F),
+            Messages.BINARY_INFOSET_CORRUPTED.format(0x1FFFFF));
+        // end tag without a start tag
+        assertError(u, concat(header, BinaryXmlOutput.END_ELEMENT),
+            Messages.BINARY_INFOSET_CORRUPTED.format(BinaryXmlOutput.END_ELEMENT));
+    }
+
+    public void testProperty() throws Exception {
+        Unmarshaller u = JAXBContext.newInstance(Order.class).createUnmarshaller();
+        assertEquals(Boolean.FALSE, u.getProperty(JAXBRIContext.BINARY_INFOSET));
+        u.setProperty(JAXBRIContext.BINARY_INFOSET, true);
+        assertEquals(Boolean.TRUE, u.getProperty(JAXBRIContext.BINARY_INFOSET));
+        try {
+            u.setProperty(JAXBRIContext.BINARY_INFOSET, "true");
+            fail();
+        } catch (PropertyException e) {
+            // expected
+        }
+        assertEquals(Boolean.TRUE, u.getProperty(JAXBRIContext.BINARY_INFOSET));
+    }
+
+    public void testUnsupportedTargets() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Marshaller m = context.createMarshaller();
+        m.setProperty(JAXBRIContext.BINARY_INFOSET, true);
+        Order order = new Order();
+
+        StringWriter w = new StringWriter();
+        try {
+            m.marshal(order, w);
+            fail();
+        } catch (MarshalException e) {
+            // expected
+        }
+        try {
+            m.marshal(order, new DOMResult());
+            fail();
+        } catch (MarshalException e) {
+            // expected
+        }
+        try {
+            m.marshal(order, DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument());
+            fail();
+        } catch (MarshalException e) {
+            // expected
+        }
+        try {
+            m.marshal(order, XMLOutputFactory.newInstance().createXMLStreamWriter(w));
+            fail();
+        } catch (MarshalException e) {
+            // expected
+        }
+        assertEquals("", w.toString());
+
+        byte[] data = marshalXml(context, order).getBytes("UTF-8");
+        Unmarshaller u = context.createUnmarshaller();
+        u.setProperty(JAXBRIContext.BINARY_INFOSET, true);
+        try {
+            u.unmarshal(DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(data)));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        try {
+            u.unmarshal(XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(data)));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        try {
+            u.unmarshal(XMLInputFactory.newInstance().createXMLEventReader(new StringReader("<order/>")));
+            fail();
+        } catch (UnmarshalException e) {
+            // expected
+        }
+        try {
+            u.getUnmarshallerHandler();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    public void testFormattingIgnored() throws Exception {
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = new Order();
+        order.note = "note";
+        order.line.add(new Line());
+
+        Marshaller m = context.createMarshaller();
+        m.setProperty(JAXBRIContext.BINARY_INFOSET, true);
+        m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        m.setProperty(Marshaller.JAXB_ENCODING, "UTF-16");
+        m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(order, out);
+        assertTrue(Arrays.equals(marshalBinary(context, order), out.toByteArray()));
+    }
+
+    private static void assertError(Unmarshaller u, byte[] data, String message) throws Exception {
+        try {
+            unmarshalBinary(u, data);
+            fail();
+        } catch (UnmarshalException e) {
+            assertEquals(message, e.getLinkedException().getMessage());
+        }
+    }
+
+    private static byte[] concat(byte[] header, int... body) {
+        byte[] r = Arrays.copyOf(header, header.length+body.length);
+        for( int i=0; i<body.length; i++ )
+            r[header.length+i] = (byte)body[i];
+        return r;
+    }
+
+    private static byte[] marshalBinary(JAXBContext context, Object o) throws Exception {
+        Marshaller m = context.createMarshaller();
+        m.setProperty(JAXBRIContext.BINARY_INFOSET, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.marshal(o, out);
+        return out.toByteArray();
+    }
+
+    private static Object unmarshalBinary(Unmarshaller u, byte[] data) throws Exception {
+        u.setProperty(JAXBRIContext.BINARY_INFOSET, true);
+        return u.unmarshal(new ByteArrayInputStream(data));
+    }
+
+    private static String marshalXml(JAXBContext context, Object o) throws Exception {
+        StringWriter w = new StringWriter();
+        context.createMarshaller().marshal(o, w);
+        return w.toString();
+    }
+}
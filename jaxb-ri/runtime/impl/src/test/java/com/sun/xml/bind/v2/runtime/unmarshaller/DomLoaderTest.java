@@ -0,0 +1,85 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAnyElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.w3c.dom.Element;
+
+import junit.framework.TestCase;
+
+public class DomLoaderTest extends TestCase {
+
+    @XmlRootElement
+    static class Root {
+        @XmlAnyElement
+        List<Element> any;
+    }
+
+    public void testAnyElement() throws Exception {
+        Unmarshaller u = JAXBContext.newInstance(Root.class).createUnmarshaller();
+
+        for( int i=0; i<2; i++ ) {
+            Root root = (Root) u.unmarshal(new StringReader(
+                "<root xmlns:p='urn:p'><p:a x='1'>text<b xmlns='urn:b'/></p:a><c/></root>"));
+            assertEquals(2, root.any.size());
+
+            Element a = root.any.get(0);
+            assertEquals("urn:p", a.getNamespaceURI());
+            assertEquals("p:a", a.getTagName());
+            assertEquals("urn:p", a.getAttributeNS("http://www.w3.org/2000/xmlns/", "p"));
+            assertEquals("1", a.getAttribute("x"));
+            assertEquals("text", a.getFirstChild().getNodeValue());
+            assertEquals("urn:b", a.getLastChild().getNamespaceURI());
+            assertSame(a, a.getOwnerDocument().getDocumentElement());
+
+            Element c = root.any.get(1);
+            assertEquals("c", c.getLocalName());
+            assertNotSame(a.getOwnerDocument(), c.getOwnerDocument());
+        }
+    }
+}
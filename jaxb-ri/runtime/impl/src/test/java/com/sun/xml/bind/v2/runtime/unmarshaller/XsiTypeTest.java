@@ -0,0 +1,165 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.runtime.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+import javax.xml.bind.annotation.XmlType;
+import javax.xml.bind.util.ValidationEventCollector;
+
+import com.sun.xml.bind.v2.WellKnownNamespace;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that cached xsi:type resolutions follow the namespace bindings in scope.
+ */
+public class XsiTypeTest extends TestCase {
+
+    @XmlRootElement
+    @XmlSeeAlso({A.class, B.class, C.class})
+    static class Root {
+        @XmlElement
+        List<Base> item = new ArrayList<Base>();
+    }
+
+    static class Base {
+    }
+
+    @XmlType(name="t", namespace="urn:a")
+    static class A extends Base {
+    }
+
+    @XmlType(name="t", namespace="urn:b")
+    static class B extends Base {
+    }
+
+    @XmlType(name="u", namespace="urn:a")
+    static class C extends Base {
+    }
+
+    private static final String XSI = "xmlns:xsi='"+WellKnownNamespace.XML_SCHEMA_INSTANCE+"'";
+
+    private Unmarshaller u;
+    private ValidationEventCollector events;
+
+    @Override
+    protected void setUp() throws Exception {
+        u = JAXBContext.newInstance(Root.class).createUnmarshaller();
+        events = new ValidationEventCollector();
+        u.setEventHandler(events);
+    }
+
+    public void testRebindingOnSiblings() throws Exception {
+        assertTypes(
+            "<root "+XSI+">" +
+              "<item xmlns:p='urn:a' xsi:type='p:t'/>" +
+              "<item xmlns:p='urn:b' xsi:type='p:t'/>" +
+              "<item xmlns:p='urn:a' xsi:type='p:t'/>" +
+            "</root>",
+            A.class, B.class, A.class);
+    }
+
+    public void testRebindingInScope() throws Exception {
+        // the same value resolves differently inside the element that rebinds the prefix
+        assertTypes(
+            "<root "+XSI+" xmlns:p='urn:a'>" +
+              "<item xsi:type='p:t'/>" +
+              "<item xmlns:p='urn:b' xsi:type='p:t'/>" +
+              "<item xsi:type='p:t'/>" +
+            "</root>",
+            A.class, B.class, A.class);
+    }
+
+    public void testOtherBindingsChange() throws Exception {
+        // bindings of other prefixes don't affect the value
+        assertTypes(
+            "<root "+XSI+" xmlns:p='urn:a'>" +
+              "<item xmlns:q='urn:b' xsi:type='p:t'/>" +
+              "<item xmlns:q='urn:x' xsi:type='q:t'/>" +
+              "<item xmlns:q='urn:b' xsi:type='q:t'/>" +
+              "<item xsi:type='p:u'/>" +
+            "</root>",
+            A.class, Base.class, B.class, C.class);
+        assertEquals(1, events.getEvents().length);
+    }
+
+    public void testDefaultNamespace() throws Exception {
+        assertTypes(
+            "<root "+XSI+">" +
+              "<item xmlns='urn:a' xsi:type='t'/>" +
+              "<item xmlns='urn:b' xsi:type='t'/>" +
+            "</root>",
+            A.class, B.class);
+    }
+
+    public void testAcrossDocuments() throws Exception {
+        assertTypes("<root "+XSI+" xmlns:p='urn:a'><item xsi:type='p:t'/></root>", A.class);
+        assertTypes("<root "+XSI+" xmlns:p='urn:b'><item xsi:type='p:t'/></root>", B.class);
+    }
+
+    public void testUnboundPrefix() throws Exception {
+        // the resolution from the first item must not be reused once the prefix is out of scope
+        Root root;
+        try {
+            root = (Root)u.unmarshal(new StringReader(
+                "<root "+XSI+"><item xmlns:p='urn:a' xsi:type='p:t'/><item xsi:type='p:t'/></root>"));
+        } catch (Exception e) {
+            return; // rejected as an unbound prefix
+        }
+        assertSame(A.class, root.item.get(0).getClass());
+        assertFalse(root.item.size()>1 && root.item.get(1) instanceof A);
+    }
+
+    private void assertTypes(String xml, Class... types) throws Exception {
+        Root root = (Root)u.unmarshal(new StringReader(xml));
+        assertEquals(types.length, root.item.size());
+        for( int i=0; i<types.length; i++ )
+            assertSame(types[i], root.item.get(i).getClass());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.bind.v2.schemagen;
+
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+
+import javax.xml.namespace.QName;
+
+import com.sun.xml.bind.v2.schemagen.xmlschema.*;
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
+import com.sun.xml.txw2.TXW;
+import com.sun.xml.txw2.TypedXmlWriter;
+import com.sun.xml.txw2.output.StreamSerializer;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that the schema writers used by {@link XmlSchemaGenerator}
+ * have generated implementations, so that they don't go through {@link Proxy}.
+ */
+public class XmlSchemaWriterTest extends TestCase {
+
+    private static final Class<?>[] WRITERS = {
+        Annotated.class, Annotation.class, Any.class, Appinfo.class, AttrDecls.class, AttributeType.class,
+        ComplexContent.class, ComplexExtension.class, ComplexRestriction.class, ComplexType.class,
+        ComplexTypeHost.class, ComplexTypeModel.class, ContentModelContainer.class, Documentation.class,
+        Element.class, ExplicitGroup.class, ExtensionType.class, FixedOrDefault.class, Import.class,
+        List.class, LocalAttribute.class, LocalElement.class, NestedParticle.class, NoFixedFacet.class,
+        Occurs.class, Particle.class, Redefinable.class, Schema.class, SchemaTop.class, SimpleContent.class,
+        SimpleDerivation.class, SimpleExtension.class, SimpleRestriction.class, SimpleRestrictionModel.class,
+        SimpleType.class, SimpleTypeHost.class, TopLevelAttribute.class, TopLevelElement.class,
+        TypeDefParticle.class, TypeHost.class, Union.class, Wildcard.class,
+    };
+
+    public void testImplementations() throws Exception {
+        for (Class<?> writer : WRITERS) {
+            Class<?> impl = Class.forName(writer.getName() + '$' + AbstractTypedXmlWriter.IMPL_NAME);
+            assertTrue(impl.getName(), AbstractTypedXmlWriter.class.isAssignableFrom(impl));
+            assertTrue(impl.getName(), writer.isAssignableFrom(impl));
+            assertNotNull(impl.getConstructor(TypedXmlWriter.class));
+        }
+    }
+
+    public void testNoProxies() {
+        StringWriter out = new StringWriter();
+        Schema schema = TXW.create(Schema.class, new StreamSerializer(out));
+        assertNotProxy(schema);
+        TopLevelElement e = schema.element();
+        assertNotProxy(e);
+        e.name("e").type(new QName("urn:t", "t"));
+        ComplexType ct = schema.complexType();
+        assertNotProxy(ct);
+        ExplicitGroup seq = ct.name("t").sequence();
+        assertNotProxy(seq);
+        LocalElement le = seq.element();
+        assertNotProxy(le);
+        le.name("x");
+        schema.commit();
+        assertTrue(out.toString(), out.toString().contains("complexType"));
+    }
+
+    private static void assertNotProxy(Object writer) {
+        assertFalse(writer.getClass().getName(), Proxy.isProxyClass(writer.getClass()));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package perf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlList;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.sun.xml.bind.api.JAXBRIContext;
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+
+/**
+ * Compares the size and the marshalling/unmarshalling throughput of
+ * the {@link JAXBRIContext#BINARY_INFOSET binary infoset}
+ * with those of UTF-8 XML and Fast Infoset.
+ *
+ * <p>
+ * Usage: {@code BinaryInfosetBenchmark [documents]}
+ */
+public class BinaryInfosetBenchmark {
+
+    @XmlRootElement
+    static class Order {
+        @XmlAttribute
+        int id;
+        @XmlElement
+        List<Line> line = new ArrayList<Line>();
+        @XmlList
+        int[] codes;
+        @XmlElement
+        byte[] signature;
+    }
+
+    static class Line {
+        @XmlAttribute
+        String sku;
+        @XmlElement
+        int quantity;
+        @XmlElement
+        String description;
+    }
+
+    private enum Format {
+        XML, BINARY, FAST_INFOSET
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length>0 ? Integer.parseInt(args[0]) : 100000;
+
+        JAXBContext context = JAXBContext.newInstance(Order.class);
+        Order order = new Order();
+        order.id = 42;
+        for( int i=0; i<20; i++ ) {
+            Line l = new Line();
+            l.sku = "SKU-"+i;
+            l.quantity = i*1000;
+            l.description = "line item number "+i;
+            order.line.add(l);
+        }
+        order.codes = new int[]{1,-20,300,-4000,50000};
+        order.signature = new byte[256];
+        for( int i=0; i<order.signature.length; i++ )
+            order.signature[i] = (byte)i;
+
+        Marshaller m = context.createMarshaller();
+        Unmarshaller u = context.createUnmarshaller();
+        byte[] xml = marshal(m, order, Format.XML);
+
+        for( Format f : Format.values() ) {
+            byte[] data = marshal(m, order, f);
+            if(!Arrays.equals(xml, marshal(m, unmarshal(u, data, f), Format.XML)))
+                throw new AssertionError(f+" doesn't round-trip");
+
+            for( int round=0; round<5; round++ ) {
+                long start = System.nanoTime();
+                for( int i=0; i<count; i++ )
+                    marshal(m, order, f);
+                long marshal = System.nanoTime()-start;
+
+                start = System.nanoTime();
+                for( int i=0; i<count; i++ )
+                    unmarshal(u, data, f);
+                long unmarshal = System.nanoTime()-start;
+
+                System.out.printf("%-12s %5d bytes, marshal %.0f documents/s, unmarshal %.0f documents/s%n",
+                    f, data.length, count*1e9/marshal, count*1e9/unmarshal);
+            }
+        }
+    }
+
+    private static byte[] marshal(Marshaller m, Object o, Format f) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        m.setProperty(JAXBRIContext.BINARY_INFOSET, f==Format.BINARY);
+        if(f==Format.FAST_INFOSET)
+            m.marshal(o, new StAXDocumentSerializer(out));
+        else
+            m.marshal(o, out);
+        return out.toByteArray();
+    }
+
+    private static Object unmarshal(Unmarshaller u, byte[] data, Format f) throws Exception {
+        u.setProperty(JAXBRIContext.BINARY_INFOSET, f==Format.BINARY);
+        if(f==Format.FAST_INFOSET) {
+            StAXDocumentParser parser = new StAXDocumentParser();
+            parser.setInputStream(new ByteArrayInputStream(data));
+            parser.setStringInterning(true);
+            return u.unmarshal(parser);
+        }
+        return u.unmarshal(new ByteArrayInputStream(data));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.annotation.XmlAnyElement;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.dom.DOMResult;
+
+import org.w3c.dom.Element;
+
+/**
+ * Measures how well marshalling to DOM and unmarshalling DOM scale when many threads
+ * share one {@link JAXBContext}, and so its {@code DocumentBuilderFactory}
+ * and {@code TransformerFactory}.
+ *
+ * <p>
+ * Every document is marshalled by a new {@link Marshaller}, which gets its
+ * {@code DocumentBuilder} from the context, and unmarshalling the
+ * {@link XmlAnyElement} gets a {@code TransformerHandler} from the context.
+ *
+ * <p>
+ * Usage: {@code DomMarshalBenchmark [threads] [documents per thread]}
+ */
+public class DomMarshalBenchmark {
+
+    @XmlRootElement
+    static class Order {
+        @XmlAttribute
+        int id;
+        @XmlElement
+        List<String> item = new ArrayList<String>();
+        @XmlAnyElement
+        Element extension;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int threads = args.length>0 ? Integer.parseInt(args[0]) : 32;
+        final int count = args.length>1 ? Integer.parseInt(args[1]) : 20000;
+
+        final JAXBContext context = JAXBContext.newInstance(Order.class);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for( int round=0; round<5; round++ ) {
+                List<Future<?>> futures = new ArrayList<Future<?>>();
+                long start = System.nanoTime();
+                for( int t=0; t<threads; t++ ) {
+                    // DOM isn't thread-safe even for reading, so each thread gets its own
+                    final Order order = createOrder(context);
+                    futures.add(pool.submit(new Callable<Void>() {
+                        public Void call() throws Exception {
+                            for( int i=0; i<count; i++ ) {
+                                DOMResult r = new DOMResult();
+                                context.createMarshaller().marshal(order, r);
+                                context.createUnmarshaller().unmarshal(r.getNode());
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                for( Future<?> f : futures )
+                    f.get();
+                long time = System.nanoTime()-start;
+
+                System.out.printf("%d threads: %d ms, %.0f documents/s%n",
+                    threads, time/1000000, threads*(double)count*1000000000/time);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Order createOrder(JAXBContext context) throws Exception {
+        Order order = new Order();
+        order.id = 1;
+        for( int i=0; i<5; i++ )
+            order.item.add("item"+i);
+        DOMResult ext = new DOMResult();
+        context.createMarshaller().marshal(order, ext);
+        order.extension = (Element) ext.getNode().getFirstChild();
+        return order;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package perf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Measures marshalling and unmarshalling of a model where every object
+ * has the lifecycle callback methods.
+ *
+ * <p>
+ * Usage: {@code LifecycleBenchmark [items] [iterations]}
+ */
+public class LifecycleBenchmark {
+
+    @XmlRootElement
+    static class Catalog {
+        @XmlElement
+        List<Item> item = new ArrayList<Item>();
+
+        int events;
+
+        void beforeUnmarshal(Unmarshaller u, Object parent) { events++; }
+        void afterUnmarshal(Unmarshaller u, Object parent) { events++; }
+        void beforeMarshal(Marshaller m) { events++; }
+        void afterMarshal(Marshaller m) { events++; }
+    }
+
+    static class Item {
+        @XmlAttribute
+        int id;
+        @XmlElement
+        String name;
+
+        int events;
+
+        void beforeUnmarshal(Unmarshaller u, Object parent) { events++; }
+        void afterUnmarshal(Unmarshaller u, Object parent) { events++; }
+        void beforeMarshal(Marshaller m) { events++; }
+        void afterMarshal(Marshaller m) { events++; }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int items = args.length>0 ? Integer.parseInt(args[0]) : 1000;
+        int count = args.length>1 ? Integer.parseInt(args[1]) : 2000;
+
+        JAXBContext context = JAXBContext.newInstance(Catalog.class);
+        Catalog catalog = new Catalog();
+        for( int i=0; i<items; i++ ) {
+            Item item = new Item();
+            item.id = i;
+            item.name = "item"+i;
+            catalog.item.add(item);
+        }
+
+        Marshaller m = context.createMarshaller();
+        Unmarshaller u = context.createUnmarshaller();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        m.marshal(catalog, baos);
+        String xml = baos.toString("UTF-8");
+
+        for( int round=0; round<5; round++ ) {
+            long start = System.nanoTime();
+            for( int i=0; i<count; i++ ) {
+                baos.reset();
+                m.marshal(catalog, baos);
+            }
+            long marshal = System.nanoTime()-start;
+
+            start = System.nanoTime();
+            for( int i=0; i<count; i++ )
+                u.unmarshal(new StreamSource(new StringReader(xml)));
+            long unmarshal = System.nanoTime()-start;
+
+            System.out.printf("marshal: %d ms, unmarshal: %d ms, %.0f callbacks/s%n",
+                marshal/1000000, unmarshal/1000000,
+                4.0*(items+1)*count*1000000000/(marshal+unmarshal));
+        }
+    }
+}
@@ -99,6 +99,7 @@ public class Attribute extends XmlNode {
             if(!name.getNamespaceURI().equals(""))
                 a.param("ns",name.getNamespaceURI());
 
+            nset.addMethod(clazz,m,WriterMethod.Kind.ATTRIBUTE,name);
         }
     }
 
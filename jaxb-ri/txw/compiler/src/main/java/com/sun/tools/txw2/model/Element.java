@@ -121,6 +121,7 @@ public class Element extends XmlNode {
         if(nset.defaultNamespace==null || !nset.defaultNamespace.equals(name.getNamespaceURI()))
             a.param("ns",name.getNamespaceURI());
 
+        nset.addMethod(clazz,m,WriterMethod.Kind.ELEMENT,name);
         return m;
     }
 
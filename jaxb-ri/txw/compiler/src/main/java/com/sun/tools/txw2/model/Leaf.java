@@ -136,5 +136,6 @@ public abstract class Leaf implements ParsedPattern {
             "_text");
         m.annotate(XmlValue.class);
         m.param(valueType,"value");
+        nset.addMethod(clazz,m,WriterMethod.Kind.VALUE,null);
     }
 }
@@ -41,18 +41,28 @@
 package com.sun.tools.txw2.model;
 
 import com.sun.codemodel.ClassType;
+import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JVar;
 import com.sun.tools.txw2.NameUtil;
 import com.sun.tools.txw2.TxwOptions;
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
+import com.sun.xml.txw2.TypedXmlWriter;
 import com.sun.xml.txw2.annotation.XmlNamespace;
 
+import javax.xml.namespace.QName;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -73,6 +83,11 @@ public class NodeSet extends LinkedHashSet<WriterNode> {
     /** The namespace URI declared in {@link XmlNamespace}. */
     /*package*/ final String defaultNamespace;
 
+    /**
+     * Generated interfaces and the methods declared on them.
+     */
+    private final Map<JDefinedClass,List<WriterMethod>> methods = new LinkedHashMap<JDefinedClass,List<WriterMethod>>();
+
     public NodeSet(TxwOptions opts, Leaf entry) {
         this.opts = opts;
         this.codeModel = opts.codeModel;
@@ -158,9 +173,65 @@ public class NodeSet extends LinkedHashSet<WriterNode> {
             n.declare(this);
         for( WriterNode n : this )
             n.generate(this);
+        for( JDefinedClass clazz : methods.keySet() )
+            generateImplementation(clazz);
+    }
+
+    /**
+     * Records a method generated on a writer interface.
+     */
+    /*package*/ final void addMethod(JDefinedClass clazz, JMethod m, WriterMethod.Kind kind, QName name) {
+        methods.get(clazz).add(new WriterMethod(m,kind,name));
+    }
+
+    /**
+     * Generates the nested {@link AbstractTypedXmlWriter} that implements
+     * the given interface, so that TXW doesn't need a proxy for it.
+     */
+    private void generateImplementation(JDefinedClass clazz) {
+        JDefinedClass impl;
+        try {
+            impl = clazz._class(JMod.PUBLIC|JMod.STATIC, AbstractTypedXmlWriter.IMPL_NAME);
+        } catch (JClassAlreadyExistsException e) {
+            throw new AssertionError(e);
+        }
+        impl._extends(AbstractTypedXmlWriter.class);
+        impl._implements(clazz);
+
+        JMethod c = impl.constructor(JMod.PUBLIC);
+        JVar core = c.param(TypedXmlWriter.class,"core");
+        c.body().invoke("super").arg(core);
+
+        Set<String> signatures = new HashSet<String>();
+        implementMethods(clazz,impl,signatures,new HashSet<JDefinedClass>());
+    }
+
+    private void implementMethods(JDefinedClass clazz, JDefinedClass impl, Set<String> signatures, Set<JDefinedClass> visited) {
+        if(!visited.add(clazz))
+            return;
+
+        List<WriterMethod> list = methods.get(clazz);
+        if(list!=null) {
+            for( WriterMethod m : list )
+                if(signatures.add(m.signature()))
+                    m.implement(impl);
+        }
+
+        // methods inherited from other generated interfaces
+        for( Iterator<JClass> itr = clazz._implements(); itr.hasNext(); ) {
+            JClass i = itr.next();
+            if(i instanceof JDefinedClass)
+                implementMethods((JDefinedClass)i,impl,signatures,visited);
+        }
     }
 
     /*package*/ final JDefinedClass createClass(String name) {
+        JDefinedClass clazz = _createClass(name);
+        methods.put(clazz,new ArrayList<WriterMethod>());
+        return clazz;
+    }
+
+    private JDefinedClass _createClass(String name) {
         try {
             return opts._package._class(
                 JMod.PUBLIC, NameUtil.toClassName(name), ClassType.INTERFACE );
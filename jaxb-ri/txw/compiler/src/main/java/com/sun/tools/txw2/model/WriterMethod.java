@@ -0,0 +1,128 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.txw2.model;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JVar;
+import com.sun.xml.txw2.AbstractTypedXmlWriter;
+
+import javax.xml.namespace.QName;
+
+/**
+ * A method generated on a writer interface.
+ *
+ * <p>
+ * Remembered so that {@link NodeSet} can implement it in
+ * the {@link AbstractTypedXmlWriter} generated for the interface,
+ * writing exactly what the proxy-based writer does for its annotations.
+ */
+final class WriterMethod {
+
+    enum Kind { ATTRIBUTE, VALUE, ELEMENT }
+
+    final JMethod method;
+    final Kind kind;
+    /**
+     * Name of the attribute/element. Null for {@link Kind#VALUE}.
+     */
+    final QName name;
+
+    WriterMethod(JMethod method, Kind kind, QName name) {
+        this.method = method;
+        this.kind = kind;
+        this.name = name;
+    }
+
+    /**
+     * Key that identifies this method among the methods of an interface.
+     */
+    String signature() {
+        StringBuilder buf = new StringBuilder(method.name());
+        for( JVar p : method.listParams() )
+            buf.append(',').append(p.type().fullName());
+        return buf.toString();
+    }
+
+    /**
+     * Implements this method on the given class.
+     */
+    void implement(JDefinedClass impl) {
+        JMethod m = impl.method(JMod.PUBLIC, method.type(), method.name());
+        JVar value = null;
+        for( JVar p : method.listParams() )
+            value = m.param(p.type(),p.name());
+        assert kind==Kind.ELEMENT || value!=null;
+
+        JBlock body = m.body();
+        boolean chain = method.type()!=impl.owner().VOID;
+
+        switch(kind) {
+        case ATTRIBUTE:
+            body.invoke("_attribute")
+                .arg(name.getNamespaceURI()).arg(name.getLocalPart()).arg(value);
+            break;
+        case VALUE:
+            body.invoke("_pcdata").arg(value);
+            break;
+        case ELEMENT:
+            if(chain) {
+                // a writer of the child element, even if the method takes a value
+                JInvocation child = JExpr.invoke("_element")
+                    .arg(name.getNamespaceURI()).arg(name.getLocalPart())
+                    .arg(JExpr.dotclass((JClass)method.type()));
+                body._return(child);
+                return;
+            }
+            body.invoke("_leaf")
+                .arg(name.getNamespaceURI()).arg(name.getLocalPart()).arg(value);
+            break;
+        }
+
+        if(chain)
+            body._return(JExpr._this());
+    }
+}
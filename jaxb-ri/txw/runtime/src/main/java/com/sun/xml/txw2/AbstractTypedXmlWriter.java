@@ -0,0 +1,195 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.txw2;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Base class of the {@link TypedXmlWriter} implementations generated by the TXW compiler.
+ *
+ * <p>
+ * When a content model interface has a nested class named {@value #IMPL_NAME}
+ * that derives from this class, TXW instantiates that class instead of
+ * a {@link java.lang.reflect.Proxy}, so that writing doesn't go through reflection.
+ * The generated class must have a public constructor that takes
+ * a {@link TypedXmlWriter}, to be passed to {@link #AbstractTypedXmlWriter(TypedXmlWriter)}.
+ *
+ * <p>
+ * All the {@link TypedXmlWriter} methods are delegated to the element being written.
+ */
+public abstract class AbstractTypedXmlWriter implements TypedXmlWriter {
+
+    /**
+     * Name of the nested class that implements a content model interface.
+     */
+    public static final String IMPL_NAME = "_Impl";
+
+    private final ContainerElement core;
+
+    /**
+     * @param core
+     *      the element being written, as given to the constructor of the generated class.
+     */
+    protected AbstractTypedXmlWriter(TypedXmlWriter core) {
+        this.core = (ContainerElement)core;
+    }
+
+    /**
+     * Writes a leaf element with just a value.
+     */
+    protected final void _leaf(String nsUri, String localName, Object value) {
+        core.leaf(nsUri,localName,false,new Object[]{value});
+    }
+
+    public void commit() {
+        core.commit();
+    }
+
+    public void commit(boolean includingAllPredecessors) {
+        core.commit(includingAllPredecessors);
+    }
+
+    public void block() {
+        core.block();
+    }
+
+    public Document getDocument() {
+        return core.getDocument();
+    }
+
+    public void _attribute(String localName, Object value) {
+        core._attribute(localName,value);
+    }
+
+    public void _attribute(String nsUri, String localName, Object value) {
+        core._attribute(nsUri,localName,value);
+    }
+
+    public void _attribute(QName attributeName, Object value) {
+        core._attribute(attributeName,value);
+    }
+
+    public void _namespace(String uri) {
+        core._namespace(uri);
+    }
+
+    public void _namespace(String uri, String prefix) {
+        core._namespace(uri,prefix);
+    }
+
+    public void _namespace(String uri, boolean requirePrefix) {
+        core._namespace(uri,requirePrefix);
+    }
+
+    public void _pcdata(Object value) {
+        core._pcdata(value);
+    }
+
+    public void _cdata(Object value) {
+        core._cdata(value);
+    }
+
+    public void _comment(Object value) throws UnsupportedOperationException {
+        core._comment(value);
+    }
+
+    public <T extends TypedXmlWriter> T _element(String localName, Class<T> contentModel) {
+        return core._element(localName,contentModel);
+    }
+
+    public <T extends TypedXmlWriter> T _element(String nsUri, String localName, Class<T> contentModel) {
+        return core._element(nsUri,localName,contentModel);
+    }
+
+    public <T extends TypedXmlWriter> T _element(QName tagName, Class<T> contentModel) {
+        return core._element(tagName,contentModel);
+    }
+
+    public <T extends TypedXmlWriter> T _element(Class<T> contentModel) {
+        return core._element(contentModel);
+    }
+
+    public <T extends TypedXmlWriter> T _cast(Class<T> targetInterface) {
+        return core._cast(targetInterface);
+    }
+
+    /**
+     * Constructors of the generated implementations, or null for
+     * interfaces that don't have one.
+     */
+    private static final ClassValue<Constructor<?>> implementations = new ClassValue<Constructor<?>>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                Class<?> c = Class.forName(type.getName()+'$'+IMPL_NAME,false,type.getClassLoader());
+                if(!AbstractTypedXmlWriter.class.isAssignableFrom(c) || !type.isAssignableFrom(c))
+                    return null;
+                return c.getConstructor(TypedXmlWriter.class);
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Creates the generated implementation of the given interface.
+     *
+     * @return
+     *      null if the interface doesn't have one.
+     */
+    static <T extends TypedXmlWriter> T create(Class<T> type, ContainerElement core) {
+        Constructor<?> c = implementations.get(type);
+        if(c==null)     return null;
+        try {
+            return type.cast(c.newInstance(core));
+        } catch (InstantiationException e) {
+            throw new TxwException(e);
+        } catch (IllegalAccessException e) {
+            throw new TxwException(e);
+        } catch (InvocationTargetException e) {
+            throw new TxwException(e.getTargetException());
+        }
+    }
+}
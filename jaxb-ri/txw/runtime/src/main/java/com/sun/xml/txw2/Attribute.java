@@ -55,13 +55,14 @@ final class Attribute {
     /**
      * Attribute value that potentially contains dummy prefixes.
      */
-    final StringBuilder value = new StringBuilder();
+    final StringBuilder value;
 
-    Attribute(String nsUri, String localName) {
+    Attribute(String nsUri, String localName, StringBuilder value) {
         assert nsUri!=null && localName!=null;
 
         this.nsUri = nsUri;
         this.localName = localName;
+        this.value = value;
     }
 
     boolean hasName( String nsUri, String localName ) {
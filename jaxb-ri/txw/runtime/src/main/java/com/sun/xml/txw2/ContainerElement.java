@@ -40,12 +40,6 @@
 
 package com.sun.xml.txw2;
 
-import com.sun.xml.txw2.annotation.XmlAttribute;
-import com.sun.xml.txw2.annotation.XmlElement;
-import com.sun.xml.txw2.annotation.XmlNamespace;
-import com.sun.xml.txw2.annotation.XmlValue;
-import com.sun.xml.txw2.annotation.XmlCDATA;
-
 import javax.xml.namespace.QName;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
@@ -53,7 +47,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
 /**
- * Dynamically implements {@link TypedXmlWriter} interfaces.
+ * Dynamically implements {@link TypedXmlWriter} interfaces,
+ * unless the TXW compiler generated an {@link AbstractTypedXmlWriter} for them.
  *
  * @author Kohsuke Kawaguchi
  */
@@ -128,51 +123,31 @@ final class ContainerElement implements InvocationHandler, TypedXmlWriter {
     }
 
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        if(method.getDeclaringClass()==TypedXmlWriter.class || method.getDeclaringClass()==Object.class) {
+        WriterMethod wm = WriterMethod.get(method);
+        switch(wm.kind) {
+        case FORWARD:
             // forward to myself
             try {
                 return method.invoke(this,args);
             } catch (InvocationTargetException e) {
                 throw e.getTargetException();
             }
-        }
-
-        XmlAttribute xa = method.getAnnotation(XmlAttribute.class);
-        XmlValue xv = method.getAnnotation(XmlValue.class);
-        XmlElement xe = method.getAnnotation(XmlElement.class);
-
-
-        if(xa!=null) {
-            if(xv!=null || xe!=null)
-                throw new IllegalAnnotationException(method.toString());
-
-            addAttribute(xa,method,args);
+        case ATTRIBUTE:
+            checkStartTag();
+            _attribute(wm.nsUri,wm.localName,args);
             return proxy; // allow method chaining
-        }
-        if(xv!=null) {
-            if(xe!=null)
-                throw new IllegalAnnotationException(method.toString());
-
+        case VALUE:
             _pcdata(args);
             return proxy; // allow method chaining
+        case LEAF:
+            leaf(wm.nsUri,wm.localName,wm.cdata,args);
+            return null;
+        case ELEMENT:
+            // sub writer
+            return _element(wm.nsUri,wm.localName,(Class)wm.returnType);
+        default:
+            throw new AssertionError(wm.kind);
         }
-
-        return addElement(xe,method,args);
-    }
-
-    /**
-     * Writes an attribute.
-     */
-    private void addAttribute(XmlAttribute xa, Method method, Object[] args) {
-        assert xa!=null;
-
-        checkStartTag();
-
-        String localName = xa.value();
-        if(xa.value().length()==0)
-            localName = method.getName();
-
-        _attribute(xa.ns(),localName,args);
     }
 
     private void checkStartTag() {
@@ -181,74 +156,18 @@ final class ContainerElement implements InvocationHandler, TypedXmlWriter {
     }
 
     /**
-     * Writes a new element.
+     * Writes a leaf element with just a value.
      */
-    private Object addElement(XmlElement e, Method method, Object[] args) {
-        Class<?> rt = method.getReturnType();
-
-        // the last precedence: default name
-        String nsUri = "##default";
-        String localName = method.getName();
-
-        if(e!=null) {
-            // then the annotation on this method
-            if(e.value().length()!=0)
-                localName = e.value();
-            nsUri = e.ns();
-        }
-
-        if(nsUri.equals("##default")) {
-            // look for the annotation on the declaring class
-            Class<?> c = method.getDeclaringClass();
-            XmlElement ce = c.getAnnotation(XmlElement.class);
-            if(ce!=null) {
-                nsUri = ce.ns();
-            }
-
-            if(nsUri.equals("##default"))
-                // then default to the XmlNamespace
-                nsUri = getNamespace(c.getPackage());
-        }
-
-
-
-        if(rt==Void.TYPE) {
-            // leaf element with just a value
-
-            boolean isCDATA = method.getAnnotation(XmlCDATA.class)!=null;
-
-            StartTag st = new StartTag(document,nsUri,localName);
-            addChild(st);
-            for( Object arg : args ) {
-                Text text;
-                if(isCDATA)     text = new Cdata(document,st,arg);
-                else            text = new Pcdata(document,st,arg);
-                addChild(text);
-            }
-            addChild(new EndTag());
-            return null;
-        }
-        if(TypedXmlWriter.class.isAssignableFrom(rt)) {
-            // sub writer
-            return _element(nsUri,localName,(Class)rt);
+    void leaf(String nsUri, String localName, boolean isCDATA, Object[] args) {
+        StartTag st = new StartTag(document,nsUri,localName);
+        addChild(st);
+        for( Object arg : args ) {
+            Text text;
+            if(isCDATA)     text = new Cdata(document,st,arg);
+            else            text = new Pcdata(document,st,arg);
+            addChild(text);
         }
-
-        throw new IllegalSignatureException("Illegal return type: "+rt);
-    }
-
-    /**
-     * Decides the namespace URI of the given package.
-     */
-    private String getNamespace(Package pkg) {
-        if(pkg==null)       return "";
-
-        String nsUri;
-        XmlNamespace ns = pkg.getAnnotation(XmlNamespace.class);
-        if(ns!=null)
-            nsUri = ns.value();
-        else
-            nsUri = "";
-        return nsUri;
+        addChild(new EndTag());
     }
 
     /**
@@ -265,6 +184,9 @@ final class ContainerElement implements InvocationHandler, TypedXmlWriter {
 
     public void commit(boolean includingAllPredecessors) {
         _commit(includingAllPredecessors);
+        // the start tag of a blocked element becomes ready only after the element is committed,
+        // which happens after the last content is added
+        document.run();
         document.flush();
     }
 
@@ -309,6 +231,20 @@ final class ContainerElement implements InvocationHandler, TypedXmlWriter {
         this.prevOpen = null;
     }
 
+    /**
+     * Commits the uncommitted children that are not blocked,
+     * before a new child is started in the streaming mode.
+     */
+    private void commitOpenChildren() {
+        ContainerElement e = lastOpenChild;
+        while(e!=null) {
+            ContainerElement prev = e.prevOpen;
+            if(!e.blocked)
+                e._commit(false);
+            e = prev;
+        }
+    }
+
     public void _attribute(String localName, Object value) {
         _attribute("",localName,value);
     }
@@ -365,10 +301,16 @@ final class ContainerElement implements InvocationHandler, TypedXmlWriter {
     }
 
     public <T extends TypedXmlWriter> T _cast(Class<T> facadeType) {
+        T impl = AbstractTypedXmlWriter.create(facadeType,this);
+        if(impl!=null)
+            return impl;
         return facadeType.cast(Proxy.newProxyInstance(facadeType.getClassLoader(),new Class[]{facadeType},this));
     }
 
     public <T extends TypedXmlWriter> T _element(String nsUri, String localName, Class<T> contentModel) {
+        if(document.isStreaming())
+            commitOpenChildren();
+
         ContainerElement child = new ContainerElement(document,this,nsUri,localName);
         addChild(child.startTag);
         tail = child.endTag;
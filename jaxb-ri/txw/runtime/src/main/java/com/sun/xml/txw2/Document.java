@@ -42,6 +42,7 @@ package com.sun.xml.txw2;
 
 import com.sun.xml.txw2.output.XmlSerializer;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -88,6 +89,22 @@ public final class Document {
      */
     private NamespaceDecl activeNamespaces;
 
+    /**
+     * See {@link #setStreaming(boolean)}.
+     */
+    private boolean streaming;
+
+    /**
+     * Written text buffers kept for reuse in the streaming mode.
+     */
+    private final ArrayList<StringBuilder> buffers = new ArrayList<StringBuilder>();
+
+    /**
+     * Buffers that grew larger than this are not reused,
+     * so that one large text doesn't stay in memory.
+     */
+    private static final int MAX_REUSED_CAPACITY = 1024;
+    private static final int MAX_REUSED_BUFFERS = 16;
 
     Document(XmlSerializer out) {
         this.out = out;
@@ -120,6 +137,59 @@ public final class Document {
         datatypeWriters.put(dw.getType(),dw);
     }
 
+    /**
+     * Selects how eagerly the document is written.
+     *
+     * <p>
+     * By default, the start tag of an element is kept until its first child element
+     * or its end tag, so that attributes and namespace declarations can be added
+     * at any time before that. Everything that follows an uncommitted element
+     * is kept until the element is committed.
+     *
+     * <p>
+     * In the streaming mode, a start tag is written as soon as anything follows it,
+     * and starting a new child element commits the previous children of the same parent,
+     * except those that are {@link TypedXmlWriter#block() blocked}.
+     * So only the pending start tag is kept in memory no matter how large
+     * the document is, but the out-of-order writing is limited accordingly;
+     * attributes and namespace declarations must be added before the content of the element,
+     * and a child element can no longer be written once one of its next siblings is started.
+     *
+     * <p>
+     * The text buffers passed to the {@link XmlSerializer} are reused in the streaming mode,
+     * so the serializer must not keep them after the method returns.
+     *
+     * @param streaming
+     *      true to select the streaming mode.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Obtains an empty buffer for a text or an attribute value.
+     */
+    StringBuilder newBuffer() {
+        int size = buffers.size();
+        if(size>0)
+            return buffers.remove(size-1);
+        return new StringBuilder();
+    }
+
+    /**
+     * Returns the buffer of the written text for reuse.
+     */
+    private void reuse(StringBuilder buf) {
+        if(streaming && buffers.size()<MAX_REUSED_BUFFERS && buf.capacity()<=MAX_REUSED_CAPACITY) {
+            buf.setLength(0);
+            buffers.add(buf);
+        }
+    }
+
     /**
      * Performs the output as much as possible
      */
@@ -195,12 +265,15 @@ public final class Document {
             if(activeNamespaces!=null)
                 buffer = fixPrefix(buffer);
             out.text(buffer);
+            // a written text is never visited again
+            reuse(buffer);
         }
 
         public void onCdata(StringBuilder buffer) {
             if(activeNamespaces!=null)
                 buffer = fixPrefix(buffer);
             out.cdata(buffer);
+            reuse(buffer);
         }
 
         public void onComment(StringBuilder buffer) {
@@ -274,6 +347,7 @@ public final class Document {
                 if(a.nsUri.length()==0) prefix="";
                 else                    prefix=inscopeNamespace.getPrefix(a.nsUri);
                 out.writeAttribute( a.nsUri, a.localName, prefix, fixPrefix(a.value) );
+                reuse(a.value);
             }
 
             out.endStartTag(nsUri,localName,namespaces.prefix);
@@ -119,7 +119,7 @@ class StartTag extends Content implements NamespaceResolver {
 
         // if not found, declare a new one
         if(a==null) {
-            a = new Attribute(nsUri,localName);
+            a = new Attribute(nsUri,localName,document.newBuffer());
             if(lastAtt==null) {
                 assert firstAtt==null;
                 firstAtt = lastAtt = a;
@@ -229,6 +229,10 @@ class StartTag extends Content implements NamespaceResolver {
         if(owner!=null && owner.isBlocked())
             return false;
 
+        if(document.isStreaming())
+            // anything that follows concludes the start tag
+            return getNext()!=null;
+
         for( Content c=getNext(); c!=null; c=c.getNext() )
             if(c.concludesPendingStartTag())
                 return true;
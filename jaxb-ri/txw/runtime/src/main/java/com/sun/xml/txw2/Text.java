@@ -49,9 +49,10 @@ abstract class Text extends Content {
     /**
      * The text to be writtten.
      */
-    protected final StringBuilder buffer = new StringBuilder();
+    protected final StringBuilder buffer;
 
     protected Text(Document document, NamespaceResolver nsResolver, Object obj) {
+        buffer = document.newBuffer();
         document.writeValue(obj,nsResolver,buffer);
     }
 
@@ -0,0 +1,186 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.txw2;
+
+import com.sun.xml.txw2.annotation.XmlAttribute;
+import com.sun.xml.txw2.annotation.XmlCDATA;
+import com.sun.xml.txw2.annotation.XmlElement;
+import com.sun.xml.txw2.annotation.XmlNamespace;
+import com.sun.xml.txw2.annotation.XmlValue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * What a method of a {@link TypedXmlWriter} interface writes,
+ * as decided from its annotations.
+ *
+ * <p>
+ * {@link ContainerElement} needs this on every proxy call, so
+ * it is computed once per {@link Method} and kept with its declaring class.
+ */
+final class WriterMethod {
+
+    enum Kind {
+        /**
+         * Methods of {@link TypedXmlWriter} and {@link Object}, implemented by {@link ContainerElement} itself.
+         */
+        FORWARD,
+        ATTRIBUTE,
+        VALUE,
+        /**
+         * Element with just a value.
+         */
+        LEAF,
+        /**
+         * Element that returns a sub writer.
+         */
+        ELEMENT
+    }
+
+    final Kind kind;
+    final String nsUri;
+    final String localName;
+    final boolean cdata;
+    final Class<?> returnType;
+
+    private static final ClassValue<ConcurrentMap<Method,WriterMethod>> cache = new ClassValue<ConcurrentMap<Method,WriterMethod>>() {
+        @Override
+        protected ConcurrentMap<Method,WriterMethod> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<Method,WriterMethod>();
+        }
+    };
+
+    static WriterMethod get(Method method) {
+        ConcurrentMap<Method,WriterMethod> methods = cache.get(method.getDeclaringClass());
+        WriterMethod wm = methods.get(method);
+        if(wm==null) {
+            wm = new WriterMethod(method);
+            methods.putIfAbsent(method,wm);
+        }
+        return wm;
+    }
+
+    private WriterMethod(Method method) {
+        returnType = method.getReturnType();
+
+        Class<?> c = method.getDeclaringClass();
+        if(c==TypedXmlWriter.class || c==Object.class) {
+            kind = Kind.FORWARD;
+            nsUri = localName = null;
+            cdata = false;
+            return;
+        }
+
+        XmlAttribute xa = method.getAnnotation(XmlAttribute.class);
+        XmlValue xv = method.getAnnotation(XmlValue.class);
+        XmlElement xe = method.getAnnotation(XmlElement.class);
+
+        if(xa!=null) {
+            if(xv!=null || xe!=null)
+                throw new IllegalAnnotationException(method.toString());
+
+            kind = Kind.ATTRIBUTE;
+            nsUri = xa.ns();
+            localName = xa.value().length()==0 ? method.getName() : xa.value();
+            cdata = false;
+            return;
+        }
+        if(xv!=null) {
+            if(xe!=null)
+                throw new IllegalAnnotationException(method.toString());
+
+            kind = Kind.VALUE;
+            nsUri = localName = null;
+            cdata = false;
+            return;
+        }
+
+        // the last precedence: default name
+        String ns = "##default";
+        String name = method.getName();
+
+        if(xe!=null) {
+            // then the annotation on this method
+            if(xe.value().length()!=0)
+                name = xe.value();
+            ns = xe.ns();
+        }
+
+        if(ns.equals("##default")) {
+            // look for the annotation on the declaring class
+            XmlElement ce = c.getAnnotation(XmlElement.class);
+            if(ce!=null) {
+                ns = ce.ns();
+            }
+
+            if(ns.equals("##default"))
+                // then default to the XmlNamespace
+                ns = getNamespace(c.getPackage());
+        }
+
+        if(returnType==Void.TYPE) {
+            kind = Kind.LEAF;
+        } else
+        if(TypedXmlWriter.class.isAssignableFrom(returnType)) {
+            kind = Kind.ELEMENT;
+        } else
+            throw new IllegalSignatureException("Illegal return type: "+returnType);
+
+        nsUri = ns;
+        localName = name;
+        cdata = method.getAnnotation(XmlCDATA.class)!=null;
+    }
+
+    /**
+     * Decides the namespace URI of the given package.
+     */
+    private static String getNamespace(Package pkg) {
+        if(pkg==null)       return "";
+
+        XmlNamespace ns = pkg.getAnnotation(XmlNamespace.class);
+        if(ns!=null)
+            return ns.value();
+        else
+            return "";
+    }
+}
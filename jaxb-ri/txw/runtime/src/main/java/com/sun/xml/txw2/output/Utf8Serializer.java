@@ -0,0 +1,314 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.txw2.output;
+
+import com.sun.xml.txw2.TxwException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link XmlSerializer} that writes UTF-8 encoded XML to an {@link OutputStream}.
+ *
+ * <p>
+ * Unlike {@link StreamSerializer}, this serializer doesn't go through SAX events
+ * and a {@link java.io.Writer}, but encodes the output directly into its own byte buffer.
+ * The output is not indented.
+ *
+ * <p>
+ * The stream is flushed, but not closed, at the end of the document.
+ * Combined with {@link com.sun.xml.txw2.Document#setStreaming(boolean)},
+ * this writes large documents in constant memory.
+ */
+public class Utf8Serializer implements XmlSerializer {
+
+    private final OutputStream out;
+
+    private final byte[] buf = new byte[8192];
+    private int len;
+
+    /**
+     * Names of the open elements.
+     */
+    private String[] prefixes = new String[16];
+    private String[] localNames = new String[16];
+    private int depth;
+
+    /**
+     * True if the last start tag is not closed yet,
+     * so that an empty element can be written as {@code <foo/>}.
+     */
+    private boolean startTagOpen;
+
+    public Utf8Serializer(OutputStream out) {
+        this.out = out;
+    }
+
+    public void startDocument() {
+        writeAscii("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+    }
+
+    public void beginStartTag(String uri, String localName, String prefix) {
+        closeStartTag();
+        if(depth==prefixes.length) {
+            String[] p = new String[depth*2];
+            System.arraycopy(prefixes,0,p,0,depth);
+            prefixes = p;
+            String[] l = new String[depth*2];
+            System.arraycopy(localNames,0,l,0,depth);
+            localNames = l;
+        }
+        prefixes[depth] = prefix;
+        localNames[depth] = localName;
+        depth++;
+
+        write('<');
+        writeName(prefix,localName);
+    }
+
+    public void writeAttribute(String uri, String localName, String prefix, StringBuilder value) {
+        write(' ');
+        writeName(prefix,localName);
+        writeAscii("=\"");
+        write(value,true);
+        write('"');
+    }
+
+    public void writeXmlns(String prefix, String uri) {
+        writeAscii(" xmlns");
+        if(prefix.length()>0) {
+            write(':');
+            write(prefix,false);
+        }
+        writeAscii("=\"");
+        write(uri,true);
+        write('"');
+    }
+
+    public void endStartTag(String uri, String localName, String prefix) {
+        startTagOpen = true;
+    }
+
+    public void endTag() {
+        depth--;
+        if(startTagOpen) {
+            writeAscii("/>");
+            startTagOpen = false;
+        } else {
+            writeAscii("</");
+            writeName(prefixes[depth],localNames[depth]);
+            write('>');
+        }
+        prefixes[depth] = null;
+        localNames[depth] = null;
+    }
+
+    public void text(StringBuilder text) {
+        closeStartTag();
+        write(text,false);
+    }
+
+    public void cdata(StringBuilder text) {
+        closeStartTag();
+        writeAscii("<![CDATA[");
+        String s = text.toString();
+        int idx;
+        while((idx=s.indexOf("]]>"))>=0) {
+            // "]]>" can't appear in a CDATA section, so split it
+            writeRaw(s.substring(0,idx+2));
+            writeAscii("]]><![CDATA[");
+            s = s.substring(idx+2);
+        }
+        writeRaw(s);
+        writeAscii("]]>");
+    }
+
+    public void comment(StringBuilder comment) {
+        closeStartTag();
+        writeAscii("<!--");
+        writeRaw(comment);
+        writeAscii("-->");
+    }
+
+    public void endDocument() {
+        flush();
+    }
+
+    public void flush() {
+        flushBuffer();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new TxwException(e);
+        }
+    }
+
+    private void closeStartTag() {
+        if(startTagOpen) {
+            write('>');
+            startTagOpen = false;
+        }
+    }
+
+    private void writeName(String prefix, String localName) {
+        if(prefix.length()>0) {
+            writeRaw(prefix);
+            write(':');
+        }
+        writeRaw(localName);
+    }
+
+    private void flushBuffer() {
+        try {
+            out.write(buf,0,len);
+        } catch (IOException e) {
+            throw new TxwException(e);
+        }
+        len = 0;
+    }
+
+    private void write(char ch) {
+        if(len==buf.length)
+            flushBuffer();
+        buf[len++] = (byte)ch;
+    }
+
+    /**
+     * Writes a string that only consists of ASCII characters.
+     */
+    private void writeAscii(String s) {
+        int n = s.length();
+        if(len+n>buf.length)
+            flushBuffer();
+        for( int i=0; i<n; i++ )
+            buf[len++] = (byte)s.charAt(i);
+    }
+
+    private void writeRaw(CharSequence s) {
+        int n = s.length();
+        for( int i=0; i<n; i++ ) {
+            char ch = s.charAt(i);
+            if(ch<0x80)
+                write(ch);
+            else
+                i = writeNonAscii(s,i);
+        }
+    }
+
+    /**
+     * Writes a text or an attribute value, escaping the characters as necessary.
+     */
+    private void write(CharSequence s, boolean isAttVal) {
+        int n = s.length();
+        for( int i=0; i<n; i++ ) {
+            char ch = s.charAt(i);
+            if(ch>='?' && ch<0x80) {
+                // the common case. nothing needs escaping in this range
+                if(len==buf.length)
+                    flushBuffer();
+                buf[len++] = (byte)ch;
+                continue;
+            }
+            switch(ch) {
+            case '&':
+                writeAscii("&amp;");
+                break;
+            case '<':
+                writeAscii("&lt;");
+                break;
+            case '>':
+                writeAscii("&gt;");
+                break;
+            case '"':
+                if(isAttVal)    writeAscii("&quot;");
+                else            write(ch);
+                break;
+            case '\r':
+                writeAscii("&#xD;");
+                break;
+            case '\n':
+            case '\t':
+                // white spaces in attribute values would be normalized by the parser
+                if(isAttVal)    writeAscii(ch=='\n' ? "&#xA;" : "&#x9;");
+                else            write(ch);
+                break;
+            default:
+                if(ch<0x80)
+                    write(ch);
+                else
+                    i = writeNonAscii(s,i);
+            }
+        }
+    }
+
+    /**
+     * Encodes the non-ASCII character at the given index.
+     *
+     * @return
+     *      the index of the last character consumed.
+     */
+    private int writeNonAscii(CharSequence s, int i) {
+        if(len+4>buf.length)
+            flushBuffer();
+
+        char ch = s.charAt(i);
+        if(ch<0x800) {
+            buf[len++] = (byte)(0xC0 | (ch>>6));
+            buf[len++] = (byte)(0x80 | (ch&0x3F));
+        } else
+        if(Character.isHighSurrogate(ch) && i+1<s.length() && Character.isLowSurrogate(s.charAt(i+1))) {
+            int cp = Character.toCodePoint(ch,s.charAt(++i));
+            buf[len++] = (byte)(0xF0 | (cp>>18));
+            buf[len++] = (byte)(0x80 | ((cp>>12)&0x3F));
+            buf[len++] = (byte)(0x80 | ((cp>>6)&0x3F));
+            buf[len++] = (byte)(0x80 | (cp&0x3F));
+        } else
+        if(Character.isSurrogate(ch)) {
+            // unpaired surrogate can't be encoded
+            buf[len++] = '?';
+        } else {
+            buf[len++] = (byte)(0xE0 | (ch>>12));
+            buf[len++] = (byte)(0x80 | ((ch>>6)&0x3F));
+            buf[len++] = (byte)(0x80 | (ch&0x3F));
+        }
+        return i;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.txw2;
+
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.xml.namespace.QName;
+
+import com.sun.xml.txw2.annotation.XmlAttribute;
+import com.sun.xml.txw2.annotation.XmlElement;
+import com.sun.xml.txw2.annotation.XmlValue;
+import com.sun.xml.txw2.output.StreamSerializer;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the writers that the TXW compiler generates as {@link AbstractTypedXmlWriter}s,
+ * and the proxy-based writers that are used without them.
+ */
+public class GeneratedWriterTest extends TestCase {
+
+    /**
+     * Written like the TXW compiler would generate it.
+     */
+    @XmlElement("item")
+    public interface Item extends TypedXmlWriter {
+        @XmlAttribute
+        Item id(int value);
+
+        @XmlAttribute(value="ref", ns="urn:r")
+        void reference(String value);
+
+        @XmlElement
+        void label(String value);
+
+        @XmlElement("sub")
+        Item child();
+
+        @XmlValue
+        Item text(String value);
+
+        public static class _Impl extends AbstractTypedXmlWriter implements Item {
+            public _Impl(TypedXmlWriter core) {
+                super(core);
+            }
+
+            public Item id(int value) {
+                _attribute("", "id", value);
+                return this;
+            }
+
+            public void reference(String value) {
+                _attribute("urn:r", "ref", value);
+            }
+
+            public void label(String value) {
+                _leaf("", "label", value);
+            }
+
+            public Item child() {
+                return _element("", "sub", Item.class);
+            }
+
+            public Item text(String value) {
+                _pcdata(value);
+                return this;
+            }
+        }
+    }
+
+    /**
+     * {@link Item} without the generated implementation.
+     */
+    @XmlElement("item")
+    public interface PlainItem extends TypedXmlWriter {
+        @XmlAttribute
+        PlainItem id(int value);
+
+        @XmlAttribute(value="ref", ns="urn:r")
+        void reference(String value);
+
+        @XmlElement
+        void label(String value);
+
+        @XmlElement("sub")
+        PlainItem child();
+
+        @XmlValue
+        PlainItem text(String value);
+    }
+
+    /**
+     * Has a nested class with the right name that isn't a writer.
+     */
+    public interface Broken extends TypedXmlWriter {
+        @XmlAttribute
+        void id(int value);
+
+        public static class _Impl {
+        }
+    }
+
+    public void testImplementationIsUsed() {
+        Item root = TXW.create(new QName("root"), Item.class, new StreamSerializer(new StringWriter()));
+        assertSame(Item._Impl.class, root.getClass());
+        assertSame(Item._Impl.class, root.child().getClass());
+        assertSame(Item._Impl.class, root._element("other", Item.class).getClass());
+        root.commit();
+    }
+
+    public void testCastFallsBackToProxy() {
+        Item root = TXW.create(new QName("root"), Item.class, new StreamSerializer(new StringWriter()));
+
+        PlainItem plain = root._cast(PlainItem.class);
+        assertTrue(Proxy.isProxyClass(plain.getClass()));
+        Broken broken = root._cast(Broken.class);
+        assertTrue(Proxy.isProxyClass(broken.getClass()));
+
+        // back to the generated implementation of the same element
+        assertSame(Item._Impl.class, plain._cast(Item.class).getClass());
+        root.commit();
+    }
+
+    public void testSameOutputAsProxy() {
+        StringWriter generated = new StringWriter();
+        Item item = TXW.create(Item.class, new StreamSerializer(generated));
+        item.id(1).reference("r1");
+        item.label("a < b");
+        Item sub = item.child().id(2);
+        sub.text("x & y");
+        sub.child().label("deep");
+        item.text("tail");
+        item.commit();
+
+        StringWriter proxied = new StringWriter();
+        PlainItem plain = TXW.create(PlainItem.class, new StreamSerializer(proxied));
+        plain.id(1).reference("r1");
+        plain.label("a < b");
+        PlainItem psub = plain.child().id(2);
+        psub.text("x & y");
+        psub.child().label("deep");
+        plain.text("tail");
+        plain.commit();
+
+        assertEquals(proxied.toString(), generated.toString());
+        assertTrue(generated.toString(), generated.toString().contains(":ref=\"r1\""));
+    }
+
+    public void testMethodCache() throws Exception {
+        Method id = PlainItem.class.getMethod("id", int.class);
+        WriterMethod wm = WriterMethod.get(id);
+        assertSame(wm, WriterMethod.get(id));
+        assertSame(wm, WriterMethod.get(PlainItem.class.getMethod("id", int.class)));
+        assertEquals(WriterMethod.Kind.ATTRIBUTE, wm.kind);
+        assertEquals("", wm.nsUri);
+        assertEquals("id", wm.localName);
+
+        WriterMethod ref = WriterMethod.get(PlainItem.class.getMethod("reference", String.class));
+        assertEquals("urn:r", ref.nsUri);
+        assertEquals("ref", ref.localName);
+
+        WriterMethod child = WriterMethod.get(PlainItem.class.getMethod("child"));
+        assertEquals(WriterMethod.Kind.ELEMENT, child.kind);
+        assertEquals("sub", child.localName);
+        assertSame(PlainItem.class, child.returnType);
+
+        assertEquals(WriterMethod.Kind.LEAF, WriterMethod.get(PlainItem.class.getMethod("label", String.class)).kind);
+        assertEquals(WriterMethod.Kind.VALUE, WriterMethod.get(PlainItem.class.getMethod("text", String.class)).kind);
+        assertEquals(WriterMethod.Kind.FORWARD, WriterMethod.get(TypedXmlWriter.class.getMethod("commit")).kind);
+
+        // the same method seen through another interface is a different entry
+        Method itemId = Item.class.getMethod("id", int.class);
+        assertNotSame(wm, WriterMethod.get(itemId));
+    }
+}
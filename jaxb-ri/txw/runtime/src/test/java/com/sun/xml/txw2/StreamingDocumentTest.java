@@ -0,0 +1,182 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.txw2;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Stack;
+
+import javax.xml.namespace.QName;
+
+import com.sun.xml.txw2.output.Utf8Serializer;
+import com.sun.xml.txw2.output.XmlSerializer;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the streaming mode of {@link Document}.
+ */
+public class StreamingDocumentTest extends TestCase {
+
+    public void testStartingSiblingCommitsPrevious() {
+        Recorder out = new Recorder();
+        TypedXmlWriter root = TXW.create(new QName("root"), TypedXmlWriter.class, out);
+        root.getDocument().setStreaming(true);
+
+        TypedXmlWriter a = root._element("a", TypedXmlWriter.class);
+        a._element("x", TypedXmlWriter.class)._pcdata("1");
+        a._pcdata("t");
+        // x is still open, so nothing after it is written yet
+        assertEquals("<root><a><x>1", out.toString());
+
+        // starting b commits a, together with its open child x
+        TypedXmlWriter b = root._element("b", TypedXmlWriter.class);
+        assertEquals("<root><a><x>1</x>t</a>", out.toString());
+
+        b._pcdata("2");
+        assertEquals("<root><a><x>1</x>t</a><b>2", out.toString());
+        root.commit();
+        assertEquals("<root><a><x>1</x>t</a><b>2</b></root>", out.toString());
+    }
+
+    public void testBlockedChildIsKept() {
+        Recorder out = new Recorder();
+        TypedXmlWriter root = TXW.create(new QName("root"), TypedXmlWriter.class, out);
+        root.getDocument().setStreaming(true);
+
+        TypedXmlWriter a = root._element("a", TypedXmlWriter.class);
+        a.block();
+        TypedXmlWriter b = root._element("b", TypedXmlWriter.class);
+        b._pcdata("2");
+        root._element("c", TypedXmlWriter.class);
+        // a is blocked, so neither it nor its next siblings are written
+        assertEquals("<root>", out.toString());
+
+        // and its start tag can still be changed
+        a._attribute("late", "v");
+        a._pcdata("1");
+        a.commit(false);
+        // the start tag of c is kept until something follows it
+        assertEquals("<root><a late=\"v\">1</a><b>2</b>", out.toString());
+
+        root.commit();
+        assertEquals("<root><a late=\"v\">1</a><b>2</b><c></c></root>", out.toString());
+    }
+
+    public void testSameAsDefault() throws Exception {
+        assertEquals(write(false), write(true));
+    }
+
+    /**
+     * Writes enough text of varying length to reuse the text buffers.
+     */
+    private static String write(boolean streaming) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TypedXmlWriter root = TXW.create(new QName("urn:r", "root"), TypedXmlWriter.class, new Utf8Serializer(out));
+        root.getDocument().setStreaming(streaming);
+        root._namespace("urn:p", "p");
+        for (int i = 0; i < 200; i++) {
+            TypedXmlWriter e = root._element("urn:p", "e", TypedXmlWriter.class);
+            e._attribute("i", i);
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < 200 - i; j++)
+                text.append((char)('a' + j % 26));
+            e._pcdata(text);
+            if (i % 3 == 0)
+                e._element("inner", TypedXmlWriter.class)._cdata(i);
+            e._comment(i);
+        }
+        root.commit();
+        return out.toString("UTF-8");
+    }
+
+    /**
+     * Records the events as a simple markup, copying the buffers as they are passed.
+     */
+    private static final class Recorder implements XmlSerializer {
+        private final StringBuilder log = new StringBuilder();
+        private final Stack<String> open = new Stack<String>();
+
+        public void startDocument() {
+        }
+
+        public void beginStartTag(String uri, String localName, String prefix) {
+            log.append('<').append(localName);
+            open.push(localName);
+        }
+
+        public void writeAttribute(String uri, String localName, String prefix, StringBuilder value) {
+            log.append(' ').append(localName).append("=\"").append(value).append('"');
+        }
+
+        public void writeXmlns(String prefix, String uri) {
+        }
+
+        public void endStartTag(String uri, String localName, String prefix) {
+            log.append('>');
+        }
+
+        public void endTag() {
+            log.append("</").append(open.pop()).append('>');
+        }
+
+        public void text(StringBuilder text) {
+            log.append(text);
+        }
+
+        public void cdata(StringBuilder text) {
+            log.append(text);
+        }
+
+        public void comment(StringBuilder comment) {
+        }
+
+        public void endDocument() {
+        }
+
+        public void flush() {
+        }
+
+        @Override
+        public String toString() {
+            return log.toString();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.txw2.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import com.sun.xml.txw2.TXW;
+import com.sun.xml.txw2.TypedXmlWriter;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests {@link Utf8Serializer}, comparing it with {@link StreamSerializer}
+ * where the latter writes well-formed output.
+ */
+public class Utf8SerializerTest extends TestCase {
+
+    public void testSameAsStreamSerializer() throws Exception {
+        ByteArrayOutputStream utf8 = new ByteArrayOutputStream();
+        write(TXW.create(new QName("urn:r", "root"), TypedXmlWriter.class, new Utf8Serializer(utf8)));
+        StringWriter stream = new StringWriter();
+        write(TXW.create(new QName("urn:r", "root"), TypedXmlWriter.class, new StreamSerializer(stream)));
+
+        // StreamSerializer indents, so the whitespace is trimmed on both sides
+        Document expected = trim(parse(new InputSource(new StringReader(stream.toString()))));
+        Document actual = trim(parse(new InputSource(new ByteArrayInputStream(utf8.toByteArray()))));
+        assertTrue(utf8.toString("UTF-8"), expected.getDocumentElement().isEqualNode(actual.getDocumentElement()));
+    }
+
+    private static void write(TypedXmlWriter root) {
+        root._namespace("urn:p", "p");
+        root._attribute("a", "x");
+        root._attribute("urn:p", "b", "y");
+        TypedXmlWriter child = root._element("urn:r", "child", TypedXmlWriter.class);
+        child._pcdata("text \u00E9\u4E2D");
+        child._comment("note");
+        child._element("empty", TypedXmlWriter.class);
+        child._cdata("<raw & data>");
+        root._element("urn:p", "other", TypedXmlWriter.class)._pcdata("1 < 2");
+        root.commit();
+    }
+
+    public void testSurrogatePairs() throws Exception {
+        String s = "a\uD83D\uDE00b\uD800c";   // U+1F600 as a surrogate pair, then an unpaired surrogate
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TypedXmlWriter root = TXW.create(new QName("root"), TypedXmlWriter.class, new Utf8Serializer(out));
+        root._attribute("v", s);
+        root._pcdata(s);
+        root.commit();
+
+        byte[] bytes = out.toByteArray();
+        byte[] smiley = {(byte)0xF0, (byte)0x9F, (byte)0x98, (byte)0x80};
+        assertEquals(2, count(bytes, smiley));
+
+        Element e = parse(new InputSource(new ByteArrayInputStream(bytes))).getDocumentElement();
+        String written = "a\uD83D\uDE00b?c";
+        assertEquals(written, e.getAttribute("v"));
+        assertEquals(written, e.getTextContent());
+    }
+
+    public void testCdataSplitting() throws Exception {
+        String[] values = {"a]]>b", "]]>", "]]>]]>", "x]]]>y", "]]"};
+        for (String v : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TypedXmlWriter root = TXW.create(new QName("root"), TypedXmlWriter.class, new Utf8Serializer(out));
+            root._cdata(v);
+            root.commit();
+            Element e = parse(new InputSource(new ByteArrayInputStream(out.toByteArray()))).getDocumentElement();
+            assertEquals(out.toString("UTF-8"), v, e.getTextContent());
+        }
+    }
+
+    public void testAttributeEscaping() throws Exception {
+        String v = "<a & \"b\" > 'c'\r\n\td";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TypedXmlWriter root = TXW.create(new QName("root"), TypedXmlWriter.class, new Utf8Serializer(out));
+        root._attribute("v", v);
+        root._pcdata("<\"t\">&");
+        root.commit();
+
+        // white spaces are escaped, so that the parser doesn't normalize them
+        Element e = parse(new InputSource(new ByteArrayInputStream(out.toByteArray()))).getDocumentElement();
+        assertEquals(v, e.getAttribute("v"));
+        assertEquals("<\"t\">&", e.getTextContent());
+    }
+
+    public void testLargeDocument() throws Exception {
+        // crosses the internal buffer with characters of every encoded length
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            text.append("a\u00E9\u4E2D\uD83D\uDE00<");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TypedXmlWriter root = TXW.create(new QName("root"), TypedXmlWriter.class, new Utf8Serializer(out));
+        for (int i = 0; i < 3; i++)
+            root._element("e", TypedXmlWriter.class)._pcdata(text);
+        root.commit();
+
+        Element e = parse(new InputSource(new ByteArrayInputStream(out.toByteArray()))).getDocumentElement();
+        assertEquals(3, e.getChildNodes().getLength());
+        for (int i = 0; i < 3; i++)
+            assertEquals(text.toString(), e.getChildNodes().item(i).getTextContent());
+    }
+
+    private static int count(byte[] bytes, byte[] pattern) {
+        int n = 0;
+        for (int i = 0; i + pattern.length <= bytes.length; i++)
+            if (Arrays.equals(pattern, Arrays.copyOfRange(bytes, i, i + pattern.length)))
+                n++;
+        return n;
+    }
+
+    private static Document trim(Document doc) {
+        trim((Node)doc.getDocumentElement());
+        return doc;
+    }
+
+    private static void trim(Node node) {
+        Node child = node.getFirstChild();
+        while (child != null) {
+            Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.TEXT_NODE) {
+                String text = child.getNodeValue().trim();
+                if (text.length() == 0)
+                    node.removeChild(child);
+                else
+                    child.setNodeValue(text);
+            } else
+                trim(child);
+            child = next;
+        }
+    }
+
+    private static Document parse(InputSource in) throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        dbf.setCoalescing(true);
+        dbf.setIgnoringComments(false);
+        Document doc = dbf.newDocumentBuilder().parse(in);
+        doc.normalizeDocument();
+        return doc;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package perf;
+
+import com.sun.xml.txw2.TXW;
+import com.sun.xml.txw2.TypedXmlWriter;
+import com.sun.xml.txw2.annotation.XmlAttribute;
+import com.sun.xml.txw2.annotation.XmlElement;
+import com.sun.xml.txw2.annotation.XmlValue;
+import com.sun.xml.txw2.output.StreamSerializer;
+import com.sun.xml.txw2.output.Utf8Serializer;
+import com.sun.xml.txw2.output.XmlSerializer;
+
+import java.io.OutputStream;
+
+/**
+ * Compares the throughput of {@link StreamSerializer} with the default commit policy
+ * against {@link Utf8Serializer} in the streaming mode.
+ *
+ * <p>
+ * Usage: {@code SerializerBenchmark [number of entries]}
+ */
+public class SerializerBenchmark {
+
+    @XmlElement("entries")
+    public interface Entries extends TypedXmlWriter {
+        @XmlElement
+        Entry entry();
+    }
+
+    public interface Entry extends TypedXmlWriter {
+        @XmlAttribute
+        void id(int value);
+        @XmlElement
+        void name(String value);
+        @XmlElement
+        Comment comment();
+    }
+
+    public interface Comment extends TypedXmlWriter {
+        @XmlAttribute
+        void lang(String value);
+        @XmlValue
+        void _text(String value);
+    }
+
+    /**
+     * Counts the bytes written.
+     */
+    private static final class NullOutputStream extends OutputStream {
+        long size;
+
+        public void write(int b) {
+            size++;
+        }
+
+        public void write(byte[] b, int off, int len) {
+            size += len;
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = args.length>0 ? Integer.parseInt(args[0]) : 200000;
+
+        for( int round=0; round<5; round++ ) {
+            run("StreamSerializer", n, false);
+            run("Utf8Serializer (streaming)", n, true);
+        }
+    }
+
+    private static void run(String name, int n, boolean streaming) {
+        NullOutputStream os = new NullOutputStream();
+        XmlSerializer out = streaming ? new Utf8Serializer(os) : new StreamSerializer(os);
+
+        System.gc();
+        long start = System.nanoTime();
+        write(n, out, streaming);
+        long time = System.nanoTime()-start;
+
+        System.out.printf("%-28s %6d ms %8.1f MB/s%n",
+            name, time/1000000, os.size*1000.0/time);
+    }
+
+    private static void write(int n, XmlSerializer out, boolean streaming) {
+        Entries root = TXW.create(Entries.class, out);
+        root.getDocument().setStreaming(streaming);
+        for( int i=0; i<n; i++ ) {
+            Entry e = root.entry();
+            e.id(i);
+            e.name("entry #"+i);
+            Comment c = e.comment();
+            c.lang("en");
+            c._text("some text & <markup> \u00e9\u4e2d");
+            if(!streaming)
+                e.commit(false);
+        }
+        root.commit();
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.xjc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.writer.FilterCodeWriter;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Records what went into a compilation, so that the next compilation
+ * into the same directory can be skipped when nothing has changed.
+ *
+ * <p>
+ * The manifest is a properties file in {@link Options#targetDir} that keeps
+ * a digest of the options, the schema/binding files given to the compilation
+ * (which may have come from a directory or an Ant fileset), a digest of every
+ * schema/binding document that was read (as resolved by
+ * {@link Options#entityResolver}, thus including catalogs),
+ * and the list of the generated files.
+ *
+ * @see Options#incremental
+ */
+final class BuildManifest {
+
+    /**
+     * Name of the manifest file in the target directory.
+     */
+    static final String FILE_NAME = ".xjc-manifest";
+
+    private final Options opt;
+
+    /**
+     * The {@link EntityResolver} that the compilation uses to find documents,
+     * before we started recording.
+     */
+    private final EntityResolver resolver;
+
+    /**
+     * Documents that were read, from the key to {publicId,systemId}.
+     */
+    private final Map<String,String[]> documents = new TreeMap<String,String[]>();
+
+    /**
+     * Generated files, relative to the target directory.
+     */
+    private final Set<String> files = new TreeSet<String>();
+
+    BuildManifest(Options opt) {
+        this.opt = opt;
+        this.resolver = opt.entityResolver;
+    }
+
+    private File getFile() {
+        return new File(opt.targetDir,FILE_NAME);
+    }
+
+    /**
+     * Checks if the manifest left by the previous compilation
+     * matches the current inputs.
+     */
+    boolean isUpToDate() {
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(getFile())) {
+            p.load(in);
+        } catch (IOException e) {
+            return false;   // no manifest
+        }
+
+        try {
+            if(!computeOptionsDigest().equals(p.getProperty("options")))
+                return false;
+
+            // a file may have been added to or removed from a directory
+            List<String> roots = getRoots();
+            if(roots==null)
+                return false;
+            int n = 0;
+            for( ; p.getProperty("root."+n)!=null; n++ ) {
+                if(n>=roots.size() || !roots.get(n).equals(p.getProperty("root."+n)))
+                    return false;
+            }
+            if(n!=roots.size())
+                return false;
+
+            for( int i=0; p.getProperty("document."+i+".digest")!=null; i++ ) {
+                String digest = computeDocumentDigest(
+                        p.getProperty("document."+i+".publicId"),
+                        p.getProperty("document."+i+".systemId"));
+                if(!digest.equals(p.getProperty("document."+i+".digest")))
+                    return false;
+            }
+        } catch (IOException e) {
+            return false;   // a document is gone, for example
+        } catch (SAXException e) {
+            return false;
+        }
+
+        for( int i=0; p.getProperty("file."+i)!=null; i++ ) {
+            if(!new File(opt.targetDir,p.getProperty("file."+i)).exists())
+                return false;   // the user removed the generated file
+        }
+
+        return true;
+    }
+
+    /**
+     * Replaces {@link Options#entityResolver} so that all the documents
+     * that the compilation reads are recorded.
+     *
+     * @return
+     *      false if some inputs can't be recorded,
+     *      in which case the manifest must not be written.
+     */
+    boolean startRecording() {
+        for (InputSource is : opt.getGrammars()) {
+            if(is.getSystemId()==null)
+                return false;
+            addDocument(is.getPublicId(),is.getSystemId());
+        }
+        for (InputSource is : opt.getBindFiles()) {
+            if(is.getSystemId()==null)
+                return false;
+            addDocument(is.getPublicId(),is.getSystemId());
+        }
+
+        opt.entityResolver = new EntityResolver() {
+            public InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+                if(systemId!=null || publicId!=null)
+                    addDocument(publicId,systemId);
+                if(resolver!=null)
+                    return resolver.resolveEntity(publicId,systemId);
+                return null;
+            }
+        };
+        return true;
+    }
+
+    /**
+     * Gets the schema and binding files given to the compilation.
+     *
+     * @return
+     *      null if some of them don't have a system ID.
+     */
+    private List<String> getRoots() {
+        List<String> roots = new ArrayList<String>();
+        for (InputSource is : opt.getGrammars()) {
+            if(is.getSystemId()==null)
+                return null;
+            roots.add("schema "+is.getSystemId());
+        }
+        for (InputSource is : opt.getBindFiles()) {
+            if(is.getSystemId()==null)
+                return null;
+            roots.add("binding "+is.getSystemId());
+        }
+        return roots;
+    }
+
+    private void addDocument(String publicId, String systemId) {
+        documents.put(publicId+' '+systemId, new String[]{publicId,systemId});
+    }
+
+    /**
+     * Wraps the given {@link CodeWriter} so that the generated files are recorded.
+     */
+    CodeWriter record(CodeWriter core) {
+        return new FilterCodeWriter(core) {
+            @Override
+            public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+                files.add(toPath(pkg,fileName));
+                return super.openBinary(pkg,fileName);
+            }
+
+            @Override
+            public Writer openSource(JPackage pkg, String fileName) throws IOException {
+                files.add(toPath(pkg,fileName));
+                return super.openSource(pkg,fileName);
+            }
+        };
+    }
+
+    private static String toPath(JPackage pkg, String fileName) {
+        if(pkg==null || pkg.isUnnamed())
+            return fileName;
+        return pkg.name().replace('.','/')+'/'+fileName;
+    }
+
+    /**
+     * Writes the manifest after a successful compilation.
+     */
+    void write() throws IOException {
+        Properties p = new Properties();
+        p.setProperty("options",computeOptionsDigest());
+
+        int i=0;
+        List<String> roots = getRoots();
+        if(roots==null)
+            throw new IllegalStateException();   // startRecording should have failed
+        for (String r : roots)
+            p.setProperty("root."+(i++),r);
+
+        i=0;
+        for (String[] doc : documents.values()) {
+            if(doc[0]!=null)
+                p.setProperty("document."+i+".publicId",doc[0]);
+            if(doc[1]!=null)
+                p.setProperty("document."+i+".systemId",doc[1]);
+            try {
+                p.setProperty("document."+i+".digest",computeDocumentDigest(doc[0],doc[1]));
+            } catch (SAXException e) {
+                throw new IOException(e);
+            }
+            i++;
+        }
+
+        i=0;
+        for (String f : files)
+            p.setProperty("file."+(i++),f);
+
+        try (OutputStream os = new FileOutputStream(getFile())) {
+            p.store(os,"generated by XJC. used by the -incremental option");
+        }
+    }
+
+    /**
+     * Computes the digest of everything in {@link Options} that affects the generated code.
+     */
+    private String computeOptionsDigest() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(Options.getBuildID()).append('\n');
+        List<String> args = opt.getArguments();
+        for( int i=0; i<args.size(); i++ ) {
+            // the number of build threads doesn't change the generated code
+            if(args.get(i).equals("-buildThreads")) {
+                i++;
+                continue;
+            }
+            sb.append(args.get(i)).append('\n');
+        }
+        sb.append(opt.getSchemaLanguage()).append('\n');
+        sb.append(opt.defaultPackage).append('\n');
+        sb.append(opt.defaultPackage2).append('\n');
+        sb.append(opt.getModuleName()).append('\n');
+        sb.append(opt.encoding).append('\n');
+        sb.append(opt.target).append('\n');
+        sb.append(opt.compatibilityMode).append('\n');
+        sb.append(opt.readOnly).append(opt.noFileHeader).append(opt.enableIntrospection)
+          .append(opt.contentForWildcard).append(opt.runtime14).append(opt.strictCheck)
+          .append(opt.automaticNameConflictResolution).append(opt.packageLevelAnnotations)
+          .append(opt.disableXmlSecurity).append('\n');
+        for (Plugin p : opt.activePlugins)
+            sb.append(p.getClass().getName()).append('\n');
+        for (URL u : opt.classpaths)
+            sb.append(u).append('\n');
+
+        MessageDigest md = createDigest();
+        md.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+        return toHex(md.digest());
+    }
+
+    /**
+     * Computes the digest of a document, after resolving it the same way the compilation does.
+     */
+    private String computeDocumentDigest(String publicId, String systemId) throws IOException, SAXException {
+        InputSource is = null;
+        if(resolver!=null)
+            is = resolver.resolveEntity(publicId,systemId);
+        if(is==null) {
+            if(systemId==null)
+                return "";  // nothing to read. the reference stays unresolved
+            is = new InputSource(systemId);
+        }
+
+        MessageDigest md = createDigest();
+        if(is.getCharacterStream()!=null) {
+            try (Reader r = is.getCharacterStream()) {
+                char[] buf = new char[8192];
+                int len;
+                while((len=r.read(buf))>=0)
+                    md.update(new String(buf,0,len).getBytes(StandardCharsets.UTF_8));
+            }
+        } else {
+            InputStream in = is.getByteStream();
+            if(in==null)
+                in = new URL(is.getSystemId()).openStream();
+            try {
+                byte[] buf = new byte[8192];
+                int len;
+                while((len=in.read(buf))>=0)
+                    md.update(buf,0,len);
+            } finally {
+                in.close();
+            }
+        }
+        return toHex(md.digest());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);    // every JRE has SHA-256
+        }
+    }
+
+    private static String toHex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(digest.length*2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b>>4)&0xF,16));
+            sb.append(Character.forDigit(b&0xF,16));
+        }
+        return sb.toString();
+    }
+}
@@ -287,6 +287,19 @@ public class Driver {
         // parse a grammar file
         //-----------------------------------------
         try {
+            BuildManifest manifest = null;
+            if( opt.incremental && opt.mode==Mode.CODE ) {
+                manifest = new BuildManifest(opt);
+                if( manifest.isUpToDate() ) {
+                    if( !opt.quiet ) {
+                        listener.message(Messages.format(Messages.UP_TO_DATE));
+                    }
+                    return 0;
+                }
+                if( !manifest.startRecording() )
+                    manifest = null;    // can't tell what we read, so don't leave a manifest
+            }
+
             if( !opt.quiet ) {
                 listener.message(Messages.format(Messages.PARSING_SCHEMA));
             }
@@ -408,10 +421,19 @@ public class Driver {
                         } else
                             cw = opt.createCodeWriter();
 
+                        if( manifest!=null ) {
+                            cw = manifest.record(cw);
+                        }
                         if( !opt.quiet ) {
                             cw = new ProgressCodeWriter(cw,listener, model.codeModel.countArtifacts());
                         }
-                        model.codeModel.build(cw);
+                        if( opt.buildThreads>1 )
+                            model.codeModel.build(cw,cw,opt.buildThreads);
+                        else
+                            model.codeModel.build(cw);
+                        if( manifest!=null ) {
+                            manifest.write();
+                        }
                     } catch (IOException e) {
                         receiver.error(e);
                         return -1;
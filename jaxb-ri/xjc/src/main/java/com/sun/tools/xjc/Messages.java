@@ -112,6 +112,12 @@ public class Messages
     static final String ILLEGAL_TARGET_VERSION = // 1 arg
         "Driver.ILLEGAL_TARGET_VERSION";
 
+    static final String ILLEGAL_PARSE_THREADS = // 1 arg
+        "Driver.IllegalParseThreads";
+
+    static final String ILLEGAL_BUILD_THREADS = // 1 arg
+        "Driver.IllegalBuildThreads";
+
     static final String MISSING_OPERAND = // 1 arg
         "Driver.MissingOperand";
 
@@ -145,6 +151,9 @@ public class Messages
     static final String COMPILING_SCHEMA = // 0 args
         "Driver.CompilingSchema";
 
+    static final String UP_TO_DATE = // 0 args
+        "Driver.UpToDate";
+
     static final String FAILED_TO_GENERATE_CODE = // 0 args
         "Driver.FailedToGenerateCode";
         
@@ -42,6 +42,11 @@ package com.sun.tools.xjc;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import com.sun.codemodel.JCodeModel;
 import com.sun.tools.xjc.model.Model;
@@ -63,6 +68,7 @@ import com.sun.tools.xjc.util.ErrorReceiverFilter;
 import com.sun.xml.bind.v2.util.XmlFactory;
 import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.parser.JAXPParser;
+import com.sun.xml.xsom.parser.SchemaSetCache;
 import com.sun.xml.xsom.parser.XMLParser;
 import com.sun.xml.xsom.parser.XSOMParser;
 import javax.xml.XMLConstants;
@@ -289,28 +295,29 @@ public final class ModelLoader {
         if(opt.entityResolver!=null)
         forest.setEntityResolver(opt.entityResolver);
 
-        // parse source grammars
-        for (InputSource value : opt.getGrammars()) {
+        if (opt.parseThreads > 1) {
+            // parse source grammars and external binding files together
+            List<InputSource> sources = new ArrayList<InputSource>(Arrays.asList(opt.getGrammars()));
+            sources.addAll(Arrays.asList(opt.getBindFiles()));
             errorReceiver.pollAbort();
-            forest.parse(value, true);
-        }
-
-        // parse external binding files
-        for (InputSource value : opt.getBindFiles()) {
+            List<Document> doms = forest.parse(sources, opt.parseThreads);
             errorReceiver.pollAbort();
-            Document dom = forest.parse(value, true);
-            if(dom==null)       continue;   // error must have been reported
-            Element root = dom.getDocumentElement();
-            // TODO: it somehow doesn't feel right to do a validation in the Driver class.
-            // think about moving it to somewhere else.
-            if (!fixNull(root.getNamespaceURI()).equals(Const.JAXB_NSURI)
-                    || !root.getLocalName().equals("bindings"))
-                errorReceiver.error(new SAXParseException(Messages.format(Messages.ERR_NOT_A_BINDING_FILE,
-                        root.getNamespaceURI(),
-                        root.getLocalName()),
-                        null,
-                        value.getSystemId(),
-                        -1, -1));
+
+            int i = opt.getGrammars().length;
+            for (InputSource value : opt.getBindFiles())
+                checkBindingFile(value, doms.get(i++));
+        } else {
+            // parse source grammars
+            for (InputSource value : opt.getGrammars()) {
+                errorReceiver.pollAbort();
+                forest.parse(value, true);
+            }
+
+            // parse external binding files
+            for (InputSource value : opt.getBindFiles()) {
+                errorReceiver.pollAbort();
+                checkBindingFile(value, forest.parse(value, true));
+            }
         }
 
         scdBasedBindingSet = forest.transform(opt.isExtensionMode());
@@ -318,6 +325,24 @@ public final class ModelLoader {
         return forest;
     }
 
+    /**
+     * Makes sure that the given external binding file is a {@code <jaxb:bindings>}.
+     */
+    private void checkBindingFile(InputSource value, Document dom) {
+        if(dom==null)       return;   // error must have been reported
+        Element root = dom.getDocumentElement();
+        // TODO: it somehow doesn't feel right to do a validation in the Driver class.
+        // think about moving it to somewhere else.
+        if (!fixNull(root.getNamespaceURI()).equals(Const.JAXB_NSURI)
+                || !root.getLocalName().equals("bindings"))
+            errorReceiver.error(new SAXParseException(Messages.format(Messages.ERR_NOT_A_BINDING_FILE,
+                    root.getNamespaceURI(),
+                    root.getLocalName()),
+                    null,
+                    value.getSystemId(),
+                    -1, -1));
+    }
+
     private String fixNull(String s) {
         if(s==null) return "";
         else        return s;
@@ -480,6 +505,18 @@ public final class ModelLoader {
 
         XSOMParser reader = createXSOMParser(parser);
 
+        if (opt.schemaCache != null) {
+            URL[] urls = toURLs(opt.getGrammars());
+            if (urls != null) {
+                try {
+                    return new SchemaSetCache(opt.schemaCache).parse(reader, urls);
+                } catch (IOException e) {
+                    errorReceiver.error(e.getMessage(), e);
+                    return null;
+                }
+            }
+        }
+
         // parse source grammars
         for (InputSource value : opt.getGrammars())
             reader.parse(value);
@@ -487,6 +524,27 @@ public final class ModelLoader {
         return reader.getResult();
     }
 
+    /**
+     * Gets the locations of the given grammars, as {@link SchemaSetCache} needs them.
+     *
+     * @return
+     *      null if any of the grammars is given as a stream, or doesn't have a valid location.
+     */
+    private static URL[] toURLs(InputSource[] grammars) {
+        URL[] urls = new URL[grammars.length];
+        for (int i = 0; i < grammars.length; i++) {
+            InputSource is = grammars[i];
+            if (is.getByteStream() != null || is.getCharacterStream() != null || is.getSystemId() == null)
+                return null;
+            try {
+                urls[i] = new URL(is.getSystemId());
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        }
+        return urls;
+    }
+
     /**
      * Parses a {@link DOMForest} into a {@link XSSchemaSet}.
      *
@@ -54,6 +54,8 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashSet;
@@ -128,6 +130,37 @@ public class Options {
      */
     public boolean contentForWildcard;
 
+    /**
+     * When on, generation is skipped if the schemas, the binding files
+     * and the options are the same as those recorded by the previous run
+     * in the target directory.
+     */
+    public boolean incremental;
+
+    /**
+     * Number of threads used to parse schema documents.
+     * Documents are parsed one by one on the calling thread when this is 1.
+     */
+    public int parseThreads = 1;
+
+    /**
+     * Number of threads used to format the generated source files.
+     * Files are formatted one by one on the calling thread when this is 1.
+     */
+    public int buildThreads = 1;
+
+    /**
+     * Directory in which parsed schema sets are cached, or null to parse
+     * the schemas every time.
+     * Only used when there are no external binding files. Schemas with
+     * any {@code xs:annotation} aren't cached either, since each one is read
+     * into binding information, which the cache can't write.
+     * The schemas are read through {@link #entityResolver}, as they are when parsed.
+     *
+     * @see com.sun.xml.xsom.parser.SchemaSetCache
+     */
+    public File schemaCache;
+
     /**
      * Encoding to be used by generated java sources, null for platform default.
      */
@@ -240,6 +273,11 @@ public class Options {
 
     private final List<InputSource> bindFiles = new ArrayList<>();
 
+    /**
+     * All the arguments given to {@link #parseArguments(String[])}.
+     */
+    private final List<String> arguments = new ArrayList<>();
+
     // Proxy setting.
     private String proxyHost = null;
     private String proxyPort = null;
@@ -523,6 +561,16 @@ public class Options {
         return javaModule;
     }
 
+    /**
+     * Gets the arguments that were given to {@link #parseArguments(String[])}.
+     *
+     * @return
+     *      always non-null, possibly empty list.
+     */
+    public List<String> getArguments() {
+        return Collections.unmodifiableList(arguments);
+    }
+
     /**
      * Parses an option {@code args[i]} and return
      * the number of tokens consumed.
@@ -612,6 +660,22 @@ public class Options {
             contentForWildcard = true;
             return 1;
         }
+        if (args[i].equals("-incremental")) {
+            incremental = true;
+            return 1;
+        }
+        if (args[i].equals("-parseThreads")) {
+            parseThreads = parseThreadCount("-parseThreads", Messages.ILLEGAL_PARSE_THREADS, args, ++i);
+            return 2;
+        }
+        if (args[i].equals("-buildThreads")) {
+            buildThreads = parseThreadCount("-buildThreads", Messages.ILLEGAL_BUILD_THREADS, args, ++i);
+            return 2;
+        }
+        if (args[i].equals("-schemaCache")) {
+            schemaCache = new File(requireArgument("-schemaCache", args, ++i));
+            return 2;
+        }
         if (args[i].equals("-XautoNameResolution")) {
             automaticNameConflictResolution = true;
             return 1;
@@ -780,6 +844,22 @@ public class Options {
         }
     }
 
+    /**
+     * Parses the number of threads given to an option.
+     */
+    private int parseThreadCount(String optionName, String messageKey, String[] args, int i) throws BadCommandLineException {
+        String token = requireArgument(optionName, args, i);
+        int threads;
+        try {
+            threads = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            threads = 0;
+        }
+        if (threads < 1)
+            throw new BadCommandLineException(Messages.format(messageKey, token));
+        return threads;
+    }
+
     /**
      * Obtains an operand and reports an error if it's not there.
      *
@@ -850,6 +930,8 @@ public class Options {
      */
     public void parseArguments(String[] args) throws BadCommandLineException {
 
+        arguments.addAll(Arrays.asList(args));
+
         for (int i = 0; i < args.length; i++) {
             if (args[i].length() == 0)
                 throw new BadCommandLineException();
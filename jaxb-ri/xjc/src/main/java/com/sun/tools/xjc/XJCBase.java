@@ -823,6 +823,17 @@ public class XJCBase extends MatchingTask {
         if (grammars.length > 1) msg += " and others";
         log(msg, Project.MSG_INFO);
 
+        BuildManifest manifest = null;
+        if (options.incremental) {
+            manifest = new BuildManifest(options);
+            if (manifest.isUpToDate()) {
+                log("files are up to date");
+                return;
+            }
+            if (!manifest.startRecording())
+                manifest = null;
+        }
+
         if (removeOldOutput) {
             log("removing old output files", Project.MSG_INFO);
             for (File f : producesSet)
@@ -844,7 +855,12 @@ public class XJCBase extends MatchingTask {
 
             log("Writing output to " + options.targetDir, Project.MSG_INFO);
 
-            model.codeModel.build(new XJCBase.AntProgressCodeWriter(options.createCodeWriter()));
+            CodeWriter cw = options.createCodeWriter();
+            if (manifest != null)
+                cw = manifest.record(cw);
+            model.codeModel.build(new XJCBase.AntProgressCodeWriter(cw));
+            if (manifest != null)
+                manifest.write();
         } catch (IOException e) {
             throw new BuildException("unable to write files: " + e.getMessage(), e);
         }
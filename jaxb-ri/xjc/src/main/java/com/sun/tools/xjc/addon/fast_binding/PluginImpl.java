@@ -0,0 +1,227 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.xjc.addon.fast_binding;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBException;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JPrimitiveType;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+import com.sun.tools.xjc.BadCommandLineException;
+import com.sun.tools.xjc.Options;
+import com.sun.tools.xjc.Plugin;
+import com.sun.tools.xjc.outline.ClassOutline;
+import com.sun.tools.xjc.outline.Outline;
+import com.sun.xml.bind.AccessorFactory;
+import com.sun.xml.bind.AccessorFactoryImpl;
+import com.sun.xml.bind.XmlAccessorFactory;
+import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Generates an {@link AccessorFactory} into each package of generated beans.
+ *
+ * <p>
+ * The generated factory hands out {@link Accessor}s that read and write the fields
+ * of the beans directly, so the JAXB RI doesn't need {@link Field} reflection
+ * (nor {@link Field#setAccessible(boolean)}) to get to the values.
+ * Each generated bean is marked with {@link XmlAccessorFactory} pointing to the factory,
+ * which the runtime honors without further configuration, see
+ * {@link JAXBContextImpl#getGeneratedAccessorFactory(Class)}.
+ * Serializers and loaders are still built by the runtime as usual.
+ */
+public class PluginImpl extends Plugin {
+
+    public String getOptionName() {
+        return "Xfast-binding";
+    }
+
+    public String getUsage() {
+        return "  -Xfast-binding     :  generate accessors that let the JAXB RI bind fields without reflection";
+    }
+
+    @Override
+    public int parseArgument(Options opt, String[] args, int i) throws BadCommandLineException, IOException {
+        return 0;   // no option recognized
+    }
+
+    public boolean run( Outline model, Options opt, ErrorHandler errorHandler ) throws SAXException {
+        JCodeModel cm = model.getCodeModel();
+
+        // group the classes by their packages, keeping the order stable
+        Map<JPackage,FactoryBuilder> factories = new LinkedHashMap<JPackage,FactoryBuilder>();
+
+        for( ClassOutline co : model.getClasses() ) {
+            JPackage pkg = co.implClass.getPackage();
+            FactoryBuilder fb = factories.get(pkg);
+            if(fb==null) {
+                try {
+                    fb = new FactoryBuilder(cm,pkg);
+                } catch (JClassAlreadyExistsException e) {
+                    errorHandler.error(new SAXParseException(
+                        "Package "+pkg.name()+" already has a class named "+JAXBContextImpl.GENERATED_ACCESSOR_FACTORY,
+                        co.target.getLocator()));
+                    return false;
+                }
+                factories.put(pkg,fb);
+            }
+            fb.add(co.implClass);
+        }
+
+        return true;
+    }
+
+    /**
+     * Builds the {@code createFieldAccessor} method of one generated factory.
+     */
+    private static final class FactoryBuilder {
+        private final JCodeModel cm;
+        private final JDefinedClass factory;
+        private final JVar $field;
+        private final JVar $readOnly;
+        private final JVar $declaringClass;
+        private final JVar $name;
+        /**
+         * The statements that are executed for a writable field.
+         */
+        private final JBlock rw;
+
+        FactoryBuilder(JCodeModel cm, JPackage pkg) throws JClassAlreadyExistsException {
+            this.cm = cm;
+            factory = pkg._class(JMod.PUBLIC|JMod.FINAL, JAXBContextImpl.GENERATED_ACCESSOR_FACTORY);
+            factory._implements(AccessorFactory.class);
+            factory.javadoc().add("Gives the JAXB RI direct access to the fields of the classes in this package.");
+
+            JMethod m = factory.method(JMod.PUBLIC, Accessor.class, "createFieldAccessor");
+            m._throws(JAXBException.class);
+            JVar $bean = m.param(Class.class,"bean");
+            $field = m.param(Field.class,"field");
+            $readOnly = m.param(cm.BOOLEAN,"readOnly");
+
+            JBlock body = m.body();
+            rw = body._if($readOnly.not())._then();
+            $declaringClass = rw.decl(cm.ref(Class.class),"declaringClass",$field.invoke("getDeclaringClass"));
+            $name = rw.decl(cm.ref(String.class),"name",$field.invoke("getName"));
+
+            body._return(delegate().invoke("createFieldAccessor").arg($bean).arg($field).arg($readOnly));
+
+            m = factory.method(JMod.PUBLIC, Accessor.class, "createPropertyAccessor");
+            m._throws(JAXBException.class);
+            $bean = m.param(Class.class,"bean");
+            JVar $getter = m.param(Method.class,"getter");
+            JVar $setter = m.param(Method.class,"setter");
+            m.body()._return(delegate().invoke("createPropertyAccessor").arg($bean).arg($getter).arg($setter));
+        }
+
+        private JExpression delegate() {
+            return cm.ref(AccessorFactoryImpl.class).staticInvoke("getInstance");
+        }
+
+        /**
+         * Adds accessors for the fields of the given bean class,
+         * and marks the class so that the runtime uses them.
+         */
+        void add(JDefinedClass bean) {
+            bean.annotate(XmlAccessorFactory.class).param("value",factory);
+
+            JBlock block = null;
+            for (JFieldVar f : bean.fields().values()) {
+                int mods = f.mods().getValue();
+                if((mods&(JMod.STATIC|JMod.FINAL|JMod.PRIVATE))!=0)
+                    continue;   // not something we can (or need to) access
+
+                if(block==null)
+                    block = rw._if($declaringClass.eq(bean.dotclass()))._then();
+
+                block._if($name.invoke("equals").arg(JExpr.lit(f.name())))._then()
+                    ._return(JExpr._new(createAccessor(bean,f)).arg($field.invoke("getType")));
+            }
+        }
+
+        /**
+         * Creates an anonymous {@link Accessor} for the given field.
+         */
+        private JDefinedClass createAccessor(JDefinedClass bean, JFieldVar f) {
+            JDefinedClass acc = cm.anonymousClass(Accessor.class);
+            JType t = f.type();
+
+            JMethod get = acc.method(JMod.PUBLIC, Object.class, "get");
+            JVar $b = get.param(Object.class,"bean");
+            get.body()._return(JExpr.ref(JExpr.cast(bean,$b),f));
+
+            JMethod set = acc.method(JMod.PUBLIC, cm.VOID, "set");
+            $b = set.param(Object.class,"bean");
+            JVar $v = set.param(Object.class,"value");
+            JFieldRef target = JExpr.ref(JExpr.cast(bean,$b),f);
+            if(t.isPrimitive()) {
+                // null means resetting to the VM default value
+                JConditional cond = set.body()._if($v.eq(JExpr._null()));
+                cond._then().assign(target, t==cm.BOOLEAN ? JExpr.FALSE : JExpr.lit(0));
+                cond._else().assign(target, JExpr.cast(((JPrimitiveType)t).boxify(),$v));
+            } else {
+                set.body().assign(target, JExpr.cast(t.erasure(),$v));
+            }
+            return acc;
+        }
+    }
+}
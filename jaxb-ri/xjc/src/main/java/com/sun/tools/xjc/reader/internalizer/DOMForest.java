@@ -42,6 +42,7 @@ package com.sun.tools.xjc.reader.internalizer;
 
 import com.sun.istack.NotNull;
 import com.sun.istack.XMLStreamReaderToContentHandler;
+import com.sun.tools.xjc.AbortException;
 import com.sun.tools.xjc.ErrorReceiver;
 import com.sun.tools.xjc.Options;
 import com.sun.tools.xjc.reader.Const;
@@ -74,6 +75,14 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import static com.sun.xml.bind.v2.util.XmlFactory.allowExternalAccess;
 import static javax.xml.XMLConstants.W3C_XML_SCHEMA_NS_URI;
@@ -132,6 +141,12 @@ public final class DOMForest {
     private final DocumentBuilder documentBuilder;
     
     private final Options options;
+
+    /**
+     * Non-null while {@link #parse(List, int)} is running, in which case
+     * referenced documents are scheduled instead of being parsed recursively.
+     */
+    private volatile ConcurrentLoader loader;
             
     public DOMForest(
         SAXParserFactory parserFactory, DocumentBuilder documentBuilder,
@@ -280,12 +295,19 @@ public final class DOMForest {
      * and XMLs referenced by it) into DOM trees
      * and stores them to this forest.
      * 
-     * @return the parsed DOM document object.
+     * @return the parsed DOM document object, or null if the document
+     *      is parsed asynchronously by {@link #parse(List, int)}.
      */
     public Document parse( String systemId, boolean root ) throws SAXException, IOException {
 
         systemId = Options.normalizeSystemId(systemId);
 
+        ConcurrentLoader l = loader;
+        if( l!=null ) {
+            l.reference(systemId);
+            return null;
+        }
+
         if( core.containsKey(systemId) )
             // this document has already been parsed. Just ignore.
             return core.get(systemId);
@@ -313,7 +335,11 @@ public final class DOMForest {
      * to the map beforehand.
      */
     private ContentHandler getParserHandler( Document dom ) {
-        ContentHandler handler = new DOMBuilder(dom,locatorTable,outerMostBindings);
+        return getParserHandler(dom,locatorTable,outerMostBindings);
+    }
+
+    private ContentHandler getParserHandler( Document dom, LocatorTable ltable, Set<Element> bindings ) {
+        ContentHandler handler = new DOMBuilder(dom,ltable,bindings);
         handler = new WhitespaceStripper(handler,errorReceiver,entityResolver);
         handler = new VersionChecker(handler,errorReceiver,entityResolver);
 
@@ -409,6 +435,40 @@ public final class DOMForest {
         return dom;
     }
 
+    /**
+     * Parses the given root documents and all the documents referenced from them
+     * on the given number of threads, and adds them to the DOM forest.
+     *
+     * <p>
+     * Documents are scheduled as soon as a reference to them is found, but
+     * the forest is populated in the same order {@link #parse(InputSource, boolean)}
+     * would have populated it, so the result doesn't depend on the scheduling.
+     * Likewise, the errors found by the parser threads are held back and reported
+     * to the {@link ErrorReceiver} from the calling thread in that order.
+     *
+     * @return
+     *      the DOM of each root document in the order of the given sources,
+     *      with null for the documents that failed to parse.
+     */
+    public List<Document> parse( List<InputSource> sources, int threads ) throws SAXException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ErrorReceiver errors = errorReceiver;
+        EntityResolver resolver = entityResolver;
+        loader = new ConcurrentLoader(executor,errors);
+        if( errors!=null )
+            errorReceiver = loader.new DeferredErrorReceiver();
+        if( resolver!=null )
+            entityResolver = new SynchronizedEntityResolver(resolver);
+        try {
+            return loader.load(sources);
+        } finally {
+            loader = null;
+            errorReceiver = errors;
+            entityResolver = resolver;
+            executor.shutdownNow();
+        }
+    }
+
     public Document parse( String systemId, XMLStreamReader parser, boolean root ) throws XMLStreamException {
         Document dom = documentBuilder.newDocument();
 
@@ -426,6 +486,257 @@ public final class DOMForest {
         return dom;
     }
     
+    /**
+     * A document parsed by {@link ConcurrentLoader}, with the information
+     * that will be merged into the forest.
+     */
+    private static final class ParsedDocument {
+        /** null if the document failed to parse. */
+        Document dom;
+        /**
+         * Normalized system IDs of the referenced documents and the {@link DeferredError}s
+         * reported while parsing, in the order of appearance.
+         */
+        final List<Object> events = new ArrayList<Object>();
+        /** The exception that aborted the parsing, if any. */
+        SAXException failure;
+        final LocatorTable locatorTable = new LocatorTable();
+        final Set<Element> outerMostBindings = new HashSet<Element>();
+    }
+
+    /**
+     * Parses documents on an {@link ExecutorService}, one task per system ID.
+     */
+    private final class ConcurrentLoader {
+        private final ExecutorService executor;
+
+        /** Scheduled documents keyed by their normalized system IDs. */
+        private final ConcurrentMap<String,Future<ParsedDocument>> tasks = new ConcurrentHashMap<String,Future<ParsedDocument>>();
+
+        /** Document being parsed by the current thread. */
+        private final ThreadLocal<ParsedDocument> current = new ThreadLocal<ParsedDocument>();
+
+        /** Receives the errors, only from the thread that called {@link #load(List)}. */
+        private final ErrorReceiver reporter;
+
+        ConcurrentLoader( ExecutorService executor, ErrorReceiver reporter ) {
+            this.executor = executor;
+            this.reporter = reporter;
+        }
+
+        List<Document> load( List<InputSource> sources ) throws SAXException {
+            List<String> roots = new ArrayList<String>();
+            for( InputSource source : sources ) {
+                if( source.getSystemId()==null )
+                    throw new IllegalArgumentException();
+                String systemId = Options.normalizeSystemId(source.getSystemId());
+                roots.add(systemId);
+                schedule(systemId,source);
+            }
+
+            // walk the documents depth-first, just like the recursive parsing does,
+            // so that the forest ends up in the same order.
+            List<Document> r = new ArrayList<Document>();
+            for( String systemId : roots ) {
+                rootDocuments.add(systemId);
+                merge(systemId);
+                Document dom = core.get(systemId);
+                if( dom==null )
+                    rootDocuments.remove(systemId);
+                r.add(dom);
+            }
+            return r;
+        }
+
+        private void merge( String systemId ) throws SAXException {
+            if( core.containsKey(systemId) )
+                return;
+            ParsedDocument doc = get(systemId);
+            if( doc.dom!=null ) {
+                core.put(systemId,doc.dom);
+                locatorTable.putAll(doc.locatorTable);
+                outerMostBindings.addAll(doc.outerMostBindings);
+            }
+            for( Object e : doc.events ) {
+                if( e instanceof String )
+                    merge((String)e);
+                else
+                    ((DeferredError)e).report(reporter);
+            }
+            if( doc.failure!=null )
+                throw doc.failure;
+        }
+
+        private ParsedDocument get( String systemId ) throws SAXException {
+            try {
+                return tasks.get(systemId).get();
+            } catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new SAXException(e);
+            } catch( ExecutionException e ) {
+                Throwable t = e.getCause();
+                if( t instanceof SAXException )
+                    throw (SAXException)t;
+                if( t instanceof RuntimeException )
+                    throw (RuntimeException)t;
+                if( t instanceof Error )
+                    throw (Error)t;
+                throw new SAXException((Exception)t);
+            }
+        }
+
+        /**
+         * Called when the document being parsed by the current thread references another.
+         */
+        void reference( String systemId ) throws SAXException, IOException {
+            if( !tasks.containsKey(systemId) ) {
+                InputSource is=null;
+                if( entityResolver!=null )
+                    is = entityResolver.resolveEntity(null,systemId);
+                if( is==null )
+                    is = new InputSource(systemId);
+                schedule(systemId,is);
+            }
+            current.get().events.add(systemId);
+        }
+
+        private void schedule( final String systemId, final InputSource source ) {
+            FutureTask<ParsedDocument> task = new FutureTask<ParsedDocument>(new Callable<ParsedDocument>() {
+                public ParsedDocument call() throws SAXException {
+                    return parse(systemId,source);
+                }
+            });
+            if( tasks.putIfAbsent(systemId,task)==null )
+                executor.execute(task);
+        }
+
+        private ParsedDocument parse( String systemId, InputSource inputSource ) throws SAXException {
+            ParsedDocument doc = new ParsedDocument();
+            // neither of the factories is guaranteed to be thread-safe.
+            synchronized(documentBuilder) {
+                doc.dom = documentBuilder.newDocument();
+            }
+            current.set(doc);
+            try {
+                XMLReader reader;
+                synchronized(parserFactory) {
+                    reader = parserFactory.newSAXParser().getXMLReader();
+                }
+                reader.setContentHandler(getParserHandler(doc.dom,doc.locatorTable,doc.outerMostBindings));
+                if(errorReceiver!=null)
+                    reader.setErrorHandler(errorReceiver);
+                if(entityResolver!=null)
+                    reader.setEntityResolver(entityResolver);
+                reader.parse(inputSource);
+            } catch( ParserConfigurationException e ) {
+                errorReceiver.error(e.getMessage(),e);
+                doc.dom = null;
+            } catch( IOException e ) {
+                errorReceiver.error(Messages.format(Messages.DOMFOREST_INPUTSOURCE_IOEXCEPTION, systemId, e.toString()),e);
+                doc.dom = null;
+            } catch( SAXException e ) {
+                // thrown from the calling thread once the errors before it are reported
+                doc.failure = e;
+            } finally {
+                current.remove();
+            }
+            return doc;
+        }
+
+        /**
+         * Records the errors found by the parser threads into the document being parsed,
+         * so that {@link ConcurrentLoader#merge(String)} reports them in the document order.
+         */
+        final class DeferredErrorReceiver extends ErrorReceiver {
+            public void error(SAXParseException exception) throws AbortException {
+                defer(DeferredError.ERROR,exception);
+            }
+
+            public void fatalError(SAXParseException exception) throws AbortException {
+                defer(DeferredError.FATAL_ERROR,exception);
+            }
+
+            public void warning(SAXParseException exception) throws AbortException {
+                defer(DeferredError.WARNING,exception);
+            }
+
+            public void info(SAXParseException exception) {
+                defer(DeferredError.INFO,exception);
+            }
+
+            @Override
+            public void pollAbort() throws AbortException {
+                synchronized(reporter) {
+                    reporter.pollAbort();
+                }
+            }
+
+            private void defer( int kind, SAXParseException exception ) {
+                ParsedDocument doc = current.get();
+                if( doc!=null ) {
+                    doc.events.add(new DeferredError(kind,exception));
+                } else {
+                    // not from a parser thread
+                    synchronized(reporter) {
+                        new DeferredError(kind,exception).report(reporter);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * An error found by a parser thread of {@link ConcurrentLoader}.
+     */
+    private static final class DeferredError {
+        static final int ERROR = 0;
+        static final int FATAL_ERROR = 1;
+        static final int WARNING = 2;
+        static final int INFO = 3;
+
+        private final int kind;
+        private final SAXParseException exception;
+
+        DeferredError( int kind, SAXParseException exception ) {
+            this.kind = kind;
+            this.exception = exception;
+        }
+
+        void report( ErrorReceiver receiver ) throws AbortException {
+            switch(kind) {
+            case ERROR:
+                receiver.error(exception);
+                break;
+            case FATAL_ERROR:
+                receiver.fatalError(exception);
+                break;
+            case WARNING:
+                receiver.warning(exception);
+                break;
+            case INFO:
+                receiver.info(exception);
+                break;
+            default:
+                throw new AssertionError(kind);
+            }
+        }
+    }
+
+    /**
+     * Entity resolvers, catalog resolvers in particular, aren't expected to be thread-safe.
+     */
+    private static final class SynchronizedEntityResolver implements EntityResolver {
+        private final EntityResolver core;
+
+        SynchronizedEntityResolver( EntityResolver core ) {
+            this.core = core;
+        }
+
+        public synchronized InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
+            return core.resolveEntity(publicId,systemId);
+        }
+    }
+
     /**
      * Performs internalization.
      * 
@@ -40,7 +40,9 @@
 
 package com.sun.tools.xjc.reader.internalizer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.w3c.dom.Element;
@@ -49,30 +51,186 @@ import org.xml.sax.helpers.LocatorImpl;
 
 /**
  * Stores {@link Locator} objects for every {@link Element}.
+ *
+ * <p>
+ * Large schema sets have hundreds of thousands of elements, so
+ * instead of keeping a {@link LocatorImpl} per element, this class
+ * keeps line/column numbers in an int array and interns the
+ * public/system IDs. Elements are looked up by their identity
+ * in an open-addressing hash table.
  * 
  * @author
  *     Kohsuke Kawaguchi (kohsuke.kawaguchi@sun.com)
  */
 public final class LocatorTable {
-    /** Locations of the start element. */
-    private final Map startLocations = new HashMap();
-    
-    /** Locations of the end element. */
-    private final Map endLocations = new HashMap();
-    
+    /**
+     * Number of ints used by each entry in {@link #locations}:
+     * the source, the line and the column of the start tag, then the same for the end tag.
+     */
+    private static final int ENTRY_SIZE = 6;
+
+    /** Elements, placed by their identity hash code. The length is always a power of 2. */
+    private Element[] keys = new Element[64];
+
+    /** Index of the entry for the element in the same slot of {@link #keys}. */
+    private int[] entries = new int[64];
+
+    /** Number of elements in this table. */
+    private int size;
+
+    /**
+     * Locations of all the entries. A negative source means the location is not set.
+     */
+    private int[] locations = new int[32*ENTRY_SIZE];
+
+    /** Interned public IDs and system IDs, by the source number. */
+    private final List<String> publicIds = new ArrayList<String>();
+    private final List<String> systemIds = new ArrayList<String>();
+    private final Map<String,Integer> sources = new HashMap<String,Integer>();
+
+    /** Last source we've seen, since consecutive elements almost always come from the same document. */
+    private String lastPublicId, lastSystemId;
+    private int lastSource = -1;
+
     public void storeStartLocation( Element e, Locator loc ) {
-        startLocations.put(e,new LocatorImpl(loc));
+        store(e,loc,0);
     }
     
     public void storeEndLocation( Element e, Locator loc ) {
-        endLocations.put(e,new LocatorImpl(loc));
+        store(e,loc,3);
     }
     
     public Locator getStartLocation( Element e ) {
-        return (Locator)startLocations.get(e);
+        return get(e,0);
     }
     
     public Locator getEndLocation( Element e ) {
-        return (Locator)endLocations.get(e);
+        return get(e,3);
+    }
+
+    /**
+     * Copies all the locations recorded in the given table into this table.
+     */
+    void putAll( LocatorTable that ) {
+        for( int j=0; j<that.keys.length; j++ ) {
+            Element e = that.keys[j];
+            if(e==null)     continue;
+            int src = that.entries[j]*ENTRY_SIZE;
+            int dst = getOrCreateEntry(e)*ENTRY_SIZE;
+            for( int k=0; k<ENTRY_SIZE; k+=3 ) {
+                int source = that.locations[src+k];
+                locations[dst+k] = source<0 ? -1 : getSource(that.publicIds.get(source),that.systemIds.get(source));
+                locations[dst+k+1] = that.locations[src+k+1];
+                locations[dst+k+2] = that.locations[src+k+2];
+            }
+        }
+    }
+
+    private void store( Element e, Locator loc, int offset ) {
+        int i = getOrCreateEntry(e)*ENTRY_SIZE+offset;
+        if(loc==null) {
+            locations[i] = -1;
+            return;
+        }
+        locations[i] = getSource(loc.getPublicId(),loc.getSystemId());
+        locations[i+1] = loc.getLineNumber();
+        locations[i+2] = loc.getColumnNumber();
+    }
+
+    private Locator get( Element e, int offset ) {
+        int entry = findEntry(e);
+        if(entry<0)     return null;
+        int i = entry*ENTRY_SIZE+offset;
+        int source = locations[i];
+        if(source<0)    return null;
+
+        LocatorImpl loc = new LocatorImpl();
+        loc.setPublicId(publicIds.get(source));
+        loc.setSystemId(systemIds.get(source));
+        loc.setLineNumber(locations[i+1]);
+        loc.setColumnNumber(locations[i+2]);
+        return loc;
+    }
+
+    private int getSource( String publicId, String systemId ) {
+        if(lastSource>=0 && eq(publicId,lastPublicId) && eq(systemId,lastSystemId))
+            return lastSource;
+
+        String key = publicId+'\n'+systemId;
+        Integer source = sources.get(key);
+        if(source==null) {
+            source = systemIds.size();
+            publicIds.add(publicId);
+            systemIds.add(systemId);
+            sources.put(key,source);
+        }
+
+        lastPublicId = publicId;
+        lastSystemId = systemId;
+        return lastSource = source;
+    }
+
+    private static boolean eq( String a, String b ) {
+        return a==null ? b==null : a.equals(b);
+    }
+
+    private static int hash( Element e ) {
+        int h = System.identityHashCode(e);
+        return h^(h>>>16);
+    }
+
+    /**
+     * @return -1 if the element is not in this table.
+     */
+    private int findEntry( Element e ) {
+        int mask = keys.length-1;
+        for( int i=hash(e)&mask; keys[i]!=null; i=(i+1)&mask ) {
+            if(keys[i]==e)
+                return entries[i];
+        }
+        return -1;
+    }
+
+    private int getOrCreateEntry( Element e ) {
+        int mask = keys.length-1;
+        int i=hash(e)&mask;
+        for( ; keys[i]!=null; i=(i+1)&mask ) {
+            if(keys[i]==e)
+                return entries[i];
+        }
+
+        int entry = size++;
+        keys[i] = e;
+        entries[i] = entry;
+
+        if((entry+1)*ENTRY_SIZE>locations.length) {
+            int[] buf = new int[locations.length*2];
+            System.arraycopy(locations,0,buf,0,locations.length);
+            locations = buf;
+        }
+        locations[entry*ENTRY_SIZE] = -1;
+        locations[entry*ENTRY_SIZE+3] = -1;
+
+        if(size*2>keys.length)
+            rehash();
+        return entry;
+    }
+
+    private void rehash() {
+        Element[] oldKeys = keys;
+        int[] oldEntries = entries;
+        keys = new Element[oldKeys.length*2];
+        entries = new int[oldKeys.length*2];
+
+        int mask = keys.length-1;
+        for( int j=0; j<oldKeys.length; j++ ) {
+            Element e = oldKeys[j];
+            if(e==null)     continue;
+            int i=hash(e)&mask;
+            while(keys[i]!=null)
+                i=(i+1)&mask;
+            keys[i] = e;
+            entries[i] = oldEntries[j];
+        }
     }
 }
@@ -42,8 +42,10 @@ package com.sun.tools.xjc.reader.internalizer;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
@@ -138,16 +140,26 @@ public final class SCDBasedBindingSet {
          * Applies bindings to the schema component for this and its siblings.
          */
         private void applyAll(Collection<? extends XSComponent> contextNode) {
-            for( Target self=this; self!=null; self=self.nextSibling )
-                self.apply(contextNode);
+            // siblings often share the same SCD (SCD.create returns the same object for them),
+            // so evaluate each SCD just once.
+            Map<SCD,Collection<XSComponent>> selected = new IdentityHashMap<SCD,Collection<XSComponent>>();
+            for( Target self=this; self!=null; self=self.nextSibling ) {
+                Collection<XSComponent> childNodes = selected.get(self.scd);
+                if(childNodes==null) {
+                    childNodes = self.scd.select(contextNode);
+                    selected.put(self.scd,childNodes);
+                }
+                self.apply(childNodes);
+            }
         }
 
         /**
          * Applies bindings to the schema component for just this node.
+         *
+         * @param childNodes
+         *      the result of evaluating {@link #scd}.
          */
-        private void apply(Collection<? extends XSComponent> contextNode) {
-            // apply the SCD...
-            Collection<XSComponent> childNodes = scd.select(contextNode);
+        private void apply(Collection<XSComponent> childNodes) {
             if(childNodes.isEmpty()) {
                 // no node matched
                 if(src.getAttributeNode("if-exists")!=null) {
@@ -0,0 +1,170 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.xjc;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests when {@link BuildManifest} considers the previous compilation up to date.
+ */
+public class BuildManifestJUTest extends TestCase {
+
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'><xs:element name='%s' type='xs:string'/></xs:schema>";
+
+    private File schemas;
+    private File target;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        File dir = File.createTempFile("xjc", "manifest");
+        dir.delete();
+        schemas = new File(dir, "schemas");
+        target = new File(dir, "target");
+        schemas.mkdirs();
+        target.mkdirs();
+        write(new File(schemas, "a.xsd"), String.format(SCHEMA, "a"));
+        write(new File(schemas, "b.xsd"), String.format(SCHEMA, "b"));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        delete(schemas.getParentFile());
+    }
+
+    public void testUnchanged() throws Exception {
+        assertFalse("no manifest yet", newManifest().isUpToDate());
+        record();
+        assertTrue(newManifest().isUpToDate());
+    }
+
+    public void testFileAddedToDirectory() throws Exception {
+        record();
+        write(new File(schemas, "c.xsd"), String.format(SCHEMA, "c"));
+        assertFalse(newManifest().isUpToDate());
+        record();
+        assertTrue(newManifest().isUpToDate());
+    }
+
+    public void testFileRemovedFromDirectory() throws Exception {
+        record();
+        assertTrue(new File(schemas, "b.xsd").delete());
+        assertFalse(newManifest().isUpToDate());
+        record();
+        assertTrue(newManifest().isUpToDate());
+    }
+
+    public void testFileModified() throws Exception {
+        record();
+        write(new File(schemas, "a.xsd"), String.format(SCHEMA, "changed"));
+        assertFalse(newManifest().isUpToDate());
+    }
+
+    public void testOptionsChanged() throws Exception {
+        record();
+        Options opt = new Options();
+        opt.parseArguments(new String[]{"-d", target.getPath(), "-npa", schemas.getPath()});
+        assertFalse(new BuildManifest(opt).isUpToDate());
+    }
+
+    public void testBuildThreadsIgnored() throws Exception {
+        record();
+        Options opt = new Options();
+        opt.parseArguments(new String[]{"-d", target.getPath(), "-buildThreads", "4", schemas.getPath()});
+        assertTrue(new BuildManifest(opt).isUpToDate());
+    }
+
+    public void testBindingAddedToDirectory() throws Exception {
+        File bindings = new File(schemas.getParentFile(), "bindings");
+        bindings.mkdirs();
+        Options opt = new Options();
+        opt.parseArguments(new String[]{"-d", target.getPath(), "-b", bindings.getPath(), schemas.getPath()});
+        BuildManifest m = new BuildManifest(opt);
+        assertTrue(m.startRecording());
+        m.write();
+
+        write(new File(bindings, "a.xjb"),
+            "<jaxb:bindings xmlns:jaxb='http://java.sun.com/xml/ns/jaxb' version='2.0'/>");
+        opt = new Options();
+        opt.parseArguments(new String[]{"-d", target.getPath(), "-b", bindings.getPath(), schemas.getPath()});
+        assertFalse(new BuildManifest(opt).isUpToDate());
+    }
+
+    /**
+     * Writes the manifest as if the schemas had been compiled.
+     */
+    private void record() throws Exception {
+        BuildManifest m = newManifest();
+        assertTrue(m.startRecording());
+        m.write();
+    }
+
+    private BuildManifest newManifest() throws Exception {
+        Options opt = new Options();
+        opt.parseArguments(new String[]{"-d", target.getPath(), schemas.getPath()});
+        return new BuildManifest(opt);
+    }
+
+    private static void write(File f, String content) throws IOException {
+        Writer w = new OutputStreamWriter(new FileOutputStream(f), "UTF-8");
+        try {
+            w.write(content);
+        } finally {
+            w.close();
+        }
+    }
+
+    private static void delete(File f) {
+        File[] children = f.listFiles();
+        if (children != null)
+            for (File c : children)
+                delete(c);
+        f.delete();
+    }
+}
@@ -128,6 +128,37 @@ public class OptionsJUTest extends TestCase {
         assertTrue("Got: '" + inStr + "'", inStr.contains("// This f"));
     }
 
+    public void testThreads() throws Exception {
+        File grammar = File.createTempFile("jaxbthreadstest", "xsd");
+        grammar.deleteOnExit();
+
+        Options opts = new Options();
+        opts.parseArguments(new String[]{grammar.getAbsolutePath()});
+        assertEquals(1, opts.parseThreads);
+        assertEquals(1, opts.buildThreads);
+
+        opts = new Options();
+        opts.parseArguments(new String[]{"-parseThreads", "3", "-buildThreads", "4", grammar.getAbsolutePath()});
+        assertEquals(3, opts.parseThreads);
+        assertEquals(4, opts.buildThreads);
+
+        for (String value : new String[]{"0", "-2", "many"}) {
+            try {
+                new Options().parseArguments(new String[]{"-buildThreads", value, grammar.getAbsolutePath()});
+                fail(value);
+            } catch (BadCommandLineException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().contains(value));
+                assertTrue(ex.getMessage(), ex.getMessage().contains("-buildThreads"));
+            }
+        }
+        try {
+            new Options().parseArguments(new String[]{"-parseThreads", "0", grammar.getAbsolutePath()});
+            fail();
+        } catch (BadCommandLineException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("-parseThreads"));
+        }
+    }
+
     public void testProxySettings() throws Exception {
         Options opts = new Options();
         File grammar = File.createTempFile("jaxbproxytest", "xsd");
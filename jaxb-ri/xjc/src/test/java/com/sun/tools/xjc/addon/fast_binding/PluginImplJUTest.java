@@ -0,0 +1,201 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.xjc.addon.fast_binding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.writer.SingleStreamCodeWriter;
+import com.sun.tools.xjc.Language;
+import com.sun.tools.xjc.ModelLoader;
+import com.sun.tools.xjc.Options;
+import com.sun.tools.xjc.OptionsJUTest;
+import com.sun.tools.xjc.model.Model;
+import com.sun.tools.xjc.outline.Outline;
+import com.sun.tools.xjc.util.ErrorReceiverFilter;
+import com.sun.xml.bind.AccessorFactory;
+import com.sun.xml.bind.v2.runtime.JAXBContextImpl;
+import com.sun.xml.bind.v2.runtime.reflect.Accessor;
+
+import junit.framework.TestCase;
+import org.xml.sax.InputSource;
+
+/**
+ * Tests the {@code -Xfast-binding} plugin and the factories it generates.
+ */
+public class PluginImplJUTest extends TestCase {
+
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+        "  <xs:element name='item'>" +
+        "    <xs:complexType>" +
+        "      <xs:sequence>" +
+        "        <xs:element name='name' type='xs:string'/>" +
+        "        <xs:element name='count' type='xs:int'/>" +
+        "      </xs:sequence>" +
+        "      <xs:attribute name='flag' type='xs:boolean' use='required'/>" +
+        "    </xs:complexType>" +
+        "  </xs:element>" +
+        "</xs:schema>";
+
+    public static class Other {
+        public int count;
+    }
+
+    private File dir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = new File(System.getProperty("java.io.tmpdir"), "xjc_fastBindingTest");
+        dir.mkdirs();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        OptionsJUTest.delDirs(dir);
+        super.tearDown();
+    }
+
+    public void testGeneratedFactory() throws Exception {
+        ErrorReceiverFilter er = new ErrorReceiverFilter();
+        JCodeModel cm = compile(SCHEMA, er);
+        assertFalse(er.hadError());
+
+        JDefinedClass factory = cm._getClass("fb." + JAXBContextImpl.GENERATED_ACCESSOR_FACTORY);
+        assertNotNull(factory);
+        assertTrue(factory._implements().next().fullName().equals(AccessorFactory.class.getName()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cm.build(new SingleStreamCodeWriter(out));
+        String code = out.toString();
+        assertTrue(code, code.contains("name.equals(\"count\")"));
+        assertTrue(code, code.contains("((Item) bean).flag"));
+        // the bean is marked, so that the runtime uses the factory for it
+        assertTrue(code, code.contains("@XmlAccessorFactory(JAXBAccessorFactory.class)"));
+        // everything else goes to the reflection based accessors
+        assertTrue(code, code.contains("AccessorFactoryImpl.getInstance().createFieldAccessor(bean, field, readOnly)"));
+        assertTrue(code, code.contains("AccessorFactoryImpl.getInstance().createPropertyAccessor(bean, getter, setter)"));
+    }
+
+    public void testCompiledFactory() throws Exception {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null)
+            return;     // running on a JRE
+
+        ErrorReceiverFilter er = new ErrorReceiverFilter();
+        JCodeModel cm = compile(SCHEMA, er);
+        assertFalse(er.hadError());
+        cm.build(dir, (PrintStream) null);
+
+        List<String> args = new ArrayList<String>();
+        args.add("-classpath");
+        args.add(System.getProperty("java.class.path"));
+        for (File f : new File(dir, "fb").listFiles())
+            args.add(f.getPath());
+        assertEquals(0, javac.run(null, null, null, args.toArray(new String[args.size()])));
+
+        ClassLoader cl = new URLClassLoader(new URL[] {dir.toURI().toURL()}, getClass().getClassLoader());
+        Class<?> item = cl.loadClass("fb.Item");
+        AccessorFactory factory = (AccessorFactory) cl.loadClass("fb." + JAXBContextImpl.GENERATED_ACCESSOR_FACTORY).newInstance();
+
+        Object bean = item.newInstance();
+        Field count = item.getDeclaredField("count");
+        Accessor acc = factory.createFieldAccessor(item, count, false);
+        assertSame(factory.getClass(), acc.getClass().getEnclosingClass());
+        acc.set(bean, 5);
+        assertEquals(5, acc.get(bean));
+        // null resets a primitive field
+        acc.set(bean, null);
+        assertEquals(0, acc.get(bean));
+
+        Field flag = item.getDeclaredField("flag");
+        acc = factory.createFieldAccessor(item, flag, false);
+        acc.set(bean, Boolean.TRUE);
+        assertEquals(Boolean.TRUE, acc.get(bean));
+
+        // fields that the factory doesn't know are delegated
+        acc = factory.createFieldAccessor(Other.class, Other.class.getDeclaredField("count"), false);
+        assertNotSame(factory.getClass(), acc.getClass().getEnclosingClass());
+        acc = factory.createFieldAccessor(item, count, true);
+        assertNotSame(factory.getClass(), acc.getClass().getEnclosingClass());
+    }
+
+    public void testNameCollision() throws Exception {
+        ErrorReceiverFilter er = new ErrorReceiverFilter();
+        compile("<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+                "  <xs:complexType name='" + JAXBContextImpl.GENERATED_ACCESSOR_FACTORY + "'>" +
+                "    <xs:sequence><xs:element name='name' type='xs:string'/></xs:sequence>" +
+                "  </xs:complexType>" +
+                "</xs:schema>", er);
+        assertTrue(er.hadError());
+    }
+
+    private static JCodeModel compile(String schema, ErrorReceiverFilter er) {
+        Options opt = new Options();
+        opt.setSchemaLanguage(Language.XMLSCHEMA);
+        opt.defaultPackage = "fb";
+        InputSource is = new InputSource(new StringReader(schema));
+        is.setSystemId("urn:fast-binding.xsd");
+        opt.addGrammar(is);
+        opt.activePlugins.add(new PluginImpl());
+
+        JCodeModel cm = new JCodeModel();
+        Model model = ModelLoader.load(opt, cm, er);
+        assertNotNull(model);
+        Outline outline = model.generateCode(opt, er);
+        assertNotNull(outline);
+        return cm;
+    }
+
+}
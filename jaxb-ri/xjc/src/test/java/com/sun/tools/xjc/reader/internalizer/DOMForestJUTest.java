@@ -0,0 +1,198 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.xjc.reader.internalizer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.sun.tools.xjc.ErrorReceiver;
+import com.sun.tools.xjc.Options;
+import com.sun.tools.xjc.OptionsJUTest;
+import com.sun.tools.xjc.reader.xmlschema.parser.XMLSchemaInternalizationLogic;
+
+import junit.framework.TestCase;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Tests that {@link DOMForest#parse(List, int)} gives the same result
+ * as parsing the documents one by one.
+ */
+public class DOMForestJUTest extends TestCase {
+
+    private File dir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dir = new File(System.getProperty("java.io.tmpdir"), "xjc_domForestTest");
+        dir.mkdirs();
+        write("a.xsd", include("missing1.xsd") + include("b.xsd") + include("missing3.xsd") + include("c.xsd"));
+        write("b.xsd", include("missing2.xsd") + include("c.xsd"));
+        write("c.xsd", include("a.xsd") + "<xs:element name='c' type='xs:string'/>");
+        write("d.xsd", include("b.xsd") + include("missing4.xsd") + include("e.xsd"));
+        write("e.xsd", "<xs:element name='e' type='xs:string'/>");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        OptionsJUTest.delDirs(dir);
+        super.tearDown();
+    }
+
+    public void testSameAsSequential() throws Exception {
+        Result expected = parse(1, "a.xsd", "d.xsd");
+        assertEquals(Arrays.asList("missing1.xsd", "missing2.xsd", "missing3.xsd", "missing4.xsd"), expected.missing());
+        assertEquals(5, expected.systemIds.size());
+
+        // run it a few times to go through different schedules
+        for (int i = 0; i < 20; i++) {
+            Result actual = parse(4, "a.xsd", "d.xsd");
+            assertEquals(expected.systemIds, actual.systemIds);
+            assertEquals(expected.roots, actual.roots);
+            assertEquals(expected.errors, actual.errors);
+        }
+    }
+
+    public void testFatalError() throws Exception {
+        write("broken.xsd", "<xs:element name='broken'>");
+        write("f.xsd", include("missing1.xsd") + include("broken.xsd") + include("missing2.xsd"));
+
+        Result expected = parse(1, "f.xsd");
+        assertNotNull(expected.failure);
+        for (int i = 0; i < 20; i++) {
+            Result actual = parse(4, "f.xsd");
+            assertNotNull(actual.failure);
+            assertEquals(expected.errors, actual.errors);
+        }
+    }
+
+    /**
+     * Parses the given root documents sequentially if {@code threads} is 1.
+     */
+    private Result parse(int threads, String... roots) throws Exception {
+        DOMForest forest = new DOMForest(new XMLSchemaInternalizationLogic(), new Options());
+        Result r = new Result(Thread.currentThread());
+        forest.setErrorHandler(r);
+
+        List<InputSource> sources = new ArrayList<InputSource>();
+        for (String root : roots)
+            sources.add(new InputSource(new File(dir, root).toURI().toString()));
+        try {
+            if (threads == 1) {
+                for (InputSource source : sources)
+                    r.roots.add(forest.parse(source, true) != null);
+            } else {
+                for (Document dom : forest.parse(sources, threads))
+                    r.roots.add(dom != null);
+            }
+        } catch (SAXException e) {
+            r.failure = e;
+        }
+        r.systemIds.addAll(Arrays.asList(forest.listSystemIDs()));
+        return r;
+    }
+
+    private static final class Result extends ErrorReceiver {
+        private final Thread thread;
+        final List<String> systemIds = new ArrayList<String>();
+        final List<Boolean> roots = new ArrayList<Boolean>();
+        final List<String> errors = new ArrayList<String>();
+        SAXException failure;
+
+        Result(Thread thread) {
+            this.thread = thread;
+        }
+
+        List<String> missing() {
+            List<String> r = new ArrayList<String>();
+            for (String e : errors) {
+                int idx = e.indexOf("missing");
+                r.add(e.substring(idx, e.indexOf(".xsd", idx) + 4));
+            }
+            return r;
+        }
+
+        public void error(SAXParseException exception) {
+            add("error", exception);
+        }
+
+        public void fatalError(SAXParseException exception) {
+            add("fatal", exception);
+        }
+
+        public void warning(SAXParseException exception) {
+            add("warning", exception);
+        }
+
+        public void info(SAXParseException exception) {
+            add("info", exception);
+        }
+
+        private void add(String kind, SAXParseException exception) {
+            // reported from the thread that parses
+            assertSame(thread, Thread.currentThread());
+            errors.add(kind + ' ' + exception.getSystemId() + ':' + exception.getLineNumber() + ' ' + exception.getMessage());
+        }
+    }
+
+    private static String include(String location) {
+        return "<xs:include schemaLocation='" + location + "'/>";
+    }
+
+    private void write(String name, String content) throws Exception {
+        Writer w = new OutputStreamWriter(new FileOutputStream(new File(dir, name)), "UTF-8");
+        try {
+            w.write("<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>\n");
+            w.write(content.replace("><", ">\n<"));
+            w.write("\n</xs:schema>\n");
+        } finally {
+            w.close();
+        }
+    }
+}
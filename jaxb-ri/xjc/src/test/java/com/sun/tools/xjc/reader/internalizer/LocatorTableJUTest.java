@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.tools.xjc.reader.internalizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.TestCase;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.LocatorImpl;
+
+/**
+ * Tests the hash table of {@link LocatorTable}.
+ */
+public class LocatorTableJUTest extends TestCase {
+
+    private Document doc;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+    }
+
+    public void testCollisions() {
+        // elements that land in the same slot of the initial table
+        List<Element> same = new ArrayList<Element>();
+        List<Element> others = new ArrayList<Element>();
+        int slot = -1;
+        while (same.size() < 6) {
+            Element e = doc.createElement("e");
+            int h = System.identityHashCode(e);
+            h = (h ^ (h >>> 16)) & 63;
+            if (slot < 0)
+                slot = h;
+            if (h == slot)
+                same.add(e);
+            else if (others.size() < 10)
+                others.add(e);
+        }
+        Element missing = same.remove(same.size() - 1);
+
+        LocatorTable table = new LocatorTable();
+        for (int i = 0; i < same.size(); i++)
+            table.storeStartLocation(same.get(i), loc("a.xsd", i));
+        for (int i = 0; i < others.size(); i++)
+            table.storeStartLocation(others.get(i), loc("b.xsd", 100 + i));
+
+        for (int i = 0; i < same.size(); i++)
+            assertLocation("a.xsd", i, table.getStartLocation(same.get(i)));
+        for (int i = 0; i < others.size(); i++)
+            assertLocation("b.xsd", 100 + i, table.getStartLocation(others.get(i)));
+        // probes through the whole cluster
+        assertNull(table.getStartLocation(missing));
+        assertNull(table.getEndLocation(missing));
+    }
+
+    public void testResize() {
+        List<Element> elements = new ArrayList<Element>();
+        LocatorTable table = new LocatorTable();
+        for (int i = 0; i < 10000; i++) {
+            Element e = doc.createElement("e");
+            elements.add(e);
+            table.storeStartLocation(e, loc("s" + (i % 3) + ".xsd", i));
+            if (i % 2 == 0)
+                table.storeEndLocation(e, loc("s" + (i % 3) + ".xsd", i + 1));
+        }
+        // overwriting doesn't add entries
+        table.storeStartLocation(elements.get(0), loc("t.xsd", 7));
+
+        assertLocation("t.xsd", 7, table.getStartLocation(elements.get(0)));
+        for (int i = 1; i < elements.size(); i++) {
+            Element e = elements.get(i);
+            assertLocation("s" + (i % 3) + ".xsd", i, table.getStartLocation(e));
+            if (i % 2 == 0)
+                assertLocation("s" + (i % 3) + ".xsd", i + 1, table.getEndLocation(e));
+            else
+                assertNull(table.getEndLocation(e));
+        }
+    }
+
+    public void testMissing() {
+        LocatorTable table = new LocatorTable();
+        Element e = doc.createElement("e");
+        assertNull(table.getStartLocation(e));
+        assertNull(table.getEndLocation(e));
+
+        table.storeEndLocation(e, loc("a.xsd", 1));
+        assertNull(table.getStartLocation(e));
+        assertLocation("a.xsd", 1, table.getEndLocation(e));
+
+        // a null locator clears the location
+        table.storeEndLocation(e, null);
+        assertNull(table.getEndLocation(e));
+    }
+
+    public void testPutAll() {
+        LocatorTable a = new LocatorTable();
+        LocatorTable b = new LocatorTable();
+        Element e1 = doc.createElement("e1");
+        Element e2 = doc.createElement("e2");
+        a.storeStartLocation(e1, loc("a.xsd", 1));
+        for (int i = 0; i < 100; i++)
+            b.storeStartLocation(doc.createElement("x"), loc("b.xsd", i));
+        b.storeStartLocation(e2, loc("c.xsd", 2));
+        b.storeEndLocation(e2, loc("c.xsd", 3));
+
+        a.putAll(b);
+        assertLocation("a.xsd", 1, a.getStartLocation(e1));
+        assertNull(a.getEndLocation(e1));
+        assertLocation("c.xsd", 2, a.getStartLocation(e2));
+        assertLocation("c.xsd", 3, a.getEndLocation(e2));
+    }
+
+    private static Locator loc(String systemId, int line) {
+        LocatorImpl loc = new LocatorImpl();
+        loc.setPublicId(line % 5 == 0 ? null : "p");
+        loc.setSystemId(systemId);
+        loc.setLineNumber(line);
+        loc.setColumnNumber(line + 1);
+        return loc;
+    }
+
+    private static void assertLocation(String systemId, int line, Locator loc) {
+        assertNotNull(loc);
+        assertEquals(line % 5 == 0 ? null : "p", loc.getPublicId());
+        assertEquals(systemId, loc.getSystemId());
+        assertEquals(line, loc.getLineNumber());
+        assertEquals(line + 1, loc.getColumnNumber());
+    }
+}
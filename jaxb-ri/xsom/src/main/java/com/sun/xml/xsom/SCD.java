@@ -50,8 +50,11 @@ import com.sun.xml.xsom.util.DeferedCollection;
 
 import javax.xml.namespace.NamespaceContext;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Schema Component Designator (SCD).
@@ -79,6 +82,10 @@ public abstract class SCD {
      * <p>
      * If you want to evaluate SCD just once, use {@link XSComponent#select} methods.
      *
+     * <p>
+     * Recently parsed SCDs are kept, so parsing the same path again with
+     * the same prefix bindings returns the same {@link SCD}.
+     *
      * @param path
      *      the string representation of SCD, such as "/foo/bar".
      * @param nsContext
@@ -86,10 +93,22 @@ public abstract class SCD {
      *      to resolve prefixes in the SCD to the namespace URI.
      */
     public static SCD create(String path, NamespaceContext nsContext) throws java.text.ParseException {
+        Parsed cached;
+        synchronized(cache) {
+            cached = cache.get(path);
+        }
+        if(cached!=null && cached.isValidIn(nsContext))
+            return cached.scd;
+
         try {
-            SCDParser p = new SCDParser(path,nsContext);
+            PrefixRecorder recorder = new PrefixRecorder(nsContext);
+            SCDParser p = new SCDParser(path,recorder);
             List<?> list = p.RelativeSchemaComponentPath();
-            return new SCDImpl(path,list.toArray(new Step[list.size()]));
+            SCD scd = new SCDImpl(path,list.toArray(new Step[list.size()]));
+            synchronized(cache) {
+                cache.put(path,new Parsed(scd,recorder.prefixes));
+            }
+            return scd;
         } catch (TokenMgrError e) {
             throw setCause(new java.text.ParseException(e.getMessage(), -1 ),e);
         } catch (ParseException e) {
@@ -97,6 +116,78 @@ public abstract class SCD {
         }
     }
 
+    /**
+     * Maximum number of parsed SCDs to keep.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    /**
+     * Recently parsed SCDs by their paths, in the LRU order.
+     */
+    private static final Map<String,Parsed> cache = new LinkedHashMap<String,Parsed>(16,0.75f,true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,Parsed> eldest) {
+            return size()>CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Records the prefixes resolved while parsing an SCD.
+     */
+    private static final class PrefixRecorder implements NamespaceContext {
+        private final NamespaceContext core;
+        final Map<String,String> prefixes = new HashMap<String,String>();
+
+        PrefixRecorder(NamespaceContext core) {
+            this.core = core;
+        }
+
+        public String getNamespaceURI(String prefix) {
+            String uri = core.getNamespaceURI(prefix);
+            prefixes.put(prefix,uri);
+            return uri;
+        }
+
+        public String getPrefix(String namespaceURI) {
+            return core.getPrefix(namespaceURI);
+        }
+
+        public Iterator getPrefixes(String namespaceURI) {
+            return core.getPrefixes(namespaceURI);
+        }
+    }
+
+    /**
+     * Parsed SCD, along with the prefix bindings it used.
+     *
+     * <p>
+     * Only the bindings are kept, not the {@link NamespaceContext} they came from,
+     * which may hold on to a whole DOM tree. The same SCD can be used wherever
+     * they resolve the same way.
+     */
+    private static final class Parsed {
+        final SCD scd;
+        private final Map<String,String> prefixes;
+
+        Parsed(SCD scd, Map<String,String> prefixes) {
+            this.scd = scd;
+            this.prefixes = prefixes;
+        }
+
+        boolean isValidIn(NamespaceContext nsContext) {
+            try {
+                for (Map.Entry<String,String> e : prefixes.entrySet()) {
+                    String uri = nsContext.getNamespaceURI(e.getKey());
+                    if(uri==null ? e.getValue()!=null : !uri.equals(e.getValue()))
+                        return false;
+                }
+                return true;
+            } catch( IllegalArgumentException e ) {
+                return false;
+            }
+        }
+    }
+
     private static java.text.ParseException setCause(java.text.ParseException e, Throwable x) {
         e.initCause(x);
         return e;
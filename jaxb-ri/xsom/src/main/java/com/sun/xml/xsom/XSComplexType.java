@@ -122,12 +122,14 @@ public interface XSComplexType extends XSType, XSAttContainer
      * Doesn't return null.
      * Note that the complex type may be extended outside of the scope of the schemaset known to XSOM.
      * @return
+     *      unmodifiable list.
      */
     public List<XSComplexType> getSubtypes();
 
     /**
      * Returns a list of element declarations of this type.
      * @return
+     *      unmodifiable list.
      */
     public List<XSElementDecl> getElementDecls();
 
@@ -50,6 +50,7 @@ import org.xml.sax.Locator;
 import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -83,6 +84,9 @@ public abstract class AttributesHolder extends DeclarationImpl {
     public void addProhibitedAttribute( UName name ) {
         prohibitedAtts.add(name);
     }
+    public Set<UName> getProhibitedAttributes() {
+        return Collections.unmodifiableSet(prohibitedAtts);
+    }
 
     /**
      * Returns the attribute uses by looking at attribute groups and etc.
@@ -120,6 +120,100 @@ public class SchemaSetImpl implements XSSchemaSet
         return readonlySchemaList;
     }
 
+    /**
+     * Reverse indices over the components of this schema set.
+     * Built on the first query, and discarded by {@link #resetIndices()}.
+     */
+    private volatile Indices indices;
+
+    /**
+     * Discards the reverse indices, so that they will be rebuilt to include
+     * the components that are added to this schema set since.
+     *
+     * <p>
+     * The parser calls this method once the parsing is completed.
+     */
+    public void resetIndices() {
+        indices = null;
+    }
+
+    private Indices getIndices() {
+        Indices r = indices;
+        if(r==null)
+            indices = r = new Indices();
+        return r;
+    }
+
+    /**
+     * Gets the complex types whose base type is the given type.
+     *
+     * @return
+     *      read-only list in the order of {@link #iterateComplexTypes()}.
+     */
+    public List<XSComplexType> getSubtypes(XSType baseType) {
+        return lookup(getIndices().complexSubtypes,baseType);
+    }
+
+    /**
+     * Gets the types, simple or complex, whose base type is the given type.
+     *
+     * @return
+     *      read-only list in the order of {@link #iterateTypes()}.
+     */
+    public List<XSType> getDirectSubtypes(XSType baseType) {
+        return lookup(getIndices().subtypes,baseType);
+    }
+
+    /**
+     * Gets the global element declarations of the given type.
+     *
+     * @return
+     *      read-only list in the order of {@link #iterateElementDecls()}.
+     */
+    public List<XSElementDecl> getElementDecls(XSType type) {
+        return lookup(getIndices().elementDecls,type);
+    }
+
+    /**
+     * Immutable snapshot of the reverse indices.
+     */
+    private final class Indices {
+        final Map<XSType,List<XSComplexType>> complexSubtypes = new HashMap<XSType,List<XSComplexType>>();
+        final Map<XSType,List<XSType>> subtypes = new HashMap<XSType,List<XSType>>();
+        final Map<XSType,List<XSElementDecl>> elementDecls = new HashMap<XSType,List<XSElementDecl>>();
+
+        Indices() {
+            for( Iterator<XSComplexType> itr=iterateComplexTypes(); itr.hasNext(); ) {
+                XSComplexType t = itr.next();
+                if(t.getBaseType()!=null)
+                    add(complexSubtypes,t.getBaseType(),t);
+            }
+            for( Iterator<XSType> itr=iterateTypes(); itr.hasNext(); ) {
+                XSType t = itr.next();
+                if(t.getBaseType()!=null)
+                    add(subtypes,t.getBaseType(),t);
+            }
+            for( Iterator<XSElementDecl> itr=iterateElementDecls(); itr.hasNext(); ) {
+                XSElementDecl e = itr.next();
+                add(elementDecls,e.getType(),e);
+            }
+        }
+
+        private <T> void add(Map<XSType,List<T>> index, XSType key, T value) {
+            List<T> l = index.get(key);
+            if(l==null)
+                index.put(key,l=new ArrayList<T>());
+            l.add(value);
+        }
+    }
+
+    private static <T> List<T> lookup(Map<XSType,List<T>> index, XSType key) {
+        List<T> l = index.get(key);
+        if(l==null)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(l);
+    }
+
     public XSType getType(String ns, String localName) {
         XSSchema schema = getSchema(ns);
         if(schema==null)    return null;
@@ -381,29 +475,11 @@ public class SchemaSetImpl implements XSSchemaSet
                 })
                 ,null,1,1);
         public List<XSComplexType> getSubtypes() {
-            ArrayList subtypeList = new ArrayList();
-            Iterator<XSComplexType> cTypes = getRoot().iterateComplexTypes();
-            while (cTypes.hasNext()) {
-                XSComplexType cType= cTypes.next();
-                XSType base = cType.getBaseType();
-                if ((base != null) && (base.equals(this))) {
-                    subtypeList.add(cType);
-                }
-            }
-            return subtypeList;
+            return SchemaSetImpl.this.getSubtypes(this);
         }
 
         public List<XSElementDecl> getElementDecls() {
-            ArrayList declList = new ArrayList();
-            XSSchemaSet schemaSet = getRoot();
-            for (XSSchema sch : schemaSet.getSchemas()) {
-                for (XSElementDecl decl : sch.getElementDecls().values()) {
-                    if (decl.getType().equals(this)) {
-                        declList.add(decl);
-                    }
-                }
-            }
-            return declList;
+            return SchemaSetImpl.this.getElementDecls(this);
         }
     }
 }
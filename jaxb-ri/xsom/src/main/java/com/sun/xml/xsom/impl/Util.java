@@ -43,9 +43,8 @@ package com.sun.xml.xsom.impl;
 import com.sun.xml.xsom.XSComplexType;
 import com.sun.xml.xsom.XSType;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -56,16 +55,9 @@ import java.util.Set;
  */
 class Util {
     private static XSType[] listDirectSubstitutables( XSType _this ) {
-        ArrayList r = new ArrayList();
-        
         // TODO: handle @block
-        Iterator itr = ((SchemaImpl)_this.getOwnerSchema()).parent.iterateTypes();
-        while( itr.hasNext() ) {
-            XSType t = (XSType)itr.next();
-            if( t.getBaseType()==_this )
-                r.add(t);
-        }
-        return (XSType[]) r.toArray(new XSType[r.size()]);
+        List<XSType> r = ((SchemaImpl)_this.getOwnerSchema()).parent.getDirectSubtypes(_this);
+        return r.toArray(new XSType[r.size()]);
     }
 
     public static XSType[] listSubstitutables( XSType _this ) {
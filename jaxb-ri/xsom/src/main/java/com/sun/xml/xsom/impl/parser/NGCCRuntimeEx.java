@@ -446,7 +446,7 @@ public class NGCCRuntimeEx extends NGCCRuntime implements PatcherManager {
     // this object lives longer than the parser itself,
     // so it's important for this object not to have any reference
     // to the parser.
-    private static class Context implements ValidationContext {
+    static final class Context implements ValidationContext {
         Context( String _prefix, String _uri, Context _context ) {
             this.previous = _context;
             this.prefix = _prefix;
@@ -460,9 +460,9 @@ public class NGCCRuntimeEx extends NGCCRuntime implements PatcherManager {
             else                    return previous.resolveNamespacePrefix(p);
         }
 
-        private final String prefix;
-        private final String uri;
-        private final Context previous;
+        final String prefix;
+        final String uri;
+        final Context previous;
 
         // XSDLib don't use those methods, so we cut a corner here.
         @Override
@@ -140,6 +140,9 @@ public class ParserContext {
         while(itr.hasNext())
             ((ElementDecl)itr.next()).updateSubstitutabilityMap();
 
+        // publish the reverse indices for the completed schema set
+        schemaSet.resetIndices();
+
         // run all the error checkers
         for (Patch patcher : errorCheckers)
             patcher.run();
@@ -0,0 +1,637 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.xsom.impl.parser;
+
+import com.sun.tools.rngdatatype.ValidationContext;
+import com.sun.xml.xsom.XSAttGroupDecl;
+import com.sun.xml.xsom.XSAttributeDecl;
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSComponent;
+import com.sun.xml.xsom.XSContentType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSIdentityConstraint;
+import com.sun.xml.xsom.XSModelGroup;
+import com.sun.xml.xsom.XSModelGroupDecl;
+import com.sun.xml.xsom.XSNotation;
+import com.sun.xml.xsom.XSSimpleType;
+import com.sun.xml.xsom.XSTerm;
+import com.sun.xml.xsom.XSType;
+import com.sun.xml.xsom.XSVariety;
+import com.sun.xml.xsom.XmlString;
+import com.sun.xml.xsom.impl.AnnotationImpl;
+import com.sun.xml.xsom.impl.AttGroupDeclImpl;
+import com.sun.xml.xsom.impl.AttributeDeclImpl;
+import com.sun.xml.xsom.impl.AttributeUseImpl;
+import com.sun.xml.xsom.impl.AttributesHolder;
+import com.sun.xml.xsom.impl.ComplexTypeImpl;
+import com.sun.xml.xsom.impl.ElementDecl;
+import com.sun.xml.xsom.impl.FacetImpl;
+import com.sun.xml.xsom.impl.ForeignAttributesImpl;
+import com.sun.xml.xsom.impl.IdentityConstraintImpl;
+import com.sun.xml.xsom.impl.ListSimpleTypeImpl;
+import com.sun.xml.xsom.impl.ModelGroupDeclImpl;
+import com.sun.xml.xsom.impl.ModelGroupImpl;
+import com.sun.xml.xsom.impl.NotationImpl;
+import com.sun.xml.xsom.impl.ParticleImpl;
+import com.sun.xml.xsom.impl.Ref;
+import com.sun.xml.xsom.impl.RestrictionSimpleTypeImpl;
+import com.sun.xml.xsom.impl.SchemaImpl;
+import com.sun.xml.xsom.impl.SchemaSetImpl;
+import com.sun.xml.xsom.impl.SimpleTypeImpl;
+import com.sun.xml.xsom.impl.UName;
+import com.sun.xml.xsom.impl.UnionSimpleTypeImpl;
+import com.sun.xml.xsom.impl.WildcardImpl;
+import com.sun.xml.xsom.impl.XPathImpl;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.LocatorImpl;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import static com.sun.xml.xsom.impl.parser.SchemaSetWriter.*;
+
+/**
+ * Reads a schema set written by {@link SchemaSetWriter}.
+ *
+ * <p>
+ * The returned schema set is equivalent to the one that was written,
+ * except that locators and annotations may have been left out.
+ */
+public final class SchemaSetReader {
+
+    private final DataInput in;
+
+    private boolean locators;
+    private boolean annotations;
+
+    private final List<String> strings = new ArrayList<String>();
+    private final List<ValidationContext> contexts = new ArrayList<ValidationContext>();
+    private SchemaDocumentImpl[] documents;
+
+    /**
+     * Components by their numbers.
+     * The references made before a component is created are resolved through this table.
+     */
+    private Object[] components;
+
+    private SchemaSetImpl schemaSet;
+
+    /**
+     * Owns the DOM annotations. Created on the first one.
+     */
+    private Document dom;
+
+    public SchemaSetReader(DataInput in) {
+        this.in = in;
+    }
+
+    public SchemaSetImpl read() throws IOException {
+        if (in.readInt()!=MAGIC || in.readInt()!=VERSION)
+            throw new StreamCorruptedException("not a schema set");
+        locators = in.readBoolean();
+        annotations = in.readBoolean();
+
+        schemaSet = new SchemaSetImpl();
+
+        List<SchemaImpl> schemas = new ArrayList<SchemaImpl>();
+        for (int i=readInt(); i>0; i--) {
+            String ns = readString();
+            schemas.add(schemaSet.createSchema(ns,readLocator()));
+        }
+        documents = new SchemaDocumentImpl[readInt()];
+        for (int i=0; i<documents.length; i++) {
+            SchemaImpl schema = schemas.get(readInt());
+            documents[i] = new SchemaDocumentImpl(schema,readString());
+        }
+        for (SchemaDocumentImpl doc : documents) {
+            for (int i=readInt(); i>0; i--) {
+                SchemaDocumentImpl ref = documents[readInt()];
+                doc.references.add(ref);
+                ref.referers.add(doc);
+            }
+        }
+
+        List<XSComponent> builtins = getBuiltins(schemaSet);
+        int size = readInt();
+        components = builtins.toArray(new Object[builtins.size()+size]);
+        for (int i=builtins.size(); i<components.length; i++)
+            components[i] = readComponent();
+        for (int i=builtins.size(); i<components.length; i++)
+            readLinks(components[i]);
+
+        for (SchemaImpl schema : schemas) {
+            schema.setAnnotation(readAnnotation());
+            for (int i=readInt(); i>0; i--)
+                schema.addForeignAttributes(readForeignAttributes(null));
+            for (int i=readInt(); i>0; i--) {
+                XSType t = (XSType)readRef();
+                if (t.isSimpleType())   schema.addSimpleType(t.asSimpleType(),true);
+                else                    schema.addComplexType(t.asComplexType(),true);
+            }
+            for (int i=readInt(); i>0; i--)
+                schema.addElementDecl((XSElementDecl)readRef());
+            for (int i=readInt(); i>0; i--)
+                schema.addAttributeDecl((XSAttributeDecl)readRef());
+            for (int i=readInt(); i>0; i--)
+                schema.addAttGroupDecl((XSAttGroupDecl)readRef(),true);
+            for (int i=readInt(); i>0; i--)
+                schema.addModelGroupDecl((XSModelGroupDecl)readRef(),true);
+            for (int i=readInt(); i>0; i--)
+                schema.addNotation((XSNotation)readRef());
+        }
+
+        // same as ParserContext.getResult()
+        for (Iterator<XSElementDecl> itr = schemaSet.iterateElementDecls(); itr.hasNext(); )
+            ((ElementDecl)itr.next()).updateSubstitutabilityMap();
+        schemaSet.resetIndices();
+
+        return schemaSet;
+    }
+
+    private Object readComponent() throws IOException {
+        int kind = readInt();
+        switch (kind) {
+        case COMPLEX_TYPE: {
+            Common c = readCommon();
+            String name = readString();
+            boolean anonymous = in.readBoolean();
+            boolean _abstract = in.readBoolean();
+            int derivation = readInt();
+            Ref.Type base = typeRef(readInt());
+            int _final = readInt();
+            int block = readInt();
+            boolean mixed = in.readBoolean();
+            return new ComplexTypeImpl(c.doc,c.annotation,c.locator,c.fa,name,anonymous,
+                    _abstract,derivation,base,_final,block,mixed);
+        }
+        case RESTRICTION_SIMPLE_TYPE:
+        case LIST_SIMPLE_TYPE:
+        case UNION_SIMPLE_TYPE: {
+            Common c = readCommon();
+            String name = readString();
+            boolean anonymous = in.readBoolean();
+            Set<XSVariety> finalSet = new HashSet<XSVariety>();
+            int bits = readInt();
+            for (int i=0; i<VARIETIES.length; i++)
+                if ((bits&(1<<i))!=0)
+                    finalSet.add(VARIETIES[i]);
+            if (kind==RESTRICTION_SIMPLE_TYPE)
+                return new RestrictionSimpleTypeImpl(c.doc,c.annotation,c.locator,c.fa,name,anonymous,finalSet,
+                        simpleTypeRef(readInt()));
+            if (kind==LIST_SIMPLE_TYPE)
+                return new ListSimpleTypeImpl(c.doc,c.annotation,c.locator,c.fa,name,anonymous,finalSet,
+                        simpleTypeRef(readInt()));
+            Ref.SimpleType[] members = new Ref.SimpleType[readInt()];
+            for (int i=0; i<members.length; i++)
+                members[i] = simpleTypeRef(readInt());
+            return new UnionSimpleTypeImpl(c.doc,c.annotation,c.locator,c.fa,name,anonymous,finalSet,members);
+        }
+        case ELEMENT_DECL: {
+            Common c = readCommon();
+            String tns = readString();
+            String name = readString();
+            boolean anonymous = in.readBoolean();
+            XmlString defaultValue = readXmlString();
+            XmlString fixedValue = readXmlString();
+            boolean nillable = in.readBoolean();
+            boolean _abstract = in.readBoolean();
+            int form = readInt();
+            Ref.Type type = typeRef(readInt());
+            int head = readInt();
+            Ref.Element substHead = head==0 ? null : new ElementRef(components,head-1);
+            int disallowed = readInt();
+            int excluded = readInt();
+            List<IdentityConstraintImpl> ics = new ArrayList<IdentityConstraintImpl>();
+            for (int i=readInt(); i>0; i--)
+                ics.add((IdentityConstraintImpl)readRef());
+            return new ElementDecl(null,c.doc,c.annotation,c.locator,c.fa,tns,name,anonymous,
+                    defaultValue,fixedValue,nillable,_abstract,form==0 ? null : form==1,
+                    type,substHead,disallowed,excluded,ics);
+        }
+        case ATTRIBUTE_DECL: {
+            Common c = readCommon();
+            String tns = readString();
+            String name = readString();
+            boolean anonymous = in.readBoolean();
+            XmlString defaultValue = readXmlString();
+            XmlString fixedValue = readXmlString();
+            return new AttributeDeclImpl(c.doc,tns,name,c.annotation,c.locator,c.fa,anonymous,
+                    defaultValue,fixedValue,simpleTypeRef(readInt()));
+        }
+        case ATT_GROUP_DECL: {
+            Common c = readCommon();
+            return new AttGroupDeclImpl(c.doc,c.annotation,c.locator,c.fa,readString());
+        }
+        case MODEL_GROUP_DECL: {
+            Common c = readCommon();
+            String tns = readString();
+            String name = readString();
+            return new ModelGroupDeclImpl(c.doc,c.annotation,c.locator,c.fa,tns,name,(ModelGroupImpl)readRef());
+        }
+        case MODEL_GROUP: {
+            Common c = readCommon();
+            XSModelGroup.Compositor compositor = XSModelGroup.Compositor.values()[readInt()];
+            ParticleImpl[] children = new ParticleImpl[readInt()];
+            for (int i=0; i<children.length; i++)
+                children[i] = (ParticleImpl)readRef();
+            return new ModelGroupImpl(c.doc,c.annotation,c.locator,c.fa,compositor,children);
+        }
+        case PARTICLE: {
+            SchemaDocumentImpl doc = readDocument();
+            AnnotationImpl annotation = readAnnotation();
+            Locator locator = readLocator();
+            Ref.Term term = termRef(readInt());
+            BigInteger max = new BigInteger(readString());
+            BigInteger min = new BigInteger(readString());
+            return new ParticleImpl(doc,annotation,term,locator,max,min);
+        }
+        case WILDCARD_ANY:
+        case WILDCARD_OTHER:
+        case WILDCARD_UNION: {
+            Common c = readCommon();
+            int mode = readInt();
+            if (kind==WILDCARD_ANY)
+                return new WildcardImpl.Any(c.doc,c.annotation,c.locator,c.fa,mode);
+            if (kind==WILDCARD_OTHER)
+                return new WildcardImpl.Other(c.doc,c.annotation,c.locator,c.fa,readString(),mode);
+            Set<String> names = new HashSet<String>();
+            for (int i=readInt(); i>0; i--)
+                names.add(readString());
+            return new WildcardImpl.Finite(c.doc,c.annotation,c.locator,c.fa,names,mode);
+        }
+        case IDENTITY_CONSTRAINT: {
+            Common c = readCommon();
+            short category = (short)readInt();
+            String name = readString();
+            XPathImpl selector = (XPathImpl)readRef();
+            List<XPathImpl> fields = new ArrayList<XPathImpl>();
+            for (int i=readInt(); i>0; i--)
+                fields.add((XPathImpl)readRef());
+            int refer = readInt();
+            return new IdentityConstraintImpl(c.doc,c.annotation,c.locator,c.fa,category,name,selector,fields,
+                    refer==0 ? null : new IdentityConstraintRef(components,refer-1));
+        }
+        case XPATH: {
+            Common c = readCommon();
+            return new XPathImpl(c.doc,c.annotation,c.locator,c.fa,readXmlString());
+        }
+        case NOTATION: {
+            Common c = readCommon();
+            String name = readString();
+            String publicId = readString();
+            String systemId = readString();
+            return new NotationImpl(c.doc,c.annotation,c.locator,c.fa,name,publicId,systemId);
+        }
+        default:
+            throw new StreamCorruptedException("unknown component kind: "+kind);
+        }
+    }
+
+    private void readLinks(Object o) throws IOException {
+        if (o instanceof ComplexTypeImpl) {
+            ComplexTypeImpl ct = (ComplexTypeImpl)o;
+            ct.setContentType((Ref.ContentType)readRef());
+            ct.setExplicitContent((XSContentType)readRef());
+            ct.setScope((XSElementDecl)readRef());
+            ct.setWildcard((WildcardImpl)readRef());
+            ComplexTypeImpl redefinedBy = (ComplexTypeImpl)readRef();
+            if (redefinedBy!=null)
+                redefinedBy.redefine(ct);
+            readAttributes(ct);
+        } else
+        if (o instanceof SimpleTypeImpl) {
+            SimpleTypeImpl redefinedBy = (SimpleTypeImpl)readRef();
+            if (redefinedBy!=null)
+                redefinedBy.redefine((SimpleTypeImpl)o);
+            if (o instanceof RestrictionSimpleTypeImpl) {
+                RestrictionSimpleTypeImpl st = (RestrictionSimpleTypeImpl)o;
+                for (int i=readInt(); i>0; i--) {
+                    Common c = readCommon();
+                    String name = readString();
+                    XmlString value = readXmlString();
+                    st.addFacet(new FacetImpl(c.doc,c.annotation,c.locator,c.fa,name,value,in.readBoolean()));
+                }
+            }
+        } else
+        if (o instanceof AttGroupDeclImpl) {
+            AttGroupDeclImpl ag = (AttGroupDeclImpl)o;
+            ag.setWildcard((WildcardImpl)readRef());
+            readAttributes(ag);
+        }
+    }
+
+    private void readAttributes(AttributesHolder h) throws IOException {
+        for (int i=readInt(); i>0; i--) {
+            Common c = readCommon();
+            AttributeDeclImpl decl = (AttributeDeclImpl)readRef();
+            XmlString defaultValue = readXmlString();
+            XmlString fixedValue = readXmlString();
+            boolean required = in.readBoolean();
+            h.addAttributeUse(new UName(decl.getTargetNamespace(),decl.getName()),
+                new AttributeUseImpl(c.doc,c.annotation,c.locator,c.fa,decl,defaultValue,fixedValue,required));
+        }
+        for (int i=readInt(); i>0; i--) {
+            String ns = readString();
+            String name = readString();
+            h.addProhibitedAttribute(new UName(ns,name,readString()));
+        }
+        for (int i=readInt(); i>0; i--)
+            h.addAttGroup(new AttGroupRef((XSAttGroupDecl)readRef()));
+    }
+
+    /**
+     * Properties common to most components.
+     */
+    private static final class Common {
+        SchemaDocumentImpl doc;
+        AnnotationImpl annotation;
+        Locator locator;
+        ForeignAttributesImpl fa;
+    }
+
+    private Common readCommon() throws IOException {
+        Common c = new Common();
+        c.doc = readDocument();
+        c.annotation = readAnnotation();
+        c.locator = readLocator();
+        int size = readInt();
+        ForeignAttributesImpl[] fas = new ForeignAttributesImpl[size];
+        for (int i=0; i<size; i++)
+            fas[i] = readForeignAttributes(null);
+        // they form a linked list in the same order
+        for (int i=size-1; i>=0; i--)
+            c.fa = copy(fas[i],c.fa);
+        return c;
+    }
+
+    private static ForeignAttributesImpl copy(ForeignAttributesImpl fa, ForeignAttributesImpl next) {
+        ForeignAttributesImpl r = new ForeignAttributesImpl(fa.getContext(),fa.getLocator(),next);
+        r.setAttributes(fa);
+        return r;
+    }
+
+    private SchemaDocumentImpl readDocument() throws IOException {
+        int id = readInt();
+        return id==0 ? null : documents[id-1];
+    }
+
+    private ForeignAttributesImpl readForeignAttributes(ForeignAttributesImpl next) throws IOException {
+        ValidationContext context = readContext();
+        ForeignAttributesImpl fa = new ForeignAttributesImpl(context,readLocator(),next);
+        for (int i=readInt(); i>0; i--) {
+            String uri = readString();
+            String localName = readString();
+            String qname = readString();
+            String type = readString();
+            fa.addAttribute(uri,localName,qname,type,readString());
+        }
+        return fa;
+    }
+
+    private AnnotationImpl readAnnotation() throws IOException {
+        if (!in.readBoolean())
+            return null;
+        Locator locator = readLocator();
+        switch (in.readUnsignedByte()) {
+        case ANNOTATION_NULL:
+            return new AnnotationImpl(null,locator);
+        case ANNOTATION_STRING:
+            return new AnnotationImpl(readString(),locator);
+        case ANNOTATION_ELEMENT:
+            if (dom==null) {
+                try {
+                    DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+                    dbf.setNamespaceAware(true);
+                    dom = dbf.newDocumentBuilder().newDocument();
+                } catch (ParserConfigurationException e) {
+                    IOException x = new IOException(e.getMessage());
+                    x.initCause(e);
+                    throw x;
+                }
+            }
+            return new AnnotationImpl(readElement(),locator);
+        default:
+            throw new StreamCorruptedException("unknown annotation");
+        }
+    }
+
+    private Element readElement() throws IOException {
+        String uri = readString();
+        readString();   // local name. implied by the tag name
+        Element e = dom.createElementNS(uri,readString());
+        for (int i=readInt(); i>0; i--) {
+            String attUri = readString();
+            String name = readString();
+            e.setAttributeNS(attUri,name,readString());
+        }
+        for (int i=readInt(); i>0; i--) {
+            int type = in.readUnsignedByte();
+            switch (type) {
+            case Node.ELEMENT_NODE:
+                e.appendChild(readElement());
+                break;
+            case Node.TEXT_NODE:
+                e.appendChild(dom.createTextNode(readString()));
+                break;
+            case Node.CDATA_SECTION_NODE:
+                e.appendChild(dom.createCDATASection(readString()));
+                break;
+            case Node.COMMENT_NODE:
+                e.appendChild(dom.createComment(readString()));
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                String target = readString();
+                e.appendChild(dom.createProcessingInstruction(target,readString()));
+                break;
+            default:
+                throw new StreamCorruptedException("unknown node type: "+type);
+            }
+        }
+        return e;
+    }
+
+    private Locator readLocator() throws IOException {
+        if (!in.readBoolean())
+            return null;
+        LocatorImpl loc = new LocatorImpl();
+        loc.setPublicId(readString());
+        loc.setSystemId(readString());
+        loc.setLineNumber(readInt()-1);
+        loc.setColumnNumber(readInt()-1);
+        return loc;
+    }
+
+    private XmlString readXmlString() throws IOException {
+        if (!in.readBoolean())
+            return null;
+        String value = readString();
+        ValidationContext context = readContext();
+        return context==null ? new XmlString(value) : new XmlString(value,context);
+    }
+
+    private ValidationContext readContext() throws IOException {
+        int id = readInt();
+        if (id==0)
+            return null;
+        if (id>1)
+            return contexts.get(id-2);
+        String prefix = readString();
+        String uri = readString();
+        NGCCRuntimeEx.Context previous = (NGCCRuntimeEx.Context)readContext();
+        NGCCRuntimeEx.Context c = new NGCCRuntimeEx.Context(prefix,uri,previous);
+        contexts.add(c);
+        return c;
+    }
+
+    private Object readRef() throws IOException {
+        int id = readInt();
+        return id==0 ? null : components[id-1];
+    }
+
+    private String readString() throws IOException {
+        int id = readInt();
+        if (id==0)
+            return null;
+        if (id>1)
+            return strings.get(id-2);
+        int len = readInt();
+        if (len<0)
+            throw new StreamCorruptedException("negative length");
+        byte[] b = new byte[len];
+        in.readFully(b);
+        String s = new String(b,StandardCharsets.UTF_8);
+        strings.add(s);
+        return s;
+    }
+
+    private int readInt() throws IOException {
+        int r = 0;
+        for (int shift=0; ; shift+=7) {
+            int b = in.readUnsignedByte();
+            r |= (b&0x7F)<<shift;
+            if ((b&0x80)==0)
+                return r;
+        }
+    }
+
+    // references to the components that may not have been read yet.
+    // the component itself is used when it's already there.
+
+    private Ref.Type typeRef(int id) {
+        Object o = components[id-1];
+        if (o instanceof Ref.Type)
+            return (Ref.Type)o;
+        return new TypeRef(components,id-1);
+    }
+
+    private Ref.SimpleType simpleTypeRef(int id) {
+        Object o = components[id-1];
+        if (o instanceof Ref.SimpleType)
+            return (Ref.SimpleType)o;
+        return new SimpleTypeRef(components,id-1);
+    }
+
+    private Ref.Term termRef(int id) {
+        Object o = components[id-1];
+        if (o instanceof Ref.Term)
+            return (Ref.Term)o;
+        return new TermRef(components,id-1);
+    }
+
+    private static abstract class LazyRef {
+        private final Object[] components;
+        private final int id;
+
+        LazyRef(Object[] components, int id) {
+            this.components = components;
+            this.id = id;
+        }
+
+        final Object target() {
+            return components[id];
+        }
+    }
+
+    private static final class TypeRef extends LazyRef implements Ref.Type {
+        TypeRef(Object[] components, int id) { super(components,id); }
+        public XSType getType() { return (XSType)target(); }
+    }
+
+    private static final class SimpleTypeRef extends LazyRef implements Ref.SimpleType {
+        SimpleTypeRef(Object[] components, int id) { super(components,id); }
+        public XSSimpleType getType() { return (XSSimpleType)target(); }
+    }
+
+    private static final class TermRef extends LazyRef implements Ref.Term {
+        TermRef(Object[] components, int id) { super(components,id); }
+        public XSTerm getTerm() { return (XSTerm)target(); }
+    }
+
+    private static final class ElementRef extends LazyRef implements Ref.Element {
+        ElementRef(Object[] components, int id) { super(components,id); }
+        public XSElementDecl get() { return (XSElementDecl)target(); }
+        public XSTerm getTerm() { return get(); }
+    }
+
+    private static final class IdentityConstraintRef extends LazyRef implements Ref.IdentityConstraint {
+        IdentityConstraintRef(Object[] components, int id) { super(components,id); }
+        public XSIdentityConstraint get() { return (XSIdentityConstraint)target(); }
+    }
+
+    private static final class AttGroupRef implements Ref.AttGroup {
+        private final XSAttGroupDecl decl;
+        AttGroupRef(XSAttGroupDecl decl) { this.decl = decl; }
+        public XSAttGroupDecl get() { return decl; }
+    }
+}
@@ -0,0 +1,862 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.xsom.impl.parser;
+
+import com.sun.tools.rngdatatype.ValidationContext;
+import com.sun.xml.xsom.ForeignAttributes;
+import com.sun.xml.xsom.XSAnnotation;
+import com.sun.xml.xsom.XSAttGroupDecl;
+import com.sun.xml.xsom.XSAttributeDecl;
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSComponent;
+import com.sun.xml.xsom.XSContentType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSFacet;
+import com.sun.xml.xsom.XSIdentityConstraint;
+import com.sun.xml.xsom.XSModelGroupDecl;
+import com.sun.xml.xsom.XSNotation;
+import com.sun.xml.xsom.XSSchema;
+import com.sun.xml.xsom.XSSchemaSet;
+import com.sun.xml.xsom.XSSimpleType;
+import com.sun.xml.xsom.XSType;
+import com.sun.xml.xsom.XSVariety;
+import com.sun.xml.xsom.XSXPath;
+import com.sun.xml.xsom.XmlString;
+import com.sun.xml.xsom.impl.AttGroupDeclImpl;
+import com.sun.xml.xsom.impl.AttributeDeclImpl;
+import com.sun.xml.xsom.impl.AttributeUseImpl;
+import com.sun.xml.xsom.impl.AttributesHolder;
+import com.sun.xml.xsom.impl.ComplexTypeImpl;
+import com.sun.xml.xsom.impl.ComponentImpl;
+import com.sun.xml.xsom.impl.ElementDecl;
+import com.sun.xml.xsom.impl.ForeignAttributesImpl;
+import com.sun.xml.xsom.impl.IdentityConstraintImpl;
+import com.sun.xml.xsom.impl.ListSimpleTypeImpl;
+import com.sun.xml.xsom.impl.ModelGroupDeclImpl;
+import com.sun.xml.xsom.impl.ModelGroupImpl;
+import com.sun.xml.xsom.impl.NotationImpl;
+import com.sun.xml.xsom.impl.ParticleImpl;
+import com.sun.xml.xsom.impl.RestrictionSimpleTypeImpl;
+import com.sun.xml.xsom.impl.SchemaImpl;
+import com.sun.xml.xsom.impl.SchemaSetImpl;
+import com.sun.xml.xsom.impl.SimpleTypeImpl;
+import com.sun.xml.xsom.impl.UName;
+import com.sun.xml.xsom.impl.UnionSimpleTypeImpl;
+import com.sun.xml.xsom.impl.WildcardImpl;
+import com.sun.xml.xsom.impl.XPathImpl;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.Locator;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a parsed {@link XSSchemaSet} in a compact binary form, which
+ * {@link SchemaSetReader} turns back into a schema set without parsing XML.
+ *
+ * <p>
+ * Components are numbered and written in two passes. The first pass
+ * writes what's needed to construct each component, with the components
+ * that are passed to a constructor (such as the particles of a model group)
+ * written before the component that contains them. References to other
+ * components are written as numbers, and resolved lazily by the reader.
+ * The second pass writes what's set after the construction, such as
+ * content types, attribute uses and facets.
+ *
+ * <p>
+ * Strings are written once and referenced by number afterward.
+ * Locators and annotations are optional. The annotation objects are
+ * whatever the {@link com.sun.xml.xsom.parser.AnnotationParser} produced,
+ * and only strings and DOM elements (as produced by
+ * {@link com.sun.xml.xsom.util.DomAnnotationParserFactory}) can be written.
+ * Other annotations make {@link #write(XSSchemaSet)} fail with
+ * {@link NotSerializableException}, which {@link #canWriteAnnotations(XSSchemaSet)}
+ * tells beforehand.
+ */
+public final class SchemaSetWriter {
+
+    static final int MAGIC = 0x58534f4d;  // "XSOM"
+    static final int VERSION = 2;
+
+    // kinds of the components
+    static final int COMPLEX_TYPE = 1;
+    static final int RESTRICTION_SIMPLE_TYPE = 2;
+    static final int LIST_SIMPLE_TYPE = 3;
+    static final int UNION_SIMPLE_TYPE = 4;
+    static final int ELEMENT_DECL = 5;
+    static final int ATTRIBUTE_DECL = 6;
+    static final int ATT_GROUP_DECL = 7;
+    static final int MODEL_GROUP_DECL = 8;
+    static final int MODEL_GROUP = 9;
+    static final int PARTICLE = 10;
+    static final int WILDCARD_ANY = 11;
+    static final int WILDCARD_OTHER = 12;
+    static final int WILDCARD_UNION = 13;
+    static final int IDENTITY_CONSTRAINT = 14;
+    static final int XPATH = 15;
+    static final int NOTATION = 16;
+
+    // kinds of the annotation values
+    static final int ANNOTATION_NULL = 0;
+    static final int ANNOTATION_STRING = 1;
+    static final int ANNOTATION_ELEMENT = 2;
+
+    /**
+     * Simple type varieties, by their bit positions in the final set.
+     */
+    static final XSVariety[] VARIETIES = {XSVariety.ATOMIC, XSVariety.UNION, XSVariety.LIST};
+
+    private final DataOutput out;
+    private final boolean locators;
+    private final boolean annotations;
+
+    private final Map<String,Integer> strings = new HashMap<String,Integer>();
+    private final Map<Object,Integer> ids = new IdentityHashMap<Object,Integer>();
+
+    /**
+     * Content types of the complex types. The content type of an extension
+     * is computed on each call, so it's taken once and written as is.
+     */
+    private final Map<ComplexTypeImpl,XSContentType> contentTypes = new IdentityHashMap<ComplexTypeImpl,XSContentType>();
+    private final Map<SchemaDocumentImpl,Integer> documents = new IdentityHashMap<SchemaDocumentImpl,Integer>();
+    private final Map<NGCCRuntimeEx.Context,Integer> contexts = new IdentityHashMap<NGCCRuntimeEx.Context,Integer>();
+
+    /**
+     * @param locators
+     *      if false, the components will be read back without locators.
+     * @param annotations
+     *      if false, the components will be read back without annotations.
+     */
+    public SchemaSetWriter(DataOutput out, boolean locators, boolean annotations) {
+        this.out = out;
+        this.locators = locators;
+        this.annotations = annotations;
+    }
+
+    /**
+     * Components that every {@link SchemaSetImpl} has from the start,
+     * in the order they are numbered.
+     */
+    static List<XSComponent> getBuiltins(SchemaSetImpl schemaSet) {
+        List<XSComponent> r = new ArrayList<XSComponent>();
+        r.add(schemaSet.anyType);
+        r.add(schemaSet.anySimpleType);
+        r.add(schemaSet.empty);
+        // the content of xs:anyType, which derived types may share
+        ParticleImpl p = (ParticleImpl)schemaSet.getAnyType().getContentType();
+        ModelGroupImpl mg = (ModelGroupImpl)p.getTerm();
+        r.add(p);
+        r.add(mg);
+        r.add(mg.getChild(0));
+        r.add(mg.getChild(0).getTerm());
+        return r;
+    }
+
+    /**
+     * Checks whether all the annotations of the schema set can be written,
+     * without writing anything.
+     *
+     * @return
+     *      false if {@link #write(XSSchemaSet)} would fail on an annotation
+     *      or on an unsupported component.
+     */
+    public static boolean canWriteAnnotations(XSSchemaSet schemaSet) {
+        SchemaSetImpl ss = (SchemaSetImpl)schemaSet;
+        SchemaSetWriter w = new SchemaSetWriter(null,false,true);
+        for (XSComponent c : getBuiltins(ss))
+            w.ids.put(c,w.ids.size());
+        try {
+            for (XSSchema s : ss.getSchemas())
+                if (!canWrite(s.getAnnotation()))
+                    return false;
+            for (ComponentImpl c : w.collect(ss)) {
+                if (!canWrite(c.getAnnotation()))
+                    return false;
+                if (c instanceof RestrictionSimpleTypeImpl) {
+                    for (XSFacet f : ((RestrictionSimpleTypeImpl)c).getDeclaredFacets())
+                        if (!canWrite(f.getAnnotation()))
+                            return false;
+                }
+                if (c instanceof AttributesHolder) {
+                    for (AttributeUseImpl u : ((AttributesHolder)c).getDeclaredAttributeUses())
+                        if (!canWrite(u.getAnnotation()))
+                            return false;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // an unsupported component
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean canWrite(XSAnnotation a) {
+        if (a==null)
+            return true;
+        Object o = a.getAnnotation();
+        return o==null || o instanceof String || (o instanceof Element && canWrite((Element)o));
+    }
+
+    private static boolean canWrite(Element e) {
+        for (Node n=e.getFirstChild(); n!=null; n=n.getNextSibling()) {
+            switch (n.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                if (!canWrite((Element)n))
+                    return false;
+                break;
+            case Node.TEXT_NODE:
+            case Node.CDATA_SECTION_NODE:
+            case Node.COMMENT_NODE:
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                break;
+            default:
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void write(XSSchemaSet schemaSet) throws IOException {
+        SchemaSetImpl ss = (SchemaSetImpl)schemaSet;
+        for (XSComponent c : getBuiltins(ss))
+            ids.put(c,ids.size());
+
+        List<ComponentImpl> components = order(collect(ss));
+        for (ComponentImpl c : components)
+            ids.put(c,ids.size());
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeBoolean(locators);
+        out.writeBoolean(annotations);
+
+        // schemas and schema documents
+        List<XSSchema> schemas = new ArrayList<XSSchema>(ss.getSchemas());
+        writeInt(schemas.size());
+        for (XSSchema s : schemas) {
+            writeString(s.getTargetNamespace());
+            writeLocator(s.getLocator());
+        }
+        List<SchemaDocumentImpl> docs = new ArrayList<SchemaDocumentImpl>();
+        for (ComponentImpl c : components) {
+            SchemaDocumentImpl doc = (SchemaDocumentImpl)c.getSourceDocument();
+            if (doc!=null && !documents.containsKey(doc)) {
+                documents.put(doc,documents.size());
+                docs.add(doc);
+            }
+        }
+        writeInt(docs.size());
+        for (SchemaDocumentImpl doc : docs) {
+            writeInt(schemas.indexOf(doc.getSchema()));
+            writeString(doc.getSystemId());
+        }
+        for (SchemaDocumentImpl doc : docs) {
+            List<Integer> refs = new ArrayList<Integer>();
+            for (SchemaDocumentImpl ref : doc.references) {
+                Integer id = documents.get(ref);
+                if (id!=null)
+                    refs.add(id);
+            }
+            Collections.sort(refs);
+            writeInt(refs.size());
+            for (Integer ref : refs)
+                writeInt(ref);
+        }
+
+        writeInt(components.size());
+        for (ComponentImpl c : components)
+            writeComponent(c);
+        for (ComponentImpl c : components)
+            writeLinks(c);
+
+        // top-level components of each schema
+        for (XSSchema s : schemas) {
+            SchemaImpl schema = (SchemaImpl)s;
+            writeAnnotation(schema.getAnnotation());
+            writeInt(schema.getForeignAttributes().size());
+            for (ForeignAttributes fa : schema.getForeignAttributes())
+                writeForeignAttributes((ForeignAttributesImpl)fa);
+            writeRefs(schema.getTypes().values());
+            writeRefs(schema.getElementDecls().values());
+            writeRefs(schema.getAttributeDecls().values());
+            writeRefs(schema.getAttGroupDecls().values());
+            writeRefs(schema.getModelGroupDecls().values());
+            writeRefs(schema.getNotations().values());
+        }
+    }
+
+    /**
+     * Finds all the components reachable from the schemas.
+     */
+    private List<ComponentImpl> collect(SchemaSetImpl ss) {
+        Set<XSComponent> seen = Collections.newSetFromMap(new IdentityHashMap<XSComponent,Boolean>());
+        for (Object o : ids.keySet())
+            seen.add((XSComponent)o);
+        List<ComponentImpl> r = new ArrayList<ComponentImpl>();
+        // LinkedList, as many of the edges are null
+        Deque<XSComponent> queue = new LinkedList<XSComponent>();
+
+        for (XSSchema s : ss.getSchemas()) {
+            queue.addAll(s.getTypes().values());
+            queue.addAll(s.getElementDecls().values());
+            queue.addAll(s.getAttributeDecls().values());
+            queue.addAll(s.getAttGroupDecls().values());
+            queue.addAll(s.getModelGroupDecls().values());
+            queue.addAll(s.getNotations().values());
+            queue.addAll(s.getIdentityConstraints().values());
+        }
+
+        while (!queue.isEmpty()) {
+            XSComponent c = queue.removeFirst();
+            if (c==null || !seen.add(c))
+                continue;
+            if (!(c instanceof ComponentImpl))
+                throw new IllegalArgumentException("unsupported component: "+c);
+            r.add((ComponentImpl)c);
+
+            if (c instanceof ComplexTypeImpl) {
+                ComplexTypeImpl ct = (ComplexTypeImpl)c;
+                queue.add(ct.getBaseType());
+                XSContentType content = ct.getContentType();
+                contentTypes.put(ct,content);
+                queue.add(content);
+                queue.add(ct.getExplicitContent());
+                queue.add(ct.getScope());
+                queue.add(ct.getLocalAttributeWildcard());
+                queue.add(ct.getRedefinedBy());
+                collectAttributes(ct,queue);
+            } else
+            if (c instanceof SimpleTypeImpl) {
+                SimpleTypeImpl st = (SimpleTypeImpl)c;
+                queue.add(st.getSimpleBaseType());
+                queue.add(st.getRedefinedBy());
+                if (c instanceof ListSimpleTypeImpl)
+                    queue.add(((ListSimpleTypeImpl)c).getItemType());
+                if (c instanceof UnionSimpleTypeImpl) {
+                    UnionSimpleTypeImpl u = (UnionSimpleTypeImpl)c;
+                    for (int i=0; i<u.getMemberSize(); i++)
+                        queue.add(u.getMember(i));
+                }
+            } else
+            if (c instanceof ElementDecl) {
+                ElementDecl e = (ElementDecl)c;
+                queue.add(e.getType());
+                queue.add(e.getSubstAffiliation());
+                queue.addAll(e.getIdentityConstraints());
+            } else
+            if (c instanceof AttributeDeclImpl) {
+                queue.add(((AttributeDeclImpl)c).getType());
+            } else
+            if (c instanceof AttGroupDeclImpl) {
+                AttGroupDeclImpl ag = (AttGroupDeclImpl)c;
+                queue.add(ag.getAttributeWildcard());
+                collectAttributes(ag,queue);
+            } else
+            if (c instanceof ModelGroupDeclImpl) {
+                queue.add(((ModelGroupDeclImpl)c).getModelGroup());
+            } else
+            if (c instanceof ModelGroupImpl) {
+                Collections.addAll(queue,((ModelGroupImpl)c).getChildren());
+            } else
+            if (c instanceof ParticleImpl) {
+                queue.add(((ParticleImpl)c).getTerm());
+            } else
+            if (c instanceof IdentityConstraintImpl) {
+                IdentityConstraintImpl ic = (IdentityConstraintImpl)c;
+                queue.add(ic.getParent());
+                queue.add(ic.getSelector());
+                queue.addAll(ic.getFields());
+                if (ic.getCategory()==XSIdentityConstraint.KEYREF)
+                    queue.add(ic.getReferencedKey());
+            } else
+            if (!(c instanceof WildcardImpl || c instanceof XPathImpl || c instanceof NotationImpl))
+                throw new IllegalArgumentException("unsupported component: "+c);
+        }
+        return r;
+    }
+
+    private void collectAttributes(AttributesHolder h, Deque<XSComponent> queue) {
+        for (AttributeUseImpl u : h.getDeclaredAttributeUses())
+            queue.add(u.getDecl());
+        queue.addAll(h.getAttGroups());
+    }
+
+    /**
+     * Orders the components so that those given to a constructor of another
+     * come before it.
+     */
+    private List<ComponentImpl> order(List<ComponentImpl> components) {
+        List<ComponentImpl> r = new ArrayList<ComponentImpl>(components.size());
+        Set<ComponentImpl> done = Collections.newSetFromMap(new IdentityHashMap<ComponentImpl,Boolean>());
+        for (ComponentImpl c : components)
+            order(c,r,done);
+        return r;
+    }
+
+    private void order(ComponentImpl c, List<ComponentImpl> r, Set<ComponentImpl> done) {
+        if (ids.containsKey(c) || !done.add(c))
+            return;
+        if (c instanceof ElementDecl) {
+            for (XSIdentityConstraint ic : ((ElementDecl)c).getIdentityConstraints())
+                order((ComponentImpl)ic,r,done);
+        }
+        if (c instanceof IdentityConstraintImpl) {
+            IdentityConstraintImpl ic = (IdentityConstraintImpl)c;
+            order((ComponentImpl)ic.getSelector(),r,done);
+            for (XSXPath f : ic.getFields())
+                order((ComponentImpl)f,r,done);
+        }
+        if (c instanceof ModelGroupDeclImpl)
+            order((ComponentImpl)((ModelGroupDeclImpl)c).getModelGroup(),r,done);
+        if (c instanceof ModelGroupImpl) {
+            for (ParticleImpl p : ((ModelGroupImpl)c).getChildren())
+                order(p,r,done);
+        }
+        r.add(c);
+    }
+
+    /**
+     * Writes what's needed to construct the given component.
+     */
+    private void writeComponent(ComponentImpl c) throws IOException {
+        if (c instanceof ComplexTypeImpl) {
+            ComplexTypeImpl ct = (ComplexTypeImpl)c;
+            writeInt(COMPLEX_TYPE);
+            writeCommon(c);
+            writeString(ct.getName());
+            out.writeBoolean(ct.isLocal());
+            out.writeBoolean(ct.isAbstract());
+            writeInt(ct.getDerivationMethod());
+            writeRef(ct.getBaseType());
+            writeInt(bits(ct,true));
+            writeInt(bits(ct,false));
+            out.writeBoolean(ct.isMixed());
+        } else
+        if (c instanceof SimpleTypeImpl) {
+            SimpleTypeImpl st = (SimpleTypeImpl)c;
+            if (c instanceof RestrictionSimpleTypeImpl)     writeInt(RESTRICTION_SIMPLE_TYPE);
+            else if (c instanceof ListSimpleTypeImpl)       writeInt(LIST_SIMPLE_TYPE);
+            else                                            writeInt(UNION_SIMPLE_TYPE);
+            writeCommon(c);
+            writeString(st.getName());
+            out.writeBoolean(st.isLocal());
+            int finalSet = 0;
+            for (int i=0; i<VARIETIES.length; i++)
+                if (st.isFinal(VARIETIES[i]))
+                    finalSet |= 1<<i;
+            writeInt(finalSet);
+            if (c instanceof RestrictionSimpleTypeImpl)
+                writeRef(st.getSimpleBaseType());
+            else if (c instanceof ListSimpleTypeImpl)
+                writeRef(((ListSimpleTypeImpl)c).getItemType());
+            else {
+                UnionSimpleTypeImpl u = (UnionSimpleTypeImpl)c;
+                writeInt(u.getMemberSize());
+                for (int i=0; i<u.getMemberSize(); i++)
+                    writeRef(u.getMember(i));
+            }
+        } else
+        if (c instanceof ElementDecl) {
+            ElementDecl e = (ElementDecl)c;
+            writeInt(ELEMENT_DECL);
+            writeCommon(c);
+            writeString(e.getTargetNamespace());
+            writeString(e.getName());
+            out.writeBoolean(e.isLocal());
+            writeXmlString(e.getDefaultValue());
+            writeXmlString(e.getFixedValue());
+            out.writeBoolean(e.isNillable());
+            out.writeBoolean(e.isAbstract());
+            writeInt(e.getForm()==null ? 0 : e.getForm() ? 1 : 2);
+            writeRef(e.getType());
+            writeRef(e.getSubstAffiliation());
+            int disallowed=0, excluded=0;
+            for (int m : new int[]{XSType.EXTENSION,XSType.RESTRICTION,XSType.SUBSTITUTION}) {
+                if (e.isSubstitutionDisallowed(m))  disallowed |= m;
+                if (e.isSubstitutionExcluded(m))    excluded |= m;
+            }
+            writeInt(disallowed);
+            writeInt(excluded);
+            writeRefs(e.getIdentityConstraints());
+        } else
+        if (c instanceof AttributeDeclImpl) {
+            AttributeDeclImpl a = (AttributeDeclImpl)c;
+            writeInt(ATTRIBUTE_DECL);
+            writeCommon(c);
+            writeString(a.getTargetNamespace());
+            writeString(a.getName());
+            out.writeBoolean(a.isLocal());
+            writeXmlString(a.getDefaultValue());
+            writeXmlString(a.getFixedValue());
+            writeRef(a.getType());
+        } else
+        if (c instanceof AttGroupDeclImpl) {
+            writeInt(ATT_GROUP_DECL);
+            writeCommon(c);
+            writeString(((AttGroupDeclImpl)c).getName());
+        } else
+        if (c instanceof ModelGroupDeclImpl) {
+            ModelGroupDeclImpl mg = (ModelGroupDeclImpl)c;
+            writeInt(MODEL_GROUP_DECL);
+            writeCommon(c);
+            writeString(mg.getTargetNamespace());
+            writeString(mg.getName());
+            writeRef(mg.getModelGroup());
+        } else
+        if (c instanceof ModelGroupImpl) {
+            ModelGroupImpl mg = (ModelGroupImpl)c;
+            writeInt(MODEL_GROUP);
+            writeCommon(c);
+            writeInt(mg.getCompositor().ordinal());
+            writeRefs(Arrays.asList(mg.getChildren()));
+        } else
+        if (c instanceof ParticleImpl) {
+            ParticleImpl p = (ParticleImpl)c;
+            writeInt(PARTICLE);
+            writeDocument(c);
+            writeAnnotation(c.getAnnotation());
+            writeLocator(c.getLocator());
+            writeRef(p.getTerm());
+            writeString(p.getMaxOccurs().toString());
+            writeString(p.getMinOccurs().toString());
+        } else
+        if (c instanceof WildcardImpl) {
+            WildcardImpl w = (WildcardImpl)c;
+            if (c instanceof WildcardImpl.Any)          writeInt(WILDCARD_ANY);
+            else if (c instanceof WildcardImpl.Other)   writeInt(WILDCARD_OTHER);
+            else                                        writeInt(WILDCARD_UNION);
+            writeCommon(c);
+            writeInt(w.getMode());
+            if (c instanceof WildcardImpl.Other)
+                writeString(((WildcardImpl.Other)c).getOtherNamespace());
+            if (c instanceof WildcardImpl.Finite) {
+                WildcardImpl.Finite f = (WildcardImpl.Finite)c;
+                writeInt(f.getNamespaces().size());
+                for (String ns : f.getNamespaces())
+                    writeString(ns);
+            }
+        } else
+        if (c instanceof IdentityConstraintImpl) {
+            IdentityConstraintImpl ic = (IdentityConstraintImpl)c;
+            writeInt(IDENTITY_CONSTRAINT);
+            writeCommon(c);
+            writeInt(ic.getCategory());
+            writeString(ic.getName());
+            writeRef(ic.getSelector());
+            writeRefs(ic.getFields());
+            writeRef(ic.getCategory()==XSIdentityConstraint.KEYREF ? ic.getReferencedKey() : null);
+        } else
+        if (c instanceof XPathImpl) {
+            writeInt(XPATH);
+            writeCommon(c);
+            writeXmlString(((XPathImpl)c).getXPath());
+        } else
+        if (c instanceof NotationImpl) {
+            NotationImpl n = (NotationImpl)c;
+            writeInt(NOTATION);
+            writeCommon(c);
+            writeString(n.getName());
+            writeString(n.getPublicId());
+            writeString(n.getSystemId());
+        } else
+            throw new AssertionError(c);
+    }
+
+    /**
+     * Writes what's set on the given component after the construction.
+     */
+    private void writeLinks(ComponentImpl c) throws IOException {
+        if (c instanceof ComplexTypeImpl) {
+            ComplexTypeImpl ct = (ComplexTypeImpl)c;
+            writeRef(contentTypes.get(ct));
+            writeRef(ct.getExplicitContent());
+            writeRef(ct.getScope());
+            writeRef(ct.getLocalAttributeWildcard());
+            writeRef(ct.getRedefinedBy());
+            writeAttributes(ct);
+        } else
+        if (c instanceof SimpleTypeImpl) {
+            writeRef(((SimpleTypeImpl)c).getRedefinedBy());
+            if (c instanceof RestrictionSimpleTypeImpl) {
+                RestrictionSimpleTypeImpl st = (RestrictionSimpleTypeImpl)c;
+                writeInt(st.getDeclaredFacets().size());
+                for (XSFacet f : st.getDeclaredFacets()) {
+                    writeCommon((ComponentImpl)f);
+                    writeString(f.getName());
+                    writeXmlString(f.getValue());
+                    out.writeBoolean(f.isFixed());
+                }
+            }
+        } else
+        if (c instanceof AttGroupDeclImpl) {
+            AttGroupDeclImpl ag = (AttGroupDeclImpl)c;
+            writeRef(ag.getAttributeWildcard());
+            writeAttributes(ag);
+        }
+    }
+
+    private void writeAttributes(AttributesHolder h) throws IOException {
+        writeInt(h.getDeclaredAttributeUses().size());
+        for (AttributeUseImpl u : h.getDeclaredAttributeUses()) {
+            writeCommon(u);
+            writeRef(u.getDecl());
+            // the values of the declaration are copied, which doesn't change what the getters return
+            writeXmlString(u.getDefaultValue());
+            writeXmlString(u.getFixedValue());
+            out.writeBoolean(u.isRequired());
+        }
+        writeInt(h.getProhibitedAttributes().size());
+        for (UName n : h.getProhibitedAttributes()) {
+            writeString(n.getNamespaceURI());
+            writeString(n.getName());
+            writeString(n.getQualifiedName());
+        }
+        writeRefs(h.getAttGroups());
+    }
+
+    private void writeCommon(ComponentImpl c) throws IOException {
+        writeDocument(c);
+        writeAnnotation(c.getAnnotation());
+        writeLocator(c.getLocator());
+        List<ForeignAttributesImpl> fas = c.getForeignAttributes();
+        writeInt(fas.size());
+        for (ForeignAttributesImpl fa : fas)
+            writeForeignAttributes(fa);
+    }
+
+    private void writeDocument(ComponentImpl c) throws IOException {
+        Integer id = documents.get((SchemaDocumentImpl)c.getSourceDocument());
+        writeInt(id==null ? 0 : id+1);
+    }
+
+    private void writeForeignAttributes(ForeignAttributesImpl fa) throws IOException {
+        writeContext(fa.getContext());
+        writeLocator(fa.getLocator());
+        writeInt(fa.getLength());
+        for (int i=0; i<fa.getLength(); i++) {
+            writeString(fa.getURI(i));
+            writeString(fa.getLocalName(i));
+            writeString(fa.getQName(i));
+            writeString(fa.getType(i));
+            writeString(fa.getValue(i));
+        }
+    }
+
+    private void writeAnnotation(XSAnnotation a) throws IOException {
+        if (!annotations || a==null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        writeLocator(a.getLocator());
+        Object o = a.getAnnotation();
+        if (o==null) {
+            out.writeByte(ANNOTATION_NULL);
+        } else
+        if (o instanceof String) {
+            out.writeByte(ANNOTATION_STRING);
+            writeString((String)o);
+        } else
+        if (o instanceof Element) {
+            out.writeByte(ANNOTATION_ELEMENT);
+            writeElement((Element)o);
+        } else
+            throw new NotSerializableException(o.getClass().getName());
+    }
+
+    private void writeElement(Element e) throws IOException {
+        writeString(e.getNamespaceURI());
+        writeString(e.getLocalName());
+        writeString(e.getTagName());
+        NamedNodeMap atts = e.getAttributes();
+        writeInt(atts.getLength());
+        for (int i=0; i<atts.getLength(); i++) {
+            Attr a = (Attr)atts.item(i);
+            writeString(a.getNamespaceURI());
+            writeString(a.getName());
+            writeString(a.getValue());
+        }
+        int len = 0;
+        for (Node n=e.getFirstChild(); n!=null; n=n.getNextSibling())
+            len++;
+        writeInt(len);
+        for (Node n=e.getFirstChild(); n!=null; n=n.getNextSibling()) {
+            switch (n.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                out.writeByte(Node.ELEMENT_NODE);
+                writeElement((Element)n);
+                break;
+            case Node.TEXT_NODE:
+            case Node.CDATA_SECTION_NODE:
+            case Node.COMMENT_NODE:
+                out.writeByte(n.getNodeType());
+                writeString(n.getNodeValue());
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                out.writeByte(Node.PROCESSING_INSTRUCTION_NODE);
+                writeString(n.getNodeName());
+                writeString(n.getNodeValue());
+                break;
+            default:
+                throw new NotSerializableException(n.getClass().getName());
+            }
+        }
+    }
+
+    private void writeLocator(Locator loc) throws IOException {
+        if (!locators || loc==null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        writeString(loc.getPublicId());
+        writeString(loc.getSystemId());
+        writeInt(loc.getLineNumber()+1);
+        writeInt(loc.getColumnNumber()+1);
+    }
+
+    private void writeXmlString(XmlString s) throws IOException {
+        if (s==null) {
+            out.writeBoolean(false);
+            return;
+        }
+        out.writeBoolean(true);
+        writeString(s.value);
+        writeContext(s.context);
+    }
+
+    /**
+     * Writes the namespace bindings of the given context. The chains of
+     * {@link NGCCRuntimeEx.Context} share their tails, and so are written
+     * one binding at a time.
+     */
+    private void writeContext(ValidationContext context) throws IOException {
+        if (!(context instanceof NGCCRuntimeEx.Context)) {
+            writeInt(0);
+            return;
+        }
+        NGCCRuntimeEx.Context c = (NGCCRuntimeEx.Context)context;
+        Integer id = contexts.get(c);
+        if (id!=null) {
+            writeInt(id+2);
+            return;
+        }
+        writeInt(1);
+        writeString(c.prefix);
+        writeString(c.uri);
+        writeContext(c.previous);
+        contexts.put(c,contexts.size());
+    }
+
+    private void writeRefs(Collection<? extends XSComponent> components) throws IOException {
+        writeInt(components.size());
+        for (XSComponent c : components)
+            writeRef(c);
+    }
+
+    private void writeRef(XSComponent c) throws IOException {
+        if (c==null) {
+            writeInt(0);
+            return;
+        }
+        Integer id = ids.get(c);
+        if (id==null)
+            throw new IllegalArgumentException("unknown component: "+c);
+        writeInt(id+1);
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s==null) {
+            writeInt(0);
+            return;
+        }
+        Integer id = strings.get(s);
+        if (id!=null) {
+            writeInt(id+2);
+            return;
+        }
+        strings.put(s,strings.size());
+        writeInt(1);
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeInt(b.length);
+        out.write(b);
+    }
+
+    /**
+     * Writes a non-negative number in 7-bit groups.
+     */
+    private void writeInt(int i) throws IOException {
+        while ((i&~0x7F)!=0) {
+            out.writeByte((i&0x7F)|0x80);
+            i >>>= 7;
+        }
+        out.writeByte(i);
+    }
+
+    /**
+     * Gets the derivation methods that are final ({@code isFinal}) or blocked.
+     */
+    private static int bits(XSComplexType ct, boolean isFinal) {
+        int r = 0;
+        for (int m : new int[]{XSType.EXTENSION,XSType.RESTRICTION,XSType.SUBSTITUTION}) {
+            if (isFinal ? ct.isFinal(m) : ct.isSubstitutionProhibited(m))
+                r |= m;
+        }
+        return r;
+    }
+}
@@ -77,6 +77,13 @@ public abstract class Step<T extends XSComponent> {
      */
     protected abstract Iterator<? extends T> filter( Iterator<? extends T> base );
 
+    /**
+     * Evaluate this step against one context node.
+     */
+    protected Iterator<? extends T> apply(XSComponent contextNode) {
+        return filter(axis.iterator(contextNode));
+    }
+
     /**
      * Evaluate this step against the current node set
      * and returns matched nodes.
@@ -85,7 +92,7 @@ public abstract class Step<T extends XSComponent> {
         // list up the whole thing
         Iterator<T> r = new Iterators.Map<T,XSComponent>(nodeSet) {
             protected Iterator<? extends T> apply(XSComponent contextNode) {
-                return filter(axis.iterator(contextNode));
+                return Step.this.apply(contextNode);
             }
         };
 
@@ -152,6 +159,30 @@ public abstract class Step<T extends XSComponent> {
             this.localName = localName;
         }
 
+        /**
+         * Top-level declarations are looked up by their names,
+         * instead of going through all of them.
+         */
+        @Override
+        protected Iterator<? extends XSDeclaration> apply(XSComponent contextNode) {
+            if(contextNode instanceof XSSchema) {
+                XSSchema schema = (XSSchema)contextNode;
+                XSDeclaration d;
+                if(axis==Axis.ELEMENT)                  d = schema.getElementDecl(localName);
+                else if(axis==Axis.TYPE_DEFINITION)     d = schema.getType(localName);
+                else if(axis==Axis.ATTRIBUTE)           d = schema.getAttributeDecl(localName);
+                else if(axis==Axis.ATTRIBUTE_GROUP)     d = schema.getAttGroupDecl(localName);
+                else if(axis==Axis.MODEL_GROUP_DECL)    d = schema.getModelGroupDecl(localName);
+                else if(axis==Axis.NOTATION)            d = schema.getNotation(localName);
+                else                                    return super.apply(contextNode);
+
+                if(d==null || !schema.getTargetNamespace().equals(nsUri))
+                    return Iterators.empty();
+                return Iterators.singleton(d);
+            }
+            return super.apply(contextNode);
+        }
+
         protected boolean match(XSDeclaration d) {
             return d.getName().equals(localName) && d.getTargetNamespace().equals(nsUri);
         }
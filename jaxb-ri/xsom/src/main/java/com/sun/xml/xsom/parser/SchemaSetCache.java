@@ -0,0 +1,335 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package com.sun.xml.xsom.parser;
+
+import com.sun.xml.xsom.XSSchemaSet;
+import com.sun.xml.xsom.impl.parser.SchemaSetReader;
+import com.sun.xml.xsom.impl.parser.SchemaSetWriter;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps parsed schema sets in a directory, so that the same schemas
+ * don't have to be parsed again.
+ *
+ * <p>
+ * An entry is keyed by the contents of the schemas given to
+ * {@link #parse(XSOMParser, URL...)}, and it's used only when none of the
+ * documents they include or import has changed since. Otherwise the schemas
+ * are parsed as usual and the entry is replaced.
+ *
+ * <p>
+ * Annotations are kept only if they are strings or DOM elements,
+ * like those made by {@link com.sun.xml.xsom.util.DomAnnotationParserFactory}.
+ * A schema set with any other annotation isn't cached at all, unless
+ * annotations are left out by {@link #setAnnotations(boolean)}.
+ * This is checked before anything is digested or written.
+ * Entries are read without Java serialization.
+ *
+ * <p>
+ * All the documents, including the schemas given to {@link #parse(XSOMParser, URL...)},
+ * are read through the entity resolver of the parser, so that what is digested
+ * is what the parser reads.
+ */
+public final class SchemaSetCache {
+
+    private static final int MAGIC = 0x58534f43;
+
+    private final File directory;
+
+    private boolean locators = true;
+    private boolean annotations = true;
+
+    /**
+     * @param directory
+     *      the directory to keep the entries in. Created if it doesn't exist.
+     */
+    public SchemaSetCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets whether the locators of components are kept in the cache.
+     * Leaving them out makes entries smaller. True by default.
+     */
+    public void setLocators(boolean locators) {
+        this.locators = locators;
+    }
+
+    /**
+     * Sets whether annotations are kept in the cache. True by default.
+     */
+    public void setAnnotations(boolean annotations) {
+        this.annotations = annotations;
+    }
+
+    /**
+     * Returns the schema set made of the given schemas, from the cache if possible.
+     *
+     * @param parser
+     *      used to parse the schemas when there's no usable entry.
+     *      Its entity resolver is also used to read the schemas and to check the entry.
+     *      The parser shouldn't have parsed anything else.
+     * @return
+     *      null if there was any parse error, as {@link XSOMParser#getResult()} does.
+     */
+    public XSSchemaSet parse(XSOMParser parser, URL... schemas) throws SAXException, IOException {
+        // read the schemas once, so that the parser gets the digested contents
+        MessageDigest md = newDigest();
+        InputSource[] sources = new InputSource[schemas.length];
+        for (int i=0; i<schemas.length; i++) {
+            md.update(schemas[i].toExternalForm().getBytes(StandardCharsets.UTF_8));
+            md.update((byte)0);
+            sources[i] = read(schemas[i].toExternalForm(),parser.getEntityResolver());
+            digest(md,sources[i]);
+        }
+        File file = new File(directory,toHex(md.digest())+".xsom");
+
+        if (file.exists()) {
+            XSSchemaSet r = load(file,parser.getEntityResolver());
+            if (r!=null)
+                return r;
+        }
+
+        for (InputSource source : sources)
+            parser.parse(source);
+        XSSchemaSet r = parser.getResult();
+        if (r!=null && (!annotations || SchemaSetWriter.canWriteAnnotations(r)))
+            store(file,parser,r);
+        return r;
+    }
+
+    /**
+     * @return
+     *      null if the entry is out of date or unreadable.
+     */
+    private XSSchemaSet load(File file, EntityResolver resolver) {
+        try {
+            DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))));
+            try {
+                if (in.readInt()!=MAGIC)
+                    return null;
+                for (int i=in.readInt(); i>0; i--) {
+                    String systemId = in.readUTF();
+                    byte[] digest = new byte[in.readInt()];
+                    in.readFully(digest);
+                    if (!Arrays.equals(digest,digest(systemId,resolver)))
+                        return null;
+                }
+                return new SchemaSetReader(in).read();
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (SAXException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // a broken entry. parse the schemas again
+            return null;
+        }
+    }
+
+    /**
+     * Writes a new entry. Failing to do so only means the entry won't be there next time.
+     */
+    private void store(File file, XSOMParser parser, XSSchemaSet result) {
+        File tmp = null;
+        try {
+            // the documents that make up the schema set, with their digests
+            Map<String,byte[]> documents = new TreeMap<String,byte[]>();
+            for (SchemaDocument doc : parser.getDocuments()) {
+                String systemId = doc.getSystemId();
+                if (systemId==null)
+                    return;     // can't tell if this one has changed
+                try {
+                    documents.put(systemId,digest(systemId,parser.getEntityResolver()));
+                } catch (MalformedURLException e) {
+                    // not a real location, like the built-in "datatypes.xsd". it doesn't change
+                }
+            }
+
+            directory.mkdirs();
+            tmp = File.createTempFile("xsom",".tmp",directory);
+            DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(documents.size());
+                for (Map.Entry<String,byte[]> e : documents.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().length);
+                    out.write(e.getValue());
+                }
+                new SchemaSetWriter(out,locators,annotations).write(result);
+            } finally {
+                out.close();
+            }
+            Files.move(tmp.toPath(),file.toPath(),StandardCopyOption.REPLACE_EXISTING);
+            tmp = null;
+        } catch (IOException e) {
+            // ignore
+        } catch (SAXException e) {
+            // ignore
+        } catch (IllegalArgumentException e) {
+            // the schema set has a component that can't be written
+        } finally {
+            if (tmp!=null)
+                tmp.delete();
+        }
+    }
+
+    private static byte[] digest(String systemId, EntityResolver resolver) throws IOException, SAXException {
+        MessageDigest md = newDigest();
+        digest(md,read(systemId,resolver));
+        return md.digest();
+    }
+
+    /**
+     * Resolves a document like the parser does, and reads it into memory.
+     */
+    private static InputSource read(String systemId, EntityResolver resolver) throws IOException, SAXException {
+        InputSource is = resolver==null ? null : resolver.resolveEntity(null,systemId);
+        if (is==null)
+            is = new InputSource(systemId);
+
+        InputSource r = new InputSource(is.getSystemId()!=null ? is.getSystemId() : systemId);
+        r.setPublicId(is.getPublicId());
+        // in the order the parser looks at them
+        if (is.getCharacterStream()!=null) {
+            Reader in = is.getCharacterStream();
+            try {
+                StringBuilder sb = new StringBuilder();
+                char[] buf = new char[8192];
+                int len;
+                while ((len=in.read(buf))>=0)
+                    sb.append(buf,0,len);
+                r.setCharacterStream(new StringReader(sb.toString()));
+            } finally {
+                in.close();
+            }
+        } else {
+            InputStream in = is.getByteStream();
+            if (in==null)
+                in = new URL(is.getSystemId()).openStream();
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buf = new byte[8192];
+                int len;
+                while ((len=in.read(buf))>=0)
+                    bytes.write(buf,0,len);
+                r.setByteStream(new ByteArrayInputStream(bytes.toByteArray()));
+                r.setEncoding(is.getEncoding());
+            } finally {
+                in.close();
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Digests a document returned from {@link #read(String, EntityResolver)}.
+     */
+    private static void digest(MessageDigest md, InputSource is) throws IOException {
+        if (is.getCharacterStream()!=null) {
+            Reader r = is.getCharacterStream();
+            char[] buf = new char[8192];
+            int len;
+            while ((len=r.read(buf))>=0)
+                md.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(buf,0,len)));
+            r.reset();
+        } else {
+            InputStream in = is.getByteStream();
+            byte[] buf = new byte[8192];
+            int len;
+            while ((len=in.read(buf))>=0)
+                md.update(buf,0,len);
+            in.reset();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String toHex(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length*2);
+        for (byte x : b) {
+            sb.append(Character.forDigit((x>>4)&0xF,16));
+            sb.append(Character.forDigit(x&0xF,16));
+        }
+        return sb.toString();
+    }
+}
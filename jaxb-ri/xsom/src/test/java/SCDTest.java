@@ -38,9 +38,11 @@
  * holder.
  */
 
+import com.sun.xml.xsom.SCD;
 import com.sun.xml.xsom.XSSchemaSet;
 import com.sun.xml.xsom.XSComponent;
 
+import java.lang.ref.WeakReference;
 import java.util.Collection;
 
 /**
@@ -65,6 +67,43 @@ public class SCDTest extends AbstractXSOMTest {
         assertOne("name attribute declaration",s.select("/element::my:chapter/type::0/attribute::name",nsc));
     }
 
+    /**
+     * Parsed SCDs are reused only where the prefixes resolve the same way.
+     */
+    public void testCache() throws Exception {
+        XSSchemaSet s = load("scdtest.xsd");
+
+        SCD scd = SCD.create("/type::my:articleType",new MapNamespaceContext("", "", "my", "tns"));
+        assertSame(scd,SCD.create("/type::my:articleType",new MapNamespaceContext("", "", "my", "tns")));
+        assertOne("articleType complex type",scd.select(s));
+
+        SCD other = SCD.create("/type::my:articleType",new MapNamespaceContext("", "", "my", "urn:other"));
+        assertNotSame(scd,other);
+        assertTrue(other.select(s).isEmpty());
+    }
+
+    /**
+     * The cache shouldn't keep the {@link javax.xml.namespace.NamespaceContext}
+     * given by the caller, which may be backed by a DOM tree.
+     */
+    public void testCacheDoesNotKeepContext() throws Exception {
+        XSSchemaSet s = load("scdtest.xsd");
+
+        MapNamespaceContext nsc = new MapNamespaceContext("", "", "my", "tns");
+        SCD scd = SCD.create("/element::my:foo-bar",nsc);
+        WeakReference<MapNamespaceContext> ref = new WeakReference<MapNamespaceContext>(nsc);
+        nsc = null;
+        for (int i=0; i<50 && ref.get()!=null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull("the context is still reachable",ref.get());
+
+        // the cached SCD still works with the bindings it was parsed with
+        assertSame(scd,SCD.create("/element::my:foo-bar",new MapNamespaceContext("", "", "my", "tns")));
+        assertOne("foo-bar element declaration",scd.select(s));
+    }
+
     private void assertOne(String name, Collection<XSComponent> r) {
         assertEquals(1,r.size());
         assertEquals(name,r.iterator().next().toString());
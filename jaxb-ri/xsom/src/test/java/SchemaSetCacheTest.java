@@ -0,0 +1,276 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+import com.sun.xml.xsom.XSAnnotation;
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSSchemaSet;
+import com.sun.xml.xsom.impl.util.SchemaWriter;
+import com.sun.xml.xsom.parser.SchemaDocument;
+import com.sun.xml.xsom.parser.AnnotationContext;
+import com.sun.xml.xsom.parser.AnnotationParser;
+import com.sun.xml.xsom.parser.AnnotationParserFactory;
+import com.sun.xml.xsom.parser.SchemaSetCache;
+import com.sun.xml.xsom.parser.XSOMParser;
+import com.sun.xml.xsom.util.DomAnnotationParserFactory;
+import junit.framework.TestCase;
+import org.w3c.dom.Element;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URL;
+
+/**
+ * Round-trips a schema set through {@link SchemaSetCache}.
+ */
+public class SchemaSetCacheTest extends TestCase {
+
+    private static final String MAIN =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:test' targetNamespace='urn:test'"
+            + " elementFormDefault='qualified' xmlns:x='urn:foreign' x:a='1'>"
+        + "<xs:include schemaLocation='types.xsd'/>"
+        + "<xs:annotation><xs:documentation>doc</xs:documentation></xs:annotation>"
+        + "<xs:element name='root' type='t:derived' substitutionGroup='t:head'/>"
+        + "<xs:element name='head' type='t:base' abstract='true'/>"
+        + "<xs:element name='keyed'><xs:complexType><xs:sequence>"
+        + "<xs:element name='item' maxOccurs='unbounded' type='t:code' nillable='true'/>"
+        + "<xs:choice minOccurs='0'><xs:any namespace='##other'/><xs:group ref='t:grp'/></xs:choice>"
+        + "</xs:sequence><xs:attributeGroup ref='t:atts'/></xs:complexType>"
+        + "<xs:key name='k'><xs:selector xpath='t:item'/><xs:field xpath='.'/></xs:key>"
+        + "<xs:keyref name='r' refer='t:k'><xs:selector xpath='t:item'/><xs:field xpath='@ref'/></xs:keyref>"
+        + "</xs:element>"
+        + "<xs:group name='grp'><xs:all><xs:element name='a' type='xs:int' default='1'/></xs:all></xs:group>"
+        + "<xs:attributeGroup name='atts'><xs:attribute name='id' type='xs:ID' use='required'/>"
+        + "<xs:anyAttribute namespace='urn:a urn:b' processContents='lax'/></xs:attributeGroup>"
+        + "<xs:notation name='gif' public='image/gif'/>"
+        + "</xs:schema>";
+
+    private static final String TYPES =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:test' targetNamespace='urn:test'>"
+        + "<xs:complexType name='base' abstract='true'><xs:sequence><xs:element name='x' type='xs:string'/>"
+        + "</xs:sequence><xs:attribute name='ref' type='t:code' fixed='A'/></xs:complexType>"
+        + "<xs:complexType name='derived' mixed='true' block='extension'><xs:complexContent><xs:extension base='t:base'>"
+        + "<xs:sequence><xs:element ref='t:head' minOccurs='0'/></xs:sequence></xs:extension></xs:complexContent>"
+        + "</xs:complexType>"
+        + "<xs:simpleType name='code'><xs:restriction base='xs:token'><xs:enumeration value='A'/>"
+        + "<xs:enumeration value='B'/><xs:maxLength value='1' fixed='true'/></xs:restriction></xs:simpleType>"
+        + "<xs:simpleType name='codes'><xs:list itemType='t:code'/></xs:simpleType>"
+        + "<xs:simpleType name='either'><xs:union memberTypes='t:code xs:int'>"
+        + "<xs:simpleType><xs:restriction base='xs:QName'/></xs:simpleType></xs:union></xs:simpleType>"
+        + "</xs:schema>";
+
+    public void testRoundTrip() throws Exception {
+        File dir = createTempDir();
+        URL main = write(new File(dir,"main.xsd"),MAIN);
+        write(new File(dir,"types.xsd"),TYPES);
+        SchemaSetCache cache = new SchemaSetCache(new File(dir,"cache"));
+
+        XSOMParser p = new XSOMParser();
+        XSSchemaSet parsed = cache.parse(p,main);
+        assertTrue(hasParsed(p));
+
+        p = new XSOMParser();
+        XSSchemaSet cached = cache.parse(p,main);
+        assertFalse("should have come from the cache",hasParsed(p));
+        assertEquals(dump(parsed),dump(cached));
+
+        XSElementDecl root = cached.getElementDecl("urn:test","root");
+        XSElementDecl head = cached.getElementDecl("urn:test","head");
+        XSComplexType base = cached.getComplexType("urn:test","base");
+        assertSame(head,root.getSubstAffiliation());
+        assertTrue(head.getSubstitutables().contains(root));
+        assertTrue(base.getSubtypes().contains(cached.getComplexType("urn:test","derived")));
+        assertSame(cached.getElementDecl("urn:test","keyed").getIdentityConstraints().get(0),
+                   cached.getElementDecl("urn:test","keyed").getIdentityConstraints().get(1).getReferencedKey());
+        assertEquals("main.xsd",new File(root.getLocator().getSystemId()).getName());
+        assertEquals("1",cached.getSchema("urn:test").getForeignAttribute("urn:foreign","a"));
+
+        // changing an included document invalidates the entry
+        write(new File(dir,"types.xsd"),TYPES.replace("'B'","'C'"));
+        p = new XSOMParser();
+        XSSchemaSet reparsed = cache.parse(p,main);
+        assertTrue(hasParsed(p));
+        assertTrue(dump(reparsed).contains("\"C\""));
+    }
+
+    public void testDomAnnotations() throws Exception {
+        File dir = createTempDir();
+        URL main = write(new File(dir,"main.xsd"),MAIN);
+        write(new File(dir,"types.xsd"),TYPES);
+        SchemaSetCache cache = new SchemaSetCache(new File(dir,"cache"));
+
+        XSOMParser p = new XSOMParser();
+        p.setAnnotationParser(new DomAnnotationParserFactory());
+        cache.parse(p,main);
+
+        p = new XSOMParser();
+        p.setAnnotationParser(new DomAnnotationParserFactory());
+        XSSchemaSet cached = cache.parse(p,main);
+        assertFalse("should have come from the cache",hasParsed(p));
+
+        Element e = (Element)cached.getSchema("urn:test").getAnnotation().getAnnotation();
+        assertEquals("http://www.w3.org/2001/XMLSchema",e.getNamespaceURI());
+        assertEquals("annotation",e.getLocalName());
+        Element doc = (Element)e.getElementsByTagNameNS("http://www.w3.org/2001/XMLSchema","documentation").item(0);
+        assertEquals("doc",doc.getTextContent());
+    }
+
+    public void testUnknownAnnotationsAreNotCached() throws Exception {
+        File dir = createTempDir();
+        URL main = write(new File(dir,"main.xsd"),MAIN);
+        write(new File(dir,"types.xsd"),TYPES);
+        SchemaSetCache cache = new SchemaSetCache(new File(dir,"cache"));
+
+        XSOMParser p = new XSOMParser();
+        p.setAnnotationParser(new ObjectAnnotationParserFactory());
+        cache.parse(p,main);
+
+        p = new XSOMParser();
+        p.setAnnotationParser(new ObjectAnnotationParserFactory());
+        XSSchemaSet r = cache.parse(p,main);
+        assertTrue("the annotation can't be written, so nothing should be cached",hasParsed(p));
+        assertFalse("nothing should have been written",new File(dir,"cache").exists());
+        XSAnnotation a = r.getSchema("urn:test").getAnnotation();
+        assertTrue(a.getAnnotation() instanceof StringBuilder);
+
+        // leaving the annotations out makes the schema set cacheable
+        cache.setAnnotations(false);
+        p = new XSOMParser();
+        p.setAnnotationParser(new ObjectAnnotationParserFactory());
+        cache.parse(p,main);
+        p = new XSOMParser();
+        p.setAnnotationParser(new ObjectAnnotationParserFactory());
+        cache.parse(p,main);
+        assertFalse(hasParsed(p));
+    }
+
+    public void testEntityResolver() throws Exception {
+        File dir = createTempDir();
+        final URL local = write(new File(dir,"main.xsd"),MAIN);
+        write(new File(dir,"types.xsd"),TYPES);
+        // never reachable, so the schema can only be read through the resolver
+        URL remote = new URL("http://example.invalid/main.xsd");
+        EntityResolver resolver = new EntityResolver() {
+            public InputSource resolveEntity(String publicId, String systemId) {
+                if (systemId.equals("http://example.invalid/main.xsd"))
+                    return new InputSource(local.toExternalForm());
+                return null;
+            }
+        };
+        SchemaSetCache cache = new SchemaSetCache(new File(dir,"cache"));
+
+        XSOMParser p = new XSOMParser();
+        p.setEntityResolver(resolver);
+        XSSchemaSet parsed = cache.parse(p,remote);
+        assertNotNull(parsed.getElementDecl("urn:test","root"));
+
+        p = new XSOMParser();
+        p.setEntityResolver(resolver);
+        XSSchemaSet cached = cache.parse(p,remote);
+        assertFalse("should have come from the cache",hasParsed(p));
+        assertEquals(dump(parsed),dump(cached));
+
+        // the entry follows what the resolver returns
+        write(new File(dir,"main.xsd"),MAIN.replace("x:a='1'","x:a='2'"));
+        p = new XSOMParser();
+        p.setEntityResolver(resolver);
+        XSSchemaSet reparsed = cache.parse(p,remote);
+        assertTrue(hasParsed(p));
+        assertEquals("2",reparsed.getSchema("urn:test").getForeignAttribute("urn:foreign","a"));
+    }
+
+    /**
+     * Produces annotations that the cache doesn't know how to write.
+     */
+    private static final class ObjectAnnotationParserFactory implements AnnotationParserFactory {
+        public AnnotationParser create() {
+            return new AnnotationParser() {
+                public ContentHandler getContentHandler(AnnotationContext context, String parentElementName,
+                                                        ErrorHandler errorHandler, EntityResolver entityResolver) {
+                    return new DefaultHandler();
+                }
+
+                public Object getResult(Object existing) {
+                    return new StringBuilder("annotation");
+                }
+            };
+        }
+    }
+
+    private static boolean hasParsed(XSOMParser p) {
+        for (SchemaDocument doc : p.getDocuments())
+            if (doc.getSystemId().endsWith("main.xsd"))
+                return true;
+        return false;
+    }
+
+    private static String dump(XSSchemaSet s) {
+        StringWriter w = new StringWriter();
+        new SchemaWriter(w).visit(s);
+        return w.toString();
+    }
+
+    private static URL write(File f, String content) throws IOException {
+        Writer w = new OutputStreamWriter(new FileOutputStream(f),"UTF-8");
+        try {
+            w.write(content);
+        } finally {
+            w.close();
+        }
+        return f.toURI().toURL();
+    }
+
+    private static File createTempDir() throws IOException {
+        File dir = File.createTempFile("xsom",".dir");
+        dir.delete();
+        dir.mkdirs();
+        dir.deleteOnExit();
+        return dir;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2018 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * https://oss.oracle.com/licenses/CDDL+GPL-1.1
+ * or LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+import com.sun.xml.xsom.XSComplexType;
+import com.sun.xml.xsom.XSElementDecl;
+import com.sun.xml.xsom.XSSchema;
+import com.sun.xml.xsom.XSSchemaSet;
+import com.sun.xml.xsom.parser.XSOMParser;
+import junit.framework.TestCase;
+import org.xml.sax.InputSource;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Checks the reverse indices of the schema set against a linear scan
+ * on a schema with 10k complex types.
+ */
+public class SchemaSetIndicesTest extends TestCase {
+
+    private static final int SIZE = 10000;
+
+    public void testIndices() throws Exception {
+        StringBuilder xsd = new StringBuilder();
+        xsd.append("<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:test' targetNamespace='urn:test'>");
+        xsd.append("<xs:complexType name='t0'><xs:sequence/></xs:complexType>");
+        for (int i = 1; i < SIZE; i++) {
+            // a binary tree of extensions
+            xsd.append("<xs:complexType name='t").append(i).append("'><xs:complexContent><xs:extension base='t:t")
+               .append((i - 1) / 2).append("'/></xs:complexContent></xs:complexType>");
+        }
+        for (int i = 0; i < SIZE; i++) {
+            xsd.append("<xs:element name='e").append(i).append("' type='t:t").append(i / 3).append("'/>");
+        }
+        xsd.append("</xs:schema>");
+
+        XSOMParser p = new XSOMParser();
+        InputSource is = new InputSource(new StringReader(xsd.toString()));
+        is.setSystemId("urn:test:schema.xsd");
+        p.parse(is);
+        XSSchemaSet result = p.getResult();
+        XSSchema schema = result.getSchema("urn:test");
+
+        List<XSComplexType> types = new ArrayList<XSComplexType>();
+        for (Iterator<XSComplexType> itr = schema.iterateComplexTypes(); itr.hasNext(); )
+            types.add(itr.next());
+        assertEquals(SIZE, types.size());
+
+        // compare against the linear scan on a sample, as the scan is quadratic overall
+        for (int i = 0; i < SIZE; i += 97) {
+            XSComplexType t = types.get(i);
+            assertEquals(scanSubtypes(result, t), t.getSubtypes());
+            assertEquals(scanElementDecls(result, t), t.getElementDecls());
+        }
+
+        XSComplexType t0 = schema.getComplexType("t0");
+        assertEquals(2, t0.getSubtypes().size());
+        assertEquals(3, t0.getElementDecls().size());
+        XSComplexType leaf = schema.getComplexType("t" + (SIZE - 1));
+        assertTrue(leaf.getSubtypes().isEmpty());
+
+        // the indices are shared, so they are read-only
+        assertUnmodifiable(t0.getSubtypes(), leaf);
+        assertUnmodifiable(leaf.getSubtypes(), leaf);
+        assertUnmodifiable(t0.getElementDecls(), schema.getElementDecl("e0"));
+        assertUnmodifiable(leaf.getElementDecls(), schema.getElementDecl("e0"));
+        assertEquals(2, t0.getSubtypes().size());
+    }
+
+    private static <T> void assertUnmodifiable(List<T> list, T item) {
+        try {
+            list.add(item);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        if (!list.isEmpty()) {
+            try {
+                list.remove(0);
+                fail();
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+        }
+    }
+
+    private static List<XSComplexType> scanSubtypes(XSSchemaSet schemaSet, XSComplexType type) {
+        List<XSComplexType> r = new ArrayList<XSComplexType>();
+        for (Iterator<XSComplexType> itr = schemaSet.iterateComplexTypes(); itr.hasNext(); ) {
+            XSComplexType t = itr.next();
+            if (type.equals(t.getBaseType()))
+                r.add(t);
+        }
+        return r;
+    }
+
+    private static List<XSElementDecl> scanElementDecls(XSSchemaSet schemaSet, XSComplexType type) {
+        List<XSElementDecl> r = new ArrayList<XSElementDecl>();
+        for (XSSchema s : schemaSet.getSchemas()) {
+            for (XSElementDecl e : s.getElementDecls().values()) {
+                if (e.getType().equals(type))
+                    r.add(e);
+            }
+        }
+        return r;
+    }
+}